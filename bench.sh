@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# 编译并运行 src/jmh/java 下的 JMH 基准测试。
+# JMH_CLASSPATH 需包含 jmh-core、jmh-generator-annprocess、jopt-simple 与 commons-math3 的 jar，例如：
+#   JMH_CLASSPATH="$(ls lib/jmh/*.jar | tr '\n' ':')" ./bench.sh CodecBenchmark
+# 其余参数原样传给 org.openjdk.jmh.Main。
+
+PROJECT_DIR=$(cd "$(dirname "$0")" && pwd)
+OUT_DIR="$PROJECT_DIR/target/jmh-classes"
+PROCESSOR_DIR="$PROJECT_DIR/target/processor-classes"
+
+if [ -z "${JMH_CLASSPATH:-}" ]; then
+  echo "JMH_CLASSPATH is not set" >&2
+  exit 1
+fi
+
+rm -rf "$OUT_DIR" "$PROCESSOR_DIR"
+mkdir -p "$OUT_DIR" "$PROCESSOR_DIR"
+
+ANNOTATION_DIR="$PROJECT_DIR/src/main/java/com/example/mcp/framework/annotation"
+javac -encoding UTF-8 -proc:none -d "$PROCESSOR_DIR" "$ANNOTATION_DIR"/*.java "$ANNOTATION_DIR"/processing/*.java
+
+SOURCE_FILES=$(find "$PROJECT_DIR/src/main/java" "$PROJECT_DIR/src/jmh/java" -name '*.java')
+# 指定 -processorpath 后 javac 不再从类路径发现处理器，JMH 的处理器须一并列出
+javac -encoding UTF-8 -cp "$JMH_CLASSPATH" -processorpath "$PROCESSOR_DIR:$JMH_CLASSPATH" -d "$OUT_DIR" $SOURCE_FILES
+cp -r "$PROJECT_DIR/schema" "$OUT_DIR/schema"
+
+java -cp "$OUT_DIR:$JMH_CLASSPATH" org.openjdk.jmh.Main "$@"
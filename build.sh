@@ -3,10 +3,11 @@ set -euo pipefail
 
 PROJECT_DIR=$(cd "$(dirname "$0")" && pwd)
 OUT_DIR="$PROJECT_DIR/target/classes"
+PROCESSOR_DIR="$PROJECT_DIR/target/processor-classes"
 JAR_FILE="$PROJECT_DIR/target/mcp-template.jar"
 
 rm -rf "$PROJECT_DIR/target"
-mkdir -p "$OUT_DIR"
+mkdir -p "$OUT_DIR" "$PROCESSOR_DIR"
 
 SOURCE_FILES=$(find "$PROJECT_DIR/src/main/java" -name '*.java')
 if [ -z "$SOURCE_FILES" ]; then
@@ -14,7 +15,15 @@ if [ -z "$SOURCE_FILES" ]; then
   exit 1
 fi
 
-javac -d "$OUT_DIR" $SOURCE_FILES
+# 先单独编译注解处理器，再用它处理 @McpTool 生成工具提供者与 META-INF/services 索引
+ANNOTATION_DIR="$PROJECT_DIR/src/main/java/com/example/mcp/framework/annotation"
+javac -encoding UTF-8 -proc:none -d "$PROCESSOR_DIR" "$ANNOTATION_DIR"/*.java "$ANNOTATION_DIR"/processing/*.java
+
+javac -encoding UTF-8 -processorpath "$PROCESSOR_DIR" \
+  -processor com.example.mcp.framework.annotation.processing.McpToolProcessor \
+  -d "$OUT_DIR" $SOURCE_FILES
+# 请求与响应的 JSON Schema 随类一起打包，供 SchemaValidator.fromResource 从类路径读取
+cp -r "$PROJECT_DIR/schema" "$OUT_DIR/schema"
 
 (cd "$OUT_DIR" && jar cf "$JAR_FILE" .)
 
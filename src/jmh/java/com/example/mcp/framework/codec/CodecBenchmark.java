@@ -0,0 +1,102 @@
+package com.example.mcp.framework.codec;
+
+import com.example.mcp.common.Context;
+import com.example.mcp.common.Envelopes;
+import com.example.mcp.common.StdResponse;
+import com.example.mcp.common.translation.TranslationRequest;
+import com.example.mcp.common.translation.TranslationResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比 JSON 与二进制编解码器在单个响应帧与 10 条批量请求帧上的编码、解码耗时；
+ * 帧体大小在 {@link #setup()} 中打印。运行方式见 {@code bench.sh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"json", "binary"})
+    public String codecName;
+
+    @Param({"response", "batch"})
+    public String frame;
+
+    private McpCodec codec;
+    private Map<String, Object> message;
+    private ByteBuffer encoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        codec = McpCodecs.forName(codecName).orElseThrow();
+        message = "batch".equals(frame) ? batchFrame(10) : responseFrame();
+        encoded = codec.encode(message, 0);
+        System.out.println(codecName + "/" + frame + " body bytes: " + encoded.remaining());
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        return codec.encode(message, 4);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return codec.decode(encoded);
+    }
+
+    static Map<String, Object> responseFrame() {
+        Envelopes.ResponseEnvelope<TranslationResponse> response = new Envelopes.ResponseEnvelope<>("translation",
+                context(), StdResponse.success("ok", "处理成功", new TranslationResponse("Hello, world", "zh-CN")),
+                null);
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("id", 1L);
+        message.put("result", JsonMapper.responseEnvelopeToTree(response));
+        return message;
+    }
+
+    static Map<String, Object> batchFrame(int size) {
+        List<Object> requests = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            requests.add(JsonMapper.requestToTree(new Envelopes.RequestEnvelope<>("translation", context(),
+                    new TranslationRequest("你好，世界 #" + i, "en-US"))));
+        }
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("id", 2L);
+        message.put("op", "call_batch");
+        message.put("requests", requests);
+        return message;
+    }
+
+    private static Context context() {
+        Context context = new Context();
+        context.setSessionId("5f0c3d4e-8a1b-4c2d-9e3f-0a1b2c3d4e5f");
+        context.setClientId("demo-client");
+        context.setRequestId(UUID.randomUUID().toString());
+        context.setLocale("zh-CN");
+        context.putMetadata("client-version", "1.0.0");
+        context.putMetadata("trace-id", UUID.randomUUID().toString());
+        return context;
+    }
+}
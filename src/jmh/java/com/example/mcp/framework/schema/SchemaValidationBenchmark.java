@@ -0,0 +1,118 @@
+package com.example.mcp.framework.schema;
+
+import com.example.mcp.common.translation.TranslationRequest;
+import com.example.mcp.framework.codec.Json;
+import com.example.mcp.framework.codec.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 预编译的 {@link SchemaValidator} 与逐次解释 Schema 的校验开销对比。
+ * 解释方式先把载荷转换为 JSON 树，再按关键字查找 Schema 逐项检查，是常见通用校验器的做法，
+ * 例如 {@code ./bench.sh SchemaValidationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemaValidationBenchmark {
+
+    private static final String SCHEMA = "{\"type\":\"object\",\"required\":[\"sourceText\",\"targetLocale\"],"
+            + "\"properties\":{\"sourceText\":{\"type\":\"string\",\"minLength\":1},"
+            + "\"targetLocale\":{\"type\":\"string\",\"pattern\":\"[a-z]{2}-[A-Z]{2}\"},"
+            + "\"promptTemplate\":{\"type\":\"string\"}}}";
+
+    private final TranslationRequest valid = new TranslationRequest("你好 世界", "en-US");
+    private final TranslationRequest invalid = new TranslationRequest("你好 世界", "english");
+    private SchemaValidator<TranslationRequest> compiled;
+    private Map<String, Object> schema;
+
+    @Setup
+    public void setup() {
+        compiled = SchemaValidator.compile(SCHEMA, TranslationRequest.class);
+        schema = JsonMapper.object(Json.parse(SCHEMA));
+    }
+
+    @Benchmark
+    public String compiledValid() {
+        return compiled.validate(valid);
+    }
+
+    @Benchmark
+    public String compiledInvalid() {
+        return compiled.validate(invalid);
+    }
+
+    @Benchmark
+    public String interpretedValid() {
+        return interpret(schema, JsonMapper.toTree(valid), "");
+    }
+
+    @Benchmark
+    public String interpretedInvalid() {
+        return interpret(schema, JsonMapper.toTree(invalid), "");
+    }
+
+    /**
+     * 只覆盖本基准用到的关键字，正则每次从 Schema 文本编译，与不缓存编译结果的解释器一致
+     */
+    private static String interpret(Map<String, Object> schema, Object value, String path) {
+        Object type = schema.get("type");
+        if ("object".equals(type)) {
+            if (!(value instanceof Map<?, ?> object)) {
+                return path + ": expected object";
+            }
+            Object required = schema.get("required");
+            if (required instanceof List<?> names) {
+                for (Object name : names) {
+                    if (object.get(name) == null) {
+                        return path + "." + name + ": is required";
+                    }
+                }
+            }
+            Object properties = schema.get("properties");
+            if (properties instanceof Map<?, ?> declared) {
+                for (Map.Entry<?, ?> entry : declared.entrySet()) {
+                    Object item = object.get(entry.getKey());
+                    if (item != null) {
+                        String violation = interpret(JsonMapper.object(entry.getValue()), item,
+                                path + "." + entry.getKey());
+                        if (violation != null) {
+                            return violation;
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+        if ("string".equals(type)) {
+            if (!(value instanceof String text)) {
+                return path + ": expected string";
+            }
+            Object minLength = schema.get("minLength");
+            if (minLength instanceof Number min && text.codePointCount(0, text.length()) < min.intValue()) {
+                return path + ": too short";
+            }
+            Object pattern = schema.get("pattern");
+            if (pattern instanceof String regex && !Pattern.compile(regex).matcher(text).find()) {
+                return path + ": does not match pattern " + regex;
+            }
+        }
+        return null;
+    }
+}
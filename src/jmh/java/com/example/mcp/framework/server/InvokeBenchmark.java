@@ -0,0 +1,174 @@
+package com.example.mcp.framework.server;
+
+import com.example.mcp.client.ClientApplication;
+import com.example.mcp.common.Context;
+import com.example.mcp.common.Envelopes;
+import com.example.mcp.common.audio.AudioTranscriptionRequest;
+import com.example.mcp.common.audio.AudioTranscriptionResponse;
+import com.example.mcp.common.protocol.SessionOpenRequest;
+import com.example.mcp.common.qa.QaRequest;
+import com.example.mcp.common.qa.QaResponse;
+import com.example.mcp.common.translation.TranslationRequest;
+import com.example.mcp.common.translation.TranslationResponse;
+import com.example.mcp.common.vehicle.VehicleStateRequest;
+import com.example.mcp.common.vehicle.VehicleStateResponse;
+import com.example.mcp.framework.client.EnhancedMcpClient;
+import com.example.mcp.framework.client.McpClientConfig;
+import com.example.mcp.framework.client.McpClientInterceptor;
+import com.example.mcp.framework.springai.SimpleSpringAiService;
+import com.example.mcp.framework.springai.SpringAiMcpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同步调用热路径的端到端基准：{@link AbstractMcpServer#invoke} 与 {@link EnhancedMcpClient#invoke}，
+ * 覆盖 0/2/5 个拦截器（服务端与客户端各挂载同样数量的直通拦截器）、审计开关与四个示例工具。
+ * 拦截器作用范围为 {@code other} 时只绑定到另一个工具，被测工具的拦截器链中不包含它们。
+ * 结果缓存与请求合并均关闭，每次调用都执行处理器。
+ * <p>
+ * 同时报告吞吐量与延迟分布（SampleTime 模式给出 p99），每个场景分别以单线程与全部可用核运行；
+ * 其他线程数用 {@code -t} 覆盖，分配速率用 {@code -prof gc} 获取，例如
+ * {@code ./bench.sh InvokeBenchmark -prof gc -t 4}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvokeBenchmark {
+
+    @Param({"0", "2", "5"})
+    public int interceptors;
+
+    @Param({"all", "other"})
+    public String scope;
+
+    @Param({"true", "false"})
+    public boolean audit;
+
+    @Param({"translation", "qa", "vehicle_state", "audio_transcription"})
+    public String tool;
+
+    private AbstractMcpServer server;
+    private EnhancedMcpClient client;
+    private Envelopes.RequestEnvelope<Object> request;
+    private Object payload;
+    private Class<Object> responseType;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        McpServerConfig serverConfig = new McpServerConfig();
+        serverConfig.setEnableAudit(audit);
+        // 每次调用的载荷相同，开启结果缓存与请求合并时测到的只是缓存命中，基准需要走完整的处理路径
+        serverConfig.setResponseCacheSize(0);
+        serverConfig.setRequestCoalescing(false);
+        SpringAiMcpServer springAiServer = new SpringAiMcpServer("bench-model", serverConfig);
+        ClientApplication.registerTools(springAiServer, new SimpleSpringAiService());
+        server = springAiServer;
+
+        McpClientConfig clientConfig = new McpClientConfig("bench-client", "zh-CN");
+        clientConfig.setMaxRetries(0);
+        // 默认的日志与指标拦截器不计入拦截器数量，日志输出也会淹没被测路径
+        clientConfig.setEnableLogging(false);
+        clientConfig.setEnableMetrics(false);
+        client = new EnhancedMcpClient(server, clientConfig);
+        List<String> otherTool = List.of("qa".equals(tool) ? "translation" : "qa");
+        for (int i = 0; i < interceptors; i++) {
+            if ("all".equals(scope)) {
+                server.addInterceptor(new PassThroughServerInterceptor());
+                client.addInterceptor(new PassThroughClientInterceptor());
+            } else {
+                server.addInterceptor(new PassThroughServerInterceptor(), otherTool);
+                client.addInterceptor(new PassThroughClientInterceptor(), otherTool);
+            }
+        }
+        client.openSession("zh-CN");
+
+        SessionOpenRequest sessionRequest = new SessionOpenRequest();
+        sessionRequest.setClientId("bench-server");
+        sessionRequest.setLocale("zh-CN");
+        Context session = server.openSession(sessionRequest).getContext();
+        payload = payloadFor(tool);
+        responseType = responseTypeFor(tool);
+        request = new Envelopes.RequestEnvelope<>(tool, session, payload);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Envelopes.ResponseEnvelope<Object> serverInvoke() {
+        return server.invoke(request, responseType);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Envelopes.ResponseEnvelope<Object> serverInvokeContended() {
+        return server.invoke(request, responseType);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Envelopes.ResponseEnvelope<Object> clientInvoke() {
+        return client.invoke(tool, payload, responseType);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Envelopes.ResponseEnvelope<Object> clientInvokeContended() {
+        return client.invoke(tool, payload, responseType);
+    }
+
+    private static Object payloadFor(String tool) {
+        return switch (tool) {
+            case "translation" -> new TranslationRequest("你好 世界", "en-US");
+            case "qa" -> new QaRequest("what is mcp");
+            case "vehicle_state" -> new VehicleStateRequest("vehicle-001", 20, true);
+            case "audio_transcription" -> new AudioTranscriptionRequest("ni-hao-shi-jie", "zh-CN");
+            default -> throw new IllegalArgumentException("Unknown tool: " + tool);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<Object> responseTypeFor(String tool) {
+        Class<?> type = switch (tool) {
+            case "translation" -> TranslationResponse.class;
+            case "qa" -> QaResponse.class;
+            case "vehicle_state" -> VehicleStateResponse.class;
+            case "audio_transcription" -> AudioTranscriptionResponse.class;
+            default -> throw new IllegalArgumentException("Unknown tool: " + tool);
+        };
+        return (Class<Object>) type;
+    }
+
+    /**
+     * 只读取上下文字段的服务端拦截器，用于度量拦截器链本身的开销；其余阶段沿用默认实现，不会被调用
+     */
+    private static final class PassThroughServerInterceptor implements McpServerInterceptor {
+
+        @Override
+        public <I> boolean beforeHandle(String toolName, Context context, I payload) {
+            return context.getClientId() != null;
+        }
+    }
+
+    private static final class PassThroughClientInterceptor implements McpClientInterceptor {
+
+        @Override
+        public <I> void beforeInvoke(String toolName, Envelopes.RequestEnvelope<I> request) {
+        }
+    }
+}
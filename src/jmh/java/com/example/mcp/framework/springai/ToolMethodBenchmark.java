@@ -0,0 +1,70 @@
+package com.example.mcp.framework.springai;
+
+import com.example.mcp.common.Context;
+import com.example.mcp.common.StdResponse;
+import com.example.mcp.framework.api.ToolHandler;
+import com.example.mcp.framework.api.ToolRegistration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.tool.annotation.Tool;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ToolMethodBinder} 绑定的 {@code @Tool} 方法与直接调用、逐次反射调用的开销对比。
+ * 工具方法只做一次字符串拼接，差异即为调用方式本身的开销，例如 {@code ./bench.sh ToolMethodBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToolMethodBenchmark {
+
+    private final Context context = new Context();
+    private final GreetingTools tools = new GreetingTools();
+    private final String input = "mcp";
+    private ToolHandler<String, String> bound;
+    private Method method;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws NoSuchMethodException {
+        ToolRegistration<?, ?> registration = ToolMethodBinder.registrations(tools).get(0);
+        bound = (ToolHandler<String, String>) registration.handler();
+        method = GreetingTools.class.getMethod("greet", Context.class, String.class);
+    }
+
+    @Benchmark
+    public StdResponse<String> direct() {
+        return tools.greet(context, input);
+    }
+
+    @Benchmark
+    public StdResponse<String> bound() {
+        return bound.handle(context, input);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public StdResponse<String> reflective() throws ReflectiveOperationException {
+        return (StdResponse<String>) method.invoke(tools, context, input);
+    }
+
+    public static class GreetingTools {
+        @Tool(name = "greet", description = "返回问候语")
+        public StdResponse<String> greet(Context context, String name) {
+            return StdResponse.success("success", "处理成功", "hello " + name);
+        }
+    }
+}
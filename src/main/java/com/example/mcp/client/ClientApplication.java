@@ -1,22 +1,19 @@
 package com.example.mcp.client;
 
 import com.example.mcp.common.Envelopes;
-import com.example.mcp.common.audio.AudioTranscriptionResponse;
 import com.example.mcp.common.protocol.ToolDescriptor;
-import com.example.mcp.common.qa.QaResponse;
-import com.example.mcp.common.translation.TranslationResponse;
-import com.example.mcp.common.vehicle.VehicleStateResponse;
+import com.example.mcp.common.qa.QaRequest;
+import com.example.mcp.common.translation.TranslationRequest;
+import com.example.mcp.common.vehicle.VehicleStateRequest;
+import com.example.mcp.framework.api.ToolDependencies;
+import com.example.mcp.framework.security.AccessPolicy;
+import com.example.mcp.framework.server.SchemaValidationInterceptor;
+import com.example.mcp.framework.server.SecurityInterceptor;
 import com.example.mcp.framework.springai.SimpleSpringAiService;
 import com.example.mcp.framework.springai.SpringAiMcpServer;
 import com.example.mcp.framework.springai.SpringAiService;
 import com.example.mcp.server.ServerStatusPrinter;
 import com.example.mcp.server.ServerStatusService;
-import com.example.mcp.server.tool.AudioTranscriptionTool;
-import com.example.mcp.server.tool.QaTool;
-import com.example.mcp.server.tool.TranslationTool;
-import com.example.mcp.server.tool.VehicleStateTool;
-import java.util.LinkedHashMap;
-import java.util.Map;
 
 public final class ClientApplication {
 
@@ -26,6 +23,7 @@ public final class ClientApplication {
     public static void main(String[] args) {
         SpringAiService springAiService = new SimpleSpringAiService();
         SpringAiMcpServer server = new SpringAiMcpServer("spring-ai-mock");
+        server.addInterceptor(new SecurityInterceptor(accessPolicy()));
         registerTools(server, springAiService);
 
         SpringAiMcpClient client = new SpringAiMcpClient(server, "demo-client");
@@ -47,37 +45,34 @@ public final class ClientApplication {
         System.out.println("\n" + printer.asText());
     }
 
-    private static void registerTools(SpringAiMcpServer server, SpringAiService springAiService) {
-        Map<String, String> translationInput = new LinkedHashMap<>();
-        translationInput.put("sourceText", "待翻译文本");
-        translationInput.put("targetLocale", "目标语言，例如 en-US");
-        Map<String, String> translationOutput = new LinkedHashMap<>();
-        translationOutput.put("translatedText", "翻译结果");
-        translationOutput.put("detectedSourceLocale", "检测到的源语言");
-        server.registerTool(new com.example.mcp.common.protocol.ToolDescriptor("translation", "文本翻译", "将文本在中英文之间互译", translationInput, translationOutput),
-                com.example.mcp.common.translation.TranslationRequest.class, new TranslationTool(springAiService), TranslationResponse.class);
-
-        Map<String, String> qaInput = Map.of("question", "要查询的问题");
-        Map<String, String> qaOutput = new LinkedHashMap<>();
-        qaOutput.put("answer", "知识库答案");
-        qaOutput.put("confidence", "命中置信度 (0-1)");
-        server.registerTool(new com.example.mcp.common.protocol.ToolDescriptor("qa", "知识问答", "基于内置知识库返回标准答案", qaInput, qaOutput),
-                com.example.mcp.common.qa.QaRequest.class, new QaTool(), QaResponse.class);
-
-        Map<String, String> vehicleInput = new LinkedHashMap<>();
-        vehicleInput.put("vehicleId", "车辆标识");
-        vehicleInput.put("targetTemperature", "目标空调温度");
-        vehicleInput.put("startEngine", "是否启动发动机");
-        Map<String, String> vehicleOutput = new LinkedHashMap<>();
-        vehicleOutput.put("cabinTemperature", "当前车内温度");
-        vehicleOutput.put("engineRunning", "发动机状态");
-        server.registerTool(new com.example.mcp.common.protocol.ToolDescriptor("vehicle_state", "车控编排", "调整车内温度并启动发动机", vehicleInput, vehicleOutput),
-                com.example.mcp.common.vehicle.VehicleStateRequest.class, new VehicleStateTool(), VehicleStateResponse.class);
+    /**
+     * 注册编译期生成的工具索引中的全部工具，工具在首次调用时才实例化；
+     * 字段与 schema/ 下的 Schema 一致的工具在处理前校验请求载荷
+     */
+    public static void registerTools(SpringAiMcpServer server, SpringAiService springAiService) {
+        SchemaValidationInterceptor schemaValidation = new SchemaValidationInterceptor();
+        schemaValidation.register("translation", "schema/translation-request.json", TranslationRequest.class);
+        schemaValidation.register("qa", "schema/qa-answer-request.json", QaRequest.class);
+        server.addInterceptor(schemaValidation, schemaValidation.getTools());
+        server.registerIndexedTools(ToolDependencies.of(springAiService));
+    }
 
-        Map<String, String> audioInput = Map.of("audioSample", "模拟的音频样本", "locale", "音频语言");
-        Map<String, String> audioOutput = Map.of("transcript", "识别文本", "confidence", "置信度 (0-1)");
-        server.registerTool(new com.example.mcp.common.protocol.ToolDescriptor("audio_transcription", "语音转写", "将离线音频样本转写为文本", audioInput, audioOutput),
-                com.example.mcp.common.audio.AudioTranscriptionRequest.class, new AudioTranscriptionTool(), AudioTranscriptionResponse.class);
+    /**
+     * 车控权限：所有客户端都可以调用各工具，启动发动机需要司机角色，
+     * 上下文元数据 {@code geofence=outside}（车辆在地理围栏外）时的车控只允许车队管理员
+     */
+    public static AccessPolicy accessPolicy() {
+        return AccessPolicy.builder()
+                .action("vehicle_state", "engine_start", VehicleStateRequest.class,
+                        (context, request) -> request.shouldStartEngine())
+                .action("vehicle_state", "outside_geofence", VehicleStateRequest.class,
+                        (context, request) -> "outside".equals(context.getMetadata().get("geofence")))
+                .role("driver", "demo-client")
+                .role("fleet-admin", "fleet-console")
+                .allow(AccessPolicy.ANY, AccessPolicy.ANY, AccessPolicy.CALL)
+                .allow("driver", "vehicle_state", "engine_start")
+                .allow("fleet-admin", "vehicle_state")
+                .build();
     }
 
     private static <T> void printResponse(String title, Envelopes.ResponseEnvelope<T> envelope) {
@@ -19,12 +19,13 @@ import com.example.mcp.framework.api.McpServer;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public final class SpringAiMcpClient implements McpClient {
 
     private final McpServer server;
     private final String clientId;
-    private Context sessionContext;
+    private volatile Context sessionContext;
 
     public SpringAiMcpClient(McpServer server, String clientId) {
         this.server = Objects.requireNonNull(server, "server must not be null");
@@ -92,4 +93,32 @@ public final class SpringAiMcpClient implements McpClient {
         this.sessionContext = response.getContext().copy();
         return response;
     }
+
+    @Override
+    public List<Envelopes.ResponseEnvelope<?>> invokeBatch(List<? extends Envelopes.RequestEnvelope<?>> requests) {
+        if (sessionContext == null) {
+            throw new IllegalStateException("Session has not been opened");
+        }
+        List<Envelopes.ResponseEnvelope<?>> responses = server.invokeBatch(requests);
+        if (!responses.isEmpty()) {
+            Context next = responses.get(responses.size() - 1).getContext().copy();
+            next.getMetadata().remove("batch-id");
+            this.sessionContext = next;
+        }
+        return responses;
+    }
+
+    @Override
+    public <I, O> CompletableFuture<Envelopes.ResponseEnvelope<O>> invokeAsync(String toolName, I payload,
+                                                                               Class<O> responseType) {
+        if (sessionContext == null) {
+            throw new IllegalStateException("Session has not been opened");
+        }
+        Context context = sessionContext.copy();
+        Envelopes.RequestEnvelope<I> request = new Envelopes.RequestEnvelope<>(toolName, context, payload);
+        return server.invokeAsync(request, responseType).thenApply(response -> {
+            this.sessionContext = response.getContext().copy();
+            return response;
+        });
+    }
 }
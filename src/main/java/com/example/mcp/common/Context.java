@@ -1,15 +1,27 @@
 package com.example.mcp.common;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 /**
  * Captures the shared execution metadata exchanged between the client and server.
  * The object intentionally keeps a mutable shape so the demo client can reuse the
  * same context instance across multiple tool invocations.
+ * <p>
+ * {@link #copy()} is on the invoke path of both client and server, so it is kept cheap: the
+ * metadata map is shared copy-on-write between a context and its copies and only cloned by
+ * whichever side mutates it first, and immutable fields are carried over without re-reading
+ * the clock.
  */
 public final class Context {
 
@@ -17,9 +29,27 @@ public final class Context {
     private String clientId;
     private String requestId;
     private String locale;
-    private Instant createdAt = Instant.now();
-    private final Map<String, String> metadata = new HashMap<>();
-    private Usage usage = new Usage();
+    private Instant createdAt;
+    private Instant deadline;
+    private Metadata metadata;
+    private Usage usage;
+
+    public Context() {
+        this.createdAt = Instant.now();
+        this.metadata = new Metadata(Metadata.NONE);
+        this.usage = new Usage();
+    }
+
+    private Context(Context source) {
+        this.sessionId = source.sessionId;
+        this.clientId = source.clientId;
+        this.requestId = source.requestId;
+        this.locale = source.locale;
+        this.createdAt = source.createdAt;
+        this.deadline = source.deadline;
+        this.metadata = source.metadata.share();
+        this.usage = source.usage.copy();
+    }
 
     public String getSessionId() {
         return sessionId;
@@ -61,6 +91,34 @@ public final class Context {
         this.createdAt = Objects.requireNonNull(createdAt, "createdAt must not be null");
     }
 
+    /**
+     * Absolute point in time after which the caller no longer needs the result, or
+     * {@code null} when the call is unbounded.
+     */
+    public Instant getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(Instant deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Remaining time budget before the deadline; {@link Duration#ZERO} once it has passed and
+     * {@code null} when no deadline is set.
+     */
+    public Duration remainingBudget() {
+        if (deadline == null) {
+            return null;
+        }
+        Duration remaining = Duration.between(Instant.now(), deadline);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    public boolean isDeadlineExceeded() {
+        return deadline != null && !Instant.now().isBefore(deadline);
+    }
+
     public Map<String, String> getMetadata() {
         return metadata;
     }
@@ -77,22 +135,18 @@ public final class Context {
         this.usage = Objects.requireNonNull(usage, "usage must not be null");
     }
 
+    /**
+     * Returns an independent copy. Metadata is shared until either context modifies it, so
+     * copying does not allocate per entry.
+     */
     public Context copy() {
-        Context context = new Context();
-        context.sessionId = this.sessionId;
-        context.clientId = this.clientId;
-        context.requestId = this.requestId;
-        context.locale = this.locale;
-        context.createdAt = this.createdAt;
-        context.metadata.putAll(this.metadata);
-        context.usage = this.usage.copy();
-        return context;
+        return new Context(this);
     }
 
     public static final class Usage {
         private int inputTokens;
         private int outputTokens;
-        private long latencyMs;
+        private long latencyNanos;
 
         public int getInputTokens() {
             return inputTokens;
@@ -111,18 +165,30 @@ public final class Context {
         }
 
         public long getLatencyMs() {
-            return latencyMs;
+            return TimeUnit.NANOSECONDS.toMillis(latencyNanos);
         }
 
         public void setLatencyMs(long latencyMs) {
-            this.latencyMs = latencyMs;
+            this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMs);
+        }
+
+        /**
+         * Server-side latency at nanosecond resolution; {@link #getLatencyMs()} is derived from it
+         * and is what travels on the wire.
+         */
+        public long getLatencyNanos() {
+            return latencyNanos;
+        }
+
+        public void setLatencyNanos(long latencyNanos) {
+            this.latencyNanos = latencyNanos;
         }
 
         public Usage copy() {
             Usage usage = new Usage();
             usage.inputTokens = this.inputTokens;
             usage.outputTokens = this.outputTokens;
-            usage.latencyMs = this.latencyMs;
+            usage.latencyNanos = this.latencyNanos;
             return usage;
         }
 
@@ -131,11 +197,154 @@ public final class Context {
             return "Usage{" +
                     "inputTokens=" + inputTokens +
                     ", outputTokens=" + outputTokens +
-                    ", latencyMs=" + latencyMs +
+                    ", latencyMs=" + getLatencyMs() +
                     '}';
         }
     }
 
+    /**
+     * Copy-on-write metadata map. Contexts created by {@link #copy()} share the same backing
+     * map with the original; both sides are marked shared and the first write on either side
+     * clones the entries into a private {@link HashMap}. Entries handed out by
+     * {@link #entrySet()} write through on {@code setValue} with the same copy-on-write rule.
+     */
+    private static final class Metadata extends AbstractMap<String, String> {
+        /**
+         * Shared empty backing map; never written to because it is always marked shared
+         */
+        private static final Map<String, String> NONE = new HashMap<>(0);
+
+        private Map<String, String> entries;
+        private boolean shared;
+
+        private Metadata(Map<String, String> entries) {
+            this.entries = entries;
+            this.shared = true;
+        }
+
+        private Metadata share() {
+            shared = true;
+            return new Metadata(entries);
+        }
+
+        private Map<String, String> writable() {
+            if (shared) {
+                entries = new HashMap<>(entries);
+                shared = false;
+            }
+            return entries;
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return entries.isEmpty();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return entries.containsKey(key);
+        }
+
+        @Override
+        public String get(Object key) {
+            return entries.get(key);
+        }
+
+        @Override
+        public String getOrDefault(Object key, String defaultValue) {
+            return entries.getOrDefault(key, defaultValue);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super String, ? super String> action) {
+            entries.forEach(action);
+        }
+
+        @Override
+        public String put(String key, String value) {
+            return writable().put(key, value);
+        }
+
+        @Override
+        public String remove(Object key) {
+            return containsKey(key) ? writable().remove(key) : null;
+        }
+
+        @Override
+        public void putAll(Map<? extends String, ? extends String> values) {
+            if (!values.isEmpty()) {
+                writable().putAll(values);
+            }
+        }
+
+        @Override
+        public void clear() {
+            if (!entries.isEmpty()) {
+                entries = NONE;
+                shared = true;
+            }
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return entries.size();
+                }
+
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    Map<String, String> source = entries;
+                    Iterator<Entry<String, String>> snapshot = source.entrySet().iterator();
+                    return new Iterator<>() {
+                        private boolean removable;
+                        private String last;
+
+                        @Override
+                        public boolean hasNext() {
+                            return snapshot.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            Entry<String, String> entry = snapshot.next();
+                            last = entry.getKey();
+                            removable = true;
+                            return new SimpleEntry<>(entry) {
+                                @Override
+                                public String setValue(String value) {
+                                    // write through; replacing an existing key never resizes the map, so the iteration stays valid
+                                    Metadata.this.put(getKey(), value);
+                                    return super.setValue(value);
+                                }
+                            };
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (!removable) {
+                                throw new IllegalStateException();
+                            }
+                            removable = false;
+                            if (source == entries && !shared) {
+                                snapshot.remove();
+                            } else {
+                                // iterating a shared snapshot: remove from the private copy, the snapshot stays intact
+                                Metadata.this.remove(last);
+                            }
+                        }
+                    };
+                }
+            };
+        }
+    }
+
     @Override
     public String toString() {
         return "Context{" +
@@ -144,6 +353,7 @@ public final class Context {
                 ", requestId='" + requestId + '\'' +
                 ", locale='" + locale + '\'' +
                 ", createdAt=" + createdAt +
+                ", deadline=" + deadline +
                 ", metadata=" + Collections.unmodifiableMap(metadata) +
                 ", usage=" + usage +
                 '}';
@@ -18,6 +18,7 @@ public final class Envelopes {
         private final String tool;
         private final Context context;
         private final T payload;
+        private final long createdNanos = System.nanoTime();
 
         public RequestEnvelope(String tool, Context context, T payload) {
             this.tool = Objects.requireNonNull(tool, "tool must not be null");
@@ -37,6 +38,14 @@ public final class Envelopes {
             return payload;
         }
 
+        /**
+         * {@link System#nanoTime()} at construction, used to measure caller-observed latency. It is
+         * local to this process and never serialised.
+         */
+        public long getCreatedNanos() {
+            return createdNanos;
+        }
+
         @Override
         public String toString() {
             return "RequestEnvelope{" +
@@ -0,0 +1,29 @@
+package com.example.mcp.common;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates request identifiers for the invoke path. Identifiers keep the UUID text form used on
+ * the wire, but only the process prefix is random: it is drawn once from {@link SecureRandom} and
+ * combined with a monotonic sequence, so generating an id costs one atomic increment instead of a
+ * {@link UUID#randomUUID()} call that contends on the shared secure random source.
+ * <p>
+ * Ids are unique per process and ordered by creation; they are not meant to be unguessable, use
+ * {@link UUID#randomUUID()} for tokens such as session ids.
+ */
+public final class RequestIds {
+
+    private static final long PREFIX = (new SecureRandom().nextLong() & ~0xF000L) | 0x4000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long SEQUENCE_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private RequestIds() {
+    }
+
+    public static String next() {
+        return new UUID(PREFIX, VARIANT | (SEQUENCE.incrementAndGet() & SEQUENCE_MASK)).toString();
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.mcp.common.audio;
 
+import com.example.mcp.framework.annotation.InputField;
+
 import java.util.Objects;
 
 public final class AudioTranscriptionRequest {
+    @InputField("模拟的音频样本")
     private final String audioSample;
+    @InputField("音频语言")
     private final String locale;
 
     public AudioTranscriptionRequest(String audioSample, String locale) {
@@ -1,9 +1,13 @@
 package com.example.mcp.common.audio;
 
+import com.example.mcp.framework.annotation.OutputField;
+
 import java.util.Objects;
 
 public final class AudioTranscriptionResponse {
+    @OutputField("识别文本")
     private final String transcript;
+    @OutputField("置信度 (0-1)")
     private final double confidence;
 
     public AudioTranscriptionResponse(String transcript, double confidence) {
@@ -0,0 +1,62 @@
+package com.example.mcp.common.protocol;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Summarises one batch invocation; the individual calls are still audited as
+ * {@link InvocationAuditRecord}s carrying the batch id in their context metadata.
+ */
+public final class BatchAuditSummary {
+    private final String batchId;
+    private final int size;
+    private final int succeeded;
+    private final int failed;
+    private final long latencyMs;
+    private final Instant timestamp;
+
+    public BatchAuditSummary(String batchId, int size, int succeeded, int failed, long latencyMs, Instant timestamp) {
+        this.batchId = Objects.requireNonNull(batchId, "batchId must not be null");
+        this.size = size;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.latencyMs = latencyMs;
+        this.timestamp = Objects.requireNonNull(timestamp, "timestamp must not be null");
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchAuditSummary{" +
+                "batchId='" + batchId + '\'' +
+                ", size=" + size +
+                ", succeeded=" + succeeded +
+                ", failed=" + failed +
+                ", latencyMs=" + latencyMs +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -2,26 +2,200 @@ package com.example.mcp.common.protocol;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 
 /**
  * Aggregated view of recent invocations used to verify the demo's governance layer.
+ * <p>
+ * Records are kept in fixed-size ring buffers sharded by the appending thread, so memory
+ * stays bounded no matter how long auditing runs and appends never take a lock. Every shard
+ * can hold the full capacity, so a single busy thread still retains the configured number of
+ * records; a shard's ring is allocated on its first append. Once a shard is full its oldest
+ * record is overwritten. Reads merge a point-in-time snapshot of all shards and keep the
+ * newest {@link #capacity()} records.
  */
 public final class GovernanceReport {
-    private final List<InvocationAuditRecord> records = new ArrayList<>();
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final Shard<InvocationAuditRecord>[] shards;
+    private final Shard<BatchAuditSummary> batches;
+    private final int shardMask;
+    private final int capacity;
+
+    public GovernanceReport() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public GovernanceReport(int capacity) {
+        this(capacity, Runtime.getRuntime().availableProcessors());
+    }
+
+    public GovernanceReport(int capacity, int shardCount) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive");
+        }
+        int shardTotal = Math.min(ceilPowerOfTwo(shardCount), ceilPowerOfTwo(capacity));
+        int shardCapacity = ceilPowerOfTwo(capacity);
+        this.shards = newShards(shardTotal);
+        for (int i = 0; i < shardTotal; i++) {
+            shards[i] = new Shard<>(shardCapacity);
+        }
+        this.batches = new Shard<>(shardCapacity);
+        this.shardMask = shardTotal - 1;
+        this.capacity = capacity;
+    }
 
     public void addRecord(InvocationAuditRecord record) {
-        records.add(record);
+        if (record == null) {
+            throw new NullPointerException("record must not be null");
+        }
+        shards[(int) mix(Thread.currentThread().getId()) & shardMask].append(record);
     }
 
+    /**
+     * Returns a snapshot of the newest retained records ordered by timestamp.
+     */
     public List<InvocationAuditRecord> getRecords() {
-        return Collections.unmodifiableList(records);
+        List<InvocationAuditRecord> snapshot = new ArrayList<>();
+        for (Shard<InvocationAuditRecord> shard : shards) {
+            shard.collect(snapshot);
+        }
+        snapshot.sort(Comparator.comparing(InvocationAuditRecord::getTimestamp));
+        return newest(snapshot);
+    }
+
+    /**
+     * Records the outcome of a batch invocation. Batch summaries are far less frequent than
+     * individual calls, so they share a single ring of one shard's capacity.
+     */
+    public void addBatchSummary(BatchAuditSummary summary) {
+        if (summary == null) {
+            throw new NullPointerException("summary must not be null");
+        }
+        batches.append(summary);
+    }
+
+    /**
+     * Returns a snapshot of the retained batch summaries ordered by timestamp.
+     */
+    public List<BatchAuditSummary> getBatchSummaries() {
+        List<BatchAuditSummary> snapshot = new ArrayList<>();
+        batches.collect(snapshot);
+        snapshot.sort(Comparator.comparing(BatchAuditSummary::getTimestamp));
+        return newest(snapshot);
+    }
+
+    public void forEach(Consumer<? super InvocationAuditRecord> action) {
+        getRecords().forEach(action);
+    }
+
+    /**
+     * Number of records currently retained.
+     */
+    public int size() {
+        long size = 0;
+        for (Shard<InvocationAuditRecord> shard : shards) {
+            size += Math.min(shard.cursor.get(), shard.capacity);
+        }
+        return (int) Math.min(size, capacity);
+    }
+
+    /**
+     * Maximum number of records retained, as configured.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Number of records appended since creation, including overwritten ones.
+     */
+    public long totalRecorded() {
+        long total = 0;
+        for (Shard<InvocationAuditRecord> shard : shards) {
+            total += shard.cursor.get();
+        }
+        return total;
+    }
+
+    private <T> List<T> newest(List<T> sorted) {
+        int from = Math.max(0, sorted.size() - capacity);
+        return Collections.unmodifiableList(from == 0 ? sorted : sorted.subList(from, sorted.size()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Shard<InvocationAuditRecord>[] newShards(int count) {
+        return (Shard<InvocationAuditRecord>[]) new Shard<?>[count];
+    }
+
+    private static int ceilPowerOfTwo(int value) {
+        int highest = Integer.highestOneBit(Math.max(1, value));
+        return highest == value ? value : Math.min(highest << 1, 1 << 30);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static final class Shard<T> {
+        private volatile AtomicReferenceArray<T> slots;
+        private final AtomicLong cursor = new AtomicLong();
+        private final int capacity;
+        private final int mask;
+
+        private Shard(int capacity) {
+            this.capacity = capacity;
+            this.mask = capacity - 1;
+        }
+
+        private void append(T record) {
+            AtomicReferenceArray<T> ring = slots;
+            if (ring == null) {
+                ring = allocate();
+            }
+            ring.lazySet((int) (cursor.getAndIncrement() & mask), record);
+        }
+
+        /**
+         * Runs at most once per shard; later appends never reach the lock.
+         */
+        private synchronized AtomicReferenceArray<T> allocate() {
+            if (slots == null) {
+                slots = new AtomicReferenceArray<>(capacity);
+            }
+            return slots;
+        }
+
+        private void collect(List<T> target) {
+            AtomicReferenceArray<T> slots = this.slots;
+            if (slots == null) {
+                return;
+            }
+            for (int i = 0; i < slots.length(); i++) {
+                T record = slots.get(i);
+                if (record != null) {
+                    target.add(record);
+                }
+            }
+        }
     }
 
     @Override
     public String toString() {
         return "GovernanceReport{" +
-                "records=" + records +
+                "records=" + getRecords() +
+                ", batches=" + getBatchSummaries() +
                 '}';
     }
 }
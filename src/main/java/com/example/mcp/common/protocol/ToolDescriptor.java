@@ -1,5 +1,6 @@
 package com.example.mcp.common.protocol;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -14,14 +15,33 @@ public final class ToolDescriptor {
     private final String description;
     private final Map<String, String> inputSchema;
     private final Map<String, String> outputSchema;
+    private final boolean idempotent;
+    private final Duration cacheTtl;
 
     public ToolDescriptor(String name, String title, String description,
                           Map<String, String> inputSchema, Map<String, String> outputSchema) {
+        this(name, title, description, inputSchema, outputSchema, false, null);
+    }
+
+    /**
+     * @param idempotent whether the same payload and locale always produce the same result, which allows
+     *                   the server to answer repeated calls from its response cache
+     * @param cacheTtl   how long a cached result stays valid, or {@code null} for the server default;
+     *                   ignored unless the tool is idempotent
+     */
+    public ToolDescriptor(String name, String title, String description,
+                          Map<String, String> inputSchema, Map<String, String> outputSchema,
+                          boolean idempotent, Duration cacheTtl) {
         this.name = Objects.requireNonNull(name, "name must not be null");
         this.title = Objects.requireNonNull(title, "title must not be null");
         this.description = Objects.requireNonNull(description, "description must not be null");
         this.inputSchema = Collections.unmodifiableMap(new LinkedHashMap<>(inputSchema));
         this.outputSchema = Collections.unmodifiableMap(new LinkedHashMap<>(outputSchema));
+        if (cacheTtl != null && cacheTtl.isNegative()) {
+            throw new IllegalArgumentException("cacheTtl must not be negative");
+        }
+        this.idempotent = idempotent;
+        this.cacheTtl = cacheTtl;
     }
 
     public String getName() {
@@ -44,6 +64,17 @@ public final class ToolDescriptor {
         return outputSchema;
     }
 
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+
+    /**
+     * The cache lifetime declared by the tool, or {@code null} when the server default applies.
+     */
+    public Duration getCacheTtl() {
+        return cacheTtl;
+    }
+
     @Override
     public String toString() {
         return "ToolDescriptor{" +
@@ -52,6 +83,8 @@ public final class ToolDescriptor {
                 ", description='" + description + '\'' +
                 ", inputSchema=" + inputSchema +
                 ", outputSchema=" + outputSchema +
+                ", idempotent=" + idempotent +
+                ", cacheTtl=" + cacheTtl +
                 '}';
     }
 }
@@ -1,8 +1,11 @@
 package com.example.mcp.common.qa;
 
+import com.example.mcp.framework.annotation.InputField;
+
 import java.util.Objects;
 
 public final class QaRequest {
+    @InputField("要查询的问题")
     private final String question;
 
     public QaRequest(String question) {
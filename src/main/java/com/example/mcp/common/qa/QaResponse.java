@@ -1,9 +1,13 @@
 package com.example.mcp.common.qa;
 
+import com.example.mcp.framework.annotation.OutputField;
+
 import java.util.Objects;
 
 public final class QaResponse {
+    @OutputField("知识库答案")
     private final String answer;
+    @OutputField("命中置信度 (0-1)")
     private final double confidence;
 
     public QaResponse(String answer, double confidence) {
@@ -1,9 +1,13 @@
 package com.example.mcp.common.translation;
 
+import com.example.mcp.framework.annotation.InputField;
+
 import java.util.Objects;
 
 public final class TranslationRequest {
+    @InputField("待翻译文本")
     private final String sourceText;
+    @InputField("目标语言，例如 en-US")
     private final String targetLocale;
 
     public TranslationRequest(String sourceText, String targetLocale) {
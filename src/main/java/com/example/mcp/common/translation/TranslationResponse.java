@@ -1,9 +1,13 @@
 package com.example.mcp.common.translation;
 
+import com.example.mcp.framework.annotation.OutputField;
+
 import java.util.Objects;
 
 public final class TranslationResponse {
+    @OutputField("翻译结果")
     private final String translatedText;
+    @OutputField("检测到的源语言")
     private final String detectedSourceLocale;
 
     public TranslationResponse(String translatedText, String detectedSourceLocale) {
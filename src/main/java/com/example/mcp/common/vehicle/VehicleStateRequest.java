@@ -1,10 +1,15 @@
 package com.example.mcp.common.vehicle;
 
+import com.example.mcp.framework.annotation.InputField;
+
 import java.util.Objects;
 
 public final class VehicleStateRequest {
+    @InputField("车辆标识")
     private final String vehicleId;
+    @InputField("目标空调温度")
     private final int targetTemperature;
+    @InputField("是否启动发动机")
     private final boolean startEngine;
 
     public VehicleStateRequest(String vehicleId, int targetTemperature, boolean startEngine) {
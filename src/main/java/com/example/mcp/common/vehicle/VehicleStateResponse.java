@@ -1,10 +1,14 @@
 package com.example.mcp.common.vehicle;
 
+import com.example.mcp.framework.annotation.OutputField;
+
 import java.util.Objects;
 
 public final class VehicleStateResponse {
     private final String vehicleId;
+    @OutputField("当前车内温度")
     private final int cabinTemperature;
+    @OutputField("发动机状态")
     private final boolean engineRunning;
 
     public VehicleStateResponse(String vehicleId, int cabinTemperature, boolean engineRunning) {
@@ -3,17 +3,39 @@ package com.example.mcp.demo;
 import com.example.mcp.common.Context;
 import com.example.mcp.common.Envelopes;
 import com.example.mcp.common.StdResponse;
+import com.example.mcp.framework.annotation.InputField;
 import com.example.mcp.framework.api.SimpleTool;
 import com.example.mcp.framework.api.ToolBuilder;
 import com.example.mcp.framework.api.ToolRegistration;
+import com.example.mcp.framework.async.StreamEvent;
 import com.example.mcp.framework.client.EnhancedMcpClient;
 import com.example.mcp.framework.client.McpClientConfig;
+import com.example.mcp.framework.codec.McpCodecs;
+import com.example.mcp.framework.metrics.MetricsRegistry;
+import com.example.mcp.framework.metrics.PrometheusExporter;
 import com.example.mcp.framework.server.AbstractMcpServer;
+import com.example.mcp.framework.server.AdaptiveConcurrencyInterceptor;
 import com.example.mcp.framework.server.McpServerConfig;
+import com.example.mcp.framework.server.MetricsServerInterceptor;
 import com.example.mcp.framework.server.RateLimitInterceptor;
 import com.example.mcp.framework.server.SecurityInterceptor;
+import com.example.mcp.framework.server.ServerMetricsCollector;
+import com.example.mcp.framework.springai.ToolMethodBinder;
+import com.example.mcp.framework.transport.McpTransportConfig;
+import com.example.mcp.framework.transport.McpTransportServer;
+import com.example.mcp.framework.transport.RemoteMcpServer;
+import org.springframework.ai.tool.annotation.Tool;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 
 /**
  * 增强框架使用示例
@@ -37,6 +59,13 @@ public class EnhancedFrameworkDemo {
         RateLimitInterceptor rateLimitInterceptor = new RateLimitInterceptor(100);
         server.addInterceptor(rateLimitInterceptor);
 
+        // 按观测到的延迟自适应调整各工具的并发上限，超限调用立即以 overloaded 拒绝
+        AdaptiveConcurrencyInterceptor concurrencyInterceptor = new AdaptiveConcurrencyInterceptor();
+        server.addInterceptor(concurrencyInterceptor);
+
+        MetricsServerInterceptor serverMetrics = new MetricsServerInterceptor();
+        server.addInterceptor(serverMetrics);
+
         // 3. 使用 Builder 模式注册工具
         registerToolsWithBuilder(server);
 
@@ -76,9 +105,101 @@ public class EnhancedFrameworkDemo {
         var upperResponse = client.invoke("uppercase", new TextRequest("hello world"), TextResult.class);
         printResponse("大写转换", upperResponse);
 
+        // 异步工具
+        var asyncResponse = client.invokeAsync("async_echo", new EchoRequest("Hello Async!"), EchoResult.class).join();
+        printResponse("异步回声", asyncResponse);
+
+        // 流式工具：中间结果逐条推送给订阅者
+        var streamResponse = client.invokeStream("word_stream", new TextRequest("model context protocol"),
+                TextResult.class, new PrintingSubscriber()).join();
+        printResponse("流式输出", streamResponse);
+
+        // @Tool 方法工具：同一个对象上的多个方法各自注册为工具
+        var reverseResponse = client.invoke("reverse", new TextRequest("hello tool"), TextResult.class);
+        printResponse("反转", reverseResponse);
+        var wordCountResponse = client.invoke("word_count", new TextRequest("model context protocol"), TextResult.class);
+        printResponse("词数统计", wordCountResponse);
+
+        // 批量调用：一次提交多个调用，响应与请求按顺序对应，单个失败不影响其他调用
+        var batchResponses = client.invokeBatch(List.of(
+                client.newRequest("calculator", new CalcRequest(6, 7, "multiply")),
+                client.newRequest("uppercase", new TextRequest("batch call")),
+                client.newRequest("missing_tool", new EchoRequest("?"))));
+        batchResponses.forEach(response -> printResponse("批量-" + response.getTool(), response));
+
+        // 延迟分布：服务端为工具执行耗时，客户端为端到端耗时
+        System.out.println("\n   延迟分布:");
+        serverMetrics.getAllMetrics().forEach((tool, metrics) ->
+                System.out.println("   [服务端] " + tool + ": " + metrics.latency()));
+        client.getMetricsInterceptor().ifPresent(metrics -> metrics.getAllMetrics().forEach((tool, toolMetrics) ->
+                System.out.println("   [客户端] " + tool + ": " + toolMetrics.latency())));
+
         // 8. 关闭会话
         client.closeSession();
         System.out.println("\n会话已关闭");
+
+        // 9. 通过网络传输访问同一个服务器
+        System.out.println("\n4. 网络传输 (loopback):");
+        runOverTransport(server, clientConfig);
+
+        // 10. 以 Prometheus 文本格式导出指标
+        System.out.println("\n5. 指标导出 (Prometheus):");
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.register(new ServerMetricsCollector(server));
+        registry.register(serverMetrics);
+        registry.register(rateLimitInterceptor);
+        registry.register(securityInterceptor);
+        registry.register(concurrencyInterceptor);
+        client.getMetricsInterceptor().ifPresent(registry::register);
+        exportMetrics(registry);
+    }
+
+    private static void exportMetrics(MetricsRegistry registry) {
+        try (PrometheusExporter exporter = new PrometheusExporter(registry)) {
+            InetSocketAddress address = exporter.start("127.0.0.1", 0);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(
+                    "http://127.0.0.1:" + address.getPort() + PrometheusExporter.PATH)).build();
+            String body = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString()).body();
+            // 只展示部分样本，完整输出包含各工具的直方图桶
+            body.lines()
+                    .filter(line -> line.startsWith("mcp_server_calls_total") || line.startsWith("mcp_server_errors_total")
+                            || line.startsWith("mcp_server_rejected") || line.startsWith("mcp_server_audit")
+                            || line.startsWith("mcp_rate_limiters") || line.startsWith("mcp_access_policy"))
+                    .filter(line -> !line.endsWith(" 0"))
+                    .forEach(line -> System.out.println("   " + line));
+        } catch (IOException e) {
+            System.err.println("   指标导出失败: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void runOverTransport(DemoServer server, McpClientConfig clientConfig) {
+        McpTransportConfig transportConfig = new McpTransportConfig("127.0.0.1", 0);
+        transportConfig.setCodec(McpCodecs.binary());
+        try (McpTransportServer transportServer = new McpTransportServer(server, transportConfig)) {
+            InetSocketAddress address = transportServer.start();
+            transportConfig.setPort(address.getPort());
+            try (RemoteMcpServer remote = new RemoteMcpServer(transportConfig)) {
+                EnhancedMcpClient remoteClient = new EnhancedMcpClient(remote, clientConfig);
+                System.out.println("   " + remoteClient.openSession("zh-CN").getGreeting());
+
+                printResponse("远程计算器",
+                        remoteClient.invoke("calculator", new CalcRequest(3, 4, "multiply"), CalcResult.class));
+                printResponse("远程流式输出", remoteClient.invokeStream("word_stream", new TextRequest("over the wire"),
+                        TextResult.class, new PrintingSubscriber()).join());
+                remoteClient.invokeBatch(List.of(
+                        remoteClient.newRequest("echo", new EchoRequest("batch over wire")),
+                        remoteClient.newRequest("uppercase", new TextRequest("pipelined"))))
+                        .forEach(response -> printResponse("远程批量-" + response.getTool(), response));
+                System.out.println("   编码: " + transportConfig.getCodec().name()
+                        + ", 连接数: " + remote.getConnectionCount()
+                        + ", 远端审计记录: " + remote.governanceReport().size());
+                remoteClient.closeSession();
+            }
+        } catch (IOException e) {
+            System.err.println("   传输层启动失败: " + e.getMessage());
+        }
     }
 
     private static void registerToolsWithBuilder(DemoServer server) {
@@ -131,6 +252,43 @@ public class EnhancedFrameworkDemo {
                 .handler(SimpleTool.of(req -> new TextResult(req.text.toUpperCase())))
                 .build();
         server.registerTool(uppercaseTool);
+
+        // 异步回声工具
+        ToolRegistration<EchoRequest, EchoResult> asyncEchoTool = ToolBuilder.<EchoRequest, EchoResult>create()
+                .name("async_echo")
+                .displayName("异步回声")
+                .description("以非阻塞方式返回输入的文本")
+                .inputField("text", "要回显的文本")
+                .outputField("echo", "回显的文本")
+                .inputType(EchoRequest.class)
+                .outputType(EchoResult.class)
+                .asyncHandler((context, req) -> CompletableFuture.supplyAsync(
+                        () -> StdResponse.success("success", "处理成功", new EchoResult(req.text))))
+                .build();
+        server.registerTool(asyncEchoTool);
+
+        // 流式输出工具
+        ToolRegistration<TextRequest, TextResult> wordStreamTool = ToolBuilder.<TextRequest, TextResult>create()
+                .name("word_stream")
+                .displayName("流式输出")
+                .description("逐词推送部分结果")
+                .inputField("text", "要输出的文本")
+                .outputField("result", "完整文本")
+                .inputType(TextRequest.class)
+                .outputType(TextResult.class)
+                .streamingHandler((context, req, events) -> {
+                    StringBuilder partial = new StringBuilder();
+                    for (String word : req.text.split(" ")) {
+                        partial.append(word).append(' ');
+                        events.accept(StreamEvent.partialResult("部分结果", partial.toString().trim()));
+                    }
+                    return StdResponse.success("success", "处理成功", new TextResult(req.text));
+                })
+                .build();
+        server.registerTool(wordStreamTool);
+
+        // 标注了 @Tool 的方法在注册时绑定一次，调用时不经过反射
+        server.registerTools(ToolMethodBinder.registrations(new TextTools()));
     }
 
     private static <T> void printResponse(String title, Envelopes.ResponseEnvelope<T> envelope) {
@@ -141,6 +299,47 @@ public class EnhancedFrameworkDemo {
         System.out.println("     耗时: " + envelope.getContext().getUsage().getLatencyMs() + "ms");
     }
 
+    // ===== 流式事件订阅者 =====
+    static class PrintingSubscriber implements Flow.Subscriber<Envelopes.StreamEventEnvelope<StreamEvent>> {
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(Envelopes.StreamEventEnvelope<StreamEvent> item) {
+            System.out.println("     [事件] " + item.getEvent() + ": " + item.getData().getData());
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            System.err.println("     [事件] 流式调用失败: " + throwable.getMessage());
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    // ===== @Tool 方法工具 =====
+    static class TextTools {
+        @Tool(name = "reverse", title = "文本反转", description = "将文本逐字符反转")
+        public StdResponse<TextResult> reverse(TextRequest request) {
+            return StdResponse.success("success", "处理成功", new TextResult(new StringBuilder(request.text).reverse().toString()));
+        }
+
+        @Tool(name = "word_count", title = "词数统计", description = "统计文本中的单词数")
+        public StdResponse<TextResult> wordCount(Context context, TextRequest request) {
+            String text = request.text.trim();
+            int words = text.isEmpty() ? 0 : text.split("\\s+").length;
+            return StdResponse.success("success", "处理成功", new TextResult(String.valueOf(words)));
+        }
+    }
+
     // ===== 演示服务器 =====
     static class DemoServer extends AbstractMcpServer {
         public DemoServer(McpServerConfig config) {
@@ -160,6 +359,6 @@ public class EnhancedFrameworkDemo {
     record EchoRequest(String text) {}
     record EchoResult(String echo) {}
 
-    record TextRequest(String text) {}
+    record TextRequest(@InputField("要处理的文本") String text) {}
     record TextResult(String result) {}
 }
@@ -26,4 +26,14 @@ public @interface McpTool {
      * 工具描述
      */
     String description() default "";
+
+    /**
+     * 是否幂等：相同载荷与语言区域总是得到相同结果，服务器可直接返回缓存的结果
+     */
+    boolean idempotent() default false;
+
+    /**
+     * 缓存结果的有效期（秒），0 表示使用服务器默认值；仅对幂等工具生效
+     */
+    long cacheTtlSeconds() default 0;
 }
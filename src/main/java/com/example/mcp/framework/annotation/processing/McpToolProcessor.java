@@ -0,0 +1,374 @@
+package com.example.mcp.framework.annotation.processing;
+
+import com.example.mcp.framework.annotation.InputField;
+import com.example.mcp.framework.annotation.McpTool;
+import com.example.mcp.framework.annotation.OutputField;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * 编译期读取 {@link McpTool}、{@link InputField} 与 {@link OutputField}，为每个工具生成一个
+ * {@code ToolProvider} 实现，并把它们登记到 {@code META-INF/services} 中作为工具索引。
+ * 生成的提供者在常量中持有工具描述，注册时只解析构造器依赖，工具实例在首次调用时才创建。
+ * <p>
+ * 工具类须为公开、非抽象的顶层类或静态嵌套类，只有一个公开构造器（参数从 {@code ToolDependencies} 按类型获取），
+ * 并实现 {@code ToolHandler}、{@code AsyncToolHandler} 或 {@code StreamingToolHandler}，输入输出类型不能带泛型参数
+ */
+@SupportedAnnotationTypes("com.example.mcp.framework.annotation.McpTool")
+public final class McpToolProcessor extends AbstractProcessor {
+
+    private static final String PROVIDER_SUFFIX = "McpToolProvider";
+
+    private static final String API = "com.example.mcp.framework.api.";
+    private static final String TOOL_HANDLER = API + "ToolHandler";
+    private static final String ASYNC_HANDLER = "com.example.mcp.framework.async.AsyncToolHandler";
+    private static final String STREAMING_HANDLER = "com.example.mcp.framework.async.StreamingToolHandler";
+    private static final String SERVICE_FILE = "META-INF/services/" + API + "ToolProvider";
+
+    private final Map<String, String> toolsByName = new HashMap<>();
+    private final Set<String> providers = new TreeSet<>();
+    private Elements elements;
+    private Types types;
+    private Filer filer;
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(McpTool.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@McpTool must be placed on a class");
+                continue;
+            }
+            ToolModel model = analyze((TypeElement) element);
+            if (model != null) {
+                writeProvider(model);
+            }
+        }
+        if (roundEnv.processingOver() && !providers.isEmpty()) {
+            writeServiceFile();
+        }
+        return true;
+    }
+
+    private ToolModel analyze(TypeElement tool) {
+        McpTool annotation = tool.getAnnotation(McpTool.class);
+        boolean valid = true;
+        if (annotation.name().isBlank()) {
+            error(tool, "@McpTool name must not be blank");
+            valid = false;
+        }
+        String previous = toolsByName.putIfAbsent(annotation.name(), tool.getQualifiedName().toString());
+        if (previous != null && !previous.equals(tool.getQualifiedName().toString())) {
+            error(tool, "Tool name '" + annotation.name() + "' is already used by " + previous);
+            valid = false;
+        }
+        if (annotation.cacheTtlSeconds() < 0) {
+            error(tool, "@McpTool cacheTtlSeconds must not be negative");
+            valid = false;
+        } else if (annotation.cacheTtlSeconds() > 0 && !annotation.idempotent()) {
+            messager.printMessage(Diagnostic.Kind.WARNING,
+                    "@McpTool cacheTtlSeconds has no effect on a tool that is not idempotent", tool);
+        }
+        Set<Modifier> modifiers = tool.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT)
+                || tool.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC)
+                || tool.getNestingKind().isNested() && tool.getNestingKind() != NestingKind.MEMBER) {
+            error(tool, "@McpTool class must be public, concrete, and either top-level or static nested");
+            return null;
+        }
+
+        List<ExecutableElement> constructors = new ArrayList<>();
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(tool.getEnclosedElements())) {
+            if (constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                constructors.add(constructor);
+            }
+        }
+        if (constructors.size() != 1) {
+            error(tool, "@McpTool class must declare exactly one public constructor");
+            return null;
+        }
+
+        HandlerKind kind;
+        List<? extends TypeMirror> typeArguments;
+        if ((typeArguments = handlerTypeArguments(tool.asType(), ASYNC_HANDLER)) != null) {
+            kind = HandlerKind.ASYNC;
+        } else if ((typeArguments = handlerTypeArguments(tool.asType(), TOOL_HANDLER)) != null) {
+            kind = handlerTypeArguments(tool.asType(), STREAMING_HANDLER) != null
+                    ? HandlerKind.SYNC_STREAMING : HandlerKind.SYNC;
+        } else if ((typeArguments = handlerTypeArguments(tool.asType(), STREAMING_HANDLER)) != null) {
+            kind = HandlerKind.STREAMING;
+        } else {
+            error(tool, "@McpTool class must implement ToolHandler, AsyncToolHandler or StreamingToolHandler");
+            return null;
+        }
+        TypeElement inputType = payloadType(tool, typeArguments.get(0), "input");
+        TypeElement outputType = payloadType(tool, typeArguments.get(1), "output");
+        if (!valid || inputType == null || outputType == null) {
+            return null;
+        }
+
+        Map<String, String> inputFields = describeFields(inputType, field -> {
+            InputField input = field.getAnnotation(InputField.class);
+            return input == null ? null : input.required() ? input.value() : input.value() + "（可选）";
+        });
+        Map<String, String> outputFields = describeFields(outputType, field -> {
+            OutputField output = field.getAnnotation(OutputField.class);
+            return output == null ? null : output.value();
+        });
+        List<TypeMirror> parameters = new ArrayList<>();
+        for (VariableElement parameter : constructors.get(0).getParameters()) {
+            if (parameter.asType().getKind() != TypeKind.DECLARED) {
+                error(parameter, "@McpTool constructor parameters must be resolvable dependencies, found "
+                        + parameter.asType());
+                return null;
+            }
+            parameters.add(types.erasure(parameter.asType()));
+        }
+        return new ToolModel(tool, annotation, kind, inputType, outputType, inputFields, outputFields, parameters);
+    }
+
+    /**
+     * 在类型的所有父类型中查找指定处理器接口，返回替换后的类型参数
+     */
+    private List<? extends TypeMirror> handlerTypeArguments(TypeMirror type, String handlerInterface) {
+        Deque<TypeMirror> pending = new ArrayDeque<>();
+        pending.add(type);
+        while (!pending.isEmpty()) {
+            TypeMirror current = pending.poll();
+            if (current.getKind() != TypeKind.DECLARED) {
+                continue;
+            }
+            DeclaredType declared = (DeclaredType) current;
+            TypeElement element = (TypeElement) declared.asElement();
+            if (element.getQualifiedName().contentEquals(handlerInterface)) {
+                return declared.getTypeArguments().size() == 2 ? declared.getTypeArguments() : null;
+            }
+            pending.addAll(types.directSupertypes(current));
+        }
+        return null;
+    }
+
+    private TypeElement payloadType(TypeElement tool, TypeMirror type, String role) {
+        if (type.getKind() != TypeKind.DECLARED || !((DeclaredType) type).getTypeArguments().isEmpty()) {
+            error(tool, "Tool " + role + " type must be a non-generic class, found " + type);
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) type).asElement();
+    }
+
+    /**
+     * 按声明顺序收集带注解的字段，父类字段在前
+     */
+    private Map<String, String> describeFields(TypeElement type, Function<VariableElement, String> description) {
+        Deque<TypeElement> hierarchy = new ArrayDeque<>();
+        for (TypeElement current = type; current != null; ) {
+            hierarchy.push(current);
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED
+                    ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (TypeElement current : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                String text = description.apply(field);
+                if (text != null) {
+                    fields.put(field.getSimpleName().toString(), text);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private void writeProvider(ToolModel model) {
+        PackageElement pkg = elements.getPackageOf(model.tool());
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(model.tool()).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                .replace('$', '_') + PROVIDER_SUFFIX;
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + '.' + simpleName;
+        String toolType = model.tool().getQualifiedName().toString();
+        String input = model.inputType().getQualifiedName().toString();
+        String output = model.outputType().getQualifiedName().toString();
+        McpTool annotation = model.annotation();
+        String title = annotation.displayName().isEmpty() ? annotation.name() : annotation.displayName();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n * 由 ").append(getClass().getSimpleName()).append(" 根据 {@link ").append(toolType)
+                .append("} 生成\n */\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        source.append("public final class ").append(simpleName).append(" implements ").append(API)
+                .append("ToolProvider {\n\n");
+        source.append("    private static final com.example.mcp.common.protocol.ToolDescriptor DESCRIPTOR =\n")
+                .append("            new com.example.mcp.common.protocol.ToolDescriptor(")
+                .append(literal(annotation.name())).append(", ").append(literal(title)).append(", ")
+                .append(literal(annotation.description())).append(",\n")
+                .append("                    ").append(fields(model.inputFields())).append(",\n")
+                .append("                    ").append(fields(model.outputFields())).append(",\n")
+                .append("                    ").append(annotation.idempotent()).append(", ")
+                .append(annotation.cacheTtlSeconds() > 0
+                        ? "java.time.Duration.ofSeconds(" + annotation.cacheTtlSeconds() + "L)" : "null")
+                .append(");\n\n");
+        source.append("    @Override\n")
+                .append("    public com.example.mcp.common.protocol.ToolDescriptor descriptor() {\n")
+                .append("        return DESCRIPTOR;\n")
+                .append("    }\n\n");
+        source.append("    @Override\n")
+                .append("    public ").append(API).append("ToolRegistration<?, ?> registration(")
+                .append(API).append("ToolDependencies dependencies) {\n");
+        List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < model.constructorParameters().size(); i++) {
+            String parameterType = model.constructorParameters().get(i).toString();
+            source.append("        ").append(parameterType).append(" arg").append(i)
+                    .append(" = dependencies.require(").append(parameterType).append(".class);\n");
+            arguments.add("arg" + i);
+        }
+        source.append("        ").append(API).append("LazyTool<").append(toolType).append("> tool = new ")
+                .append(API).append("LazyTool<>(() -> new ").append(toolType).append('(')
+                .append(String.join(", ", arguments)).append("));\n");
+        String sync = "(context, input) -> tool.get().handle(context, input)";
+        String streaming = "(context, input, events) -> tool.get().handleWithStream(context, input, events)";
+        source.append("        return ");
+        switch (model.kind()) {
+            case SYNC -> source.append("new ").append(API).append("ToolRegistration<>(DESCRIPTOR, ")
+                    .append(input).append(".class,\n                ").append(sync).append(", ")
+                    .append(output).append(".class);\n");
+            case SYNC_STREAMING -> source.append("new ").append(API).append("ToolRegistration<>(DESCRIPTOR, ")
+                    .append(input).append(".class,\n                ").append(sync).append(", ")
+                    .append(output).append(".class, null,\n                ").append(streaming).append(");\n");
+            case ASYNC -> source.append(API).append("ToolRegistration.async(DESCRIPTOR, ")
+                    .append(input).append(".class,\n                ")
+                    .append("(context, input) -> tool.get().handleAsync(context, input), ")
+                    .append(output).append(".class);\n");
+            case STREAMING -> source.append(API).append("ToolRegistration.streaming(DESCRIPTOR, ")
+                    .append(input).append(".class,\n                ").append(streaming).append(", ")
+                    .append(output).append(".class);\n");
+        }
+        source.append("    }\n}\n");
+
+        try {
+            JavaFileObject file = filer.createSourceFile(qualifiedName, model.tool());
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+            providers.add(qualifiedName);
+        } catch (IOException e) {
+            error(model.tool(), "Failed to generate " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 合并增量编译前已登记的提供者后写出服务文件
+     */
+    private void writeServiceFile() {
+        Set<String> entries = new TreeSet<>(providers);
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Reader reader = existing.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+                lines.lines().map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#")
+                                && elements.getTypeElement(line) != null)
+                        .forEach(entries::add);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // 没有先前的服务文件
+        }
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write " + SERVICE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private String fields(Map<String, String> fields) {
+        if (fields.isEmpty()) {
+            return "java.util.Map.of()";
+        }
+        List<String> arguments = new ArrayList<>();
+        fields.forEach((name, description) -> {
+            arguments.add(literal(name));
+            arguments.add(literal(description));
+        });
+        return API + "ToolProvider.fields(" + String.join(", ", arguments) + ")";
+    }
+
+    private String literal(String value) {
+        return elements.getConstantExpression(value);
+    }
+
+    private void error(Element element, String message) {
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private enum HandlerKind {
+        SYNC, SYNC_STREAMING, ASYNC, STREAMING
+    }
+
+    private record ToolModel(TypeElement tool, McpTool annotation, HandlerKind kind,
+                             TypeElement inputType, TypeElement outputType,
+                             Map<String, String> inputFields, Map<String, String> outputFields,
+                             List<TypeMirror> constructorParameters) {
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.mcp.framework.api;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 近似令牌计数器，规则接近常见的 BPE 分词结果：
+ * <ul>
+ *     <li>连续的 ASCII 字母数字按每 4 个字符一个令牌计，空白不计，其他 ASCII 符号各计一个令牌</li>
+ *     <li>非 ASCII 字符（中文等）各计一个令牌</li>
+ *     <li>数字、布尔、枚举等标量计一个令牌；对象按字段名与字段值累加，集合与映射按元素累加</li>
+ * </ul>
+ * 文本直接在 {@link CharSequence} 上流式扫描，对象通过缓存的反射信息逐字段读取，都不生成中间字符串。
+ * 超过采样阈值的文本只扫描均匀分布的若干窗口，超过元素上限的集合只统计前若干个元素，再按比例外推，
+ * 单次计数的开销因此有上界
+ */
+public final class ApproximateTokenCounter implements TokenCounter {
+
+    static final ApproximateTokenCounter DEFAULT = new ApproximateTokenCounter(8192, 256);
+
+    private static final int SAMPLE_WINDOWS = 8;
+    private static final int MAX_DEPTH = 16;
+
+    private static final ClassValue<Fields> FIELDS = new ClassValue<>() {
+        @Override
+        protected Fields computeValue(Class<?> type) {
+            return Fields.of(type);
+        }
+    };
+
+    private final int sampleThreshold;
+    private final int maxElements;
+
+    /**
+     * @param sampleThreshold 超过该长度的文本改为采样估算
+     * @param maxElements     超过该大小的集合、映射与数组只统计前若干个元素并外推
+     */
+    public ApproximateTokenCounter(int sampleThreshold, int maxElements) {
+        if (sampleThreshold < SAMPLE_WINDOWS) {
+            throw new IllegalArgumentException("sampleThreshold must be at least " + SAMPLE_WINDOWS);
+        }
+        if (maxElements <= 0) {
+            throw new IllegalArgumentException("maxElements must be positive");
+        }
+        this.sampleThreshold = sampleThreshold;
+        this.maxElements = maxElements;
+    }
+
+    @Override
+    public int count(Object value) {
+        long tokens = count(value, 0);
+        return tokens > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) tokens;
+    }
+
+    /**
+     * 估算文本的令牌数
+     */
+    public int countText(CharSequence text) {
+        int length = text.length();
+        if (length <= sampleThreshold) {
+            return scan(text, 0, length);
+        }
+        int window = sampleThreshold / SAMPLE_WINDOWS;
+        int stride = length / SAMPLE_WINDOWS;
+        long sampled = 0;
+        for (int i = 0; i < SAMPLE_WINDOWS; i++) {
+            int start = i * stride;
+            sampled += scan(text, start, start + window);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, sampled * length / ((long) window * SAMPLE_WINDOWS));
+    }
+
+    private long count(Object value, int depth) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence text) {
+            return countText(text);
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum<?>) {
+            return 1;
+        }
+        if (depth >= MAX_DEPTH) {
+            return 1;
+        }
+        if (value instanceof Map<?, ?> map) {
+            return countElements(map.entrySet(), map.size(), depth);
+        }
+        if (value instanceof Collection<?> items) {
+            return countElements(items, items.size(), depth);
+        }
+        if (value instanceof Map.Entry<?, ?> entry) {
+            return count(entry.getKey(), depth + 1) + count(entry.getValue(), depth + 1);
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            return countArray(value, depth);
+        }
+        Fields fields = FIELDS.get(type);
+        return fields == null ? countText(String.valueOf(value)) : fields.count(this, value, depth);
+    }
+
+    private long countElements(Iterable<?> items, int size, int depth) {
+        long tokens = 0;
+        int counted = 0;
+        Iterator<?> iterator = items.iterator();
+        while (counted < maxElements && iterator.hasNext()) {
+            tokens += count(iterator.next(), depth + 1);
+            counted++;
+        }
+        return counted == 0 || counted == size ? tokens : tokens * size / counted;
+    }
+
+    private long countArray(Object array, int depth) {
+        if (array instanceof Object[] items) {
+            int counted = Math.min(items.length, maxElements);
+            long tokens = 0;
+            for (int i = 0; i < counted; i++) {
+                tokens += count(items[i], depth + 1);
+            }
+            return counted == 0 ? 0 : tokens * items.length / counted;
+        }
+        if (array instanceof char[] chars) {
+            return countText(CharBuffer.wrap(chars));
+        }
+        // 基本类型数组：每个元素按一个标量计，byte[] 视为二进制内容按每 4 字节一个令牌计
+        int length = Array.getLength(array);
+        return array instanceof byte[] ? (length + 3) / 4 : length;
+    }
+
+    private static int scan(CharSequence text, int from, int to) {
+        int tokens = 0;
+        int run = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                    run++;
+                    continue;
+                }
+                tokens += (run + 3) >> 2;
+                run = 0;
+                if (c > ' ') {
+                    tokens++;
+                }
+            } else {
+                tokens += (run + 3) >> 2;
+                run = 0;
+                if (!Character.isLowSurrogate(c)) {
+                    tokens++;
+                }
+            }
+        }
+        return tokens + ((run + 3) >> 2);
+    }
+
+    /**
+     * 单个类型的字段读取方式：记录类使用组件访问器，普通类读取实例字段；字段名的令牌数预先计算
+     */
+    private static final class Fields {
+        private final Method[] accessors;
+        private final Field[] fields;
+        private final int nameTokens;
+
+        private Fields(Method[] accessors, Field[] fields, int nameTokens) {
+            this.accessors = accessors;
+            this.fields = fields;
+            this.nameTokens = nameTokens;
+        }
+
+        private static Fields of(Class<?> type) {
+            if (type.getName().startsWith("java.")) {
+                return null;
+            }
+            try {
+                int nameTokens = 0;
+                if (type.isRecord()) {
+                    RecordComponent[] components = type.getRecordComponents();
+                    Method[] accessors = new Method[components.length];
+                    for (int i = 0; i < components.length; i++) {
+                        accessors[i] = components[i].getAccessor();
+                        accessors[i].setAccessible(true);
+                        nameTokens += scan(components[i].getName(), 0, components[i].getName().length());
+                    }
+                    return new Fields(accessors, null, nameTokens);
+                }
+                List<Field> declared = new ArrayList<>();
+                for (Class<?> current = type; current != null && current != Object.class;
+                     current = current.getSuperclass()) {
+                    for (Field field : current.getDeclaredFields()) {
+                        int modifiers = field.getModifiers();
+                        if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                            field.setAccessible(true);
+                            declared.add(field);
+                            nameTokens += scan(field.getName(), 0, field.getName().length());
+                        }
+                    }
+                }
+                return new Fields(null, declared.toArray(new Field[0]), nameTokens);
+            } catch (RuntimeException e) {
+                // 无法反射访问的类型（例如未开放的模块）退回到 toString
+                return null;
+            }
+        }
+
+        private long count(ApproximateTokenCounter counter, Object value, int depth) {
+            long tokens = nameTokens;
+            try {
+                if (accessors != null) {
+                    for (Method accessor : accessors) {
+                        tokens += counter.count(accessor.invoke(value), depth + 1);
+                    }
+                } else {
+                    for (Field field : fields) {
+                        tokens += field.getType().isPrimitive() ? 1 : counter.count(field.get(value), depth + 1);
+                    }
+                }
+            } catch (ReflectiveOperationException e) {
+                // 访问器抛出异常或字段不可读时只保留已统计的部分，估算不应影响调用结果
+                return tokens;
+            }
+            return tokens;
+        }
+    }
+}
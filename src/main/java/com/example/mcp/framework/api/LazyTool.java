@@ -0,0 +1,39 @@
+package com.example.mcp.framework.api;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * 首次使用时才创建的工具实例。创建失败时异常抛给当次调用，下次调用重新尝试
+ */
+public final class LazyTool<T> implements Supplier<T> {
+
+    private final Supplier<? extends T> factory;
+    private volatile T instance;
+
+    public LazyTool(Supplier<? extends T> factory) {
+        this.factory = Objects.requireNonNull(factory, "factory must not be null");
+    }
+
+    @Override
+    public T get() {
+        T current = instance;
+        if (current == null) {
+            synchronized (this) {
+                current = instance;
+                if (current == null) {
+                    current = Objects.requireNonNull(factory.get(), "tool factory returned null");
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 工具是否已经创建
+     */
+    public boolean isInitialized() {
+        return instance != null;
+    }
+}
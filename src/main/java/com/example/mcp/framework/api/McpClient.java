@@ -6,6 +6,7 @@ import com.example.mcp.common.protocol.SessionOpenResponse;
 import com.example.mcp.common.protocol.ToolDescriptor;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface McpClient {
 
@@ -17,5 +18,33 @@ public interface McpClient {
 
     <I, O> Envelopes.ResponseEnvelope<O> invoke(String toolName, I payload, Class<O> responseType);
 
+    /**
+     * 异步调用工具。默认实现在调用线程上同步执行，支持异步的客户端应覆盖该方法
+     */
+    default <I, O> CompletableFuture<Envelopes.ResponseEnvelope<O>> invokeAsync(String toolName, I payload,
+                                                                                Class<O> responseType) {
+        try {
+            return CompletableFuture.completedFuture(invoke(toolName, payload, responseType));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 基于当前会话上下文构建请求，用于组装批量调用
+     */
+    default <I> Envelopes.RequestEnvelope<I> newRequest(String toolName, I payload) {
+        Context session = getSessionContext();
+        if (session == null) {
+            throw new IllegalStateException("Session has not been opened");
+        }
+        return new Envelopes.RequestEnvelope<>(toolName, session.copy(), payload);
+    }
+
+    /**
+     * 批量调用：响应与请求按下标一一对应，单个调用失败不影响其他调用
+     */
+    List<Envelopes.ResponseEnvelope<?>> invokeBatch(List<? extends Envelopes.RequestEnvelope<?>> requests);
+
     Context getSessionContext();
 }
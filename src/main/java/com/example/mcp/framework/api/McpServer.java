@@ -1,12 +1,17 @@
 package com.example.mcp.framework.api;
 
+import com.example.mcp.common.Context;
 import com.example.mcp.common.Envelopes;
 import com.example.mcp.common.protocol.GovernanceReport;
 import com.example.mcp.common.protocol.SessionOpenRequest;
 import com.example.mcp.common.protocol.SessionOpenResponse;
 import com.example.mcp.common.protocol.ToolDescriptor;
+import com.example.mcp.framework.async.StreamEvent;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
 
 public interface McpServer {
 
@@ -18,5 +23,74 @@ public interface McpServer {
 
     <I, O> Envelopes.ResponseEnvelope<O> invoke(Envelopes.RequestEnvelope<I> request, Class<O> responseType);
 
+    /**
+     * 异步调用工具。默认实现在调用线程上同步执行，支持异步的服务器应覆盖该方法
+     */
+    default <I, O> CompletableFuture<Envelopes.ResponseEnvelope<O>> invokeAsync(Envelopes.RequestEnvelope<I> request,
+                                                                                Class<O> responseType) {
+        try {
+            return CompletableFuture.completedFuture(invoke(request, responseType));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 流式调用工具：中间事件按订阅者的请求量推送，最终响应通过返回的 future 获得。
+     * 订阅在工具执行前完成，事件流在最终响应产生后关闭。默认实现不产生中间事件
+     */
+    default <I, O> CompletableFuture<Envelopes.ResponseEnvelope<O>> invokeStream(
+            Envelopes.RequestEnvelope<I> request, Class<O> responseType,
+            Flow.Subscriber<? super Envelopes.StreamEventEnvelope<StreamEvent>> subscriber) {
+        SubmissionPublisher<Envelopes.StreamEventEnvelope<StreamEvent>> publisher = new SubmissionPublisher<>();
+        publisher.subscribe(subscriber);
+        return invokeAsync(request, responseType).whenComplete((response, throwable) -> {
+            if (throwable != null) {
+                publisher.closeExceptionally(throwable);
+            } else {
+                publisher.close();
+            }
+        });
+    }
+
+    /**
+     * 批量调用：一次往返提交多个工具调用，互不依赖的调用并行执行。
+     * 返回列表与请求列表按下标一一对应；单个调用失败只体现在对应位置的错误响应中，
+     * 不影响其他调用，返回的 future 不会因单个调用失败而异常完成。
+     * 批量调用不校验响应类型，各响应的载荷类型为工具注册时声明的输出类型
+     */
+    CompletableFuture<List<Envelopes.ResponseEnvelope<?>>> invokeBatchAsync(
+            List<? extends Envelopes.RequestEnvelope<?>> requests);
+
+    /**
+     * 同步批量调用，语义与 {@link #invokeBatchAsync(List)} 相同
+     */
+    default List<Envelopes.ResponseEnvelope<?>> invokeBatch(List<? extends Envelopes.RequestEnvelope<?>> requests) {
+        return invokeBatchAsync(requests).join();
+    }
+
+    /**
+     * 取消正在执行的调用（协议中的 cancel_call）。调用按 clientId 与 requestId 共同定位，
+     * 客户端只能取消自己发起的调用
+     *
+     * @param call 待取消调用的请求上下文，至少包含 clientId 与 requestId
+     * @return 是否找到并取消了调用，默认实现不支持取消
+     */
+    default boolean cancelCall(Context call) {
+        return false;
+    }
+
+    /**
+     * 非阻塞地取消调用，语义与 {@link #cancelCall(Context)} 相同，可在结果回调中使用。
+     * 默认实现在调用线程上同步执行，取消需要等待远端确认的服务器应覆盖该方法
+     */
+    default CompletableFuture<Boolean> cancelCallAsync(Context call) {
+        try {
+            return CompletableFuture.completedFuture(cancelCall(call));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     GovernanceReport governanceReport();
 }
@@ -0,0 +1,31 @@
+package com.example.mcp.framework.api;
+
+/**
+ * 令牌计数 SPI：估算请求载荷与响应数据的令牌数，结果累加到上下文的 {@code Usage} 中。
+ * <p>
+ * 计数在每次调用的热路径上执行，实现必须线程安全，并且不应为了计数而物化整个对象的字符串表示。
+ * 工具自行在上下文中上报了用量（例如来自模型返回的真实令牌数）时，服务器不会再调用计数器
+ */
+@FunctionalInterface
+public interface TokenCounter {
+
+    /**
+     * 不做计数，适用于不关心用量的部署
+     */
+    TokenCounter NONE = value -> 0;
+
+    /**
+     * 估算对象的令牌数
+     *
+     * @param value 请求载荷或响应数据，可能为 null
+     * @return 非负的令牌数
+     */
+    int count(Object value);
+
+    /**
+     * 默认实现：流式扫描文本的近似分词器，大文本与大集合按采样外推
+     */
+    static TokenCounter approximate() {
+        return ApproximateTokenCounter.DEFAULT;
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.mcp.framework.api;
 
 import com.example.mcp.common.protocol.ToolDescriptor;
+import com.example.mcp.framework.async.AsyncToolHandler;
+import com.example.mcp.framework.async.StreamingToolHandler;
 
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -19,6 +22,10 @@ public class ToolBuilder<I, O> {
     private Class<I> inputType;
     private Class<O> outputType;
     private ToolHandler<I, O> handler;
+    private AsyncToolHandler<I, O> asyncHandler;
+    private StreamingToolHandler<I, O> streamingHandler;
+    private boolean idempotent;
+    private Duration cacheTtl;
 
     private ToolBuilder() {
     }
@@ -58,6 +65,27 @@ public class ToolBuilder<I, O> {
         return this;
     }
 
+    /**
+     * 声明工具为幂等：相同载荷与语言区域总是得到相同结果，服务器可直接返回缓存的结果，缓存时长取服务器默认值
+     */
+    public ToolBuilder<I, O> idempotent() {
+        this.idempotent = true;
+        return this;
+    }
+
+    /**
+     * 声明工具为幂等，并指定缓存结果的有效期
+     */
+    public ToolBuilder<I, O> idempotent(Duration cacheTtl) {
+        Objects.requireNonNull(cacheTtl, "cacheTtl must not be null");
+        if (cacheTtl.isNegative()) {
+            throw new IllegalArgumentException("cacheTtl must not be negative");
+        }
+        this.idempotent = true;
+        this.cacheTtl = cacheTtl;
+        return this;
+    }
+
     public ToolBuilder<I, O> inputType(Class<I> inputType) {
         this.inputType = Objects.requireNonNull(inputType, "inputType must not be null");
         return this;
@@ -73,6 +101,16 @@ public class ToolBuilder<I, O> {
         return this;
     }
 
+    public ToolBuilder<I, O> asyncHandler(AsyncToolHandler<I, O> asyncHandler) {
+        this.asyncHandler = Objects.requireNonNull(asyncHandler, "asyncHandler must not be null");
+        return this;
+    }
+
+    public ToolBuilder<I, O> streamingHandler(StreamingToolHandler<I, O> streamingHandler) {
+        this.streamingHandler = Objects.requireNonNull(streamingHandler, "streamingHandler must not be null");
+        return this;
+    }
+
     public ToolRegistration<I, O> build() {
         if (name == null) {
             throw new IllegalStateException("name must be set");
@@ -89,8 +127,12 @@ public class ToolBuilder<I, O> {
         if (outputType == null) {
             throw new IllegalStateException("outputType must be set");
         }
-        if (handler == null) {
-            throw new IllegalStateException("handler must be set");
+        int handlerCount = (handler != null ? 1 : 0) + (asyncHandler != null ? 1 : 0) + (streamingHandler != null ? 1 : 0);
+        if (handlerCount == 0) {
+            throw new IllegalStateException("handler, asyncHandler or streamingHandler must be set");
+        }
+        if (handlerCount > 1) {
+            throw new IllegalStateException("handler, asyncHandler and streamingHandler are mutually exclusive");
         }
 
         ToolDescriptor descriptor = new ToolDescriptor(
@@ -98,9 +140,17 @@ public class ToolBuilder<I, O> {
                 displayName,
                 description,
                 inputFields,
-                outputFields
+                outputFields,
+                idempotent,
+                cacheTtl
         );
 
+        if (asyncHandler != null) {
+            return ToolRegistration.async(descriptor, inputType, asyncHandler, outputType);
+        }
+        if (streamingHandler != null) {
+            return ToolRegistration.streaming(descriptor, inputType, streamingHandler, outputType);
+        }
         return new ToolRegistration<>(descriptor, inputType, handler, outputType);
     }
 }
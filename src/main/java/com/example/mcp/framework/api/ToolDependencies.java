@@ -0,0 +1,45 @@
+package com.example.mcp.framework.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 为生成的 {@link ToolProvider} 提供工具构造器所需的依赖，按参数类型查找
+ */
+public interface ToolDependencies {
+
+    /**
+     * 不提供任何依赖，只能创建无参构造的工具
+     */
+    ToolDependencies NONE = of();
+
+    /**
+     * @throws IllegalStateException 没有或有多个该类型的依赖
+     */
+    <T> T require(Class<T> type);
+
+    /**
+     * 由给定实例组成的依赖集合，每个参数类型须恰好匹配一个实例
+     */
+    static ToolDependencies of(Object... instances) {
+        List<Object> copy = List.of(instances);
+        return new ToolDependencies() {
+            @Override
+            public <T> T require(Class<T> type) {
+                Objects.requireNonNull(type, "type must not be null");
+                List<Object> matches = new ArrayList<>(1);
+                for (Object instance : copy) {
+                    if (type.isInstance(instance)) {
+                        matches.add(instance);
+                    }
+                }
+                if (matches.size() != 1) {
+                    throw new IllegalStateException((matches.isEmpty() ? "No" : "Ambiguous")
+                            + " tool dependency of type " + type.getName());
+                }
+                return type.cast(matches.get(0));
+            }
+        };
+    }
+}
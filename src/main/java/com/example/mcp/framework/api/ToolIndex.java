@@ -0,0 +1,69 @@
+package com.example.mcp.framework.api;
+
+import com.example.mcp.common.protocol.ToolDescriptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+/**
+ * 编译期生成的工具索引：通过 {@link ServiceLoader} 读取 {@code META-INF/services} 中登记的
+ * {@link ToolProvider}，启动时不扫描类路径也不反射读取注解
+ */
+public final class ToolIndex {
+
+    private final Map<String, ToolProvider> providers;
+
+    private ToolIndex(Map<String, ToolProvider> providers) {
+        this.providers = Collections.unmodifiableMap(providers);
+    }
+
+    public static ToolIndex load() {
+        return load(Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * @throws IllegalStateException 多个提供者声明了同名工具
+     */
+    public static ToolIndex load(ClassLoader classLoader) {
+        Map<String, ToolProvider> providers = new LinkedHashMap<>();
+        for (ToolProvider provider : ServiceLoader.load(ToolProvider.class, classLoader)) {
+            String name = provider.descriptor().getName();
+            ToolProvider previous = providers.putIfAbsent(name, provider);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate tool '" + name + "' provided by "
+                        + previous.getClass().getName() + " and " + provider.getClass().getName());
+            }
+        }
+        return new ToolIndex(providers);
+    }
+
+    public List<ToolDescriptor> descriptors() {
+        List<ToolDescriptor> descriptors = new ArrayList<>(providers.size());
+        providers.values().forEach(provider -> descriptors.add(provider.descriptor()));
+        return descriptors;
+    }
+
+    public Optional<ToolProvider> find(String name) {
+        return Optional.ofNullable(providers.get(name));
+    }
+
+    /**
+     * 为所有工具创建注册信息，工具本身在首次调用时才实例化
+     */
+    public List<ToolRegistration<?, ?>> registrations(ToolDependencies dependencies) {
+        Objects.requireNonNull(dependencies, "dependencies must not be null");
+        List<ToolRegistration<?, ?>> registrations = new ArrayList<>(providers.size());
+        providers.values().forEach(provider -> registrations.add(provider.registration(dependencies)));
+        return registrations;
+    }
+
+    public int size() {
+        return providers.size();
+    }
+}
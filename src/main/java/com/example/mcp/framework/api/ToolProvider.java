@@ -0,0 +1,40 @@
+package com.example.mcp.framework.api;
+
+import com.example.mcp.common.protocol.ToolDescriptor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 工具提供者 SPI，通常由注解处理器根据 {@link com.example.mcp.framework.annotation.McpTool} 在编译期生成，
+ * 并登记在 {@code META-INF/services} 中供 {@link ToolIndex} 通过 {@link java.util.ServiceLoader} 加载。
+ * 描述信息在编译期确定，注册时不实例化工具，工具实例在首次调用时才创建
+ */
+public interface ToolProvider {
+
+    /**
+     * 工具描述，不触发工具类的加载
+     */
+    ToolDescriptor descriptor();
+
+    /**
+     * 创建注册信息，返回的处理器在首次调用时才实例化工具
+     *
+     * @param dependencies 工具构造器参数的来源，缺少依赖时立即失败
+     */
+    ToolRegistration<?, ?> registration(ToolDependencies dependencies);
+
+    /**
+     * 按给定顺序组装字段描述，参数依次为字段名与描述
+     */
+    static Map<String, String> fields(String... namesAndDescriptions) {
+        if (namesAndDescriptions.length % 2 != 0) {
+            throw new IllegalArgumentException("namesAndDescriptions must contain name/description pairs");
+        }
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndDescriptions.length; i += 2) {
+            fields.put(namesAndDescriptions[i], namesAndDescriptions[i + 1]);
+        }
+        return fields;
+    }
+}
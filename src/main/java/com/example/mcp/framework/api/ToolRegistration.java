@@ -1,9 +1,77 @@
 package com.example.mcp.framework.api;
 
 import com.example.mcp.common.protocol.ToolDescriptor;
+import com.example.mcp.framework.async.AsyncToolHandler;
+import com.example.mcp.framework.async.StreamingToolHandler;
 
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 工具注册信息。同步工具只提供 {@code handler}；异步工具同时提供 {@code asyncHandler}，
+ * 此时 {@code handler} 是在同步调用路径上等待异步结果的桥接实现。
+ * 若 {@code handler} 本身实现了 {@link StreamingToolHandler}，流式调用会直接使用它推送中间事件
+ */
 public record ToolRegistration<I, O>(ToolDescriptor descriptor,
                                      Class<I> inputType,
                                      ToolHandler<I, O> handler,
-                                     Class<O> outputType) {
+                                     Class<O> outputType,
+                                     AsyncToolHandler<I, O> asyncHandler,
+                                     StreamingToolHandler<I, O> streamingHandler) {
+
+    public ToolRegistration {
+        Objects.requireNonNull(descriptor, "descriptor must not be null");
+        Objects.requireNonNull(inputType, "inputType must not be null");
+        Objects.requireNonNull(handler, "handler must not be null");
+        Objects.requireNonNull(outputType, "outputType must not be null");
+    }
+
+    public ToolRegistration(ToolDescriptor descriptor, Class<I> inputType,
+                            ToolHandler<I, O> handler, Class<O> outputType) {
+        this(descriptor, inputType, handler, outputType, null, streamingOf(handler));
+    }
+
+    /**
+     * 注册一个原生异步的工具
+     */
+    public static <I, O> ToolRegistration<I, O> async(ToolDescriptor descriptor, Class<I> inputType,
+                                                      AsyncToolHandler<I, O> asyncHandler, Class<O> outputType) {
+        Objects.requireNonNull(asyncHandler, "asyncHandler must not be null");
+        ToolHandler<I, O> blocking = (context, input) -> {
+            try {
+                return asyncHandler.handleAsync(context, input).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        };
+        return new ToolRegistration<>(descriptor, inputType, blocking, outputType, asyncHandler, null);
+    }
+
+    /**
+     * 注册一个支持推送中间事件的流式工具，非流式调用时中间事件会被丢弃
+     */
+    public static <I, O> ToolRegistration<I, O> streaming(ToolDescriptor descriptor, Class<I> inputType,
+                                                          StreamingToolHandler<I, O> streamingHandler,
+                                                          Class<O> outputType) {
+        Objects.requireNonNull(streamingHandler, "streamingHandler must not be null");
+        ToolHandler<I, O> blocking = (context, input) -> streamingHandler.handleWithStream(context, input, event -> {
+        });
+        return new ToolRegistration<>(descriptor, inputType, blocking, outputType, null, streamingHandler);
+    }
+
+    public boolean isAsync() {
+        return asyncHandler != null;
+    }
+
+    public boolean isStreaming() {
+        return streamingHandler != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <I, O> StreamingToolHandler<I, O> streamingOf(ToolHandler<I, O> handler) {
+        return handler instanceof StreamingToolHandler<?, ?> streaming ? (StreamingToolHandler<I, O>) streaming : null;
+    }
 }
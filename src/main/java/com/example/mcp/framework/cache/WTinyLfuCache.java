@@ -0,0 +1,349 @@
+package com.example.mcp.framework.cache;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * 容量有界、带过期时间的缓存，淘汰策略为 W-TinyLFU：
+ * 新条目先进入占容量 1% 的窗口 LRU，被挤出窗口后与主区（分段 LRU：试用区 + 占主区 80% 的保护区）
+ * 最久未用的条目比较 {@link FrequencySketch} 估算的访问频率，频率更高者留下。
+ * 这样短时间内的突发访问可以进入缓存，而只被访问一次的键不会挤掉长期的热点。
+ * <p>
+ * 读取只查询并发哈希表，访问顺序与频率在 {@code tryLock} 成功时才更新，锁竞争时放弃本次记录而不阻塞读取；
+ * 写入与淘汰在锁内执行。过期条目在读取时或位于队首时被清除
+ *
+ * @param <K> 键类型，须正确实现 {@code hashCode}/{@code equals}
+ * @param <V> 值类型
+ */
+public final class WTinyLfuCache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int REMOVED = -1;
+
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int protectedMaximum;
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final AccessQueue<K, V> window = new AccessQueue<>();
+    private final AccessQueue<K, V> probation = new AccessQueue<>();
+    private final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param maximumSize 最多保留的条目数
+     */
+    public WTinyLfuCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.protectedMaximum = (int) ((maximumSize - windowMaximum) * 0.8);
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * 读取未过期的值，不存在时返回 null
+     */
+    public V get(K key) {
+        Objects.requireNonNull(key, "key must not be null");
+        Node<K, V> node = data.get(key);
+        long now = System.nanoTime();
+        if (node == null || node.isExpired(now)) {
+            misses.increment();
+            if (node != null) {
+                expire(node);
+            }
+            if (lock.tryLock()) {
+                try {
+                    sketch.increment(key);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return null;
+        }
+        hits.increment();
+        if (lock.tryLock()) {
+            try {
+                onAccess(node);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    /**
+     * 写入或替换值
+     *
+     * @param ttlNanos 有效期（纳秒），须为正数
+     */
+    public void put(K key, V value, long ttlNanos) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(value, "value must not be null");
+        if (ttlNanos <= 0) {
+            throw new IllegalArgumentException("ttlNanos must be positive");
+        }
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            Node<K, V> node = data.get(key);
+            if (node != null) {
+                node.value = value;
+                node.expiresAt = now + ttlNanos;
+                onAccess(node);
+                return;
+            }
+            node = new Node<>(key, value, now + ttlNanos);
+            data.put(key, node);
+            node.queue = WINDOW;
+            window.addLast(node);
+            expireHeads(now);
+            evict(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        Objects.requireNonNull(key, "key must not be null");
+        lock.lock();
+        try {
+            Node<K, V> node = data.get(key);
+            if (node != null) {
+                remove(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 移除所有满足条件的键
+     */
+    public void invalidateAll(Predicate<? super K> filter) {
+        Objects.requireNonNull(filter, "filter must not be null");
+        lock.lock();
+        try {
+            for (Node<K, V> node : data.values()) {
+                if (filter.test(node.key)) {
+                    remove(node);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        invalidateAll(key -> true);
+    }
+
+    /**
+     * 当前条目数，可能包含尚未清除的过期条目
+     */
+    public int size() {
+        return data.size();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 因容量不足被淘汰的条目数
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * 因过期被清除的条目数
+     */
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    private void expire(Node<K, V> node) {
+        lock.lock();
+        try {
+            if (node.queue != REMOVED && node.isExpired(System.nanoTime())) {
+                remove(node);
+                expirations.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onAccess(Node<K, V> node) {
+        if (node.queue == REMOVED) {
+            return;
+        }
+        sketch.increment(node.key);
+        if (node.queue == WINDOW) {
+            window.moveToBack(node);
+        } else if (node.queue == PROBATION) {
+            probation.remove(node);
+            node.queue = PROTECTED;
+            protectedQueue.addLast(node);
+            while (protectedQueue.size > protectedMaximum) {
+                Node<K, V> demoted = protectedQueue.first();
+                protectedQueue.remove(demoted);
+                demoted.queue = PROBATION;
+                probation.addLast(demoted);
+            }
+        } else {
+            protectedQueue.moveToBack(node);
+        }
+    }
+
+    /**
+     * 窗口超出容量时把最久未用的条目移入试用区；总量超出容量时，
+     * 该条目与主区最久未用的条目按估算频率二选一，频率相同时保留原有条目
+     */
+    private void evict(long now) {
+        while (window.size > windowMaximum) {
+            Node<K, V> candidate = window.first();
+            window.remove(candidate);
+            candidate.queue = PROBATION;
+            probation.addLast(candidate);
+            if (data.size() > maximumSize) {
+                Node<K, V> victim = probation.first() != candidate ? probation.first() : protectedQueue.first();
+                Node<K, V> evicted;
+                if (victim == null || candidate.isExpired(now)) {
+                    evicted = candidate;
+                } else if (victim.isExpired(now)) {
+                    evicted = victim;
+                } else {
+                    evicted = sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate;
+                }
+                if (evicted.isExpired(now)) {
+                    expirations.increment();
+                } else {
+                    evictions.increment();
+                }
+                remove(evicted);
+            }
+        }
+    }
+
+    /**
+     * 清除各队列队首已过期的条目；各工具有效期不同，队列不按过期时间排序，其余过期条目在读取或淘汰时清除
+     */
+    private void expireHeads(long now) {
+        expireHead(window, now);
+        expireHead(probation, now);
+        expireHead(protectedQueue, now);
+    }
+
+    private void expireHead(AccessQueue<K, V> queue, long now) {
+        Node<K, V> head = queue.first();
+        while (head != null && head.isExpired(now)) {
+            remove(head);
+            expirations.increment();
+            head = queue.first();
+        }
+    }
+
+    private void remove(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW -> window.remove(node);
+            case PROBATION -> probation.remove(node);
+            case PROTECTED -> protectedQueue.remove(node);
+            default -> {
+                return;
+            }
+        }
+        node.queue = REMOVED;
+        data.remove(node.key, node);
+    }
+
+    @Override
+    public String toString() {
+        return "WTinyLfuCache{" +
+                "size=" + data.size() +
+                ", maximumSize=" + maximumSize +
+                ", hits=" + hits.sum() +
+                ", misses=" + misses.sum() +
+                ", evictions=" + evictions.sum() +
+                ", expirations=" + expirations.sum() +
+                '}';
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private volatile V value;
+        private volatile long expiresAt;
+        private int queue;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * 以哨兵节点实现的双向链表，队首为最久未访问的条目
+     */
+    private static final class AccessQueue<K, V> {
+        private final Node<K, V> sentinel = new Node<>(null, null, 0);
+        private int size;
+
+        private AccessQueue() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+        }
+
+        private Node<K, V> first() {
+            return sentinel.next == sentinel ? null : sentinel.next;
+        }
+
+        private void addLast(Node<K, V> node) {
+            node.prev = sentinel.prev;
+            node.next = sentinel;
+            sentinel.prev.next = node;
+            sentinel.prev = node;
+            size++;
+        }
+
+        private void remove(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        private void moveToBack(Node<K, V> node) {
+            remove(node);
+            addLast(node);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.mcp.framework.client;
+
+import com.example.mcp.common.Envelopes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 针对一个工具预编译的不可变客户端拦截器链，每个阶段只包含覆盖了对应方法的拦截器。
+ * 拦截器自身抛出的异常交给失败日志，不影响调用
+ */
+final class ClientInterceptorChain {
+
+    private final McpClientInterceptor[] before;
+    private final McpClientInterceptor[] after;
+    private final McpClientInterceptor[] error;
+    private final Consumer<String> failureLog;
+
+    private ClientInterceptorChain(List<McpClientInterceptor> interceptors, Consumer<String> failureLog) {
+        List<McpClientInterceptor> before = new ArrayList<>();
+        List<McpClientInterceptor> after = new ArrayList<>();
+        List<McpClientInterceptor> error = new ArrayList<>();
+        for (McpClientInterceptor interceptor : interceptors) {
+            Class<?> type = interceptor.getClass();
+            if (overrides(type, "beforeInvoke", String.class, Envelopes.RequestEnvelope.class)) {
+                before.add(interceptor);
+            }
+            if (overrides(type, "afterInvoke", String.class, Envelopes.RequestEnvelope.class,
+                    Envelopes.ResponseEnvelope.class)) {
+                after.add(interceptor);
+            }
+            if (overrides(type, "onError", String.class, Envelopes.RequestEnvelope.class, Exception.class)) {
+                error.add(interceptor);
+            }
+        }
+        this.before = before.toArray(new McpClientInterceptor[0]);
+        this.after = after.toArray(new McpClientInterceptor[0]);
+        this.error = error.toArray(new McpClientInterceptor[0]);
+        this.failureLog = failureLog;
+    }
+
+    private static boolean overrides(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes).getDeclaringClass() != McpClientInterceptor.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    <I> void beforeInvoke(String tool, Envelopes.RequestEnvelope<I> request) {
+        for (McpClientInterceptor interceptor : before) {
+            try {
+                interceptor.beforeInvoke(tool, request);
+            } catch (Exception e) {
+                failureLog.accept("[MCP-CLIENT] 拦截器前置处理失败: " + e.getMessage());
+            }
+        }
+    }
+
+    <I, O> void afterInvoke(String tool, Envelopes.RequestEnvelope<I> request, Envelopes.ResponseEnvelope<O> response) {
+        for (McpClientInterceptor interceptor : after) {
+            try {
+                interceptor.afterInvoke(tool, request, response);
+            } catch (Exception e) {
+                failureLog.accept("[MCP-CLIENT] 拦截器后置处理失败: " + e.getMessage());
+            }
+        }
+    }
+
+    <I> void onError(String tool, Envelopes.RequestEnvelope<I> request, Exception exception) {
+        for (McpClientInterceptor interceptor : error) {
+            try {
+                interceptor.onError(tool, request, exception);
+            } catch (Exception e) {
+                failureLog.accept("[MCP-CLIENT] 拦截器错误处理失败: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 拦截器及其作用范围的不可变集合，添加拦截器时整体重建。
+     * 只有作用范围中出现的工具各自持有一条链，其余工具共用只含全局拦截器的默认链
+     */
+    static final class Bindings {
+
+        private final List<McpClientInterceptor> interceptors;
+        private final List<Set<String>> scopes;
+        private final ClientInterceptorChain common;
+        private final Map<String, ClientInterceptorChain> scoped;
+
+        Bindings(Consumer<String> failureLog) {
+            this(List.of(), List.of(), failureLog);
+        }
+
+        private Bindings(List<McpClientInterceptor> interceptors, List<Set<String>> scopes,
+                         Consumer<String> failureLog) {
+            this.interceptors = interceptors;
+            this.scopes = scopes;
+            Set<String> tools = new HashSet<>();
+            scopes.forEach(scope -> {
+                if (scope != null) {
+                    tools.addAll(scope);
+                }
+            });
+            this.common = new ClientInterceptorChain(applying(null), failureLog);
+            Map<String, ClientInterceptorChain> scoped = new HashMap<>();
+            for (String tool : tools) {
+                scoped.put(tool, new ClientInterceptorChain(applying(tool), failureLog));
+            }
+            this.scoped = Map.copyOf(scoped);
+        }
+
+        /**
+         * @param tools 拦截器只对这些工具生效，为 null 时对所有工具生效
+         */
+        Bindings with(McpClientInterceptor interceptor, Set<String> tools) {
+            List<McpClientInterceptor> interceptors = new ArrayList<>(this.interceptors);
+            List<Set<String>> scopes = new ArrayList<>(this.scopes);
+            interceptors.add(interceptor);
+            scopes.add(tools == null ? null : Set.copyOf(tools));
+            return new Bindings(List.copyOf(interceptors), scopes, common.failureLog);
+        }
+
+        ClientInterceptorChain chain(String tool) {
+            ClientInterceptorChain chain = scoped.isEmpty() || tool == null ? null : scoped.get(tool);
+            return chain != null ? chain : common;
+        }
+
+        private List<McpClientInterceptor> applying(String tool) {
+            List<McpClientInterceptor> applying = new ArrayList<>();
+            for (int i = 0; i < interceptors.size(); i++) {
+                Set<String> scope = scopes.get(i);
+                if (scope == null || tool != null && scope.contains(tool)) {
+                    applying.add(interceptors.get(i));
+                }
+            }
+            return applying;
+        }
+    }
+}
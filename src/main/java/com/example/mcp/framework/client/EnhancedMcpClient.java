@@ -2,28 +2,62 @@ package com.example.mcp.framework.client;
 
 import com.example.mcp.common.Context;
 import com.example.mcp.common.Envelopes;
+import com.example.mcp.common.RequestIds;
 import com.example.mcp.common.StdResponse;
 import com.example.mcp.common.protocol.SessionOpenRequest;
 import com.example.mcp.common.protocol.SessionOpenResponse;
 import com.example.mcp.common.protocol.ToolDescriptor;
 import com.example.mcp.framework.api.McpClient;
 import com.example.mcp.framework.api.McpServer;
+import com.example.mcp.framework.async.StreamEvent;
+import com.example.mcp.framework.metrics.MetricsCollector;
+import com.example.mcp.framework.metrics.MetricsWriter;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 
 /**
- * 增强的MCP客户端实现，支持配置、拦截器、重试等功能
+ * 增强的MCP客户端实现，支持配置、拦截器、重试等功能。
+ * <p>
+ * 重试由 {@link RetryPolicy} 决定并受 {@link RetryBudget} 约束，退避由延迟执行器计时，不在任何线程上休眠；
+ * 工具是否幂等取自服务端的工具描述，调用抛出异常时只重试幂等工具。配置了对冲百分位时，
+ * 幂等工具的调用超过该百分位延迟仍未返回会发送第二个请求，取先返回者并取消另一个
  */
-public class EnhancedMcpClient implements McpClient {
+public class EnhancedMcpClient implements McpClient, MetricsCollector {
+
+    /**
+     * 服务端限流拒绝时给出建议重试等待时间的元数据键
+     */
+    private static final String RETRY_AFTER_KEY = "retry-after-ms";
+    private static final String HEDGE_KEY = "hedge";
 
     private final McpServer server;
     private final McpClientConfig config;
-    private final List<McpClientInterceptor> interceptors = new ArrayList<>();
-    private Context sessionContext;
+    private volatile ClientInterceptorChain.Bindings interceptors;
+    private final MetricsInterceptor metricsInterceptor;
+    private final RetryBudget retryBudget;
+    private final ConcurrentHashMap<String, Boolean> idempotentTools = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, HedgeDelay> hedgeDelays = new ConcurrentHashMap<>();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private volatile Context sessionContext;
 
     public EnhancedMcpClient(McpServer server) {
         this(server, new McpClientConfig());
@@ -32,21 +66,50 @@ public class EnhancedMcpClient implements McpClient {
     public EnhancedMcpClient(McpServer server, McpClientConfig config) {
         this.server = Objects.requireNonNull(server, "server must not be null");
         this.config = Objects.requireNonNull(config, "config must not be null");
+        this.retryBudget = new RetryBudget(config.getRetryBudgetTokens(), config.getRetryBudgetRatio());
+        this.interceptors = new ClientInterceptorChain.Bindings(message -> {
+            if (config.isEnableLogging()) {
+                System.err.println(message);
+            }
+        });
 
         // 默认添加日志和指标拦截器
         if (config.isEnableLogging()) {
             addInterceptor(new LoggingInterceptor());
         }
         if (config.isEnableMetrics()) {
-            addInterceptor(new MetricsInterceptor());
+            metricsInterceptor = new MetricsInterceptor();
+            addInterceptor(metricsInterceptor);
+        } else {
+            metricsInterceptor = null;
         }
     }
 
     /**
-     * 添加拦截器
+     * 添加对所有工具生效的拦截器。添加时重新编译拦截器链，只调用拦截器覆盖了的阶段
      */
-    public void addInterceptor(McpClientInterceptor interceptor) {
-        interceptors.add(Objects.requireNonNull(interceptor, "interceptor must not be null"));
+    public synchronized void addInterceptor(McpClientInterceptor interceptor) {
+        Objects.requireNonNull(interceptor, "interceptor must not be null");
+        interceptors = interceptors.with(interceptor, null);
+    }
+
+    /**
+     * 添加只对指定工具生效的拦截器
+     */
+    public synchronized void addInterceptor(McpClientInterceptor interceptor, Collection<String> tools) {
+        Objects.requireNonNull(interceptor, "interceptor must not be null");
+        Objects.requireNonNull(tools, "tools must not be null");
+        if (tools.isEmpty()) {
+            throw new IllegalArgumentException("tools must not be empty");
+        }
+        interceptors = interceptors.with(interceptor, Set.copyOf(tools));
+    }
+
+    /**
+     * 配置启用指标时内置的指标拦截器
+     */
+    public Optional<MetricsInterceptor> getMetricsInterceptor() {
+        return Optional.ofNullable(metricsInterceptor);
     }
 
     /**
@@ -56,6 +119,19 @@ public class EnhancedMcpClient implements McpClient {
         return config;
     }
 
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    @Override
+    public void collect(MetricsWriter writer) {
+        writer.counter("mcp_client_retries_total", "Retry attempts scheduled by the client.", retries.sum());
+        writer.counter("mcp_client_hedged_requests_total", "Hedged requests sent after the hedge delay.",
+                hedges.sum());
+        writer.counter("mcp_client_hedge_wins_total", "Calls answered by the hedged request.", hedgeWins.sum());
+        writer.gauge("mcp_client_retry_budget_tokens", "Tokens left in the retry budget.", retryBudget.getTokens());
+    }
+
     @Override
     public SessionOpenResponse openSession(String locale) {
         SessionOpenRequest request = new SessionOpenRequest();
@@ -86,81 +162,388 @@ public class EnhancedMcpClient implements McpClient {
         return server.describeTool(name);
     }
 
+    /**
+     * 同步调用：与 {@link #invokeAsync} 使用同一套重试与对冲流程，调用线程只等待最终结果，
+     * 重试前的退避不在调用线程上休眠
+     */
     @Override
     public <I, O> Envelopes.ResponseEnvelope<O> invoke(String toolName, I payload, Class<O> responseType) {
-        ensureSessionOpen();
+        return invokeAsync(toolName, payload, responseType).join();
+    }
 
-        Context context = sessionContext.copy();
-        context.setRequestId(UUID.randomUUID().toString());
-        Envelopes.RequestEnvelope<I> request = new Envelopes.RequestEnvelope<>(toolName, context, payload);
-
-        // 执行前置拦截器
-        for (McpClientInterceptor interceptor : interceptors) {
-            try {
-                interceptor.beforeInvoke(toolName, request);
-            } catch (Exception e) {
-                if (config.isEnableLogging()) {
-                    System.err.println("[MCP-CLIENT] 拦截器前置处理失败: " + e.getMessage());
-                }
+    /**
+     * 异步调用：重试等待通过延迟执行器调度，不占用调用线程
+     */
+    @Override
+    public <I, O> CompletableFuture<Envelopes.ResponseEnvelope<O>> invokeAsync(String toolName, I payload,
+                                                                               Class<O> responseType) {
+        Envelopes.RequestEnvelope<I> request = newRequest(toolName, payload);
+        runBeforeInvoke(toolName, request);
+        // 幂等性在发送前解析，重试判断在结果回调中进行，不能在回调里查询工具描述
+        boolean idempotent = isIdempotent(toolName);
+        CompletableFuture<Envelopes.ResponseEnvelope<O>> result = new CompletableFuture<>();
+        attemptAsync(toolName, request, responseType, idempotent, 0, result);
+        return result;
+    }
+
+    /**
+     * 流式调用：中间事件直接投递给订阅者，最终响应通过返回的 future 获得。
+     * 事件一旦开始投递便无法撤回，因此流式调用不做重试
+     */
+    public <I, O> CompletableFuture<Envelopes.ResponseEnvelope<O>> invokeStream(
+            String toolName, I payload, Class<O> responseType,
+            Flow.Subscriber<? super Envelopes.StreamEventEnvelope<StreamEvent>> subscriber) {
+        Envelopes.RequestEnvelope<I> request = newRequest(toolName, payload);
+        runBeforeInvoke(toolName, request);
+        CompletableFuture<Envelopes.ResponseEnvelope<O>> pending;
+        try {
+            pending = server.invokeStream(request, responseType, subscriber);
+        } catch (Exception e) {
+            pending = CompletableFuture.failedFuture(e);
+        }
+        return pending.handle((response, throwable) -> {
+            if (throwable == null) {
+                return completed(toolName, request, response);
             }
+            Exception e = unwrap(throwable);
+            runOnError(toolName, request, e);
+            return failed(toolName, request, e);
+        });
+    }
+
+    private <I, O> void attemptAsync(String toolName, Envelopes.RequestEnvelope<I> request, Class<O> responseType,
+                                     boolean idempotent, int attempt,
+                                     CompletableFuture<Envelopes.ResponseEnvelope<O>> result) {
+        CompletableFuture<Envelopes.ResponseEnvelope<O>> pending = idempotent && config.getHedgePercentile() > 0
+                ? hedged(toolName, request, responseType) : send(request, responseType);
+        Duration remaining = request.getContext().remainingBudget();
+        if (remaining != null) {
+            // 服务端不遵守截止时间时由客户端兜底
+            pending = pending.orTimeout(remaining.toMillis(), TimeUnit.MILLISECONDS);
         }
+        pending.whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                if (response.getResponse().getStatus() != StdResponse.Status.ERROR) {
+                    retryBudget.onSuccess();
+                } else {
+                    RetryPolicy.Failure failure = new RetryPolicy.Failure(toolName, idempotent, null,
+                            response.getResponse().getCode(), retryAfter(response));
+                    if (scheduleRetry(request, attempt, failure, response.getResponse().getMessage(),
+                            () -> attemptAsync(toolName, request, responseType, idempotent, attempt + 1, result))) {
+                        return;
+                    }
+                }
+                result.complete(completed(toolName, request, response));
+                return;
+            }
+            Exception e = unwrap(throwable);
+            if (e instanceof TimeoutException) {
+                // 回调运行在延迟执行器或读取线程上，取消只发送不等待
+                server.cancelCallAsync(request.getContext());
+                runOnError(toolName, request, e);
+                result.complete(timedOut(request));
+                return;
+            }
+            RetryPolicy.Failure failure = new RetryPolicy.Failure(toolName, idempotent, e, null, null);
+            if (!scheduleRetry(request, attempt, failure, e.getMessage(),
+                    () -> attemptAsync(toolName, request, responseType, idempotent, attempt + 1, result))) {
+                runOnError(toolName, request, e);
+                result.complete(failed(toolName, request, e));
+            }
+        });
+    }
 
-        Envelopes.ResponseEnvelope<O> response = null;
-        Exception lastException = null;
+    private <I, O> CompletableFuture<Envelopes.ResponseEnvelope<O>> send(Envelopes.RequestEnvelope<I> request,
+                                                                        Class<O> responseType) {
+        try {
+            return server.invokeAsync(request, responseType);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-        // 重试逻辑
-        for (int attempt = 0; attempt <= config.getMaxRetries(); attempt++) {
-            try {
-                response = server.invoke(request, responseType);
+    /**
+     * 对冲调用：先发送原请求，超过该工具延迟分布的对冲百分位仍未返回时以新的 requestId 再发送一次。
+     * 先成功返回的响应（或按重试策略不可重试的错误响应）胜出，另一个请求随即通过 cancel_call 取消（只发送不等待）；
+     * {@code overloaded} 这类可重试的错误响应不会结束对冲，而是等待另一个请求，两个请求都失败时以后失败者的结果结束。
+     * 对冲请求在元数据中标记 {@code hedge}，服务端不会把它与原请求合并或以缓存结果应答。
+     * 对冲请求与重试共用重试预算
+     */
+    private <I, O> CompletableFuture<Envelopes.ResponseEnvelope<O>> hedged(String toolName,
+                                                                          Envelopes.RequestEnvelope<I> request,
+                                                                          Class<O> responseType) {
+        HedgeDelay hedgeDelay = hedgeDelays.computeIfAbsent(toolName, tool -> new HedgeDelay());
+        CompletableFuture<Envelopes.ResponseEnvelope<O>> primary = timed(hedgeDelay, send(request, responseType));
+        long delay = hedgeDelay.delayNanos(config.getHedgePercentile(), config.getHedgeMinDelay().toNanos());
+        if (delay < 0) {
+            return primary;
+        }
+        CompletableFuture<Envelopes.ResponseEnvelope<O>> winner = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        BiConsumer<Envelopes.ResponseEnvelope<O>, Throwable> settle = (response, throwable) -> {
+            if (throwable == null && settles(toolName, response)) {
+                winner.complete(response);
+            } else if (outstanding.decrementAndGet() == 0) {
+                if (throwable != null) {
+                    winner.completeExceptionally(throwable);
+                } else {
+                    winner.complete(response);
+                }
+            }
+        };
+        primary.whenComplete(settle);
+        CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> {
+            if (winner.isDone() || !retryBudget.canRetry()) {
+                return;
+            }
+            outstanding.incrementAndGet();
+            hedges.increment();
+            Context context = request.getContext().copy();
+            context.setRequestId(RequestIds.next());
+            context.putMetadata(HEDGE_KEY, "true");
+            Envelopes.RequestEnvelope<I> hedge = new Envelopes.RequestEnvelope<>(toolName, context, request.getPayload());
+            CompletableFuture<Envelopes.ResponseEnvelope<O>> second = timed(hedgeDelay, send(hedge, responseType));
+            second.whenComplete(settle);
+            winner.whenComplete((response, throwable) -> {
+                if (!primary.isDone()) {
+                    server.cancelCallAsync(request.getContext());
+                }
+                if (!second.isDone()) {
+                    server.cancelCallAsync(context);
+                } else if (response != null && response == second.getNow(null)) {
+                    hedgeWins.increment();
+                }
+            });
+        });
+        return winner;
+    }
 
-                // 更新会话上下文
-                this.sessionContext = response.getContext().copy();
+    /**
+     * 对冲中的一次尝试能否直接作为结果：成功响应，或重试策略认为不值得再试的错误响应
+     */
+    private boolean settles(String toolName, Envelopes.ResponseEnvelope<?> response) {
+        StdResponse<?> body = response.getResponse();
+        if (body.getStatus() != StdResponse.Status.ERROR) {
+            return true;
+        }
+        RetryPolicy.Failure failure = new RetryPolicy.Failure(toolName, true, null, body.getCode(), retryAfter(response));
+        return config.getRetryPolicy().retryDelay(0, failure) == null;
+    }
 
-                // 执行后置拦截器
-                for (McpClientInterceptor interceptor : interceptors) {
-                    try {
-                        interceptor.afterInvoke(toolName, request, response);
-                    } catch (Exception e) {
-                        if (config.isEnableLogging()) {
-                            System.err.println("[MCP-CLIENT] 拦截器后置处理失败: " + e.getMessage());
-                        }
-                    }
-                }
+    /**
+     * 记录单次尝试的延迟；被取消的尝试不计入
+     */
+    private static <O> CompletableFuture<Envelopes.ResponseEnvelope<O>> timed(
+            HedgeDelay hedgeDelay, CompletableFuture<Envelopes.ResponseEnvelope<O>> attempt) {
+        long start = System.nanoTime();
+        attempt.thenAccept(response -> {
+            if (!"call_cancelled".equals(response.getResponse().getCode())) {
+                hedgeDelay.record(System.nanoTime() - start);
+            }
+        });
+        return attempt;
+    }
 
-                return response;
-            } catch (Exception e) {
-                lastException = e;
+    /**
+     * 批量调用：整批在一次往返中提交给服务端，响应与请求按下标一一对应。
+     * 单个条目的失败体现在对应位置的错误响应中；只有整批提交失败时才按重试策略重试整批
+     */
+    @Override
+    public List<Envelopes.ResponseEnvelope<?>> invokeBatch(List<? extends Envelopes.RequestEnvelope<?>> requests) {
+        return invokeBatchAsync(requests).join();
+    }
 
-                if (attempt < config.getMaxRetries()) {
-                    if (config.isEnableLogging()) {
-                        System.err.println("[MCP-CLIENT] 调用失败，正在重试 (" + (attempt + 1) + "/" + config.getMaxRetries() + "): " + e.getMessage());
-                    }
+    public CompletableFuture<List<Envelopes.ResponseEnvelope<?>>> invokeBatchAsync(
+            List<? extends Envelopes.RequestEnvelope<?>> requests) {
+        Objects.requireNonNull(requests, "requests must not be null");
+        ensureSessionOpen();
+        List<Envelopes.RequestEnvelope<?>> batch = List.copyOf(requests);
+        for (Envelopes.RequestEnvelope<?> request : batch) {
+            runBeforeInvoke(request.getTool(), request);
+        }
+        boolean idempotent = batch.stream().allMatch(request -> isIdempotent(request.getTool()));
+        CompletableFuture<List<Envelopes.ResponseEnvelope<?>>> result = new CompletableFuture<>();
+        attemptBatch(batch, idempotent, 0, result);
+        return result;
+    }
 
-                    try {
-                        Thread.sleep(config.getRetryDelay().toMillis() * (attempt + 1));
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                } else {
-                    // 执行错误拦截器
-                    for (McpClientInterceptor interceptor : interceptors) {
-                        try {
-                            interceptor.onError(toolName, request, e);
-                        } catch (Exception ie) {
-                            if (config.isEnableLogging()) {
-                                System.err.println("[MCP-CLIENT] 拦截器错误处理失败: " + ie.getMessage());
-                            }
-                        }
-                    }
+    private void attemptBatch(List<Envelopes.RequestEnvelope<?>> batch, boolean idempotent, int attempt,
+                              CompletableFuture<List<Envelopes.ResponseEnvelope<?>>> result) {
+        CompletableFuture<List<Envelopes.ResponseEnvelope<?>>> pending;
+        try {
+            pending = server.invokeBatchAsync(batch);
+        } catch (Exception e) {
+            pending = CompletableFuture.failedFuture(e);
+        }
+        Envelopes.RequestEnvelope<?> earliest = earliestDeadline(batch);
+        if (earliest != null) {
+            pending = pending.orTimeout(earliest.getContext().remainingBudget().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        pending.whenComplete((responses, throwable) -> {
+            List<Envelopes.ResponseEnvelope<?>> completed = new ArrayList<>(batch.size());
+            if (throwable == null) {
+                retryBudget.onSuccess();
+                for (int i = 0; i < batch.size(); i++) {
+                    completed.add(completed(batch.get(i).getTool(), batch.get(i), responses.get(i)));
+                }
+                result.complete(Collections.unmodifiableList(completed));
+                return;
+            }
+            Exception e = unwrap(throwable);
+            if (!(e instanceof TimeoutException)) {
+                RetryPolicy.Failure failure = new RetryPolicy.Failure(null, idempotent, e, null, null);
+                if (scheduleRetry(earliest, attempt, failure, e.getMessage(),
+                        () -> attemptBatch(batch, idempotent, attempt + 1, result))) {
+                    return;
+                }
+            }
+            for (Envelopes.RequestEnvelope<?> request : batch) {
+                if (e instanceof TimeoutException) {
+                    server.cancelCallAsync(request.getContext());
                 }
+                runOnError(request.getTool(), request, e);
+                completed.add(e instanceof TimeoutException ? timedOut(request) : failed(request.getTool(), request, e));
+            }
+            result.complete(Collections.unmodifiableList(completed));
+        });
+    }
+
+    /**
+     * 截止时间最早的请求，整批的超时以它为准；没有请求设置截止时间时返回 null
+     */
+    private static Envelopes.RequestEnvelope<?> earliestDeadline(List<Envelopes.RequestEnvelope<?>> batch) {
+        Envelopes.RequestEnvelope<?> earliest = null;
+        for (Envelopes.RequestEnvelope<?> request : batch) {
+            Instant deadline = request.getContext().getDeadline();
+            if (deadline != null && (earliest == null || deadline.isBefore(earliest.getContext().getDeadline()))) {
+                earliest = request;
             }
         }
+        return earliest;
+    }
+
+    @Override
+    public <I> Envelopes.RequestEnvelope<I> newRequest(String toolName, I payload) {
+        ensureSessionOpen();
+
+        Context context = sessionContext.copy();
+        context.setRequestId(RequestIds.next());
+        context.setDeadline(Instant.now().plus(config.getRequestTimeout()));
+        return new Envelopes.RequestEnvelope<>(toolName, context, payload);
+    }
+
+    /**
+     * 取消本会话发起的、正在执行的调用（cancel_call）
+     *
+     * @param requestId 调用时请求上下文中的 requestId
+     */
+    public boolean cancelCall(String requestId) {
+        ensureSessionOpen();
+        Context call = sessionContext.copy();
+        call.setRequestId(requestId);
+        return server.cancelCall(call);
+    }
 
+    /**
+     * 按重试策略与预算安排下一次尝试，退避由延迟执行器计时；剩余时间不足以等待下一次重试时不再重试。
+     * 只有策略认为可以重试的失败才消耗重试预算
+     *
+     * @param request 用于判断剩余时间的请求，为 null 时不检查
+     * @return 是否已安排重试
+     */
+    private boolean scheduleRetry(Envelopes.RequestEnvelope<?> request, int attempt, RetryPolicy.Failure failure,
+                                  String reason, Runnable next) {
+        Duration delay = config.getRetryPolicy().retryDelay(attempt, failure);
+        if (delay == null) {
+            return false;
+        }
+        retryBudget.onFailure();
+        if (!retryBudget.canRetry()) {
+            return false;
+        }
+        Duration remaining = request == null ? null : request.getContext().remainingBudget();
+        if (remaining != null && remaining.compareTo(delay) <= 0) {
+            return false;
+        }
+        retries.increment();
+        if (config.isEnableLogging()) {
+            System.err.println("[MCP-CLIENT] 调用失败，" + delay.toMillis() + "ms 后进行第 " + (attempt + 1)
+                    + " 次重试: " + reason);
+        }
+        CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS).execute(next);
+        return true;
+    }
+
+    /**
+     * 工具是否声明为幂等，首次调用某个工具时向服务端查询工具描述并缓存结果；查询失败时按非幂等处理。
+     * 查询是同步往返，只在发起调用的线程上执行，不在结果回调中调用
+     */
+    private boolean isIdempotent(String toolName) {
+        Boolean known = idempotentTools.get(toolName);
+        if (known != null) {
+            return known;
+        }
+        try {
+            boolean idempotent = server.describeTool(toolName).map(ToolDescriptor::isIdempotent).orElse(false);
+            idempotentTools.put(toolName, idempotent);
+            return idempotent;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static Duration retryAfter(Envelopes.ResponseEnvelope<?> response) {
+        String value = response.getContext() == null ? null
+                : response.getContext().getMetadata().get(RETRY_AFTER_KEY);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofMillis(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private <I> void runBeforeInvoke(String toolName, Envelopes.RequestEnvelope<I> request) {
+        interceptors.chain(toolName).beforeInvoke(toolName, request);
+    }
+
+    private <I, O> Envelopes.ResponseEnvelope<O> completed(String toolName, Envelopes.RequestEnvelope<I> request,
+                                                           Envelopes.ResponseEnvelope<O> response) {
+        // 更新会话上下文，截止时间与批量标识只对单次调用有效
+        Context next = response.getContext().copy();
+        next.setDeadline(null);
+        next.getMetadata().remove("batch-id");
+        this.sessionContext = next;
+
+        interceptors.chain(toolName).afterInvoke(toolName, request, response);
+        return response;
+    }
+
+    private <I> void runOnError(String toolName, Envelopes.RequestEnvelope<I> request, Exception e) {
+        interceptors.chain(toolName).onError(toolName, request, e);
+    }
+
+    private <I, O> Envelopes.ResponseEnvelope<O> failed(String toolName, Envelopes.RequestEnvelope<I> request,
+                                                        Exception lastException) {
         // 所有重试都失败，返回错误响应
         StdResponse<O> errorResponse = StdResponse.error("client_error",
                 "调用失败: " + (lastException != null ? lastException.getMessage() : "未知错误"));
-        return new Envelopes.ResponseEnvelope<>(toolName, context, errorResponse, null);
+        return new Envelopes.ResponseEnvelope<>(toolName, request.getContext(), errorResponse, null);
+    }
+
+    private <I, O> Envelopes.ResponseEnvelope<O> timedOut(Envelopes.RequestEnvelope<I> request) {
+        StdResponse<O> timeout = StdResponse.error("deadline_exceeded", "调用超时: 超过 " + config.getRequestTimeout());
+        return new Envelopes.ResponseEnvelope<>(request.getTool(), request.getContext(), timeout, null);
+    }
+
+    private static Exception unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof Exception exception ? exception : new RuntimeException(cause);
     }
 
     @Override
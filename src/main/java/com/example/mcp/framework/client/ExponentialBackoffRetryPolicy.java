@@ -0,0 +1,78 @@
+package com.example.mcp.framework.client;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 指数退避加随机抖动的重试策略：第 n 次重试的等待上限为 {@code min(maxDelay, baseDelay * 2^n)}，
+ * 实际等待在上限的一半到上限之间均匀随机（equal jitter），避免大量客户端在同一时刻重试。
+ * <p>
+ * 调用抛出异常时工具可能已经执行过，只有幂等工具才重试。服务端返回的错误响应只在错误码属于
+ * {@code retryableCodes} 时重试，这些错误码应表示调用在执行工具前就被拒绝（默认为 {@link #DEFAULT_RETRYABLE_CODES}），
+ * 因此对任何工具都可以重试，并且至少等待服务端建议的时间
+ */
+public final class ExponentialBackoffRetryPolicy implements RetryPolicy {
+
+    public static final Set<String> DEFAULT_RETRYABLE_CODES = Set.of("rate_limited", "overloaded");
+
+    private final int maxRetries;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final Set<String> retryableCodes;
+
+    public ExponentialBackoffRetryPolicy(int maxRetries, Duration baseDelay, Duration maxDelay) {
+        this(maxRetries, baseDelay, maxDelay, DEFAULT_RETRYABLE_CODES);
+    }
+
+    /**
+     * @param retryableCodes 可以重试的错误响应码，须表示工具未被执行
+     */
+    public ExponentialBackoffRetryPolicy(int maxRetries, Duration baseDelay, Duration maxDelay,
+                                         Set<String> retryableCodes) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries must be non-negative");
+        }
+        Objects.requireNonNull(baseDelay, "baseDelay must not be null");
+        Objects.requireNonNull(maxDelay, "maxDelay must not be null");
+        if (baseDelay.isNegative() || maxDelay.compareTo(baseDelay) < 0) {
+            throw new IllegalArgumentException("baseDelay must be non-negative and not exceed maxDelay");
+        }
+        this.maxRetries = maxRetries;
+        this.baseDelayNanos = baseDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.retryableCodes = Set.copyOf(Objects.requireNonNull(retryableCodes, "retryableCodes must not be null"));
+    }
+
+    @Override
+    public Duration retryDelay(int attempt, Failure failure) {
+        if (attempt >= maxRetries) {
+            return null;
+        }
+        if (failure.isErrorResponse() ? !retryableCodes.contains(failure.code()) : !failure.idempotent()) {
+            return null;
+        }
+        long cap = baseDelayNanos > maxDelayNanos >> Math.min(attempt, 62)
+                ? maxDelayNanos : baseDelayNanos << attempt;
+        long delay = cap / 2 + ThreadLocalRandom.current().nextLong(cap - cap / 2 + 1);
+        if (failure.retryAfter() != null) {
+            delay = Math.max(delay, failure.retryAfter().toNanos());
+        }
+        return Duration.ofNanos(delay);
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    @Override
+    public String toString() {
+        return "ExponentialBackoffRetryPolicy{" +
+                "maxRetries=" + maxRetries +
+                ", baseDelay=" + Duration.ofNanos(baseDelayNanos) +
+                ", maxDelay=" + Duration.ofNanos(maxDelayNanos) +
+                ", retryableCodes=" + retryableCodes +
+                '}';
+    }
+}
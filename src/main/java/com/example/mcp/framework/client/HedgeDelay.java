@@ -0,0 +1,46 @@
+package com.example.mcp.framework.client;
+
+import com.example.mcp.framework.metrics.HistogramSnapshot;
+import com.example.mcp.framework.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个工具的对冲等待时间：按单次尝试的延迟分布取指定百分位。
+ * 积累到足够样本后每秒最多刷新一次，只使用上次刷新以来的样本以跟上延迟的变化；从未积累到足够样本时不对冲
+ */
+final class HedgeDelay {
+
+    private static final int MIN_SAMPLES = 20;
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder pendingSamples = new LongAdder();
+    private final AtomicLong nextRefresh = new AtomicLong(System.nanoTime());
+    private volatile long delayNanos = -1;
+
+    void record(long latencyNanos) {
+        histogram.record(latencyNanos);
+        pendingSamples.increment();
+    }
+
+    /**
+     * @return 发送对冲请求前的等待纳秒数，样本不足时返回 -1
+     */
+    long delayNanos(double percentile, long minDelayNanos) {
+        long now = System.nanoTime();
+        long next = nextRefresh.get();
+        if (now - next >= 0 && pendingSamples.sum() >= MIN_SAMPLES
+                && nextRefresh.compareAndSet(next, now + REFRESH_NANOS)) {
+            pendingSamples.reset();
+            HistogramSnapshot interval = histogram.intervalSnapshot();
+            if (interval.getCount() > 0) {
+                delayNanos = interval.valueAtPercentile(percentile);
+            }
+        }
+        long delay = delayNanos;
+        return delay < 0 ? -1 : Math.max(delay, minDelayNanos);
+    }
+}
@@ -13,6 +13,12 @@ public class McpClientConfig {
     private Duration requestTimeout = Duration.ofSeconds(30);
     private int maxRetries = 3;
     private Duration retryDelay = Duration.ofMillis(500);
+    private Duration maxRetryDelay = Duration.ofSeconds(10);
+    private RetryPolicy retryPolicy;
+    private int retryBudgetTokens = 10;
+    private double retryBudgetRatio = 0.1;
+    private double hedgePercentile = 0;
+    private Duration hedgeMinDelay = Duration.ofMillis(10);
     private boolean enableMetrics = true;
     private boolean enableLogging = true;
 
@@ -67,6 +73,83 @@ public class McpClientConfig {
         this.retryDelay = Objects.requireNonNull(retryDelay, "retryDelay must not be null");
     }
 
+    /**
+     * 默认重试策略的退避上限
+     */
+    public Duration getMaxRetryDelay() {
+        return maxRetryDelay;
+    }
+
+    public void setMaxRetryDelay(Duration maxRetryDelay) {
+        this.maxRetryDelay = Objects.requireNonNull(maxRetryDelay, "maxRetryDelay must not be null");
+    }
+
+    /**
+     * 重试策略；未设置时使用以 maxRetries、retryDelay、maxRetryDelay 构造的 {@link ExponentialBackoffRetryPolicy}
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy != null ? retryPolicy : new ExponentialBackoffRetryPolicy(maxRetries, retryDelay,
+                maxRetryDelay.compareTo(retryDelay) < 0 ? retryDelay : maxRetryDelay);
+    }
+
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = Objects.requireNonNull(retryPolicy, "retryPolicy must not be null");
+    }
+
+    /**
+     * 重试预算的令牌上限，见 {@link RetryBudget}
+     */
+    public int getRetryBudgetTokens() {
+        return retryBudgetTokens;
+    }
+
+    public void setRetryBudgetTokens(int retryBudgetTokens) {
+        if (retryBudgetTokens <= 0) {
+            throw new IllegalArgumentException("retryBudgetTokens must be positive");
+        }
+        this.retryBudgetTokens = retryBudgetTokens;
+    }
+
+    /**
+     * 每次成功调用返还给重试预算的令牌数
+     */
+    public double getRetryBudgetRatio() {
+        return retryBudgetRatio;
+    }
+
+    public void setRetryBudgetRatio(double retryBudgetRatio) {
+        if (!(retryBudgetRatio > 0)) {
+            throw new IllegalArgumentException("retryBudgetRatio must be positive");
+        }
+        this.retryBudgetRatio = retryBudgetRatio;
+    }
+
+    /**
+     * 对冲请求的发送时机：幂等工具的调用超过该百分位的延迟仍未返回时发送第二个请求，取先返回者；
+     * 0 表示关闭对冲
+     */
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public void setHedgePercentile(double hedgePercentile) {
+        if (hedgePercentile < 0 || hedgePercentile >= 100) {
+            throw new IllegalArgumentException("hedgePercentile must be in [0, 100)");
+        }
+        this.hedgePercentile = hedgePercentile;
+    }
+
+    /**
+     * 发送对冲请求前的最短等待时间
+     */
+    public Duration getHedgeMinDelay() {
+        return hedgeMinDelay;
+    }
+
+    public void setHedgeMinDelay(Duration hedgeMinDelay) {
+        this.hedgeMinDelay = Objects.requireNonNull(hedgeMinDelay, "hedgeMinDelay must not be null");
+    }
+
     public boolean isEnableMetrics() {
         return enableMetrics;
     }
@@ -91,6 +174,12 @@ public class McpClientConfig {
                 ", requestTimeout=" + requestTimeout +
                 ", maxRetries=" + maxRetries +
                 ", retryDelay=" + retryDelay +
+                ", maxRetryDelay=" + maxRetryDelay +
+                ", retryPolicy=" + retryPolicy +
+                ", retryBudgetTokens=" + retryBudgetTokens +
+                ", retryBudgetRatio=" + retryBudgetRatio +
+                ", hedgePercentile=" + hedgePercentile +
+                ", hedgeMinDelay=" + hedgeMinDelay +
                 ", enableMetrics=" + enableMetrics +
                 ", enableLogging=" + enableLogging +
                 '}';
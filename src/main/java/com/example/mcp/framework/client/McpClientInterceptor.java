@@ -3,7 +3,8 @@ package com.example.mcp.framework.client;
 import com.example.mcp.common.Envelopes;
 
 /**
- * MCP客户端拦截器接口，用于在调用前后执行自定义逻辑
+ * MCP客户端拦截器接口，用于在调用前后执行自定义逻辑。
+ * 各阶段默认均为空实现，客户端编译拦截器链时跳过未覆盖的阶段
  */
 public interface McpClientInterceptor {
 
@@ -14,7 +15,8 @@ public interface McpClientInterceptor {
      * @param request 请求封装
      * @param <I> 请求载荷类型
      */
-    <I> void beforeInvoke(String toolName, Envelopes.RequestEnvelope<I> request);
+    default <I> void beforeInvoke(String toolName, Envelopes.RequestEnvelope<I> request) {
+    }
 
     /**
      * 在工具调用之后执行
@@ -25,8 +27,9 @@ public interface McpClientInterceptor {
      * @param <I> 请求载荷类型
      * @param <O> 响应载荷类型
      */
-    <I, O> void afterInvoke(String toolName, Envelopes.RequestEnvelope<I> request,
-                            Envelopes.ResponseEnvelope<O> response);
+    default <I, O> void afterInvoke(String toolName, Envelopes.RequestEnvelope<I> request,
+                                    Envelopes.ResponseEnvelope<O> response) {
+    }
 
     /**
      * 在工具调用出现异常时执行
@@ -36,5 +39,6 @@ public interface McpClientInterceptor {
      * @param exception 异常信息
      * @param <I> 请求载荷类型
      */
-    <I> void onError(String toolName, Envelopes.RequestEnvelope<I> request, Exception exception);
+    default <I> void onError(String toolName, Envelopes.RequestEnvelope<I> request, Exception exception) {
+    }
 }
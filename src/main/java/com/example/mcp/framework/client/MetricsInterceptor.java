@@ -1,92 +1,67 @@
 package com.example.mcp.framework.client;
 
 import com.example.mcp.common.Envelopes;
-
+import com.example.mcp.common.StdResponse;
+import com.example.mcp.framework.metrics.MetricsCollector;
+import com.example.mcp.framework.metrics.MetricsWriter;
+import com.example.mcp.framework.metrics.ToolMetrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * 指标拦截器，收集客户端调用的统计信息
+ * 指标拦截器，收集客户端调用的统计信息。
+ * 延迟为客户端观测到的端到端耗时（从创建请求到收到响应，包含重试），按工具与响应状态记录到纳秒级直方图中。
+ * 作为 {@link MetricsCollector} 登记后以 {@code mcp_client_} 前缀导出
  */
-public class MetricsInterceptor implements McpClientInterceptor {
+public class MetricsInterceptor implements McpClientInterceptor, MetricsCollector {
 
     private final ConcurrentHashMap<String, ToolMetrics> metricsMap = new ConcurrentHashMap<>();
+    private final MetricsCollector collector = ToolMetrics.collector("mcp_client", metricsMap);
 
     @Override
     public <I> void beforeInvoke(String toolName, Envelopes.RequestEnvelope<I> request) {
-        ToolMetrics metrics = metricsMap.computeIfAbsent(toolName, k -> new ToolMetrics());
-        metrics.incrementTotal();
+        metricsMap.computeIfAbsent(toolName, k -> new ToolMetrics());
     }
 
     @Override
     public <I, O> void afterInvoke(String toolName, Envelopes.RequestEnvelope<I> request,
                                     Envelopes.ResponseEnvelope<O> response) {
-        ToolMetrics metrics = metricsMap.get(toolName);
-        if (metrics != null) {
-            if ("SUCCESS".equals(response.getResponse().getStatus())) {
-                metrics.incrementSuccess();
-            } else {
-                metrics.incrementFailure();
-            }
-            metrics.addLatency(response.getContext().getUsage().getLatencyMs());
-        }
+        StdResponse<O> result = response.getResponse();
+        record(toolName, request, result.getStatus(), result.getCode());
     }
 
     @Override
     public <I> void onError(String toolName, Envelopes.RequestEnvelope<I> request, Exception exception) {
-        ToolMetrics metrics = metricsMap.get(toolName);
-        if (metrics != null) {
-            metrics.incrementFailure();
-        }
+        record(toolName, request, StdResponse.Status.ERROR, "client_error");
     }
 
-    public static class ToolMetrics {
-        private final AtomicLong totalCalls = new AtomicLong(0);
-        private final AtomicLong successCalls = new AtomicLong(0);
-        private final AtomicLong failureCalls = new AtomicLong(0);
-        private final AtomicLong totalLatency = new AtomicLong(0);
-
-        public void incrementTotal() {
-            totalCalls.incrementAndGet();
-        }
-
-        public void incrementSuccess() {
-            successCalls.incrementAndGet();
-        }
-
-        public void incrementFailure() {
-            failureCalls.incrementAndGet();
-        }
-
-        public void addLatency(long latency) {
-            totalLatency.addAndGet(latency);
-        }
-
-        public long getTotalCalls() {
-            return totalCalls.get();
-        }
-
-        public long getSuccessCalls() {
-            return successCalls.get();
-        }
+    /**
+     * 指定工具的指标
+     */
+    public Optional<ToolMetrics> getMetrics(String toolName) {
+        return Optional.ofNullable(metricsMap.get(toolName));
+    }
 
-        public long getFailureCalls() {
-            return failureCalls.get();
-        }
+    /**
+     * 所有工具的指标，只读视图
+     */
+    public Map<String, ToolMetrics> getAllMetrics() {
+        return Collections.unmodifiableMap(metricsMap);
+    }
 
-        public double getAverageLatency() {
-            long total = totalCalls.get();
-            return total > 0 ? (double) totalLatency.get() / total : 0;
-        }
+    @Override
+    public void collect(MetricsWriter writer) {
+        collector.collect(writer);
+    }
 
-        @Override
-        public String toString() {
-            return "ToolMetrics{" +
-                    "total=" + totalCalls.get() +
-                    ", success=" + successCalls.get() +
-                    ", failure=" + failureCalls.get() +
-                    ", avgLatency=" + String.format("%.2f", getAverageLatency()) + "ms" +
-                    '}';
+    private void record(String toolName, Envelopes.RequestEnvelope<?> request, StdResponse.Status status,
+                        String code) {
+        ToolMetrics metrics = metricsMap.get(toolName);
+        if (metrics != null) {
+            metrics.record(status, code, System.nanoTime() - request.getCreatedNanos());
         }
     }
 }
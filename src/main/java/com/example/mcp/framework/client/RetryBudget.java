@@ -0,0 +1,58 @@
+package com.example.mcp.framework.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 重试预算，令牌模型与 gRPC 的重试限流相同：每次失败扣除 1 个令牌，每次成功返还 {@code tokenRatio} 个，
+ * 令牌数不超过上限的一半时停止重试与对冲请求。后端持续故障时重试流量随之衰减，不会被放大成重试风暴
+ */
+public final class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long maxTokens;
+    private final long tokenRatio;
+    private final AtomicLong tokens;
+
+    /**
+     * @param maxTokens  令牌上限，初始为满
+     * @param tokenRatio 每次成功返还的令牌数，通常远小于 1
+     */
+    public RetryBudget(int maxTokens, double tokenRatio) {
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("maxTokens must be positive");
+        }
+        if (!(tokenRatio > 0) || tokenRatio > maxTokens) {
+            throw new IllegalArgumentException("tokenRatio must be positive and not exceed maxTokens");
+        }
+        this.maxTokens = maxTokens * SCALE;
+        this.tokenRatio = Math.max(1, Math.round(tokenRatio * SCALE));
+        this.tokens = new AtomicLong(this.maxTokens);
+    }
+
+    public void onSuccess() {
+        if (tokens.get() < maxTokens) {
+            tokens.getAndUpdate(current -> Math.min(maxTokens, current + tokenRatio));
+        }
+    }
+
+    public void onFailure() {
+        tokens.getAndUpdate(current -> Math.max(0, current - SCALE));
+    }
+
+    /**
+     * 是否允许重试或发送对冲请求
+     */
+    public boolean canRetry() {
+        return tokens.get() > maxTokens / 2;
+    }
+
+    public double getTokens() {
+        return (double) tokens.get() / SCALE;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryBudget{tokens=" + getTokens() + ", maxTokens=" + maxTokens / SCALE + '}';
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.mcp.framework.client;
+
+import java.time.Duration;
+
+/**
+ * 客户端重试策略：根据失败情况决定是否重试以及重试前的等待时间。
+ * 是否还有剩余的重试预算、剩余时间是否足够等待由客户端另行判断
+ */
+@FunctionalInterface
+public interface RetryPolicy {
+
+    /**
+     * 从不重试
+     */
+    RetryPolicy NONE = (attempt, failure) -> null;
+
+    /**
+     * @param attempt 失败的尝试序号，首次调用为 0
+     * @param failure 失败情况
+     * @return 重试前的等待时间，不重试时返回 null
+     */
+    Duration retryDelay(int attempt, Failure failure);
+
+    /**
+     * 一次失败的尝试
+     *
+     * @param tool       工具名，整批调用时为 null
+     * @param idempotent 工具是否声明为幂等（整批调用时要求所有工具都幂等）
+     * @param exception  调用抛出的异常；服务端返回错误响应时为 null
+     * @param code       服务端错误响应的错误码，例如 {@code rate_limited}、{@code overloaded}
+     * @param retryAfter 服务端建议的最短重试等待时间，没有建议时为 null
+     */
+    record Failure(String tool, boolean idempotent, Exception exception, String code, Duration retryAfter) {
+
+        /**
+         * 服务端返回了错误响应而不是调用抛出异常；错误码决定工具是否已经执行
+         */
+        public boolean isErrorResponse() {
+            return exception == null;
+        }
+    }
+}
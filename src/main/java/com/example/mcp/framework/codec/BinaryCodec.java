@@ -0,0 +1,416 @@
+package com.example.mcp.framework.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 紧凑二进制编解码器，帧体以魔数 {@code 0xB1} 开头，每个节点为一个类型字节加内容：
+ * <ul>
+ *     <li>整数使用 zigzag 变长编码，浮点数为 8 字节 IEEE 754，时间点为秒数与纳秒两个变长整数</li>
+ *     <li>{@link BigInteger} 写为补码字节，{@link BigDecimal} 写为标度加非标度值的补码字节，不损失精度</li>
+ *     <li>协议字段名、操作名、错误码与常用元数据键位于内置字典中，只写入字典下标</li>
+ *     <li>对象的键以及工具名、状态、会话等字段的值在帧内驻留：首次出现时写入全文并登记，再次出现只写入帧内下标。
+ *     批量调用中重复的工具名与元数据键因此只传输一次</li>
+ * </ul>
+ * 解码直接读取帧缓冲区，字符串从底层数组就地构造，不复制帧体
+ */
+public final class BinaryCodec implements McpCodec {
+
+    public static final String NAME = "binary";
+
+    static final byte MAGIC = (byte) 0xB1;
+
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte INT = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte STRING = 5;
+    private static final byte STRING_DEF = 6;
+    private static final byte STRING_REF = 7;
+    private static final byte STATIC_REF = 8;
+    private static final byte LIST = 9;
+    private static final byte MAP = 10;
+    private static final byte INSTANT = 11;
+    private static final byte BIG_INTEGER = 12;
+    private static final byte DECIMAL = 13;
+
+    /**
+     * 内置字典，下标即线路格式的一部分：只能在末尾追加，不能删除或调整顺序
+     */
+    private static final List<String> DICTIONARY = List.of(
+            // 帧与信封字段
+            "id", "op", "request", "requests", "result", "error", "event", "code", "message", "name",
+            "tool", "context", "payload", "data", "status", "response", "requestId", "sessionId", "clientId",
+            "locale", "timestamp", "deadline", "metadata", "emittedAt", "usage", "inputTokens", "outputTokens",
+            "latencyMs", "uiCard", "records", "batches",
+            // 操作名
+            "session_open", "list_tools", "describe_tool", "call_tool", "call_batch", "stream_events",
+            "cancel_call", "governance_report", "ping", "pong",
+            // 错误码
+            "bad_request", "unknown_op", "server_error", "client_error", "transport_error", "tool_not_found",
+            "handler_error", "processing_error", "tool_execution_error", "interceptor_rejected",
+            "session_not_open", "call_cancelled", "deadline_exceeded", "type_mismatch",
+            // 常用元数据键
+            "client", "client-version", "session-opened-at", "batch-id", "springai-model",
+            // 限流与过载保护
+            "rate_limited", "retry-after-ms", "overloaded",
+            // 会话凭证、相对截止时间与流式额度
+            "session-token", "invalid_session", "budgetMs", "window", "stream", "credits", "stream_credit",
+            // 对冲请求标记
+            "hedge");
+
+    private static final Map<String, Integer> DICTIONARY_INDEX = indexOf(DICTIONARY);
+
+    /**
+     * 值需要帧内驻留的字段：这些字段的取值集合很小，在批量与流式帧中反复出现
+     */
+    private static final Set<String> INTERNED_VALUES = Set.of(
+            "tool", "op", "event", "status", "code", "locale", "clientId", "sessionId", "name");
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean canDecode(ByteBuffer body) {
+        return body.hasRemaining() && body.get(body.position()) == MAGIC;
+    }
+
+    @Override
+    public ByteBuffer encode(Object tree, int headroom) {
+        Encoder encoder = new Encoder(headroom);
+        encoder.buffer[headroom] = MAGIC;
+        encoder.size = headroom + 1;
+        encoder.write(tree, false);
+        return ByteBuffer.wrap(encoder.buffer, 0, encoder.size);
+    }
+
+    @Override
+    public Object decode(ByteBuffer body) {
+        Decoder decoder = new Decoder(body.duplicate());
+        if (decoder.buffer.get() != MAGIC) {
+            throw new IllegalArgumentException("not a binary frame");
+        }
+        Object tree = decoder.read(0);
+        if (decoder.buffer.hasRemaining()) {
+            throw new IllegalArgumentException("unexpected trailing bytes: " + decoder.buffer.remaining());
+        }
+        return tree;
+    }
+
+    @Override
+    public String toString() {
+        return NAME;
+    }
+
+    private static Map<String, Integer> indexOf(List<String> words) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < words.size(); i++) {
+            if (index.put(words.get(i), i) != null) {
+                throw new IllegalStateException("duplicate dictionary entry: " + words.get(i));
+            }
+        }
+        return index;
+    }
+
+    private static final class Encoder {
+        private byte[] buffer;
+        private int size;
+        private Map<String, Integer> strings;
+
+        private Encoder(int headroom) {
+            this.buffer = new byte[Math.max(64, headroom + 256)];
+        }
+
+        private void write(Object node, boolean intern) {
+            if (node == null) {
+                writeByte(NULL);
+            } else if (node instanceof Boolean bool) {
+                writeByte(bool ? TRUE : FALSE);
+            } else if (node instanceof Long || node instanceof Integer || node instanceof Short
+                    || node instanceof Byte) {
+                writeByte(INT);
+                writeVarLong(zigzag(((Number) node).longValue()));
+            } else if (node instanceof BigInteger integer) {
+                writeByte(BIG_INTEGER);
+                writeBytes(integer.toByteArray());
+            } else if (node instanceof BigDecimal decimal) {
+                writeByte(DECIMAL);
+                writeVarLong(zigzag(decimal.scale()));
+                writeBytes(decimal.unscaledValue().toByteArray());
+            } else if (node instanceof Number number) {
+                writeByte(DOUBLE);
+                writeLong(Double.doubleToRawLongBits(number.doubleValue()));
+            } else if (node instanceof CharSequence text) {
+                writeString(text.toString(), intern);
+            } else if (node instanceof Map<?, ?> map) {
+                writeByte(MAP);
+                writeVarLong(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    String key = String.valueOf(entry.getKey());
+                    writeString(key, true);
+                    write(entry.getValue(), INTERNED_VALUES.contains(key));
+                }
+            } else if (node instanceof Collection<?> items) {
+                writeByte(LIST);
+                writeVarLong(items.size());
+                for (Object item : items) {
+                    write(item, intern);
+                }
+            } else if (node instanceof Instant instant) {
+                writeByte(INSTANT);
+                writeVarLong(zigzag(instant.getEpochSecond()));
+                writeVarLong(instant.getNano());
+            } else {
+                throw new IllegalArgumentException("unsupported tree node: " + node.getClass().getName());
+            }
+        }
+
+        private void writeString(String text, boolean intern) {
+            Integer known = DICTIONARY_INDEX.get(text);
+            if (known != null) {
+                writeByte(STATIC_REF);
+                writeVarLong(known);
+                return;
+            }
+            if (intern) {
+                if (strings == null) {
+                    strings = new HashMap<>();
+                }
+                Integer index = strings.putIfAbsent(text, strings.size());
+                if (index != null) {
+                    writeByte(STRING_REF);
+                    writeVarLong(index);
+                    return;
+                }
+                writeByte(STRING_DEF);
+            } else {
+                writeByte(STRING);
+            }
+            writeText(text);
+        }
+
+        private void writeText(String text) {
+            int length = text.length();
+            ensure(5 + length);
+            int start = size;
+            // ASCII 快路径：直接逐字符写入，遇到非 ASCII 字符时回退为 UTF-8 编码
+            size += varLongSize(length);
+            int position = size;
+            for (int i = 0; i < length; i++) {
+                char c = text.charAt(i);
+                if (c >= 0x80) {
+                    size = start;
+                    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+                    writeVarLong(bytes.length);
+                    ensure(bytes.length);
+                    System.arraycopy(bytes, 0, buffer, size, bytes.length);
+                    size += bytes.length;
+                    return;
+                }
+                buffer[position++] = (byte) c;
+            }
+            size = start;
+            writeVarLong(length);
+            size = position;
+        }
+
+        private void writeBytes(byte[] bytes) {
+            writeVarLong(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void writeByte(byte value) {
+            ensure(1);
+            buffer[size++] = value;
+        }
+
+        private void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, size + extra));
+            }
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+
+        private static int varLongSize(long value) {
+            int bytes = 1;
+            while ((value & ~0x7FL) != 0) {
+                value >>>= 7;
+                bytes++;
+            }
+            return bytes;
+        }
+    }
+
+    private static final class Decoder {
+        private final ByteBuffer buffer;
+        private List<String> strings;
+
+        private Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private Object read(int depth) {
+            byte tag = buffer.get();
+            return switch (tag) {
+                case NULL -> null;
+                case FALSE -> Boolean.FALSE;
+                case TRUE -> Boolean.TRUE;
+                case INT -> unzigzag(readVarLong());
+                case DOUBLE -> Double.longBitsToDouble(buffer.getLong());
+                case STRING, STRING_DEF, STRING_REF, STATIC_REF -> readString(tag);
+                case LIST -> {
+                    checkDepth(depth);
+                    int count = readCount();
+                    List<Object> items = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        items.add(read(depth + 1));
+                    }
+                    yield items;
+                }
+                case MAP -> {
+                    checkDepth(depth);
+                    int count = readCount();
+                    Map<String, Object> map = new LinkedHashMap<>(Math.max(16, count * 4 / 3 + 1));
+                    for (int i = 0; i < count; i++) {
+                        String key = readString(buffer.get());
+                        map.put(key, read(depth + 1));
+                    }
+                    yield map;
+                }
+                case INSTANT -> Instant.ofEpochSecond(unzigzag(readVarLong()), readVarLong());
+                case BIG_INTEGER -> new BigInteger(readBytes());
+                case DECIMAL -> {
+                    long scale = unzigzag(readVarLong());
+                    if (scale != (int) scale) {
+                        throw new IllegalArgumentException("decimal scale out of range: " + scale);
+                    }
+                    yield new BigDecimal(new BigInteger(readBytes()), (int) scale);
+                }
+                default -> throw new IllegalArgumentException("unknown tag " + tag + " at " + (buffer.position() - 1));
+            };
+        }
+
+        private void checkDepth(int depth) {
+            if (depth >= McpCodec.MAX_DEPTH) {
+                throw new IllegalArgumentException("nesting deeper than " + McpCodec.MAX_DEPTH + " at " + buffer.position());
+            }
+        }
+
+        private String readString(byte tag) {
+            switch (tag) {
+                case STATIC_REF -> {
+                    long index = readVarLong();
+                    if (index >= DICTIONARY.size()) {
+                        throw new IllegalArgumentException("unknown dictionary entry " + index);
+                    }
+                    return DICTIONARY.get((int) index);
+                }
+                case STRING_REF -> {
+                    long index = readVarLong();
+                    if (strings == null || index >= strings.size()) {
+                        throw new IllegalArgumentException("undefined string reference " + index);
+                    }
+                    return strings.get((int) index);
+                }
+                case STRING, STRING_DEF -> {
+                    String text = readText();
+                    if (tag == STRING_DEF) {
+                        if (strings == null) {
+                            strings = new ArrayList<>();
+                        }
+                        strings.add(text);
+                    }
+                    return text;
+                }
+                default -> throw new IllegalArgumentException("expected string but found tag " + tag);
+            }
+        }
+
+        private byte[] readBytes() {
+            int length = readCount();
+            if (length == 0) {
+                throw new IllegalArgumentException("empty big integer");
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return bytes;
+        }
+
+        private String readText() {
+            int length = readCount();
+            String text;
+            if (buffer.hasArray()) {
+                text = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                        StandardCharsets.UTF_8);
+            } else {
+                byte[] bytes = new byte[length];
+                buffer.get(buffer.position(), bytes);
+                text = new String(bytes, StandardCharsets.UTF_8);
+            }
+            buffer.position(buffer.position() + length);
+            return text;
+        }
+
+        /**
+         * 读取长度或元素个数；每个元素至少占一个字节，超过剩余字节数的值必然是损坏的帧
+         */
+        private int readCount() {
+            long count = readVarLong();
+            if (count > buffer.remaining()) {
+                throw new IllegalArgumentException("length " + count + " exceeds remaining " + buffer.remaining());
+            }
+            return (int) count;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint");
+        }
+
+        private static long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
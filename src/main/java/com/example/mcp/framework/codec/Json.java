@@ -0,0 +1,329 @@
+package com.example.mcp.framework.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 无依赖的 JSON 读写工具，只处理 JSON 树：对象读为 {@link LinkedHashMap}，数组读为 {@link ArrayList}，
+ * 整数读为 {@link Long}，超出范围的整数读为 {@link BigInteger}，其他数字读为 {@link Double}，
+ * 有效数字超过 double 精度（17 位）的小数读为 {@link BigDecimal}；写出时 {@link Instant} 按 ISO-8601 字符串输出，
+ * {@link BigDecimal} 与 {@link BigInteger} 按原值输出，不经过 double。
+ * Java 对象与 JSON 树的转换见 {@link JsonMapper}
+ */
+public final class Json {
+
+    private Json() {
+    }
+
+    public static Object parse(CharSequence text) {
+        Reader reader = new Reader(text);
+        reader.skipWhitespace();
+        Object value = reader.readValue();
+        reader.skipWhitespace();
+        if (reader.pos != text.length()) {
+            throw reader.error("unexpected trailing content");
+        }
+        return value;
+    }
+
+    public static String write(Object tree) {
+        StringBuilder out = new StringBuilder(128);
+        write(tree, out);
+        return out.toString();
+    }
+
+    public static void write(Object tree, StringBuilder out) {
+        if (tree == null) {
+            out.append("null");
+        } else if (tree instanceof CharSequence text) {
+            writeString(text, out);
+        } else if (tree instanceof Instant instant) {
+            writeString(instant.toString(), out);
+        } else if (tree instanceof Boolean || tree instanceof Integer || tree instanceof Long
+                || tree instanceof Short || tree instanceof Byte || tree instanceof BigInteger) {
+            out.append(tree);
+        } else if (tree instanceof BigDecimal decimal) {
+            out.append(decimal);
+        } else if (tree instanceof Number number) {
+            double value = number.doubleValue();
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                out.append("null");
+            } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                out.append((long) value);
+            } else {
+                out.append(value);
+            }
+        } else if (tree instanceof Map<?, ?> map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                writeString(String.valueOf(entry.getKey()), out);
+                out.append(':');
+                write(entry.getValue(), out);
+            }
+            out.append('}');
+        } else if (tree instanceof Collection<?> items) {
+            out.append('[');
+            boolean first = true;
+            for (Object item : items) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                write(item, out);
+            }
+            out.append(']');
+        } else {
+            throw new IllegalArgumentException("Not a JSON tree node: " + tree.getClass().getName());
+        }
+    }
+
+    private static void writeString(CharSequence text, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                case '\b' -> out.append("\\b");
+                case '\f' -> out.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private static final class Reader {
+        private final CharSequence text;
+        private int pos;
+        private int depth;
+
+        private Reader(CharSequence text) {
+            this.text = text;
+        }
+
+        private Object readValue() {
+            if (pos >= text.length()) {
+                throw error("unexpected end of input");
+            }
+            char c = text.charAt(pos);
+            return switch (c) {
+                case '{', '[' -> {
+                    if (++depth > McpCodec.MAX_DEPTH) {
+                        throw error("nesting deeper than " + McpCodec.MAX_DEPTH);
+                    }
+                    Object nested = c == '{' ? readObject() : readArray();
+                    depth--;
+                    yield nested;
+                }
+                case '"' -> readString();
+                case 't' -> readLiteral("true", Boolean.TRUE);
+                case 'f' -> readLiteral("false", Boolean.FALSE);
+                case 'n' -> readLiteral("null", null);
+                default -> {
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        yield readNumber();
+                    }
+                    throw error("unexpected character '" + c + "'");
+                }
+            };
+        }
+
+        private Map<String, Object> readObject() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("expected object key");
+                }
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                object.put(key, readValue());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return object;
+                }
+                if (c != ',') {
+                    throw error("expected ',' or '}'");
+                }
+            }
+        }
+
+        private List<Object> readArray() {
+            List<Object> array = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return array;
+            }
+            while (true) {
+                skipWhitespace();
+                array.add(readValue());
+                skipWhitespace();
+                char c = next();
+                if (c == ']') {
+                    return array;
+                }
+                if (c != ',') {
+                    throw error("expected ',' or ']'");
+                }
+            }
+        }
+
+        private String readString() {
+            pos++;
+            StringBuilder value = null;
+            int start = pos;
+            while (true) {
+                if (pos >= text.length()) {
+                    throw error("unterminated string");
+                }
+                char c = text.charAt(pos);
+                if (c == '"') {
+                    String result = value == null
+                            ? text.subSequence(start, pos).toString()
+                            : value.append(text, start, pos).toString();
+                    pos++;
+                    return result;
+                }
+                if (c == '\\') {
+                    if (value == null) {
+                        value = new StringBuilder();
+                    }
+                    value.append(text, start, pos);
+                    pos++;
+                    char escaped = next();
+                    switch (escaped) {
+                        case '"', '\\', '/' -> value.append(escaped);
+                        case 'n' -> value.append('\n');
+                        case 'r' -> value.append('\r');
+                        case 't' -> value.append('\t');
+                        case 'b' -> value.append('\b');
+                        case 'f' -> value.append('\f');
+                        case 'u' -> {
+                            if (pos + 4 > text.length()) {
+                                throw error("truncated unicode escape");
+                            }
+                            value.append((char) Integer.parseInt(text.subSequence(pos, pos + 4).toString(), 16));
+                            pos += 4;
+                        }
+                        default -> throw error("invalid escape '\\" + escaped + "'");
+                    }
+                    start = pos;
+                } else {
+                    pos++;
+                }
+            }
+        }
+
+        private static Object parseInteger(String number) {
+            BigInteger value = new BigInteger(number);
+            return value.bitLength() < 64 ? (Object) value.longValue() : value;
+        }
+
+        private Object readNumber() {
+            int start = pos;
+            boolean integral = true;
+            boolean exponent = false;
+            int digits = 0;
+            if (peek() == '-') {
+                pos++;
+            }
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c >= '0' && c <= '9') {
+                    if (!exponent) {
+                        digits++;
+                    }
+                    pos++;
+                } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                    integral = false;
+                    exponent |= c == 'e' || c == 'E';
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+            String number = text.subSequence(start, pos).toString();
+            try {
+                if (integral) {
+                    return digits < 19 ? (Object) Long.parseLong(number) : parseInteger(number);
+                }
+                return digits > 17 ? new BigDecimal(number) : (Object) Double.parseDouble(number);
+            } catch (NumberFormatException e) {
+                throw error("invalid number '" + number + "'");
+            }
+        }
+
+        private Object readLiteral(String literal, Object value) {
+            if (pos + literal.length() > text.length()
+                    || !text.subSequence(pos, pos + literal.length()).toString().equals(literal)) {
+                throw error("invalid literal");
+            }
+            pos += literal.length();
+            return value;
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                    return;
+                }
+                pos++;
+            }
+        }
+
+        private char peek() {
+            if (pos >= text.length()) {
+                throw error("unexpected end of input");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw error("expected '" + expected + "'");
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid JSON at " + pos + ": " + message);
+        }
+    }
+}
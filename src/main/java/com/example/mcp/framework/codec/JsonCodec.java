@@ -0,0 +1,45 @@
+package com.example.mcp.framework.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8 JSON 编解码器，与 {@code schema/mcp.schema.json} 描述的线路格式一致，便于调试与跨语言互通
+ */
+public final class JsonCodec implements McpCodec {
+
+    public static final String NAME = "json";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean canDecode(ByteBuffer body) {
+        if (!body.hasRemaining()) {
+            return false;
+        }
+        byte first = body.get(body.position());
+        return first == '{' || first == '[';
+    }
+
+    @Override
+    public ByteBuffer encode(Object tree, int headroom) {
+        byte[] bytes = Json.write(tree).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(headroom + bytes.length);
+        buffer.position(headroom);
+        buffer.put(bytes).flip();
+        return buffer;
+    }
+
+    @Override
+    public Object decode(ByteBuffer body) {
+        return Json.parse(StandardCharsets.UTF_8.decode(body.duplicate()));
+    }
+
+    @Override
+    public String toString() {
+        return NAME;
+    }
+}
@@ -0,0 +1,485 @@
+package com.example.mcp.framework.codec;
+
+import com.example.mcp.common.Context;
+import com.example.mcp.common.Envelopes;
+import com.example.mcp.common.StdResponse;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Java 对象与 JSON 树（见 {@link Json}）之间的转换。时间点在树中保留为 {@link Instant}，
+ * 由各编解码器决定其编码方式（JSON 为 ISO-8601 字符串）。
+ * <p>
+ * 协议对象（Context、StdResponse 与各 Envelope）按 schema/mcp.schema.json 的字段名显式转换；
+ * 工具载荷按反射规则转换：record 使用规范构造器；普通类优先使用参数类型与字段声明顺序一致的构造器，
+ * 其次使用无参构造器加字段赋值。每个类型的反射信息只解析一次并缓存
+ */
+public final class JsonMapper {
+
+    private static final ClassValue<Shape> SHAPES = new ClassValue<>() {
+        @Override
+        protected Shape computeValue(Class<?> type) {
+            return Shape.of(type);
+        }
+    };
+
+    private JsonMapper() {
+    }
+
+    public static Object toTree(Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Number
+                || value instanceof Instant) {
+            return value;
+        }
+        if (value instanceof Character || value instanceof Enum<?> || value instanceof Duration) {
+            return value instanceof Enum<?> constant ? constant.name() : value.toString();
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> tree = new LinkedHashMap<>();
+            map.forEach((key, item) -> tree.put(String.valueOf(key), toTree(item)));
+            return tree;
+        }
+        if (value instanceof Collection<?> items) {
+            List<Object> tree = new ArrayList<>(items.size());
+            items.forEach(item -> tree.add(toTree(item)));
+            return tree;
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            List<Object> tree = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                tree.add(toTree(Array.get(value, i)));
+            }
+            return tree;
+        }
+        if (value instanceof Context context) {
+            return contextToTree(context);
+        }
+        if (value instanceof StdResponse<?> response) {
+            return responseToTree(response);
+        }
+        if (value instanceof Envelopes.RequestEnvelope<?> request) {
+            return requestToTree(request);
+        }
+        if (value instanceof Envelopes.ResponseEnvelope<?> response) {
+            return responseEnvelopeToTree(response);
+        }
+        return SHAPES.get(value.getClass()).toTree(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T fromTree(Object tree, Class<T> type) {
+        return (T) fromTree(tree, (Type) type);
+    }
+
+    public static Object fromTree(Object tree, Type type) {
+        Class<?> raw = rawType(type);
+        if (tree == null) {
+            return defaultValue(raw);
+        }
+        if (raw == Object.class) {
+            return tree;
+        }
+        if (raw == String.class) {
+            return tree instanceof String text ? text : String.valueOf(tree);
+        }
+        if (raw.isPrimitive() || Number.class.isAssignableFrom(raw) || raw == Boolean.class
+                || raw == Character.class) {
+            return scalar(tree, raw);
+        }
+        if (raw.isEnum()) {
+            return enumConstant(raw, text(tree));
+        }
+        if (raw == Instant.class) {
+            return tree instanceof Instant instant ? instant : Instant.parse(text(tree));
+        }
+        if (raw == Duration.class) {
+            return Duration.parse(text(tree));
+        }
+        if (Map.class.isAssignableFrom(raw)) {
+            Type valueType = typeArgument(type, 1);
+            Map<String, Object> map = new LinkedHashMap<>();
+            object(tree).forEach((key, value) -> map.put(key, fromTree(value, valueType)));
+            return map;
+        }
+        if (Collection.class.isAssignableFrom(raw)) {
+            Type elementType = typeArgument(type, 0);
+            Collection<Object> items = Set.class.isAssignableFrom(raw) ? new LinkedHashSet<>() : new ArrayList<>();
+            for (Object item : array(tree)) {
+                items.add(fromTree(item, elementType));
+            }
+            return items;
+        }
+        if (raw.isArray()) {
+            Type componentType = type instanceof GenericArrayType generic
+                    ? generic.getGenericComponentType() : raw.getComponentType();
+            List<?> items = array(tree);
+            Object result = Array.newInstance(raw.getComponentType(), items.size());
+            for (int i = 0; i < items.size(); i++) {
+                Array.set(result, i, fromTree(items.get(i), componentType));
+            }
+            return result;
+        }
+        if (raw == Context.class) {
+            return contextFromTree(object(tree));
+        }
+        if (raw == StdResponse.class) {
+            return responseFromTree(object(tree), typeArgument(type, 0));
+        }
+        if (raw == Envelopes.ResponseEnvelope.class) {
+            return responseEnvelopeFromTree(object(tree), typeArgument(type, 0));
+        }
+        if (raw == Envelopes.RequestEnvelope.class) {
+            return requestFromTree(object(tree), typeArgument(type, 0));
+        }
+        return SHAPES.get(raw).fromTree(object(tree));
+    }
+
+    public static Map<String, Object> contextToTree(Context context) {
+        Map<String, Object> tree = new LinkedHashMap<>();
+        putIfPresent(tree, "clientId", context.getClientId());
+        putIfPresent(tree, "sessionId", context.getSessionId());
+        putIfPresent(tree, "requestId", context.getRequestId());
+        putIfPresent(tree, "timestamp", toTree(context.getCreatedAt()));
+        putIfPresent(tree, "deadline", toTree(context.getDeadline()));
+        putIfPresent(tree, "locale", context.getLocale());
+        tree.put("metadata", new LinkedHashMap<>(context.getMetadata()));
+        Map<String, Object> usage = new LinkedHashMap<>();
+        usage.put("inputTokens", context.getUsage().getInputTokens());
+        usage.put("outputTokens", context.getUsage().getOutputTokens());
+        usage.put("latencyMs", context.getUsage().getLatencyMs());
+        tree.put("usage", usage);
+        return tree;
+    }
+
+    public static Context contextFromTree(Map<String, Object> tree) {
+        Context context = new Context();
+        if (tree.get("clientId") != null) {
+            context.setClientId(text(tree.get("clientId")));
+        }
+        if (tree.get("sessionId") != null) {
+            context.setSessionId(text(tree.get("sessionId")));
+        }
+        context.setRequestId(fromTree(tree.get("requestId"), String.class));
+        context.setLocale(fromTree(tree.get("locale"), String.class));
+        if (tree.get("timestamp") != null) {
+            context.setCreatedAt(fromTree(tree.get("timestamp"), Instant.class));
+        }
+        context.setDeadline(fromTree(tree.get("deadline"), Instant.class));
+        Object metadata = tree.get("metadata");
+        if (metadata != null) {
+            object(metadata).forEach((key, value) -> context.putMetadata(key, String.valueOf(value)));
+        }
+        Object usageTree = tree.get("usage");
+        if (usageTree != null) {
+            Map<String, Object> usage = object(usageTree);
+            context.getUsage().setInputTokens((int) scalar(usage.getOrDefault("inputTokens", 0L), int.class));
+            context.getUsage().setOutputTokens((int) scalar(usage.getOrDefault("outputTokens", 0L), int.class));
+            context.getUsage().setLatencyMs((long) scalar(usage.getOrDefault("latencyMs", 0L), long.class));
+        }
+        return context;
+    }
+
+    public static Map<String, Object> responseToTree(StdResponse<?> response) {
+        Map<String, Object> tree = new LinkedHashMap<>();
+        tree.put("status", response.getStatus().name());
+        tree.put("code", response.getCode());
+        putIfPresent(tree, "message", response.getMessage());
+        putIfPresent(tree, "data", toTree(response.getData()));
+        return tree;
+    }
+
+    public static StdResponse<Object> responseFromTree(Map<String, Object> tree, Type dataType) {
+        StdResponse.Status status = StdResponse.Status.valueOf(text(tree.get("status")));
+        String code = fromTree(tree.get("code"), String.class);
+        String message = fromTree(tree.get("message"), String.class);
+        Object data = fromTree(tree.get("data"), dataType);
+        return switch (status) {
+            case SUCCESS -> StdResponse.success(code, message, data);
+            case CLARIFICATION -> StdResponse.clarification(code, message, data);
+            case ERROR -> StdResponse.error(code, message);
+        };
+    }
+
+    public static Map<String, Object> requestToTree(Envelopes.RequestEnvelope<?> request) {
+        Map<String, Object> tree = new LinkedHashMap<>();
+        tree.put("tool", request.getTool());
+        tree.put("context", contextToTree(request.getContext()));
+        tree.put("payload", toTree(request.getPayload()));
+        return tree;
+    }
+
+    public static Envelopes.RequestEnvelope<Object> requestFromTree(Map<String, Object> tree, Type payloadType) {
+        return new Envelopes.RequestEnvelope<>(text(tree.get("tool")), contextFromTree(object(tree.get("context"))),
+                fromTree(tree.get("payload"), payloadType));
+    }
+
+    public static Map<String, Object> responseEnvelopeToTree(Envelopes.ResponseEnvelope<?> response) {
+        Map<String, Object> tree = new LinkedHashMap<>();
+        tree.put("tool", response.getTool());
+        tree.put("context", contextToTree(response.getContext()));
+        tree.put("response", responseToTree(response.getResponse()));
+        putIfPresent(tree, "uiCard", toTree(response.getUiCard()));
+        return tree;
+    }
+
+    public static Envelopes.ResponseEnvelope<Object> responseEnvelopeFromTree(Map<String, Object> tree, Type dataType) {
+        Envelopes.UiCard card = fromTree(tree.get("uiCard"), Envelopes.UiCard.class);
+        return new Envelopes.ResponseEnvelope<>(text(tree.get("tool")), contextFromTree(object(tree.get("context"))),
+                responseFromTree(object(tree.get("response")), dataType), card);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> object(Object tree) {
+        if (tree instanceof Map<?, ?> map) {
+            return (Map<String, Object>) map;
+        }
+        throw new IllegalArgumentException("Expected JSON object but got " + describe(tree));
+    }
+
+    public static List<?> array(Object tree) {
+        if (tree instanceof List<?> list) {
+            return list;
+        }
+        throw new IllegalArgumentException("Expected JSON array but got " + describe(tree));
+    }
+
+    private static String text(Object tree) {
+        if (tree instanceof String text) {
+            return text;
+        }
+        throw new IllegalArgumentException("Expected JSON string but got " + describe(tree));
+    }
+
+    private static void putIfPresent(Map<String, Object> tree, String key, Object value) {
+        if (value != null) {
+            tree.put(key, value);
+        }
+    }
+
+    private static Object scalar(Object tree, Class<?> type) {
+        if (type == boolean.class || type == Boolean.class) {
+            if (tree instanceof Boolean flag) {
+                return flag;
+            }
+            return Boolean.parseBoolean(String.valueOf(tree));
+        }
+        if (type == char.class || type == Character.class) {
+            String text = String.valueOf(tree);
+            if (text.length() != 1) {
+                throw new IllegalArgumentException("Expected single character but got '" + text + "'");
+            }
+            return text.charAt(0);
+        }
+        if (type == BigDecimal.class) {
+            return tree instanceof BigDecimal decimal ? decimal
+                    : tree instanceof BigInteger integer ? new BigDecimal(integer) : new BigDecimal(String.valueOf(tree));
+        }
+        if (type == BigInteger.class) {
+            return tree instanceof BigInteger integer ? integer
+                    : new BigDecimal(String.valueOf(tree)).toBigIntegerExact();
+        }
+        Number number = tree instanceof Number value ? value : Double.valueOf(String.valueOf(tree));
+        if (type == int.class || type == Integer.class) {
+            return number.intValue();
+        }
+        if (type == long.class || type == Long.class) {
+            return number.longValue();
+        }
+        if (type == double.class || type == Double.class) {
+            return number.doubleValue();
+        }
+        if (type == float.class || type == Float.class) {
+            return number.floatValue();
+        }
+        if (type == short.class || type == Short.class) {
+            return number.shortValue();
+        }
+        if (type == byte.class || type == Byte.class) {
+            return number.byteValue();
+        }
+        return number;
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        }
+        return type == boolean.class ? Boolean.FALSE : scalar(0L, type);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumConstant(Class<?> type, String name) {
+        return Enum.valueOf((Class<? extends Enum>) type, name);
+    }
+
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class<?> raw) {
+            return raw;
+        }
+        if (type instanceof ParameterizedType parameterized) {
+            return (Class<?>) parameterized.getRawType();
+        }
+        if (type instanceof GenericArrayType generic) {
+            return Array.newInstance(rawType(generic.getGenericComponentType()), 0).getClass();
+        }
+        if (type instanceof WildcardType wildcard) {
+            return rawType(wildcard.getUpperBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType parameterized && parameterized.getActualTypeArguments().length > index) {
+            return parameterized.getActualTypeArguments()[index];
+        }
+        return Object.class;
+    }
+
+    private static String describe(Object tree) {
+        return tree == null ? "null" : tree.getClass().getSimpleName();
+    }
+
+    /**
+     * 单个载荷类型的反射信息
+     */
+    private static final class Shape {
+        private final Class<?> type;
+        private final String[] names;
+        private final Type[] types;
+        private final Field[] fields;
+        private final Method[] accessors;
+        private final Constructor<?> constructor;
+        private final boolean constructorInjection;
+
+        private Shape(Class<?> type, String[] names, Type[] types, Field[] fields, Method[] accessors,
+                      Constructor<?> constructor, boolean constructorInjection) {
+            this.type = type;
+            this.names = names;
+            this.types = types;
+            this.fields = fields;
+            this.accessors = accessors;
+            this.constructor = constructor;
+            this.constructorInjection = constructorInjection;
+        }
+
+        private static Shape of(Class<?> type) {
+            if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+                throw new IllegalArgumentException("Cannot map JSON to abstract type " + type.getName());
+            }
+            if (type.isRecord()) {
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] parameterTypes = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+                Method[] accessors = Arrays.stream(components).map(RecordComponent::getAccessor).toArray(Method[]::new);
+                for (Method accessor : accessors) {
+                    accessor.setAccessible(true);
+                }
+                return new Shape(type, Arrays.stream(components).map(RecordComponent::getName).toArray(String[]::new),
+                        Arrays.stream(components).map(RecordComponent::getGenericType).toArray(Type[]::new),
+                        null, accessors, accessible(constructor(type, parameterTypes)), true);
+            }
+            List<Field> declared = new ArrayList<>();
+            collectFields(type, declared);
+            Field[] fields = declared.toArray(new Field[0]);
+            for (Field field : fields) {
+                field.setAccessible(true);
+            }
+            String[] names = Arrays.stream(fields).map(Field::getName).toArray(String[]::new);
+            Type[] types = Arrays.stream(fields).map(Field::getGenericType).toArray(Type[]::new);
+            Constructor<?> matching = constructor(type, Arrays.stream(fields).map(Field::getType).toArray(Class<?>[]::new));
+            if (matching != null) {
+                return new Shape(type, names, types, fields, null, accessible(matching), true);
+            }
+            return new Shape(type, names, types, fields, null, accessible(constructor(type)), false);
+        }
+
+        private static void collectFields(Class<?> type, List<Field> target) {
+            if (type == null || type == Object.class) {
+                return;
+            }
+            collectFields(type.getSuperclass(), target);
+            for (Field field : type.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    target.add(field);
+                }
+            }
+        }
+
+        private static Constructor<?> constructor(Class<?> type, Class<?>... parameterTypes) {
+            try {
+                return type.getDeclaredConstructor(parameterTypes);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        private static Constructor<?> accessible(Constructor<?> constructor) {
+            if (constructor != null) {
+                constructor.setAccessible(true);
+            }
+            return constructor;
+        }
+
+        private Object toTree(Object value) {
+            Map<String, Object> tree = new LinkedHashMap<>();
+            try {
+                for (int i = 0; i < names.length; i++) {
+                    Object item = accessors != null ? accessors[i].invoke(value) : fields[i].get(value);
+                    if (item != null) {
+                        tree.put(names[i], JsonMapper.toTree(item));
+                    }
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot read " + type.getName(), e);
+            }
+            return tree;
+        }
+
+        private Object fromTree(Map<String, Object> tree) {
+            if (constructor == null) {
+                throw new IllegalArgumentException("No usable constructor to map JSON to " + type.getName());
+            }
+            try {
+                if (constructorInjection) {
+                    Object[] args = new Object[names.length];
+                    for (int i = 0; i < names.length; i++) {
+                        args[i] = JsonMapper.fromTree(tree.get(names[i]), types[i]);
+                    }
+                    return constructor.newInstance(args);
+                }
+                Object instance = constructor.newInstance();
+                for (int i = 0; i < names.length; i++) {
+                    if (tree.containsKey(names[i])) {
+                        fields[i].set(instance, JsonMapper.fromTree(tree.get(names[i]), types[i]));
+                    }
+                }
+                return instance;
+            } catch (ReflectiveOperationException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                throw new IllegalArgumentException("Cannot map JSON to " + type.getName() + ": " + cause.getMessage(), cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.mcp.framework.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 线路编解码器 SPI：在 JSON 树（见 {@link Json}）与帧体字节之间转换。
+ * <p>
+ * 实现必须无状态且线程安全；自定义实现可通过 {@code META-INF/services} 注册，由 {@link McpCodecs} 发现。
+ * 服务端按帧体首字节识别编解码器，因此不同实现的首字节不能冲突
+ */
+public interface McpCodec {
+
+    /**
+     * 解码时对象与数组允许的最大嵌套层数。帧在解码前未经认证，超过该层数的帧按格式错误拒绝，
+     * 递归解码因此不会耗尽线程栈
+     */
+    int MAX_DEPTH = 128;
+
+    /**
+     * 编解码器名称，用于配置与日志
+     */
+    String name();
+
+    /**
+     * 判断帧体是否由本编解码器编码；只允许读取而不改变 {@code body} 的位置
+     */
+    boolean canDecode(ByteBuffer body);
+
+    /**
+     * 编码 JSON 树
+     *
+     * @param tree     JSON 树，节点类型见 {@link Json}，另可包含 {@link java.time.Instant}
+     * @param headroom 帧体之前预留的字节数，调用方可在其中写入帧头而无需再次复制
+     * @return position 为 0、limit 为预留字节与帧体长度之和的缓冲区
+     */
+    ByteBuffer encode(Object tree, int headroom);
+
+    /**
+     * 直接从缓冲区解码 JSON 树，不复制帧体，也不改变 {@code body} 的位置；
+     * 嵌套超过 {@link #MAX_DEPTH} 层时抛出 {@link IllegalArgumentException}
+     */
+    Object decode(ByteBuffer body);
+}
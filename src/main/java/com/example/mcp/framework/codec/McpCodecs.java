@@ -0,0 +1,66 @@
+package com.example.mcp.framework.codec;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+/**
+ * 编解码器注册表：内置 JSON 与二进制实现，并通过 {@link ServiceLoader} 加载 {@link McpCodec} 扩展。
+ * 名称重复时先注册者优先，因此扩展不能替换内置实现
+ */
+public final class McpCodecs {
+
+    private static final McpCodec JSON = new JsonCodec();
+    private static final McpCodec BINARY = new BinaryCodec();
+    private static final List<McpCodec> AVAILABLE = load();
+
+    private McpCodecs() {
+    }
+
+    public static McpCodec json() {
+        return JSON;
+    }
+
+    public static McpCodec binary() {
+        return BINARY;
+    }
+
+    public static List<McpCodec> available() {
+        return AVAILABLE;
+    }
+
+    public static Optional<McpCodec> forName(String name) {
+        Objects.requireNonNull(name, "name must not be null");
+        return AVAILABLE.stream().filter(codec -> codec.name().equalsIgnoreCase(name)).findFirst();
+    }
+
+    /**
+     * 按帧体内容识别编解码器
+     *
+     * @throws IllegalArgumentException 没有编解码器能识别该帧体
+     */
+    public static McpCodec detect(ByteBuffer body) {
+        for (McpCodec codec : AVAILABLE) {
+            if (codec.canDecode(body)) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("unrecognized frame encoding");
+    }
+
+    private static List<McpCodec> load() {
+        List<McpCodec> codecs = new ArrayList<>(List.of(JSON, BINARY));
+        for (McpCodec codec : ServiceLoader.load(McpCodec.class, McpCodecs.class.getClassLoader())) {
+            if (codecs.stream().noneMatch(existing -> existing.name().equalsIgnoreCase(codec.name()))) {
+                codecs.add(codec);
+            } else {
+                System.err.println("[MCP-SERVER] 忽略重名的编解码器: " + codec.name());
+            }
+        }
+        return Collections.unmodifiableList(codecs);
+    }
+}
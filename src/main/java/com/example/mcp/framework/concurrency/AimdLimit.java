@@ -0,0 +1,60 @@
+package com.example.mcp.framework.concurrency;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * 加性增、乘性减（AIMD）：调用正常完成且并发已用到上限的一半以上时上限加一，
+ * 出现超时或延迟超过阈值时上限乘以回退系数。对延迟的缓慢恶化不敏感，适合以超时为主要过载信号的工具
+ */
+public final class AimdLimit implements ConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long timeoutNanos;
+    private volatile int limit;
+
+    public AimdLimit() {
+        this(20, 1, 200, 0.9, Duration.ofSeconds(5));
+    }
+
+    /**
+     * @param backoffRatio 过载时上限的缩减比例，取值 (0, 1)
+     * @param timeout      延迟超过该值的调用视为过载
+     */
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, Duration timeout) {
+        if (minLimit <= 0 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("limits must satisfy 0 < minLimit <= initialLimit <= maxLimit");
+        }
+        if (!(backoffRatio > 0 && backoffRatio < 1)) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        Objects.requireNonNull(timeout, "timeout must not be null");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.timeoutNanos = timeout.toNanos();
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long latencyNanos, int inFlight, boolean dropped) {
+        int current = limit;
+        if (dropped || latencyNanos > timeoutNanos) {
+            limit = Math.max(minLimit, (int) (current * backoffRatio));
+        } else if (inFlight * 2 >= current) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AimdLimit{limit=" + limit + '}';
+    }
+}
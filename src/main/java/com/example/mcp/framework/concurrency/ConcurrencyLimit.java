@@ -0,0 +1,22 @@
+package com.example.mcp.framework.concurrency;
+
+/**
+ * 自适应并发上限算法：根据已完成调用的延迟样本调整允许同时执行的调用数。
+ * 上限的读取在每次调用的准入判断上，必须廉价且无锁；样本更新由实现自行保证线程安全
+ */
+public interface ConcurrencyLimit {
+
+    /**
+     * 当前并发上限
+     */
+    int getLimit();
+
+    /**
+     * 记录一个已完成调用的样本
+     *
+     * @param latencyNanos 调用耗时（纳秒），包含在执行器上排队的时间
+     * @param inFlight     记录样本时正在执行的调用数（含本次）
+     * @param dropped      调用是否因超时等过载迹象失败
+     */
+    void onSample(long latencyNanos, int inFlight, boolean dropped);
+}
@@ -0,0 +1,87 @@
+package com.example.mcp.framework.concurrency;
+
+/**
+ * 梯度算法：比较长期平均延迟与最近延迟，延迟上升时按比例收缩上限，延迟平稳时以 sqrt(limit) 的余量增长。
+ * <pre>
+ * gradient = clamp(longRtt * tolerance / sampleRtt, 0.5, 1)
+ * newLimit = limit * gradient + sqrt(limit)
+ * limit    = limit * (1 - smoothing) + newLimit * smoothing
+ * </pre>
+ * 长期延迟以指数移动平均跟踪；持续过载时长期延迟本身会被抬高，因此当它明显高于最近延迟时加速回落，
+ * 让上限在后端恢复后重新增长。并发未用到上限的一半时不增长，避免空闲时上限无限膨胀
+ */
+public final class GradientLimit implements ConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final double longWindowFactor;
+    private double estimatedLimit;
+    private double longRtt;
+    private volatile int limit;
+
+    public GradientLimit() {
+        this(20, 1, 200, 0.2, 1.5, 600);
+    }
+
+    /**
+     * @param smoothing  每个样本对上限的影响比例，取值 (0, 1]
+     * @param tolerance  延迟超过长期平均的多少倍才开始收缩，至少为 1
+     * @param longWindow 长期平均覆盖的样本数
+     */
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance,
+                         int longWindow) {
+        if (minLimit <= 0 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("limits must satisfy 0 < minLimit <= initialLimit <= maxLimit");
+        }
+        if (!(smoothing > 0 && smoothing <= 1)) {
+            throw new IllegalArgumentException("smoothing must be in (0, 1]");
+        }
+        if (!(tolerance >= 1)) {
+            throw new IllegalArgumentException("tolerance must be at least 1");
+        }
+        if (longWindow <= 0) {
+            throw new IllegalArgumentException("longWindow must be positive");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.longWindowFactor = 2.0 / (longWindow + 1);
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long latencyNanos, int inFlight, boolean dropped) {
+        double sample = Math.max(1, latencyNanos);
+        if (longRtt == 0) {
+            longRtt = sample;
+        } else {
+            longRtt += (sample - longRtt) * longWindowFactor;
+            if (longRtt / sample > 2) {
+                // 过载结束后长期延迟偏高，加速回落
+                longRtt *= 0.95;
+            }
+        }
+        double gradient = dropped ? 0.5 : Math.max(0.5, Math.min(1.0, tolerance * longRtt / sample));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        if (newLimit > estimatedLimit && inFlight * 2 < estimatedLimit) {
+            return;
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - smoothing) + newLimit * smoothing));
+        limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public String toString() {
+        return "GradientLimit{limit=" + limit + ", longRttNanos=" + (long) longRtt + '}';
+    }
+}
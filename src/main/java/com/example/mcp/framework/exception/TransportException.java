@@ -0,0 +1,19 @@
+package com.example.mcp.framework.exception;
+
+/**
+ * 传输层异常：连接失败、连接中断或远端返回协议错误
+ */
+public class TransportException extends McpException {
+
+    public TransportException(String message) {
+        super("transport_error", message);
+    }
+
+    public TransportException(String message, Throwable cause) {
+        super("transport_error", message, cause);
+    }
+
+    public TransportException(String errorCode, String message, Throwable cause) {
+        super(errorCode, message, cause);
+    }
+}
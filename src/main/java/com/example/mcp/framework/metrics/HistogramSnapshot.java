@@ -0,0 +1,137 @@
+package com.example.mcp.framework.metrics;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延迟直方图的不可变快照，所有数值单位为纳秒；分位数返回所在桶的上界，误差与直方图精度一致
+ */
+public final class HistogramSnapshot {
+
+    private static final HistogramSnapshot EMPTY = new HistogramSnapshot(new long[LatencyHistogram.BUCKETS], 0);
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+
+    HistogramSnapshot(long[] counts, long sum) {
+        this.counts = counts;
+        this.sum = sum;
+        long total = 0;
+        for (long bucket : counts) {
+            total += bucket;
+        }
+        this.count = total;
+    }
+
+    public static HistogramSnapshot empty() {
+        return EMPTY;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public long getMin() {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                return LatencyHistogram.lowestValueOf(i);
+            }
+        }
+        return 0;
+    }
+
+    public long getMax() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] != 0) {
+                return LatencyHistogram.highestValueOf(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param percentile 0 到 100 之间的百分位
+     */
+    public long valueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return LatencyHistogram.highestValueOf(i);
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * 不超过给定值的样本数，按桶上界判断，用于导出固定边界的累积桶
+     */
+    public long countAtOrBelow(long nanos) {
+        long seen = 0;
+        for (int i = 0; i < counts.length && LatencyHistogram.highestValueOf(i) <= nanos; i++) {
+            seen += counts[i];
+        }
+        return seen;
+    }
+
+    public long getP50() {
+        return valueAtPercentile(50);
+    }
+
+    public long getP90() {
+        return valueAtPercentile(90);
+    }
+
+    public long getP99() {
+        return valueAtPercentile(99);
+    }
+
+    public long getP999() {
+        return valueAtPercentile(99.9);
+    }
+
+    /**
+     * 合并两个快照，例如把不同状态的分布汇总为整体分布
+     */
+    public HistogramSnapshot merge(HistogramSnapshot other) {
+        Objects.requireNonNull(other, "other must not be null");
+        long[] merged = new long[counts.length];
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] = counts[i] + other.counts[i];
+        }
+        return new HistogramSnapshot(merged, sum + other.sum);
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot{" +
+                "count=" + count +
+                ", mean=" + millis((long) getMean()) +
+                ", p50=" + millis(getP50()) +
+                ", p90=" + millis(getP90()) +
+                ", p99=" + millis(getP99()) +
+                ", p999=" + millis(getP999()) +
+                ", max=" + millis(getMax()) +
+                '}';
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3fms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
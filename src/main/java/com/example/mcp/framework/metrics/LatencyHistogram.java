@@ -0,0 +1,92 @@
+package com.example.mcp.framework.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的纳秒级延迟直方图，桶的划分与 HdrHistogram 相同：小于 128ns 的值逐一计数，
+ * 更大的值在每个 2 的幂区间内均分为 64 个桶，相对误差不超过 1/64（约 1.6%）。
+ * 超过 {@link #MAX_TRACKABLE_NANOS} 的值计入最后一个桶。
+ * <p>
+ * 记录只做一次原子自增与一次原子累加，不加锁也不分配内存；{@link #snapshot()} 返回累计分布，
+ * {@link #intervalSnapshot()} 返回自上次区间快照以来的分布
+ */
+public final class LatencyHistogram {
+
+    /**
+     * 可精确区分的最大值，约 68.7 秒
+     */
+    public static final long MAX_TRACKABLE_NANOS = (1L << 36) - 1;
+
+    static final int SUB_BUCKET_BITS = 6;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = bucketOf(MAX_TRACKABLE_NANOS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong sum = new AtomicLong();
+    private long[] intervalCounts = new long[BUCKETS];
+    private long intervalSum;
+
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_TRACKABLE_NANOS));
+        counts.incrementAndGet(bucketOf(value));
+        sum.addAndGet(value);
+    }
+
+    /**
+     * 自创建以来的累计分布
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new HistogramSnapshot(copy, sum.get());
+    }
+
+    /**
+     * 自上次调用本方法以来的分布，首次调用返回自创建以来的分布。
+     * 每条记录恰好出现在一个区间内；与记录并发时，正在写入的记录计入下一个区间
+     */
+    public synchronized HistogramSnapshot intervalSnapshot() {
+        long[] current = new long[BUCKETS];
+        long[] delta = new long[BUCKETS];
+        long currentSum = sum.get();
+        for (int i = 0; i < BUCKETS; i++) {
+            current[i] = counts.get(i);
+            delta[i] = current[i] - intervalCounts[i];
+        }
+        HistogramSnapshot snapshot = new HistogramSnapshot(delta, currentSum - intervalSum);
+        intervalCounts = current;
+        intervalSum = currentSum;
+        return snapshot;
+    }
+
+    static int bucketOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * 桶内的最大值（HdrHistogram 中的 highestEquivalentValue）
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    static long lowestValueOf(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    }
+}
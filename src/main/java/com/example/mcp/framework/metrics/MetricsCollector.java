@@ -0,0 +1,10 @@
+package com.example.mcp.framework.metrics;
+
+/**
+ * 指标采集器：每次抓取时读取当前状态并写出样本，采集过程不应阻塞或修改被观测的组件
+ */
+@FunctionalInterface
+public interface MetricsCollector {
+
+    void collect(MetricsWriter writer);
+}
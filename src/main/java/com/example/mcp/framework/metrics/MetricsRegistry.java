@@ -0,0 +1,98 @@
+package com.example.mcp.framework.metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 指标注册表：登记各组件的 {@link MetricsCollector}，抓取时按登记顺序依次采集。
+ * 每个采集器的样本先写入缓冲，采集成功后才整体转交导出器，单个采集器失败只会丢失它自己的样本，
+ * 不会在输出中留下残缺的指标族
+ */
+public final class MetricsRegistry {
+
+    private final List<MetricsCollector> collectors = new CopyOnWriteArrayList<>();
+
+    public <T extends MetricsCollector> T register(T collector) {
+        collectors.add(Objects.requireNonNull(collector, "collector must not be null"));
+        return collector;
+    }
+
+    public boolean unregister(MetricsCollector collector) {
+        return collectors.remove(collector);
+    }
+
+    public void collect(MetricsWriter writer) {
+        Objects.requireNonNull(writer, "writer must not be null");
+        Buffer buffer = new Buffer();
+        for (MetricsCollector collector : collectors) {
+            buffer.reset();
+            try {
+                collector.collect(buffer);
+            } catch (RuntimeException e) {
+                System.err.println("[MCP-SERVER] 指标采集失败: " + collector + " - " + e.getMessage());
+                continue;
+            }
+            buffer.commit(writer);
+        }
+    }
+
+    /**
+     * 暂存单个采集器的样本。写入导出器会拒绝的样本（标签不成对、同名指标类型冲突）在暂存时即被拒绝，
+     * 转交阶段因此不会失败；标签数组在暂存时复制，采集器复用数组也不受影响
+     */
+    private static final class Buffer implements MetricsWriter {
+        private final Map<String, String> types = new HashMap<>();
+        private final Map<String, String> pendingTypes = new HashMap<>();
+        private final List<Consumer<MetricsWriter>> samples = new ArrayList<>();
+
+        private void reset() {
+            pendingTypes.clear();
+            samples.clear();
+        }
+
+        private void commit(MetricsWriter writer) {
+            for (Consumer<MetricsWriter> sample : samples) {
+                sample.accept(writer);
+            }
+            types.putAll(pendingTypes);
+        }
+
+        @Override
+        public void counter(String name, String help, double value, String... labels) {
+            String[] copy = accept(name, "counter", labels);
+            samples.add(writer -> writer.counter(name, help, value, copy));
+        }
+
+        @Override
+        public void gauge(String name, String help, double value, String... labels) {
+            String[] copy = accept(name, "gauge", labels);
+            samples.add(writer -> writer.gauge(name, help, value, copy));
+        }
+
+        @Override
+        public void histogram(String name, String help, HistogramSnapshot snapshot, String... labels) {
+            Objects.requireNonNull(snapshot, "snapshot must not be null");
+            String[] copy = accept(name, "histogram", labels);
+            samples.add(writer -> writer.histogram(name, help, snapshot, copy));
+        }
+
+        private String[] accept(String name, String type, String[] labels) {
+            if (labels.length % 2 != 0) {
+                throw new IllegalArgumentException("labels must be key/value pairs: " + name);
+            }
+            String known = types.get(name);
+            if (known == null) {
+                known = pendingTypes.putIfAbsent(name, type);
+            }
+            if (known != null && !known.equals(type)) {
+                throw new IllegalArgumentException("metric " + name + " already registered as " + known);
+            }
+            return labels.clone();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.mcp.framework.metrics;
+
+/**
+ * 采集时接收指标样本的目标，由导出器实现。
+ * 标签以键、值交替的形式传入；同名指标的样本必须使用相同的帮助文本与标签键
+ */
+public interface MetricsWriter {
+
+    /**
+     * 单调递增的计数器
+     */
+    void counter(String name, String help, double value, String... labels);
+
+    /**
+     * 可增可减的瞬时值
+     */
+    void gauge(String name, String help, double value, String... labels);
+
+    /**
+     * 纳秒级延迟分布，导出器负责换算单位与划分桶
+     */
+    void histogram(String name, String help, HistogramSnapshot snapshot, String... labels);
+}
@@ -0,0 +1,235 @@
+package com.example.mcp.framework.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 以 Prometheus 文本格式（0.0.4）导出注册表中的指标，并可通过 JDK 内置的 {@link HttpServer}
+ * 在 {@code /metrics} 上提供抓取端点。
+ * <p>
+ * 延迟直方图按固定边界（单位秒）导出为累积桶，桶计数取自纳秒直方图，误差与直方图精度一致
+ */
+public final class PrometheusExporter implements AutoCloseable {
+
+    public static final String PATH = "/metrics";
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * 默认的直方图边界，单位秒，覆盖 0.5 毫秒到 10 秒
+     */
+    public static final double[] DEFAULT_BUCKETS =
+            {0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final MetricsRegistry registry;
+    private final double[] buckets;
+    private HttpServer httpServer;
+    private ExecutorService httpExecutor;
+
+    public PrometheusExporter(MetricsRegistry registry) {
+        this(registry, DEFAULT_BUCKETS);
+    }
+
+    public PrometheusExporter(MetricsRegistry registry, double[] buckets) {
+        this.registry = Objects.requireNonNull(registry, "registry must not be null");
+        Objects.requireNonNull(buckets, "buckets must not be null");
+        double[] sorted = buckets.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            if (!(sorted[i] > 0) || Double.isInfinite(sorted[i]) || (i > 0 && sorted[i] == sorted[i - 1])) {
+                throw new IllegalArgumentException("buckets must be distinct positive finite values");
+            }
+        }
+        this.buckets = sorted;
+    }
+
+    /**
+     * 采集一次注册表并渲染为文本格式
+     */
+    public String scrape() {
+        TextWriter writer = new TextWriter();
+        registry.collect(writer);
+        return writer.render();
+    }
+
+    /**
+     * 启动抓取端点
+     *
+     * @return 实际监听的地址，端口为 0 时可据此获得系统分配的端口
+     */
+    public synchronized InetSocketAddress start(String host, int port) throws IOException {
+        if (httpServer != null) {
+            throw new IllegalStateException("exporter already started");
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        server.createContext(PATH, this::handle);
+        httpExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mcp-metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(httpExecutor);
+        server.start();
+        httpServer = server;
+        InetSocketAddress address = getAddress();
+        System.out.println("[MCP-SERVER] 指标端点已启动: http://" + address.getHostString() + ':'
+                + address.getPort() + PATH);
+        return address;
+    }
+
+    public synchronized InetSocketAddress getAddress() {
+        return httpServer == null ? null : httpServer.getAddress();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (httpServer == null) {
+            return;
+        }
+        httpServer.stop(0);
+        httpExecutor.shutdownNow();
+        httpServer = null;
+        httpExecutor = null;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * 按指标名归并样本：文本格式要求同名样本连续出现，且 HELP/TYPE 只写一次
+     */
+    private final class TextWriter implements MetricsWriter {
+        private final Map<String, Family> families = new LinkedHashMap<>();
+
+        @Override
+        public void counter(String name, String help, double value, String... labels) {
+            family(name, help, "counter").sample(name, labels, null, null, value);
+        }
+
+        @Override
+        public void gauge(String name, String help, double value, String... labels) {
+            family(name, help, "gauge").sample(name, labels, null, null, value);
+        }
+
+        @Override
+        public void histogram(String name, String help, HistogramSnapshot snapshot, String... labels) {
+            Objects.requireNonNull(snapshot, "snapshot must not be null");
+            Family family = family(name, help, "histogram");
+            for (double bound : buckets) {
+                family.sample(name + "_bucket", labels, "le", format(bound),
+                        snapshot.countAtOrBelow((long) (bound * NANOS_PER_SECOND)));
+            }
+            family.sample(name + "_bucket", labels, "le", "+Inf", snapshot.getCount());
+            family.sample(name + "_sum", labels, null, null, snapshot.getSum() / NANOS_PER_SECOND);
+            family.sample(name + "_count", labels, null, null, snapshot.getCount());
+        }
+
+        private Family family(String name, String help, String type) {
+            Family family = families.computeIfAbsent(name, key -> new Family(key, help, type));
+            if (!family.type.equals(type)) {
+                throw new IllegalArgumentException("metric " + name + " already registered as " + family.type);
+            }
+            return family;
+        }
+
+        private String render() {
+            StringBuilder text = new StringBuilder();
+            for (Family family : families.values()) {
+                text.append(family.text);
+            }
+            return text.toString();
+        }
+    }
+
+    private static final class Family {
+        private final String type;
+        private final StringBuilder text = new StringBuilder();
+
+        private Family(String name, String help, String type) {
+            this.type = type;
+            text.append("# HELP ").append(name).append(' ').append(escapeHelp(help)).append('\n');
+            text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        }
+
+        private void sample(String name, String[] labels, String extraKey, String extraValue, double value) {
+            if (labels.length % 2 != 0) {
+                throw new IllegalArgumentException("labels must be key/value pairs: " + name);
+            }
+            text.append(name);
+            if (labels.length > 0 || extraKey != null) {
+                text.append('{');
+                for (int i = 0; i < labels.length; i += 2) {
+                    if (i > 0) {
+                        text.append(',');
+                    }
+                    label(labels[i], labels[i + 1]);
+                }
+                if (extraKey != null) {
+                    if (labels.length > 0) {
+                        text.append(',');
+                    }
+                    label(extraKey, extraValue);
+                }
+                text.append('}');
+            }
+            text.append(' ').append(format(value)).append('\n');
+        }
+
+        private void label(String key, String value) {
+            text.append(key).append("=\"").append(escapeLabel(String.valueOf(value))).append('"');
+        }
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
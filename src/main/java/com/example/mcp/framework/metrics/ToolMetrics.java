@@ -0,0 +1,172 @@
+package com.example.mcp.framework.metrics;
+
+import com.example.mcp.common.StdResponse;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个工具的调用指标：按响应状态分别维护延迟直方图，调用次数由直方图计数得出；
+ * 错误响应另按错误码计数。直方图在某个状态首次出现时创建
+ */
+public final class ToolMetrics {
+
+    private static final StdResponse.Status[] STATUSES = StdResponse.Status.values();
+
+    private final AtomicReferenceArray<LatencyHistogram> histograms =
+            new AtomicReferenceArray<>(STATUSES.length);
+    private final ConcurrentHashMap<String, LongAdder> errorCodes = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次完成的调用
+     */
+    public void record(StdResponse.Status status, long latencyNanos) {
+        histogram(status).record(latencyNanos);
+    }
+
+    /**
+     * 记录一次完成的调用，错误响应同时按错误码计数
+     */
+    public void record(StdResponse.Status status, String code, long latencyNanos) {
+        record(status, latencyNanos);
+        if (status == StdResponse.Status.ERROR && code != null) {
+            LongAdder counter = errorCodes.get(code);
+            if (counter == null) {
+                counter = errorCodes.computeIfAbsent(code, key -> new LongAdder());
+            }
+            counter.increment();
+        }
+    }
+
+    public long getTotalCalls() {
+        long total = 0;
+        for (StdResponse.Status status : STATUSES) {
+            total += latency(status).getCount();
+        }
+        return total;
+    }
+
+    public long getSuccessCalls() {
+        return latency(StdResponse.Status.SUCCESS).getCount();
+    }
+
+    public long getFailureCalls() {
+        return latency(StdResponse.Status.ERROR).getCount();
+    }
+
+    /**
+     * 各错误码的累计次数，按错误码排序
+     */
+    public Map<String, Long> getErrorCodes() {
+        Map<String, Long> counts = new TreeMap<>();
+        errorCodes.forEach((code, counter) -> counts.put(code, counter.sum()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * 平均延迟，单位毫秒
+     */
+    public double getAverageLatency() {
+        return latency().getMean() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * 所有状态合并后的累计延迟分布
+     */
+    public HistogramSnapshot latency() {
+        HistogramSnapshot merged = HistogramSnapshot.empty();
+        for (StdResponse.Status status : STATUSES) {
+            LatencyHistogram histogram = histograms.get(status.ordinal());
+            if (histogram != null) {
+                merged = merged.merge(histogram.snapshot());
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * 指定状态的累计延迟分布
+     */
+    public HistogramSnapshot latency(StdResponse.Status status) {
+        LatencyHistogram histogram = histograms.get(status.ordinal());
+        return histogram == null ? HistogramSnapshot.empty() : histogram.snapshot();
+    }
+
+    /**
+     * 各状态自上次区间快照以来的延迟分布，只包含出现过的状态
+     */
+    public Map<StdResponse.Status, HistogramSnapshot> intervalSnapshot() {
+        Map<StdResponse.Status, HistogramSnapshot> snapshots = new EnumMap<>(StdResponse.Status.class);
+        for (StdResponse.Status status : STATUSES) {
+            LatencyHistogram histogram = histograms.get(status.ordinal());
+            if (histogram != null) {
+                snapshots.put(status, histogram.intervalSnapshot());
+            }
+        }
+        return Collections.unmodifiableMap(snapshots);
+    }
+
+    /**
+     * 把一组工具指标导出为 {@code <prefix>_calls_total}（按工具与状态）、{@code <prefix>_errors_total}
+     * （按工具与错误码）与 {@code <prefix>_latency_seconds} 直方图（按工具）
+     *
+     * @param metrics 工具名到指标的映射，采集时读取其当前内容
+     */
+    public static MetricsCollector collector(String prefix, Map<String, ToolMetrics> metrics) {
+        Objects.requireNonNull(prefix, "prefix must not be null");
+        Objects.requireNonNull(metrics, "metrics must not be null");
+        return writer -> {
+            Map<String, ToolMetrics> sorted = new TreeMap<>(metrics);
+            Map<String, Map<StdResponse.Status, HistogramSnapshot>> latencies = new LinkedHashMap<>();
+            sorted.forEach((tool, toolMetrics) -> {
+                Map<StdResponse.Status, HistogramSnapshot> byStatus = new EnumMap<>(StdResponse.Status.class);
+                for (StdResponse.Status status : STATUSES) {
+                    byStatus.put(status, toolMetrics.latency(status));
+                }
+                latencies.put(tool, byStatus);
+            });
+            latencies.forEach((tool, byStatus) -> byStatus.forEach((status, snapshot) ->
+                    writer.counter(prefix + "_calls_total", "Completed tool calls by response status.",
+                            snapshot.getCount(), "tool", tool, "status", status.name().toLowerCase(Locale.ROOT))));
+            sorted.forEach((tool, toolMetrics) -> toolMetrics.getErrorCodes().forEach((code, count) ->
+                    writer.counter(prefix + "_errors_total", "Error responses by error code.",
+                            count, "tool", tool, "code", code)));
+            latencies.forEach((tool, byStatus) -> {
+                HistogramSnapshot merged = HistogramSnapshot.empty();
+                for (HistogramSnapshot snapshot : byStatus.values()) {
+                    merged = merged.merge(snapshot);
+                }
+                writer.histogram(prefix + "_latency_seconds", "Tool call latency in seconds.", merged, "tool", tool);
+            });
+        };
+    }
+
+    private LatencyHistogram histogram(StdResponse.Status status) {
+        int index = status.ordinal();
+        LatencyHistogram histogram = histograms.get(index);
+        if (histogram == null) {
+            histograms.compareAndSet(index, null, new LatencyHistogram());
+            histogram = histograms.get(index);
+        }
+        return histogram;
+    }
+
+    @Override
+    public String toString() {
+        return "ToolMetrics{" +
+                "total=" + getTotalCalls() +
+                ", success=" + getSuccessCalls() +
+                ", failure=" + getFailureCalls() +
+                ", latency=" + latency() +
+                '}';
+    }
+}
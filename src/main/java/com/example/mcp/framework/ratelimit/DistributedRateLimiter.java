@@ -0,0 +1,207 @@
+package com.example.mcp.framework.ratelimit;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 集群限流器：从 {@link RateLimitStore} 按批租用许可，放行只在本地租约上做一次 CAS。
+ * <p>
+ * 租约余量降到四分之一时在后台预取下一批；租约耗尽时发起领取但不等待，领取完成前拒绝并建议按一个许可的
+ * 间隔重试，调用线程从不阻塞在存储访问上。首次领取完成前没有可用租约，此时按同一策略在本节点独立放行。
+ * 租约在有效期后作废，作废与回收时未用完的许可归还给存储，因此节点无法囤积配额形成突发。
+ * 存储不可用时暂时退化为按同一策略在本节点独立限流，一段时间后再尝试访问存储
+ */
+public final class DistributedRateLimiter implements RateLimiter {
+
+    private static final long STORE_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimitStore store;
+    private final String key;
+    private final RateLimitPolicy policy;
+    private final int leaseSize;
+    private final long leaseTtlNanos;
+    private final Executor executor;
+    private final AtomicReference<Lease> lease;
+    private final AtomicReference<CompletableFuture<Void>> refill = new AtomicReference<>();
+    private volatile long retryAt;
+    private volatile long storeDownUntil;
+    private volatile RateLimiter fallback;
+    private volatile long lastUsed;
+    private volatile boolean leased;
+
+    public DistributedRateLimiter(RateLimitStore store, String key, RateLimitPolicy policy, int leaseSize,
+                                  long leaseTtlNanos, Executor executor, long nowNanos) {
+        this.store = Objects.requireNonNull(store, "store must not be null");
+        this.key = Objects.requireNonNull(key, "key must not be null");
+        this.policy = Objects.requireNonNull(policy, "policy must not be null");
+        this.executor = Objects.requireNonNull(executor, "executor must not be null");
+        if (leaseSize <= 0) {
+            throw new IllegalArgumentException("leaseSize must be positive");
+        }
+        if (leaseTtlNanos <= 0) {
+            throw new IllegalArgumentException("leaseTtlNanos must be positive");
+        }
+        this.leaseSize = leaseSize;
+        this.leaseTtlNanos = leaseTtlNanos;
+        this.lease = new AtomicReference<>(new Lease(0, nowNanos));
+        this.retryAt = nowNanos;
+        this.storeDownUntil = nowNanos;
+        this.lastUsed = nowNanos;
+    }
+
+    @Override
+    public long tryAcquire(long nowNanos) {
+        lastUsed = nowNanos;
+        if (storeDownUntil - nowNanos > 0) {
+            return fallback(nowNanos).tryAcquire(nowNanos);
+        }
+        Lease current = lease.get();
+        if (current.take(nowNanos)) {
+            if (current.remaining.get() <= leaseSize / 4 && retryAt - nowNanos <= 0) {
+                refill();
+            }
+            return 0;
+        }
+        if (retryAt - nowNanos > 0) {
+            return retryAt - nowNanos;
+        }
+        if (refill().isDone()) {
+            // 领取已在本线程内结束（例如执行器拒绝任务），按其结果处理
+            if (lease.get().take(nowNanos)) {
+                return 0;
+            }
+            if (retryAt - nowNanos > 0) {
+                return retryAt - nowNanos;
+            }
+        }
+        if (!leased || storeDownUntil - nowNanos > 0) {
+            return fallback(nowNanos).tryAcquire(nowNanos);
+        }
+        return policy.emissionIntervalNanos();
+    }
+
+    @Override
+    public boolean isIdle(long nowNanos) {
+        return nowNanos - lastUsed > leaseTtlNanos && refill.get() == null;
+    }
+
+    @Override
+    public void release() {
+        Lease current = lease.getAndSet(new Lease(0, lastUsed));
+        int unused = current.drain();
+        if (unused > 0 && current.expiresAt - System.nanoTime() > 0) {
+            executor.execute(() -> giveBack(unused));
+        }
+    }
+
+    /**
+     * 发起一次领取，已有领取在进行时返回同一个 future；返回的 future 总是正常完成
+     */
+    private CompletableFuture<Void> refill() {
+        CompletableFuture<Void> running = refill.get();
+        if (running != null) {
+            return running;
+        }
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        if (!refill.compareAndSet(null, started)) {
+            running = refill.get();
+            return running != null ? running : CompletableFuture.completedFuture(null);
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    renew();
+                } finally {
+                    refill.set(null);
+                    started.complete(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            refill.set(null);
+            started.complete(null);
+        }
+        return started;
+    }
+
+    private void renew() {
+        long now = System.nanoTime();
+        Lease previous = lease.get();
+        boolean expired = previous.expiresAt - now <= 0;
+        int leftover = previous.drain();
+        try {
+            if (expired && leftover > 0) {
+                store.release(key, policy, leftover);
+                leftover = 0;
+            }
+            RateLimitStore.Grant grant = store.acquire(key, policy, leaseSize);
+            if (grant.getGranted() == 0) {
+                retryAt = now + grant.getRetryAfterNanos();
+            }
+            lease.set(new Lease(leftover + grant.getGranted(), now + leaseTtlNanos));
+            leased = true;
+        } catch (IOException | RuntimeException e) {
+            lease.set(new Lease(expired ? 0 : leftover, previous.expiresAt));
+            storeDownUntil = now + STORE_RETRY_NANOS;
+            System.err.println("[MCP-SERVER] 限流存储不可用，暂时按节点独立限流: " + key + " - " + e.getMessage());
+        }
+    }
+
+    private void giveBack(int permits) {
+        try {
+            store.release(key, policy, permits);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[MCP-SERVER] 归还限流许可失败: " + key + " - " + e.getMessage());
+        }
+    }
+
+    private RateLimiter fallback(long nowNanos) {
+        RateLimiter current = fallback;
+        if (current == null) {
+            synchronized (this) {
+                current = fallback;
+                if (current == null) {
+                    current = policy.newLimiter(nowNanos);
+                    fallback = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 一批租用的许可，有效期内可用
+     */
+    private static final class Lease {
+        private final AtomicInteger remaining;
+        private final long expiresAt;
+
+        private Lease(int permits, long expiresAt) {
+            this.remaining = new AtomicInteger(permits);
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean take(long nowNanos) {
+            if (expiresAt - nowNanos <= 0) {
+                return false;
+            }
+            while (true) {
+                int current = remaining.get();
+                if (current <= 0) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private int drain() {
+            return remaining.getAndSet(0);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.mcp.framework.ratelimit;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 创建共享 {@link RateLimitStore} 配额的 {@link DistributedRateLimiter}。
+ * 存储访问在内置的守护线程池上执行，不占用调用线程
+ */
+public final class DistributedRateLimiterFactory implements RateLimiterFactory {
+
+    private final RateLimitStore store;
+    private int leaseSize;
+    private Duration leaseTtl = Duration.ofSeconds(1);
+    private volatile Executor executor;
+
+    public DistributedRateLimiterFactory(RateLimitStore store) {
+        this.store = Objects.requireNonNull(store, "store must not be null");
+    }
+
+    public RateLimitStore getStore() {
+        return store;
+    }
+
+    /**
+     * 每次向存储租用的许可数，0 表示按策略自动选择（桶容量的十分之一，至少为 1）。
+     * 租用越多访问存储越少，但各节点间的配额分配越不均匀
+     */
+    public int getLeaseSize() {
+        return leaseSize;
+    }
+
+    public void setLeaseSize(int leaseSize) {
+        if (leaseSize < 0) {
+            throw new IllegalArgumentException("leaseSize must be non-negative");
+        }
+        this.leaseSize = leaseSize;
+    }
+
+    /**
+     * 租约有效期，过期后未用完的许可归还给存储
+     */
+    public Duration getLeaseTtl() {
+        return leaseTtl;
+    }
+
+    public void setLeaseTtl(Duration leaseTtl) {
+        Objects.requireNonNull(leaseTtl, "leaseTtl must not be null");
+        if (leaseTtl.isNegative() || leaseTtl.isZero()) {
+            throw new IllegalArgumentException("leaseTtl must be positive");
+        }
+        this.leaseTtl = leaseTtl;
+    }
+
+    public int leaseSizeFor(RateLimitPolicy policy) {
+        return leaseSize > 0 ? leaseSize : Math.max(1, policy.getBurst() / 10);
+    }
+
+    @Override
+    public RateLimiter create(String key, RateLimitPolicy policy, long nowNanos) {
+        return new DistributedRateLimiter(store, key, policy, leaseSizeFor(policy), leaseTtl.toNanos(),
+                executor(), nowNanos);
+    }
+
+    private Executor executor() {
+        Executor current = executor;
+        if (current == null) {
+            synchronized (this) {
+                current = executor;
+                if (current == null) {
+                    AtomicInteger counter = new AtomicInteger();
+                    current = Executors.newCachedThreadPool(runnable -> {
+                        Thread thread = new Thread(runnable, "mcp-ratelimit-lease-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return "DistributedRateLimiterFactory{" +
+                "store=" + store.getClass().getSimpleName() +
+                ", leaseSize=" + leaseSize +
+                ", leaseTtl=" + leaseTtl +
+                '}';
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.mcp.framework.ratelimit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 基于共享目录的存储，适用于同一台机器（或支持文件锁的共享文件系统）上的多个 JVM：
+ * 每个限流对象对应一个 8 字节的文件，保存以纪元纳秒表示的理论到达时间，读改写在文件锁内完成。
+ * 时间取自墙钟，各节点的时钟须保持同步。桶文件不会自动删除，可在所有节点停止后清理目录
+ */
+public final class FileRateLimitStore implements RateLimitStore {
+
+    private static final String SUFFIX = ".bucket";
+    private static final int MAX_PLAIN_KEY_BYTES = 100;
+
+    private final Path directory;
+    private final Object[] stripes = new Object[64];
+    private volatile boolean closed;
+
+    public FileRateLimitStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(Objects.requireNonNull(directory, "directory must not be null"));
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public Grant acquire(String key, RateLimitPolicy policy, int permits) throws IOException {
+        Objects.requireNonNull(policy, "policy must not be null");
+        return update(key, bucket -> bucket.take(epochNanos(), policy, permits));
+    }
+
+    @Override
+    public void release(String key, RateLimitPolicy policy, int permits) throws IOException {
+        Objects.requireNonNull(policy, "policy must not be null");
+        update(key, bucket -> {
+            bucket.refund(epochNanos(), policy, permits);
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * 在文件锁内读取、修改并写回桶状态。文件锁由进程持有且同一进程内不能重叠，
+     * 因此进程内的线程先按键的哈希在固定数量的锁对象上互斥；文件在每次访问后关闭，不随键的数量占用文件句柄
+     */
+    private <T> T update(String key, Function<SharedBucket, T> action) throws IOException {
+        Objects.requireNonNull(key, "key must not be null");
+        if (closed) {
+            throw new IOException("store closed");
+        }
+        Path file = directory.resolve(fileName(key));
+        synchronized (stripes[(key.hashCode() & 0x7fffffff) % stripes.length]) {
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    return readModifyWrite(channel, action);
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    private static <T> T readModifyWrite(FileChannel channel, Function<SharedBucket, T> action) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        long stored = channel.read(buffer, 0) == Long.BYTES ? buffer.getLong(0) : SharedBucket.FULL;
+        SharedBucket bucket = new SharedBucket(stored);
+        T result = action.apply(bucket);
+        if (bucket.theoreticalArrival != stored) {
+            buffer.clear();
+            buffer.putLong(0, bucket.theoreticalArrival);
+            channel.write(buffer, 0);
+        }
+        return result;
+    }
+
+    /**
+     * 键可能包含任意字符，文件名使用其 UTF-8 编码的十六进制形式，过长的键改用 SHA-256 摘要
+     */
+    private static String fileName(String key) throws IOException {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_PLAIN_KEY_BYTES) {
+            try {
+                bytes = MessageDigest.getInstance("SHA-256").digest(bytes);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IOException(e);
+            }
+            return "sha256-" + HexFormat.of().formatHex(bytes) + SUFFIX;
+        }
+        return HexFormat.of().formatHex(bytes) + SUFFIX;
+    }
+
+    private static long epochNanos() {
+        Instant now = Instant.now();
+        return Math.addExact(Math.multiplyExact(now.getEpochSecond(), 1_000_000_000L), now.getNano());
+    }
+}
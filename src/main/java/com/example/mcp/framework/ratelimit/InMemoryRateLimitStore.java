@@ -0,0 +1,35 @@
+package com.example.mcp.framework.ratelimit;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内的参考实现，多个服务器实例部署在同一个 JVM 中时可共享；也用于验证租约逻辑
+ */
+public final class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final ConcurrentHashMap<String, SharedBucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public Grant acquire(String key, RateLimitPolicy policy, int permits) {
+        Objects.requireNonNull(policy, "policy must not be null");
+        SharedBucket bucket = bucket(key);
+        synchronized (bucket) {
+            return bucket.take(System.nanoTime(), policy, permits);
+        }
+    }
+
+    @Override
+    public void release(String key, RateLimitPolicy policy, int permits) {
+        Objects.requireNonNull(policy, "policy must not be null");
+        SharedBucket bucket = bucket(key);
+        synchronized (bucket) {
+            bucket.refund(System.nanoTime(), policy, permits);
+        }
+    }
+
+    private SharedBucket bucket(String key) {
+        Objects.requireNonNull(key, "key must not be null");
+        return buckets.computeIfAbsent(key, ignored -> new SharedBucket(SharedBucket.FULL));
+    }
+}
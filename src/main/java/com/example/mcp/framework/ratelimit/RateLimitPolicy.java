@@ -0,0 +1,122 @@
+package com.example.mcp.framework.ratelimit;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * 限流策略：限流算法及其参数，负责为每个限流对象创建独立的 {@link RateLimiter}
+ */
+public final class RateLimitPolicy {
+
+    public enum Algorithm {
+        /**
+         * 令牌桶：平均速率受限，允许不超过桶容量的突发
+         */
+        TOKEN_BUCKET,
+        /**
+         * 滑动窗口日志：任意长度为窗口的区间内放行次数不超过上限
+         */
+        SLIDING_WINDOW_LOG
+    }
+
+    private final Algorithm algorithm;
+    private final int permits;
+    private final Duration period;
+    private final int burst;
+
+    private RateLimitPolicy(Algorithm algorithm, int permits, Duration period, int burst) {
+        this.algorithm = algorithm;
+        this.permits = permits;
+        this.period = period;
+        this.burst = burst;
+    }
+
+    /**
+     * 每个周期补充 {@code permits} 个令牌，桶容量与之相同
+     */
+    public static RateLimitPolicy tokenBucket(int permits, Duration period) {
+        return tokenBucket(permits, period, permits);
+    }
+
+    /**
+     * 每个周期补充 {@code permits} 个令牌，桶容量为 {@code burst}
+     */
+    public static RateLimitPolicy tokenBucket(int permits, Duration period, int burst) {
+        validate(permits, period);
+        if (burst <= 0) {
+            throw new IllegalArgumentException("burst must be positive");
+        }
+        if (period.toNanos() / permits <= 0) {
+            throw new IllegalArgumentException("permits per period exceed nanosecond resolution");
+        }
+        return new RateLimitPolicy(Algorithm.TOKEN_BUCKET, permits, period, burst);
+    }
+
+    /**
+     * 任意长度为 {@code window} 的区间内最多放行 {@code permits} 次
+     */
+    public static RateLimitPolicy slidingWindowLog(int permits, Duration window) {
+        validate(permits, window);
+        if (permits > SlidingWindowLogLimiter.MAX_PERMITS) {
+            throw new IllegalArgumentException("permits must not exceed " + SlidingWindowLogLimiter.MAX_PERMITS);
+        }
+        if (window.toMillis() <= 0) {
+            throw new IllegalArgumentException("window must be at least 1ms");
+        }
+        return new RateLimitPolicy(Algorithm.SLIDING_WINDOW_LOG, permits, window, permits);
+    }
+
+    private static void validate(int permits, Duration period) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        Objects.requireNonNull(period, "period must not be null");
+        if (period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+    }
+
+    public RateLimiter newLimiter(long nowNanos) {
+        return switch (algorithm) {
+            case TOKEN_BUCKET -> new TokenBucketLimiter(emissionIntervalNanos(), burst, nowNanos);
+            case SLIDING_WINDOW_LOG -> new SlidingWindowLogLimiter(permits, period.toMillis(), nowNanos);
+        };
+    }
+
+    /**
+     * 令牌桶补充一个令牌的间隔；滑动窗口策略在分布式模式下也按同等速率的令牌桶执行
+     */
+    long emissionIntervalNanos() {
+        return period.toNanos() / permits;
+    }
+
+    long burstToleranceNanos() {
+        return Math.multiplyExact(emissionIntervalNanos(), (long) burst);
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public Duration getPeriod() {
+        return period;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitPolicy{" +
+                "algorithm=" + algorithm +
+                ", permits=" + permits +
+                ", period=" + period +
+                ", burst=" + burst +
+                '}';
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.mcp.framework.ratelimit;
+
+import java.io.IOException;
+
+/**
+ * 集群共享的限流配额存储。每个限流对象在存储中是一个令牌桶，节点按批领取许可并在本地消耗，
+ * 未用完的许可在回收时归还。所有节点须对同一个键使用相同的 {@link RateLimitPolicy}
+ * <p>
+ * 存储调用不在调用热路径上：只有本地许可耗尽或需要预取时才会访问存储
+ */
+public interface RateLimitStore extends AutoCloseable {
+
+    /**
+     * 领取最多 {@code permits} 个许可
+     *
+     * @return 实际领取的数量；一个也没有领到时附带建议的重试等待时间
+     */
+    Grant acquire(String key, RateLimitPolicy policy, int permits) throws IOException;
+
+    /**
+     * 归还领取后未使用的许可
+     */
+    void release(String key, RateLimitPolicy policy, int permits) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * 一次领取的结果
+     */
+    final class Grant {
+        private final int granted;
+        private final long retryAfterNanos;
+
+        private Grant(int granted, long retryAfterNanos) {
+            this.granted = granted;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+
+        public static Grant of(int granted) {
+            if (granted <= 0) {
+                throw new IllegalArgumentException("granted must be positive");
+            }
+            return new Grant(granted, 0);
+        }
+
+        public static Grant denied(long retryAfterNanos) {
+            return new Grant(0, Math.max(1, retryAfterNanos));
+        }
+
+        public int getGranted() {
+            return granted;
+        }
+
+        public long getRetryAfterNanos() {
+            return retryAfterNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Grant{" +
+                    "granted=" + granted +
+                    ", retryAfterNanos=" + retryAfterNanos +
+                    '}';
+        }
+    }
+}
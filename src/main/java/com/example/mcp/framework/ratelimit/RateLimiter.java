@@ -0,0 +1,26 @@
+package com.example.mcp.framework.ratelimit;
+
+/**
+ * 单个限流对象（客户端或工具）的限流状态。实现必须是无锁且线程安全的，
+ * 时间由调用方以 {@link System#nanoTime()} 传入，以便一次调用中多个限流器共用同一时间点
+ */
+public interface RateLimiter {
+
+    /**
+     * 尝试获取一个许可
+     *
+     * @return 0 表示放行；否则为建议的重试等待时间（纳秒），此时不消耗许可
+     */
+    long tryAcquire(long nowNanos);
+
+    /**
+     * 当前状态是否与新建的限流器等价；空闲的限流器可以回收，之后按需重建不会改变限流结果
+     */
+    boolean isIdle(long nowNanos);
+
+    /**
+     * 限流器被回收前调用，归还持有的外部资源（例如从共享存储预领的许可）
+     */
+    default void release() {
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.mcp.framework.ratelimit;
+
+/**
+ * 为限流对象创建 {@link RateLimiter}，决定限流状态保存在本节点还是在集群间共享
+ */
+@FunctionalInterface
+public interface RateLimiterFactory {
+
+    /**
+     * 各节点独立限流
+     */
+    RateLimiterFactory LOCAL = (key, policy, nowNanos) -> policy.newLimiter(nowNanos);
+
+    /**
+     * @param key 限流对象的全局唯一标识，例如 {@code client:demo-client}、{@code tool:qa}
+     */
+    RateLimiter create(String key, RateLimitPolicy policy, long nowNanos);
+}
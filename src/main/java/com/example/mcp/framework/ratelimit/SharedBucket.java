@@ -0,0 +1,41 @@
+package com.example.mcp.framework.ratelimit;
+
+/**
+ * 存储端的令牌桶状态，与 {@link TokenBucketLimiter} 使用相同的 GCRA 表示，只保存理论到达时间。
+ * 时间基准由存储决定（同一进程内可用 {@link System#nanoTime()}，跨进程须使用墙钟），本类不做同步
+ */
+final class SharedBucket {
+
+    /**
+     * 新建的桶：理论到达时间早于任何时间点，即桶是满的
+     */
+    static final long FULL = Long.MIN_VALUE;
+
+    long theoreticalArrival;
+
+    SharedBucket(long theoreticalArrival) {
+        this.theoreticalArrival = theoreticalArrival;
+    }
+
+    RateLimitStore.Grant take(long now, RateLimitPolicy policy, int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        long interval = policy.emissionIntervalNanos();
+        long base = Math.max(theoreticalArrival, now);
+        long available = (now + policy.burstToleranceNanos() - base) / interval;
+        if (available <= 0) {
+            return RateLimitStore.Grant.denied(base + interval - policy.burstToleranceNanos() - now);
+        }
+        int granted = (int) Math.min(available, permits);
+        theoreticalArrival = base + granted * interval;
+        return RateLimitStore.Grant.of(granted);
+    }
+
+    void refund(long now, RateLimitPolicy policy, int permits) {
+        if (permits <= 0 || theoreticalArrival <= now) {
+            return;
+        }
+        theoreticalArrival = Math.max(now, theoreticalArrival - permits * policy.emissionIntervalNanos());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.mcp.framework.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 滑动窗口日志限流器：记录最近 {@code permits} 次放行的时间，
+ * 当第 n - permits 次放行早于一个窗口之前时才放行第 n 次，任意长度为窗口的区间内放行次数都不超过上限，
+ * 不会出现固定窗口在边界处的双倍突发。
+ * <p>
+ * 日志是一个长度为 {@code permits} 的环，每个槽位在一个 long 中同时保存放行时间（毫秒）与放行序号的低位，
+ * 放行以对槽位的一次 CAS 完成，游标随后推进，其他线程看到已被占用的槽位时协助推进游标。
+ * 内存占用为每个许可 8 字节，时间精度为毫秒
+ */
+public final class SlidingWindowLogLimiter implements RateLimiter {
+
+    /**
+     * 窗口内允许的最大放行次数
+     */
+    public static final int MAX_PERMITS = (1 << 20) - 1;
+
+    private static final int SEQUENCE_BITS = 20;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int permits;
+    private final long windowMillis;
+    private final long origin;
+    private final AtomicLongArray log;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public SlidingWindowLogLimiter(int permits, long windowMillis, long nowNanos) {
+        if (permits <= 0 || permits > MAX_PERMITS) {
+            throw new IllegalArgumentException("permits must be between 1 and " + MAX_PERMITS);
+        }
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("windowMillis must be positive");
+        }
+        this.permits = permits;
+        this.windowMillis = windowMillis;
+        // 时间原点提前一个窗口，初始槽位的时间 0 因此总是已经过期
+        this.origin = nowNanos - (windowMillis + 1) * NANOS_PER_MILLI;
+        this.log = new AtomicLongArray(permits);
+        for (int i = 0; i < permits; i++) {
+            log.set(i, entry(0, i - permits));
+        }
+    }
+
+    @Override
+    public long tryAcquire(long nowNanos) {
+        long now = millis(nowNanos);
+        while (true) {
+            long sequence = cursor.get();
+            int index = (int) (sequence % permits);
+            long slot = log.get(index);
+            long owner = slot & SEQUENCE_MASK;
+            if (owner == (sequence & SEQUENCE_MASK)) {
+                // 槽位已被第 sequence 次放行占用，协助推进游标
+                cursor.compareAndSet(sequence, sequence + 1);
+                continue;
+            }
+            if (owner != ((sequence - permits) & SEQUENCE_MASK)) {
+                // 读到的游标已过时
+                continue;
+            }
+            // 时间按毫秒向下取整，多等 1 毫秒保证实际间隔不小于窗口
+            long wait = (slot >>> SEQUENCE_BITS) + windowMillis + 1 - now;
+            if (wait > 0) {
+                if (cursor.get() == sequence) {
+                    return wait * NANOS_PER_MILLI;
+                }
+                continue;
+            }
+            if (log.compareAndSet(index, slot, entry(now, sequence))) {
+                cursor.compareAndSet(sequence, sequence + 1);
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public boolean isIdle(long nowNanos) {
+        long sequence = cursor.get();
+        if ((log.get((int) (sequence % permits)) & SEQUENCE_MASK) == (sequence & SEQUENCE_MASK)) {
+            return false;
+        }
+        long latest = log.get((int) ((sequence + permits - 1) % permits));
+        return (latest >>> SEQUENCE_BITS) + windowMillis + 1 <= millis(nowNanos);
+    }
+
+    private long millis(long nowNanos) {
+        return Math.max(0, (nowNanos - origin) / NANOS_PER_MILLI);
+    }
+
+    private static long entry(long millis, long sequence) {
+        return millis << SEQUENCE_BITS | (sequence & SEQUENCE_MASK);
+    }
+}
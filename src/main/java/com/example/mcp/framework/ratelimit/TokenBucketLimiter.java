@@ -0,0 +1,55 @@
+package com.example.mcp.framework.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 令牌桶限流器，以 GCRA（通用信元速率算法）实现：只保存下一个请求的理论到达时间，
+ * 一次 CAS 完成取令牌，不需要定时补充令牌。
+ * <p>
+ * 桶容量为 {@code burst}，每隔 {@code period / permits} 补充一个令牌，
+ * 长期平均速率不超过每个周期 {@code permits} 次，任意时刻最多允许 {@code burst} 次突发
+ */
+public final class TokenBucketLimiter implements RateLimiter {
+
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final long origin;
+    private final AtomicLong theoreticalArrival = new AtomicLong();
+
+    /**
+     * @param emissionInterval 补充一个令牌的间隔（纳秒）
+     * @param burst            桶容量
+     */
+    public TokenBucketLimiter(long emissionInterval, int burst, long nowNanos) {
+        if (emissionInterval <= 0) {
+            throw new IllegalArgumentException("emissionInterval must be positive");
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("burst must be positive");
+        }
+        this.emissionInterval = emissionInterval;
+        this.burstTolerance = Math.multiplyExact(emissionInterval, (long) burst);
+        this.origin = nowNanos;
+    }
+
+    @Override
+    public long tryAcquire(long nowNanos) {
+        long now = nowNanos - origin;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + emissionInterval;
+            long allowAt = next - burstTolerance;
+            if (allowAt > now) {
+                return allowAt - now;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos - origin;
+    }
+}
@@ -0,0 +1,701 @@
+package com.example.mcp.framework.schema;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 把 JSON Schema 与载荷的 Java 类型一起编译为 {@link ValueCheck} 树。
+ * <p>
+ * 属性在编译时解析为字段的 {@link MethodHandle} 读取器，Schema 类型与字段的静态类型在编译时比对，
+ * 基本类型字段的存在性与类型无需在调用时检查，Java 枚举的字符串约束在编译时对每个常量求值。
+ * 属性名与 {@link com.example.mcp.framework.codec.JsonMapper} 一致取字段名，值为 null 的字段视为不存在。
+ * 不支持的关键字（如 {@code $ref}、{@code oneOf}）在编译时报错，而不是被静默忽略
+ */
+final class SchemaCompiler {
+
+    private static final Set<String> ANNOTATIONS = Set.of("$schema", "$id", "$comment", "title", "description",
+            "default", "examples", "format", "deprecated", "readOnly", "writeOnly");
+    private static final Set<String> KEYWORDS = Set.of("type", "properties", "required", "additionalProperties",
+            "items", "enum", "const", "minimum", "maximum", "exclusiveMinimum", "exclusiveMaximum",
+            "minLength", "maxLength", "pattern", "minItems", "maxItems");
+
+    private SchemaCompiler() {
+    }
+
+    /**
+     * @return 根节点的校验，载荷无需校验时返回 null
+     */
+    static ValueCheck compileRoot(Map<String, Object> schema, Class<?> type) {
+        if (kindOf(type) != Kind.OBJECT) {
+            throw new IllegalArgumentException("Payload type " + type.getName() + " must map to a JSON object");
+        }
+        return compile(schema, type, "");
+    }
+
+    private static ValueCheck compile(Object node, Type javaType, String path) {
+        if (node instanceof Boolean allowed) {
+            return allowed ? null : value -> at(path, "is not allowed");
+        }
+        Map<String, Object> schema = object(node, path);
+        for (String keyword : schema.keySet()) {
+            if (!KEYWORDS.contains(keyword) && !ANNOTATIONS.contains(keyword)) {
+                throw new IllegalArgumentException(at(path, "unsupported schema keyword '" + keyword + "'"));
+            }
+        }
+        Kind actual = kindOf(raw(javaType));
+        Kind declared = schema.containsKey("type") ? Kind.of(schema.get("type"), path) : null;
+        if (actual == Kind.ANY) {
+            if (declared == null) {
+                return null;
+            }
+            ValueCheck next = compileKind(schema, declared, declared.representative, path);
+            return new TypeCheck(path, declared, next);
+        }
+        if (declared != null && !declared.accepts(actual)) {
+            throw new IllegalArgumentException(at(path, "schema type '" + declared.name + "' does not match Java type "
+                    + javaType.getTypeName()));
+        }
+        ValueCheck check = compileKind(schema, actual, javaType, path);
+        if (declared == Kind.INTEGER && actual == Kind.NUMBER) {
+            ValueCheck integral = new TypeCheck(path, Kind.INTEGER, null);
+            return check == null ? integral : value -> {
+                String violation = integral.check(value);
+                return violation != null ? violation : check.check(value);
+            };
+        }
+        return check;
+    }
+
+    private static ValueCheck compileKind(Map<String, Object> schema, Kind kind, Type javaType, String path) {
+        return switch (kind) {
+            case STRING -> compileString(schema, raw(javaType), path);
+            case INTEGER, NUMBER -> compileNumber(schema, path);
+            case BOOLEAN -> compileBoolean(schema, path);
+            case ARRAY -> compileArray(schema, javaType, path);
+            case OBJECT -> Map.class.isAssignableFrom(raw(javaType))
+                    ? compileMap(schema, javaType, path) : compileObject(schema, raw(javaType), path);
+            case ANY -> null;
+        };
+    }
+
+    private static ValueCheck compileString(Map<String, Object> schema, Class<?> type, String path) {
+        rejectKeywords(schema, path, "string", "minimum", "maximum", "exclusiveMinimum", "exclusiveMaximum",
+                "properties", "required", "additionalProperties", "items", "minItems", "maxItems");
+        int minLength = (int) longValue(schema, "minLength", 0, path);
+        int maxLength = (int) longValue(schema, "maxLength", Integer.MAX_VALUE, path);
+        Pattern pattern = schema.containsKey("pattern") ? Pattern.compile(string(schema.get("pattern"), path)) : null;
+        Set<String> allowed = allowedValues(schema, path, String.class);
+        StringCheck check = minLength == 0 && maxLength == Integer.MAX_VALUE && pattern == null && allowed == null
+                ? null : new StringCheck(path, minLength, maxLength, pattern, allowed);
+        if (check == null || !type.isEnum()) {
+            return check;
+        }
+        // 枚举常量有限，约束在编译时逐个求值
+        Object[] constants = type.getEnumConstants();
+        String[] violations = new String[constants.length];
+        boolean any = false;
+        for (Object constant : constants) {
+            Enum<?> value = (Enum<?>) constant;
+            violations[value.ordinal()] = check.check(value.name());
+            any |= violations[value.ordinal()] != null;
+        }
+        return any ? value -> violations[((Enum<?>) value).ordinal()] : null;
+    }
+
+    private static ValueCheck compileNumber(Map<String, Object> schema, String path) {
+        rejectKeywords(schema, path, "number", "minLength", "maxLength", "pattern",
+                "properties", "required", "additionalProperties", "items", "minItems", "maxItems");
+        Bounds bounds = Bounds.of(schema, path);
+        Set<Number> declared = allowedValues(schema, path, Number.class);
+        Set<Double> allowed = declared == null ? null : numbers(declared);
+        if (bounds == null && allowed == null) {
+            return null;
+        }
+        return value -> {
+            Number number = (Number) value;
+            if (bounds != null) {
+                String violation = isIntegral(number) ? bounds.check(number.longValue(), path)
+                        : bounds.check(number.doubleValue(), path);
+                if (violation != null) {
+                    return violation;
+                }
+            }
+            return allowed == null || allowed.contains(number.doubleValue()) ? null
+                    : at(path, "is not one of " + declared);
+        };
+    }
+
+    private static ValueCheck compileBoolean(Map<String, Object> schema, String path) {
+        rejectKeywords(schema, path, "boolean", "minimum", "maximum", "exclusiveMinimum", "exclusiveMaximum",
+                "minLength", "maxLength", "pattern", "properties", "required", "additionalProperties",
+                "items", "minItems", "maxItems");
+        Set<Boolean> allowed = allowedValues(schema, path, Boolean.class);
+        return allowed == null ? null : value -> allowed.contains(value) ? null : at(path, "is not one of " + allowed);
+    }
+
+    private static ValueCheck compileArray(Map<String, Object> schema, Type javaType, String path) {
+        rejectKeywords(schema, path, "array", "minimum", "maximum", "exclusiveMinimum", "exclusiveMaximum",
+                "minLength", "maxLength", "pattern", "properties", "required", "additionalProperties", "enum", "const");
+        int minItems = (int) longValue(schema, "minItems", 0, path);
+        int maxItems = (int) longValue(schema, "maxItems", Integer.MAX_VALUE, path);
+        Class<?> raw = raw(javaType);
+        ValueCheck items = null;
+        if (schema.containsKey("items")) {
+            if (raw.isArray() && raw.getComponentType().isPrimitive()) {
+                throw new IllegalArgumentException(at(path, "items constraints on primitive arrays are not supported"));
+            }
+            Type elementType = raw.isArray() ? raw.getComponentType() : typeArgument(javaType, 0);
+            items = compile(schema.get("items"), elementType, path + "[]");
+        }
+        if (minItems == 0 && maxItems == Integer.MAX_VALUE && items == null) {
+            return null;
+        }
+        return new ArrayCheck(path, minItems, maxItems, items);
+    }
+
+    private static ValueCheck compileMap(Map<String, Object> schema, Type javaType, String path) {
+        rejectObjectKeywords(schema, path);
+        Type valueType = typeArgument(javaType, 1);
+        Map<String, Object> properties = schema.containsKey("properties")
+                ? object(schema.get("properties"), path) : Map.of();
+        String[] names = properties.keySet().toArray(new String[0]);
+        ValueCheck[] checks = new ValueCheck[names.length];
+        for (int i = 0; i < names.length; i++) {
+            checks[i] = compile(properties.get(names[i]), valueType, child(path, names[i]));
+        }
+        Object additional = schema.getOrDefault("additionalProperties", Boolean.TRUE);
+        boolean additionalAllowed = !Boolean.FALSE.equals(additional);
+        ValueCheck additionalCheck = additional instanceof Boolean ? null : compile(additional, valueType, path + ".*");
+        return new MapCheck(path, strings(schema.get("required"), path), names, checks, additionalAllowed,
+                additionalCheck, Set.of(names));
+    }
+
+    private static ValueCheck compileObject(Map<String, Object> schema, Class<?> type, String path) {
+        rejectObjectKeywords(schema, path);
+        Map<String, Field> fields = fields(type);
+        Map<String, Object> properties = schema.containsKey("properties")
+                ? object(schema.get("properties"), path) : Map.of();
+        Set<String> required = new HashSet<>(List.of(strings(schema.get("required"), path)));
+        for (String name : required) {
+            if (!fields.containsKey(name)) {
+                throw new IllegalArgumentException(at(path, "required property '" + name + "' has no matching field in "
+                        + type.getName()));
+            }
+        }
+        Object additional = schema.getOrDefault("additionalProperties", Boolean.TRUE);
+        List<PropertyCheck> checks = new ArrayList<>();
+        properties.forEach((name, property) -> {
+            if (!fields.containsKey(name)) {
+                // 载荷类型没有该属性，它永远不会出现；仍然编译以发现不支持的关键字
+                compile(property, Object.class, child(path, name));
+            }
+        });
+        for (Field field : fields.values()) {
+            String name = field.getName();
+            Object property = properties.containsKey(name) ? properties.get(name)
+                    : Boolean.TRUE.equals(additional) ? null : additional;
+            PropertyCheck check = property(field, property, required.contains(name), child(path, name));
+            if (check != null) {
+                checks.add(check);
+            }
+        }
+        return checks.isEmpty() ? null : new ObjectCheck(checks.toArray(new PropertyCheck[0]));
+    }
+
+    private static PropertyCheck property(Field field, Object schema, boolean required, String path) {
+        Class<?> type = field.getType();
+        if (Boolean.FALSE.equals(schema)) {
+            if (type.isPrimitive()) {
+                throw new IllegalArgumentException(at(path, "property is not allowed but primitive field "
+                        + field.getDeclaringClass().getName() + '.' + field.getName() + " is always present"));
+            }
+            return new ReferenceProperty(path, getter(field, Object.class), false,
+                    value -> at(path, "is not allowed"));
+        }
+        if (type.isPrimitive() && type != char.class) {
+            // 基本类型总是存在，类型已在编译时匹配，只剩数值与枚举约束
+            if (schema == null) {
+                return null;
+            }
+            Map<String, Object> node = object(schema, path);
+            compile(node, type, path);
+            if (type == boolean.class) {
+                ValueCheck check = compileBoolean(node, path);
+                return check == null ? null : new ReferenceProperty(path, getter(field, Object.class), false, check);
+            }
+            Bounds bounds = Bounds.of(node, path);
+            boolean integral = type != float.class && type != double.class;
+            if (node.containsKey("enum") || node.containsKey("const")) {
+                return new ReferenceProperty(path, getter(field, Object.class), false, compile(node, type, path));
+            }
+            if (bounds == null && !(Kind.INTEGER.name.equals(node.get("type")) && !integral)) {
+                return null;
+            }
+            return integral ? new LongProperty(path, getter(field, long.class), bounds)
+                    : new DoubleProperty(path, getter(field, double.class), bounds,
+                    Kind.INTEGER.name.equals(node.get("type")));
+        }
+        ValueCheck check = schema == null ? null : compile(schema, field.getGenericType(), path);
+        if (!required && check == null) {
+            return null;
+        }
+        return new ReferenceProperty(path, getter(field, Object.class), required, check);
+    }
+
+    private static MethodHandle getter(Field field, Class<?> returnType) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            return lookup.unreflectGetter(field).asType(MethodType.methodType(returnType, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot read field " + field, e);
+        }
+    }
+
+    /**
+     * 与 JsonMapper 相同的字段规则：父类字段在前，跳过静态、transient 与合成字段
+     */
+    private static Map<String, Field> fields(Class<?> type) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.add(0, current);
+        }
+        Map<String, Field> fields = new LinkedHashMap<>();
+        for (Class<?> current : hierarchy) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    fields.put(field.getName(), field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static void rejectObjectKeywords(Map<String, Object> schema, String path) {
+        rejectKeywords(schema, path, "object", "minimum", "maximum", "exclusiveMinimum", "exclusiveMaximum",
+                "minLength", "maxLength", "pattern", "items", "minItems", "maxItems", "enum", "const");
+    }
+
+    private static void rejectKeywords(Map<String, Object> schema, String path, String kind, String... keywords) {
+        for (String keyword : keywords) {
+            if (schema.containsKey(keyword)) {
+                throw new IllegalArgumentException(at(path, "keyword '" + keyword + "' does not apply to " + kind
+                        + " values"));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Set<T> allowedValues(Map<String, Object> schema, String path, Class<T> type) {
+        List<Object> values;
+        if (schema.containsKey("const")) {
+            values = new ArrayList<>();
+            values.add(schema.get("const"));
+        } else if (schema.containsKey("enum")) {
+            if (!(schema.get("enum") instanceof List<?> list)) {
+                throw new IllegalArgumentException(at(path, "'enum' must be an array"));
+            }
+            values = new ArrayList<>(list);
+        } else {
+            return null;
+        }
+        Set<T> allowed = new HashSet<>();
+        for (Object value : values) {
+            if (type.isInstance(value)) {
+                allowed.add((T) value);
+            }
+        }
+        return allowed;
+    }
+
+    private static Set<Double> numbers(Set<Number> values) {
+        Set<Double> numbers = new HashSet<>();
+        for (Number number : values) {
+            numbers.add(number.doubleValue());
+        }
+        return numbers;
+    }
+
+    private static long longValue(Map<String, Object> schema, String keyword, long defaultValue, String path) {
+        Object value = schema.get(keyword);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Long number) || number < 0) {
+            throw new IllegalArgumentException(at(path, "'" + keyword + "' must be a non-negative integer"));
+        }
+        return Math.min(number, Integer.MAX_VALUE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(Object node, String path) {
+        if (!(node instanceof Map<?, ?>)) {
+            throw new IllegalArgumentException(at(path, "schema must be an object or boolean"));
+        }
+        return (Map<String, Object>) node;
+    }
+
+    private static String string(Object value, String path) {
+        if (!(value instanceof String text)) {
+            throw new IllegalArgumentException(at(path, "expected a string in schema, found " + value));
+        }
+        return text;
+    }
+
+    private static String[] strings(Object value, String path) {
+        if (value == null) {
+            return new String[0];
+        }
+        if (!(value instanceof List<?> list)) {
+            throw new IllegalArgumentException(at(path, "'required' must be an array"));
+        }
+        String[] result = new String[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = string(list.get(i), path);
+        }
+        return result;
+    }
+
+    private static Class<?> raw(Type type) {
+        if (type instanceof Class<?> cls) {
+            return cls;
+        }
+        if (type instanceof ParameterizedType parameterized) {
+            return raw(parameterized.getRawType());
+        }
+        if (type instanceof WildcardType wildcard) {
+            return raw(wildcard.getUpperBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments().length > index
+                ? parameterized.getActualTypeArguments()[index] : Object.class;
+    }
+
+    private static Kind kindOf(Class<?> type) {
+        if (type == String.class || type == char.class || type == Character.class || type.isEnum()
+                || type == Instant.class || type == Duration.class) {
+            return Kind.STRING;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return Kind.BOOLEAN;
+        }
+        if (type == byte.class || type == short.class || type == int.class || type == long.class
+                || type == Byte.class || type == Short.class || type == Integer.class || type == Long.class
+                || type == BigInteger.class) {
+            return Kind.INTEGER;
+        }
+        if (type == float.class || type == double.class || Number.class.isAssignableFrom(type)) {
+            return Kind.NUMBER;
+        }
+        if (type.isArray() || Collection.class.isAssignableFrom(type)) {
+            return Kind.ARRAY;
+        }
+        if (type == Object.class || type.isInterface() && !Map.class.isAssignableFrom(type)) {
+            return Kind.ANY;
+        }
+        return Kind.OBJECT;
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte;
+    }
+
+    static String at(String path, String message) {
+        return (path.isEmpty() ? "payload" : path) + ": " + message;
+    }
+
+    private static String child(String path, String name) {
+        return path.isEmpty() ? name : path + '.' + name;
+    }
+
+    private enum Kind {
+        STRING("string", String.class),
+        INTEGER("integer", Long.class),
+        NUMBER("number", Double.class),
+        BOOLEAN("boolean", Boolean.class),
+        ARRAY("array", List.class),
+        OBJECT("object", Map.class),
+        ANY("any", Object.class);
+
+        private final String name;
+        private final Class<?> representative;
+
+        Kind(String name, Class<?> representative) {
+            this.name = name;
+            this.representative = representative;
+        }
+
+        static Kind of(Object type, String path) {
+            for (Kind kind : values()) {
+                if (kind != ANY && kind.name.equals(type)) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException(at(path, "unsupported schema type " + type));
+        }
+
+        boolean accepts(Kind actual) {
+            return this == actual || this == NUMBER && actual == INTEGER || this == INTEGER && actual == NUMBER;
+        }
+
+        boolean matches(Object value) {
+            return switch (this) {
+                case STRING -> value instanceof String || value instanceof Character || value instanceof Enum<?>
+                        || value instanceof Instant || value instanceof Duration;
+                case INTEGER -> value instanceof Number number && (isIntegral(number) || number instanceof BigInteger
+                        || number instanceof BigDecimal decimal && decimal.stripTrailingZeros().scale() <= 0
+                        || (number instanceof Double || number instanceof Float)
+                        && number.doubleValue() == Math.rint(number.doubleValue())
+                        && !Double.isInfinite(number.doubleValue()));
+                case NUMBER -> value instanceof Number;
+                case BOOLEAN -> value instanceof Boolean;
+                case ARRAY -> value instanceof Collection<?> || value.getClass().isArray();
+                case OBJECT -> value instanceof Map<?, ?>;
+                case ANY -> true;
+            };
+        }
+    }
+
+    /**
+     * 编译期确定的数值上下界，整数按 long 比较以免丢失精度
+     */
+    private record Bounds(long minLong, long maxLong, double min, double max, boolean exclusiveMin,
+                          boolean exclusiveMax) {
+
+        static Bounds of(Map<String, Object> schema, String path) {
+            double min = Double.NEGATIVE_INFINITY;
+            double max = Double.POSITIVE_INFINITY;
+            boolean exclusiveMin = false;
+            boolean exclusiveMax = false;
+            if (schema.containsKey("minimum")) {
+                min = number(schema.get("minimum"), path);
+            }
+            if (schema.containsKey("exclusiveMinimum") && number(schema.get("exclusiveMinimum"), path) >= min) {
+                min = number(schema.get("exclusiveMinimum"), path);
+                exclusiveMin = true;
+            }
+            if (schema.containsKey("maximum")) {
+                max = number(schema.get("maximum"), path);
+            }
+            if (schema.containsKey("exclusiveMaximum") && number(schema.get("exclusiveMaximum"), path) <= max) {
+                max = number(schema.get("exclusiveMaximum"), path);
+                exclusiveMax = true;
+            }
+            if (min == Double.NEGATIVE_INFINITY && max == Double.POSITIVE_INFINITY) {
+                return null;
+            }
+            long minLong = min == Double.NEGATIVE_INFINITY ? Long.MIN_VALUE
+                    : exclusiveMin ? (long) Math.floor(min) + 1 : (long) Math.ceil(min);
+            long maxLong = max == Double.POSITIVE_INFINITY ? Long.MAX_VALUE
+                    : exclusiveMax ? (long) Math.ceil(max) - 1 : (long) Math.floor(max);
+            return new Bounds(minLong, maxLong, min, max, exclusiveMin, exclusiveMax);
+        }
+
+        private static double number(Object value, String path) {
+            if (!(value instanceof Number number)) {
+                throw new IllegalArgumentException(at(path, "numeric bound must be a number, found " + value));
+            }
+            return number.doubleValue();
+        }
+
+        String check(long value, String path) {
+            return value < minLong || value > maxLong ? violation(path) : null;
+        }
+
+        String check(double value, String path) {
+            boolean below = exclusiveMin ? !(value > min) : !(value >= min);
+            boolean above = exclusiveMax ? !(value < max) : !(value <= max);
+            return below || above ? violation(path) : null;
+        }
+
+        private String violation(String path) {
+            return at(path, "must be in " + (exclusiveMin ? "(" : "[") + format(min) + ", " + format(max)
+                    + (exclusiveMax ? ")" : "]"));
+        }
+
+        private static String format(double bound) {
+            if (Double.isInfinite(bound)) {
+                return bound > 0 ? "+inf" : "-inf";
+            }
+            return bound == Math.rint(bound) ? Long.toString((long) bound) : Double.toString(bound);
+        }
+    }
+
+    private record TypeCheck(String path, Kind kind, ValueCheck next) implements ValueCheck {
+        @Override
+        public String check(Object value) {
+            if (!kind.matches(value)) {
+                return at(path, "expected " + kind.name);
+            }
+            return next == null ? null : next.check(value);
+        }
+    }
+
+    private record StringCheck(String path, int minLength, int maxLength, Pattern pattern,
+                               Set<String> allowed) implements ValueCheck {
+        @Override
+        public String check(Object value) {
+            String text = value instanceof String string ? string : value instanceof Enum<?> constant
+                    ? constant.name() : value.toString();
+            int length = text.length();
+            if (length < 2L * minLength || length > maxLength) {
+                // JSON Schema 按码点计长度，码点数介于 UTF-16 长度的一半与全长之间，只有可能越界时才精确计算
+                length = text.codePointCount(0, length);
+                if (length < minLength || length > maxLength) {
+                    return at(path, "length must be in [" + minLength + ", " + maxLength + "]");
+                }
+            }
+            if (pattern != null && !pattern.matcher(text).find()) {
+                return at(path, "does not match pattern " + pattern.pattern());
+            }
+            if (allowed != null && !allowed.contains(text)) {
+                return at(path, "is not one of " + allowed);
+            }
+            return null;
+        }
+    }
+
+    private record ArrayCheck(String path, int minItems, int maxItems, ValueCheck items) implements ValueCheck {
+        @Override
+        public String check(Object value) {
+            int size = value instanceof Collection<?> collection ? collection.size()
+                    : value instanceof Object[] array ? array.length : Array.getLength(value);
+            if (size < minItems || size > maxItems) {
+                return at(path, "item count must be in [" + minItems + ", " + maxItems + "]");
+            }
+            if (items != null) {
+                Iterable<?> elements = value instanceof Collection<?> collection
+                        ? collection : Arrays.asList((Object[]) value);
+                for (Object element : elements) {
+                    String violation = element == null ? at(path + "[]", "must not be null") : items.check(element);
+                    if (violation != null) {
+                        return violation;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    private record MapCheck(String path, String[] required, String[] names, ValueCheck[] checks,
+                            boolean additionalAllowed, ValueCheck additional, Set<String> declared)
+            implements ValueCheck {
+        @Override
+        public String check(Object value) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            for (String name : required) {
+                if (map.get(name) == null) {
+                    return at(child(path, name), "is required");
+                }
+            }
+            for (int i = 0; i < names.length; i++) {
+                Object item = map.get(names[i]);
+                String violation = item == null || checks[i] == null ? null : checks[i].check(item);
+                if (violation != null) {
+                    return violation;
+                }
+            }
+            if (!additionalAllowed || additional != null) {
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (entry.getValue() == null || declared.contains(String.valueOf(entry.getKey()))) {
+                        continue;
+                    }
+                    String violation = additionalAllowed ? additional.check(entry.getValue())
+                            : at(child(path, String.valueOf(entry.getKey())), "is not allowed");
+                    if (violation != null) {
+                        return violation;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    private record ObjectCheck(PropertyCheck[] properties) implements ValueCheck {
+        @Override
+        public String check(Object value) {
+            for (PropertyCheck property : properties) {
+                String violation = property.check(value);
+                if (violation != null) {
+                    return violation;
+                }
+            }
+            return null;
+        }
+    }
+
+    private interface PropertyCheck {
+        String check(Object owner);
+    }
+
+    private record ReferenceProperty(String path, MethodHandle getter, boolean required, ValueCheck check)
+            implements PropertyCheck {
+        @Override
+        public String check(Object owner) {
+            Object value;
+            try {
+                value = (Object) getter.invokeExact(owner);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot read " + path, e);
+            }
+            if (value == null) {
+                return required ? at(path, "is required") : null;
+            }
+            return check == null ? null : check.check(value);
+        }
+    }
+
+    private record LongProperty(String path, MethodHandle getter, Bounds bounds) implements PropertyCheck {
+        @Override
+        public String check(Object owner) {
+            long value;
+            try {
+                value = (long) getter.invokeExact(owner);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot read " + path, e);
+            }
+            return bounds.check(value, path);
+        }
+    }
+
+    private record DoubleProperty(String path, MethodHandle getter, Bounds bounds, boolean integral)
+            implements PropertyCheck {
+        @Override
+        public String check(Object owner) {
+            double value;
+            try {
+                value = (double) getter.invokeExact(owner);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot read " + path, e);
+            }
+            if (integral && value != Math.rint(value)) {
+                return at(path, "expected integer");
+            }
+            return bounds == null ? null : bounds.check(value, path);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.mcp.framework.schema;
+
+import com.example.mcp.framework.codec.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 针对一个载荷类型预编译的 JSON Schema 校验器。
+ * <p>
+ * Schema 只在创建时解析一次，与载荷类型一起编译为校验节点树：属性通过字段读取器直接取值，
+ * 类型匹配、必填的基本类型字段等在编译时已能确定的约束不会在调用时重复检查，
+ * 校验时不再查找 Schema 关键字，也不会把载荷转换为 JSON 树。
+ * 支持的关键字见 {@link SchemaCompiler}，Schema 与载荷类型不匹配时在编译时报错。
+ * 实例不可变，可在线程间共享
+ *
+ * @param <T> 载荷类型
+ */
+public final class SchemaValidator<T> {
+
+    private final Class<T> type;
+    private final ValueCheck check;
+
+    private SchemaValidator(Class<T> type, ValueCheck check) {
+        this.type = type;
+        this.check = check;
+    }
+
+    /**
+     * 编译 JSON 文本形式的 Schema
+     *
+     * @throws IllegalArgumentException Schema 无效、含不支持的关键字或与载荷类型不匹配
+     */
+    public static <T> SchemaValidator<T> compile(String schemaJson, Class<T> type) {
+        Objects.requireNonNull(schemaJson, "schemaJson must not be null");
+        return compile(Json.parse(schemaJson), type);
+    }
+
+    /**
+     * 编译已解析为 JSON 树的 Schema
+     *
+     * @throws IllegalArgumentException Schema 无效、含不支持的关键字或与载荷类型不匹配
+     */
+    public static <T> SchemaValidator<T> compile(Map<String, Object> schema, Class<T> type) {
+        Objects.requireNonNull(schema, "schema must not be null");
+        return compile((Object) schema, type);
+    }
+
+    /**
+     * 从载荷类型所在的类路径读取并编译 Schema，例如 {@code schema/translation-request.json}
+     *
+     * @throws IllegalArgumentException 资源不存在，或 Schema 无法编译
+     */
+    public static <T> SchemaValidator<T> fromResource(String resource, Class<T> type) {
+        Objects.requireNonNull(resource, "resource must not be null");
+        Objects.requireNonNull(type, "type must not be null");
+        ClassLoader loader = type.getClassLoader() != null ? type.getClassLoader() : ClassLoader.getSystemClassLoader();
+        try (InputStream in = loader.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Schema resource not found: " + resource);
+            }
+            return compile(new String(in.readAllBytes(), StandardCharsets.UTF_8), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read schema resource " + resource, e);
+        }
+    }
+
+    private static <T> SchemaValidator<T> compile(Object schema, Class<T> type) {
+        Objects.requireNonNull(type, "type must not be null");
+        if (!(schema instanceof Map<?, ?>)) {
+            throw new IllegalArgumentException("Schema root must be a JSON object");
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> root = (Map<String, Object>) schema;
+        return new SchemaValidator<>(type, SchemaCompiler.compileRoot(root, type));
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * 校验载荷，遇到第一个违反的约束即返回
+     *
+     * @return 形如 {@code targetLocale: does not match pattern ...} 的违反说明，载荷有效时返回 null
+     */
+    public String validate(T payload) {
+        if (payload == null) {
+            return SchemaCompiler.at("", "is required");
+        }
+        return check == null ? null : check.check(payload);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.mcp.framework.schema;
+
+/**
+ * 编译后的校验节点，针对一个 Schema 位置与一个已知的 Java 类型生成，调用时不再解释 Schema
+ */
+@FunctionalInterface
+interface ValueCheck {
+
+    /**
+     * @param value 非空的值
+     * @return 违反约束时的说明，满足时返回 null
+     */
+    String check(Object value);
+}
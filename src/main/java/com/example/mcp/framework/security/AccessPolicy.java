@@ -0,0 +1,410 @@
+package com.example.mcp.framework.security;
+
+import com.example.mcp.common.Context;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * 编译后的访问策略：客户端 × 工具 × 操作。
+ * <p>
+ * 每次调用都需要 {@link #CALL} 操作，工具还可以声明由请求决定的附加操作，例如车控工具在启动发动机时
+ * 需要 {@code engine_start}。规则授予或撤销主体在工具上的操作，主体为 {@link #ANY}、角色或客户端标识，
+ * 越具体的层级优先（客户端 &gt; 角色 &gt; 所有人），同一层级中撤销优先于授予。
+ * <p>
+ * 构建时工具名驻留为下标、操作驻留为位，每个客户端的权限编译为按工具下标排列的位图，
+ * 内容相同的位图只保存一份，未在策略中出现的客户端共用所有人的位图。
+ * 检查一次调用只需一次哈希查找与位运算，不加锁也不分配对象。
+ * 策略不可变，更新时构建新策略整体替换
+ */
+public final class AccessPolicy {
+
+    /**
+     * 规则中表示所有主体或所有工具
+     */
+    public static final String ANY = "*";
+    /**
+     * 每次调用都需要的操作
+     */
+    public static final String CALL = "call";
+    /**
+     * 允许所有客户端在所有工具上执行所有操作
+     */
+    public static final AccessPolicy ALLOW_ALL = builder().allow(ANY, ANY).build();
+
+    private static final int MAX_ACTIONS = Long.SIZE - 1;
+
+    private final Builder source;
+    private final Map<String, ToolActions> tools;
+    private final ToolActions otherTools;
+    private final Map<String, long[]> clientRows;
+    private final long[] defaultRow;
+    private final int distinctRows;
+
+    private AccessPolicy(Builder source) {
+        this.source = source;
+        Map<String, ToolActions> tools = new HashMap<>();
+        this.otherTools = new ToolActions("", 0, List.of());
+        source.actions.forEach((tool, actions) ->
+                tools.put(tool, new ToolActions(tool, tools.size() + 1, new ArrayList<>(actions.values()))));
+        for (Rule rule : source.rules) {
+            if (!ANY.equals(rule.tool) && !tools.containsKey(rule.tool)) {
+                tools.put(rule.tool, new ToolActions(rule.tool, tools.size() + 1, List.of()));
+            }
+        }
+        this.tools = Map.copyOf(tools);
+        int slots = tools.size() + 1;
+
+        Map<String, Set<String>> rolesByClient = new HashMap<>();
+        source.roles.forEach((role, clients) -> clients.forEach(client ->
+                rolesByClient.computeIfAbsent(client, ignored -> new LinkedHashSet<>()).add(role)));
+        Map<String, Layer> roleLayers = new HashMap<>();
+        Map<String, Layer> clientLayers = new HashMap<>();
+        Layer everyone = new Layer(slots);
+        for (Rule rule : source.rules) {
+            Layer layer;
+            if (ANY.equals(rule.subject)) {
+                layer = everyone;
+            } else if (source.roles.containsKey(rule.subject)) {
+                layer = roleLayers.computeIfAbsent(rule.subject, ignored -> new Layer(slots));
+            } else {
+                layer = clientLayers.computeIfAbsent(rule.subject, ignored -> new Layer(slots));
+            }
+            apply(rule, layer);
+        }
+
+        long[] base = everyone.resolve(new long[slots]);
+        Map<RowKey, long[]> interned = new HashMap<>();
+        interned.put(new RowKey(base), base);
+        Set<String> clients = new LinkedHashSet<>(rolesByClient.keySet());
+        clients.addAll(clientLayers.keySet());
+        Map<String, long[]> rows = new HashMap<>(clients.size() * 2);
+        for (String client : clients) {
+            Layer roles = new Layer(slots);
+            for (String role : rolesByClient.getOrDefault(client, Set.of())) {
+                Layer layer = roleLayers.get(role);
+                if (layer != null) {
+                    roles.merge(layer);
+                }
+            }
+            long[] row = roles.resolve(base.clone());
+            Layer own = clientLayers.get(client);
+            if (own != null) {
+                row = own.resolve(row);
+            }
+            rows.put(client, interned.computeIfAbsent(new RowKey(row), key -> key.row));
+        }
+        this.clientRows = rows;
+        this.defaultRow = base;
+        this.distinctRows = interned.size();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 以本策略的全部规则为起点构建新策略
+     */
+    public Builder toBuilder() {
+        return source.copy();
+    }
+
+    /**
+     * 检查客户端能否执行本次调用
+     *
+     * @param clientId 客户端标识，为 null 时按未在策略中出现的客户端处理
+     * @return 缺少的第一个操作，允许时返回 null
+     */
+    public String check(String clientId, String tool, Context context, Object payload) {
+        ToolActions actions = tool == null ? otherTools : tools.getOrDefault(tool, otherTools);
+        long[] row = clientId == null ? defaultRow : clientRows.getOrDefault(clientId, defaultRow);
+        long missing = actions.required(context, payload) & ~row[actions.slot];
+        return missing == 0 ? null : actions.names[Long.numberOfTrailingZeros(missing)];
+    }
+
+    /**
+     * 客户端是否被授予了工具上的指定操作，不考虑由请求决定是否需要
+     */
+    public boolean isAllowed(String clientId, String tool, String action) {
+        ToolActions actions = tool == null ? otherTools : tools.getOrDefault(tool, otherTools);
+        int bit = actions.bit(action);
+        long[] row = clientId == null ? defaultRow : clientRows.getOrDefault(clientId, defaultRow);
+        return bit >= 0 && (row[actions.slot] & 1L << bit) != 0;
+    }
+
+    /**
+     * 策略中单独编译了权限的客户端数
+     */
+    public int getClientCount() {
+        return clientRows.size();
+    }
+
+    /**
+     * 去重后的权限位图数，通常远小于客户端数
+     */
+    public int getDistinctRowCount() {
+        return distinctRows;
+    }
+
+    private void apply(Rule rule, Layer layer) {
+        if (ANY.equals(rule.tool)) {
+            apply(rule, layer, otherTools);
+            tools.values().forEach(actions -> apply(rule, layer, actions));
+        } else {
+            apply(rule, layer, tools.get(rule.tool));
+        }
+    }
+
+    private static void apply(Rule rule, Layer layer, ToolActions actions) {
+        long mask = 0;
+        if (rule.actions.isEmpty()) {
+            mask = actions.all;
+        } else {
+            for (String action : rule.actions) {
+                int bit = actions.bit(action);
+                if (bit >= 0) {
+                    mask |= 1L << bit;
+                }
+            }
+        }
+        if (rule.allow) {
+            layer.allow[actions.slot] |= mask;
+        } else {
+            layer.deny[actions.slot] |= mask;
+        }
+    }
+
+    /**
+     * 一个工具的操作：位 0 为 {@link #CALL}，其余位对应由请求决定的操作
+     */
+    private static final class ToolActions {
+        private final int slot;
+        private final String[] names;
+        private final ActionRule[] conditions;
+        private final long all;
+
+        private ToolActions(String tool, int slot, List<ActionRule> conditions) {
+            if (conditions.size() > MAX_ACTIONS) {
+                throw new IllegalArgumentException("Tool " + tool + " declares more than " + MAX_ACTIONS + " actions");
+            }
+            this.slot = slot;
+            this.conditions = conditions.toArray(new ActionRule[0]);
+            this.names = new String[this.conditions.length + 1];
+            names[0] = CALL;
+            for (int i = 0; i < this.conditions.length; i++) {
+                names[i + 1] = this.conditions[i].name;
+            }
+            this.all = this.conditions.length == MAX_ACTIONS ? -1L : (1L << names.length) - 1;
+        }
+
+        long required(Context context, Object payload) {
+            long required = 1L;
+            for (int i = 0; i < conditions.length; i++) {
+                if (conditions[i].requiredBy(context, payload)) {
+                    required |= 1L << (i + 1);
+                }
+            }
+            return required;
+        }
+
+        int bit(String action) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(action)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private record ActionRule(String name, Class<?> payloadType, BiPredicate<Context, Object> condition) {
+        /**
+         * 载荷类型与声明不符或条件抛出异常时无法判断，按需要该操作处理：
+         * 异常若传出 {@link #check}，拦截器链会把它当作放行
+         */
+        boolean requiredBy(Context context, Object payload) {
+            if (!payloadType.isInstance(payload)) {
+                return true;
+            }
+            try {
+                return condition.test(context, payload);
+            } catch (RuntimeException e) {
+                return true;
+            }
+        }
+    }
+
+    private record Rule(String subject, String tool, List<String> actions, boolean allow) {
+    }
+
+    /**
+     * 同一层级的授予与撤销，撤销优先
+     */
+    private static final class Layer {
+        private final long[] allow;
+        private final long[] deny;
+
+        private Layer(int slots) {
+            this.allow = new long[slots];
+            this.deny = new long[slots];
+        }
+
+        void merge(Layer other) {
+            for (int i = 0; i < allow.length; i++) {
+                allow[i] |= other.allow[i];
+                deny[i] |= other.deny[i];
+            }
+        }
+
+        long[] resolve(long[] row) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = (row[i] | allow[i]) & ~deny[i];
+            }
+            return row;
+        }
+    }
+
+    private record RowKey(long[] row) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof RowKey key && Arrays.equals(row, key.row);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(row);
+        }
+    }
+
+    /**
+     * 访问策略构建器，规则的先后顺序不影响结果
+     */
+    public static final class Builder {
+
+        private final Map<String, Map<String, ActionRule>> actions = new LinkedHashMap<>();
+        private final Map<String, Set<String>> roles = new LinkedHashMap<>();
+        private final List<Rule> rules = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * 声明工具上由请求决定的操作，条件成立的调用需要该操作的权限。
+         * 载荷不是 {@code payloadType} 的实例或条件抛出异常时总是需要该操作
+         */
+        @SuppressWarnings("unchecked")
+        public <T> Builder action(String tool, String action, Class<T> payloadType,
+                                  BiPredicate<Context, ? super T> condition) {
+            requireName(tool, "tool");
+            requireName(action, "action");
+            Objects.requireNonNull(payloadType, "payloadType must not be null");
+            Objects.requireNonNull(condition, "condition must not be null");
+            if (CALL.equals(action) || ANY.equals(action)) {
+                throw new IllegalArgumentException("'" + action + "' is reserved and cannot be declared as an action");
+            }
+            if (ANY.equals(tool)) {
+                throw new IllegalArgumentException("Actions must be declared on a specific tool");
+            }
+            Map<String, ActionRule> declared = actions.computeIfAbsent(tool, ignored -> new LinkedHashMap<>());
+            if (declared.containsKey(action)) {
+                throw new IllegalArgumentException("Duplicate action '" + action + "' on tool " + tool);
+            }
+            declared.put(action, new ActionRule(action, payloadType, (BiPredicate<Context, Object>) condition));
+            return this;
+        }
+
+        /**
+         * 声明角色及其成员，角色名可在规则中作为主体；重复声明时合并成员
+         */
+        public Builder role(String role, Collection<String> clients) {
+            requireName(role, "role");
+            if (ANY.equals(role)) {
+                throw new IllegalArgumentException("'" + ANY + "' cannot be used as a role name");
+            }
+            Objects.requireNonNull(clients, "clients must not be null");
+            Set<String> members = roles.computeIfAbsent(role, ignored -> new LinkedHashSet<>());
+            for (String client : clients) {
+                members.add(Objects.requireNonNull(client, "client must not be null"));
+            }
+            return this;
+        }
+
+        public Builder role(String role, String... clients) {
+            return role(role, Arrays.asList(clients));
+        }
+
+        /**
+         * 授予主体在工具上的操作
+         *
+         * @param subject {@link #ANY}、已声明的角色或客户端标识
+         * @param tool    工具名或 {@link #ANY}
+         * @param actions 操作名，为空时授予工具的全部操作
+         */
+        public Builder allow(String subject, String tool, String... actions) {
+            rules.add(rule(subject, tool, actions, true));
+            return this;
+        }
+
+        /**
+         * 撤销主体在工具上的操作，参数含义同 {@link #allow}；未授予的操作本就被拒绝
+         */
+        public Builder deny(String subject, String tool, String... actions) {
+            rules.add(rule(subject, tool, actions, false));
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException 规则引用了工具未声明的操作
+         */
+        public AccessPolicy build() {
+            for (Rule rule : rules) {
+                for (String action : rule.actions) {
+                    if (CALL.equals(action)) {
+                        continue;
+                    }
+                    boolean declared = ANY.equals(rule.tool)
+                            ? actions.values().stream().anyMatch(declaredActions -> declaredActions.containsKey(action))
+                            : actions.getOrDefault(rule.tool, Map.of()).containsKey(action);
+                    if (!declared) {
+                        throw new IllegalArgumentException("Unknown action '" + action + "' for tool " + rule.tool);
+                    }
+                }
+            }
+            return new AccessPolicy(copy());
+        }
+
+        private Builder copy() {
+            Builder copy = new Builder();
+            actions.forEach((tool, declared) -> copy.actions.put(tool, new LinkedHashMap<>(declared)));
+            roles.forEach((role, members) -> copy.roles.put(role, new LinkedHashSet<>(members)));
+            copy.rules.addAll(rules);
+            return copy;
+        }
+
+        private static Rule rule(String subject, String tool, String[] actions, boolean allow) {
+            requireName(subject, "subject");
+            requireName(tool, "tool");
+            for (String action : actions) {
+                requireName(action, "action");
+            }
+            return new Rule(subject, tool, List.of(actions), allow);
+        }
+
+        private static void requireName(String name, String what) {
+            Objects.requireNonNull(name, what + " must not be null");
+            if (name.isBlank()) {
+                throw new IllegalArgumentException(what + " must not be blank");
+            }
+        }
+    }
+}
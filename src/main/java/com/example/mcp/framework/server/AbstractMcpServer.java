@@ -2,30 +2,58 @@ package com.example.mcp.framework.server;
 
 import com.example.mcp.common.Context;
 import com.example.mcp.common.Envelopes;
+import com.example.mcp.common.RequestIds;
 import com.example.mcp.common.StdResponse;
+import com.example.mcp.common.protocol.BatchAuditSummary;
 import com.example.mcp.common.protocol.GovernanceReport;
 import com.example.mcp.common.protocol.InvocationAuditRecord;
 import com.example.mcp.common.protocol.SessionOpenRequest;
 import com.example.mcp.common.protocol.SessionOpenResponse;
 import com.example.mcp.common.protocol.ToolDescriptor;
 import com.example.mcp.framework.api.McpServer;
+import com.example.mcp.framework.api.TokenCounter;
+import com.example.mcp.framework.api.ToolDependencies;
 import com.example.mcp.framework.api.ToolHandler;
+import com.example.mcp.framework.api.ToolIndex;
 import com.example.mcp.framework.api.ToolRegistration;
+import com.example.mcp.framework.async.StreamEvent;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public abstract class AbstractMcpServer implements McpServer {
 
-    private final Map<String, ToolRegistration<?, ?>> registrations = new HashMap<>();
-    private final GovernanceReport governanceReport = new GovernanceReport();
-    private final List<McpServerInterceptor> interceptors = new ArrayList<>();
+    private final ToolRegistry registry = new ToolRegistry();
+    private final GovernanceReport governanceReport;
+    private volatile InterceptorChain.Bindings interceptors = InterceptorChain.Bindings.EMPTY;
     protected final McpServerConfig config;
+    private final ToolExecutor toolExecutor;
+    private final ConcurrentHashMap<CallKey, Future<?>> runningCalls = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> rejections = new ConcurrentHashMap<>();
+    private final ResponseCache responseCache;
+    private final SingleFlight singleFlight;
 
     protected AbstractMcpServer() {
         this(new McpServerConfig());
@@ -33,13 +61,36 @@ public abstract class AbstractMcpServer implements McpServer {
 
     protected AbstractMcpServer(McpServerConfig config) {
         this.config = Objects.requireNonNull(config, "config must not be null");
+        this.governanceReport = new GovernanceReport(config.getAuditRetention(), config.getAuditShards());
+        this.toolExecutor = new ToolExecutor(config);
+        this.responseCache = config.getResponseCacheSize() > 0
+                ? new ResponseCache(config.getResponseCacheSize(), config.getResponseCacheTtl()) : null;
+        this.singleFlight = config.isRequestCoalescing() ? new SingleFlight() : null;
     }
 
     /**
-     * 添加拦截器
+     * 添加对所有工具生效的拦截器。
+     * 添加时为每个工具重新编译拦截器链，只调用拦截器覆盖了的阶段，适合在启动时配置
      */
-    public void addInterceptor(McpServerInterceptor interceptor) {
-        interceptors.add(Objects.requireNonNull(interceptor, "interceptor must not be null"));
+    public synchronized void addInterceptor(McpServerInterceptor interceptor) {
+        Objects.requireNonNull(interceptor, "interceptor must not be null");
+        interceptors = interceptors.with(interceptor, null, this::rejectionCounter);
+    }
+
+    /**
+     * 添加只对指定工具生效的拦截器，其余工具的调用不会经过它
+     */
+    public synchronized void addInterceptor(McpServerInterceptor interceptor, Collection<String> tools) {
+        Objects.requireNonNull(interceptor, "interceptor must not be null");
+        Objects.requireNonNull(tools, "tools must not be null");
+        if (tools.isEmpty()) {
+            throw new IllegalArgumentException("tools must not be empty");
+        }
+        interceptors = interceptors.with(interceptor, Set.copyOf(tools), this::rejectionCounter);
+    }
+
+    private LongAdder rejectionCounter(McpServerInterceptor interceptor) {
+        return rejections.computeIfAbsent(interceptorName(interceptor), name -> new LongAdder());
     }
 
     /**
@@ -49,6 +100,36 @@ public abstract class AbstractMcpServer implements McpServer {
         return config;
     }
 
+    /**
+     * 获取工具执行器，可用于读取各工具执行中/排队中的调用数
+     */
+    public ToolExecutor getToolExecutor() {
+        return toolExecutor;
+    }
+
+    /**
+     * 幂等工具的结果缓存，配置中关闭缓存时为空
+     */
+    public Optional<ResponseCache> getResponseCache() {
+        return Optional.ofNullable(responseCache);
+    }
+
+    /**
+     * 相同并发调用的合并器，配置中关闭合并时为空
+     */
+    public Optional<SingleFlight> getSingleFlight() {
+        return Optional.ofNullable(singleFlight);
+    }
+
+    /**
+     * 各拦截器拒绝的调用次数，键为拦截器类名，按类名排序
+     */
+    public Map<String, Long> getRejectedCalls() {
+        Map<String, Long> counts = new TreeMap<>();
+        rejections.forEach((interceptor, counter) -> counts.put(interceptor, counter.sum()));
+        return Collections.unmodifiableMap(counts);
+    }
+
     @Override
     public SessionOpenResponse openSession(SessionOpenRequest request) {
         Context context = buildSessionContext(request);
@@ -71,8 +152,8 @@ public abstract class AbstractMcpServer implements McpServer {
     }
 
     public <I, O> void registerTool(ToolRegistration<I, O> registration) {
-        Objects.requireNonNull(registration, "registration must not be null");
-        registrations.put(registration.descriptor().getName(), registration);
+        registry.register(registration);
+        invalidateCache(registration.descriptor().getName());
     }
 
     public <I, O> void registerTool(ToolDescriptor descriptor, Class<I> inputType,
@@ -80,87 +161,554 @@ public abstract class AbstractMcpServer implements McpServer {
         registerTool(new ToolRegistration<>(descriptor, inputType, handler, outputType));
     }
 
+    /**
+     * 原子地批量注册工具
+     */
+    public void registerTools(Collection<? extends ToolRegistration<?, ?>> registrations) {
+        registry.registerAll(registrations);
+        registrations.forEach(registration -> invalidateCache(registration.descriptor().getName()));
+    }
+
+    /**
+     * 原子地注册编译期索引中的所有工具，工具在首次调用时才实例化
+     *
+     * @return 注册的工具数
+     */
+    public int registerIndexedTools(ToolDependencies dependencies) {
+        List<ToolRegistration<?, ?>> registrations = ToolIndex.load(getClass().getClassLoader())
+                .registrations(dependencies);
+        registerTools(registrations);
+        return registrations.size();
+    }
+
+    /**
+     * 注销工具，正在执行中的调用不受影响
+     */
+    public boolean unregisterTool(String name) {
+        boolean removed = registry.unregister(name);
+        invalidateCache(name);
+        return removed;
+    }
+
+    /**
+     * 原子地批量注销工具
+     */
+    public int unregisterTools(Collection<String> names) {
+        int removed = registry.unregisterAll(names);
+        names.forEach(this::invalidateCache);
+        return removed;
+    }
+
+    private void invalidateCache(String tool) {
+        if (responseCache != null) {
+            responseCache.invalidate(tool);
+        }
+    }
+
+    /**
+     * 查找工具注册信息，传输层据此确定请求载荷的反序列化类型
+     */
+    public Optional<ToolRegistration<?, ?>> findRegistration(String name) {
+        return Optional.ofNullable(registry.get(name));
+    }
+
     @Override
     public List<ToolDescriptor> listTools() {
-        return new ArrayList<>(registrations.values().stream().map(ToolRegistration::descriptor).toList());
+        return registry.descriptors();
     }
 
     @Override
     public Optional<ToolDescriptor> describeTool(String name) {
-        ToolRegistration<?, ?> registration = registrations.get(name);
+        ToolRegistration<?, ?> registration = registry.get(name);
         return Optional.ofNullable(registration == null ? null : registration.descriptor());
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <I, O> Envelopes.ResponseEnvelope<O> invoke(Envelopes.RequestEnvelope<I> request, Class<O> responseType) {
-        ToolRegistration<I, O> registration = (ToolRegistration<I, O>) registrations.get(request.getTool());
+        ToolRegistration<I, O> registration = resolve(request, responseType);
         if (registration == null) {
-            StdResponse<O> response = StdResponse.error("tool_not_found", "Unknown tool: " + request.getTool());
-            return new Envelopes.ResponseEnvelope<>(request.getTool(), request.getContext(), response, null);
+            return unresolved(request, responseType);
         }
-        if (!registration.outputType().equals(responseType)) {
-            StdResponse<O> response = StdResponse.error("type_mismatch", "Unexpected response type for tool " + request.getTool());
+
+        Context invocationContext = request.getContext().copy();
+        invocationContext.setRequestId(RequestIds.next());
+
+        // 先查结果缓存再经过拦截器：命中标记（元数据 cache=hit）让并发限制等拦截器不为命中占用额度或采样延迟
+        InvocationKey key = invocationKey(registration, invocationContext, request);
+        StdResponse<O> cached = cached(key, registration, invocationContext);
+
+        InterceptorChain chain = interceptors.chain(request.getTool());
+        McpServerInterceptor rejectedBy = chain.beforeHandle(request.getTool(), invocationContext, request.getPayload());
+        if (rejectedBy != null) {
+            return rejected(request, invocationContext, rejectedBy);
+        }
+
+        long start = System.nanoTime();
+        if (invocationContext.isDeadlineExceeded()) {
+            return complete(chain, request, invocationContext, deadlineExceeded(), start);
+        }
+        if (cached != null) {
+            return complete(chain, request, invocationContext, cached, start);
+        }
+
+        CancellableCall<StdResponse<O>> call = new CancellableCall<>();
+        SingleFlight.Joined<StdResponse<O>> joined = share(key, registration, invocationContext, call);
+        Runnable untrack = track(request, invocationContext, joined.result());
+        StdResponse<O> response;
+        try {
+            if (joined.leader()) {
+                Supplier<StdResponse<O>> task = () -> registration.handler().handle(invocationContext, request.getPayload());
+                // 合并的执行不在调用线程上运行：领导者与跟随者一样只等待自己的结果，截止时间到达时各自结束，
+                // 共享执行继续为其余等待者运行
+                try {
+                    if (toolExecutor.isOffloading() || joined.result() != call) {
+                        toolExecutor.execute(request.getTool(), call, task);
+                    } else {
+                        toolExecutor.executeInline(request.getTool(), call, task);
+                    }
+                } catch (RuntimeException e) {
+                    // 提交失败（例如有界执行器拒绝）时结束共享执行，否则合并的调用会一直挂在这次执行上
+                    call.completeExceptionally(e);
+                }
+            }
+            response = joined.result().join();
+        } catch (Exception e) {
+            response = handlerFailed(chain, request, invocationContext, unwrap(e));
+        } finally {
+            untrack.run();
+        }
+        return complete(chain, request, invocationContext, response, start);
+    }
+
+    /**
+     * 异步调用：前置拦截器在调用线程上执行以便快速拒绝，工具本身以非阻塞方式执行，
+     * 耗时统计、后置拦截器与审计在结果完成时执行
+     */
+    @Override
+    public <I, O> CompletableFuture<Envelopes.ResponseEnvelope<O>> invokeAsync(Envelopes.RequestEnvelope<I> request,
+                                                                               Class<O> responseType) {
+        ToolRegistration<I, O> registration = resolve(request, responseType);
+        if (registration == null) {
+            return CompletableFuture.completedFuture(unresolved(request, responseType));
+        }
+        return dispatchAsync(request, registration, null);
+    }
+
+    /**
+     * 批量调用：所有条目基于同一个注册表快照解析，同步工具也切换到执行器线程上并行执行。
+     * 每个条目仍独立经过拦截器与审计，并在上下文元数据中携带 batch-id，
+     * 全部条目结束后在治理报告中记录一条批量汇总
+     */
+    @Override
+    public CompletableFuture<List<Envelopes.ResponseEnvelope<?>>> invokeBatchAsync(
+            List<? extends Envelopes.RequestEnvelope<?>> requests) {
+        Objects.requireNonNull(requests, "requests must not be null");
+        List<Envelopes.RequestEnvelope<?>> batch = List.copyOf(requests);
+        String batchId = RequestIds.next();
+        long start = System.nanoTime();
+        ToolRegistry.Snapshot tools = registry.snapshot();
+
+        List<CompletableFuture<Envelopes.ResponseEnvelope<?>>> items = new ArrayList<>(batch.size());
+        for (Envelopes.RequestEnvelope<?> request : batch) {
+            items.add(batchItem(request, tools.get(request.getTool()), batchId));
+        }
+        return CompletableFuture.allOf(items.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<Envelopes.ResponseEnvelope<?>> responses = new ArrayList<>(items.size());
+            int succeeded = 0;
+            for (CompletableFuture<Envelopes.ResponseEnvelope<?>> item : items) {
+                Envelopes.ResponseEnvelope<?> response = item.join();
+                if (response.getResponse().getStatus() == StdResponse.Status.SUCCESS) {
+                    succeeded++;
+                }
+                responses.add(response);
+            }
+            if (config.isEnableAudit()) {
+                long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                governanceReport.addBatchSummary(new BatchAuditSummary(batchId, responses.size(), succeeded,
+                        responses.size() - succeeded, latencyMs, Instant.now()));
+            }
+            return Collections.unmodifiableList(responses);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <I> CompletableFuture<Envelopes.ResponseEnvelope<?>> batchItem(Envelopes.RequestEnvelope<I> request,
+                                                                         ToolRegistration<?, ?> registration,
+                                                                         String batchId) {
+        if (registration == null) {
+            StdResponse<Object> response = StdResponse.error("tool_not_found", "Unknown tool: " + request.getTool());
+            return CompletableFuture.completedFuture(
+                    new Envelopes.ResponseEnvelope<>(request.getTool(), request.getContext(), response, null));
+        }
+        CompletableFuture<Envelopes.ResponseEnvelope<?>> pending;
+        try {
+            pending = dispatchAsync(request, (ToolRegistration<I, Object>) registration, batchId)
+                    .thenApply(response -> response);
+        } catch (RuntimeException e) {
+            pending = CompletableFuture.failedFuture(e);
+        }
+        // 单个条目的意外失败只影响该条目
+        return pending.exceptionally(throwable -> {
+            StdResponse<Object> response = StdResponse.error("handler_error", "处理失败: " + unwrap(throwable).getMessage());
             return new Envelopes.ResponseEnvelope<>(request.getTool(), request.getContext(), response, null);
+        });
+    }
+
+    private <I, O> CompletableFuture<Envelopes.ResponseEnvelope<O>> dispatchAsync(Envelopes.RequestEnvelope<I> request,
+                                                                                  ToolRegistration<I, O> registration,
+                                                                                  String batchId) {
+        Context invocationContext = request.getContext().copy();
+        invocationContext.setRequestId(RequestIds.next());
+        if (batchId != null) {
+            invocationContext.putMetadata("batch-id", batchId);
+        }
+
+        InvocationKey key = invocationKey(registration, invocationContext, request);
+        StdResponse<O> cached = cached(key, registration, invocationContext);
+
+        InterceptorChain chain = interceptors.chain(request.getTool());
+        McpServerInterceptor rejectedBy = chain.beforeHandle(request.getTool(), invocationContext, request.getPayload());
+        if (rejectedBy != null) {
+            return CompletableFuture.completedFuture(rejected(request, invocationContext, rejectedBy));
+        }
+
+        long start = System.nanoTime();
+        if (invocationContext.isDeadlineExceeded()) {
+            return CompletableFuture.completedFuture(
+                    complete(chain, request, invocationContext, deadlineExceeded(), start));
+        }
+        if (cached != null) {
+            return CompletableFuture.completedFuture(complete(chain, request, invocationContext, cached, start));
+        }
+
+        CompletableFuture<StdResponse<O>> execution = registration.isAsync()
+                ? new CompletableFuture<>() : new CancellableCall<>();
+        SingleFlight.Joined<StdResponse<O>> joined = share(key, registration, invocationContext, execution);
+        if (joined.leader()) {
+            start(request, registration, invocationContext, execution);
+        }
+        CompletableFuture<StdResponse<O>> pending = joined.result();
+
+        Runnable untrack = track(request, invocationContext, pending);
+        // 返回副本：客户端超时或取消返回的 future 时，服务端的拦截器与审计仍会执行
+        return pending.handle((response, throwable) -> {
+            untrack.run();
+            StdResponse<O> result = response;
+            if (throwable != null) {
+                result = handlerFailed(chain, request, invocationContext, unwrap(throwable));
+            } else if (result == null) {
+                result = StdResponse.error("handler_error", "处理失败: 工具未返回响应");
+            }
+            return complete(chain, request, invocationContext, result, start);
+        }).copy();
+    }
+
+    /**
+     * 流式调用：工具在处理线程上执行，推送的事件包装为 {@link Envelopes.StreamEventEnvelope}
+     * 按订阅者的请求量投递；订阅者缓冲满时工具的推送会阻塞。最终响应与审计与同步调用一致
+     */
+    @Override
+    public <I, O> CompletableFuture<Envelopes.ResponseEnvelope<O>> invokeStream(
+            Envelopes.RequestEnvelope<I> request, Class<O> responseType,
+            Flow.Subscriber<? super Envelopes.StreamEventEnvelope<StreamEvent>> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber must not be null");
+        SubmissionPublisher<Envelopes.StreamEventEnvelope<StreamEvent>> publisher =
+                new SubmissionPublisher<>(toolExecutor.executor(), config.getStreamBufferSize());
+        publisher.subscribe(subscriber);
+
+        ToolRegistration<I, O> registration = resolve(request, responseType);
+        if (registration == null) {
+            return closeStream(publisher, CompletableFuture.completedFuture(unresolved(request, responseType)));
         }
 
         Context invocationContext = request.getContext().copy();
-        invocationContext.setRequestId(UUID.randomUUID().toString());
-
-        // 执行前置拦截器
-        for (McpServerInterceptor interceptor : interceptors) {
-            try {
-                if (!interceptor.beforeHandle(request.getTool(), invocationContext, request.getPayload())) {
-                    StdResponse<O> response = StdResponse.error("interceptor_rejected", "请求被拦截器拒绝");
-                    return new Envelopes.ResponseEnvelope<>(request.getTool(), invocationContext, response, null);
-                }
-            } catch (Exception e) {
-                System.err.println("[MCP-SERVER] 拦截器前置处理失败: " + e.getMessage());
+        invocationContext.setRequestId(RequestIds.next());
+
+        InterceptorChain chain = interceptors.chain(request.getTool());
+        McpServerInterceptor rejectedBy = chain.beforeHandle(request.getTool(), invocationContext, request.getPayload());
+        if (rejectedBy != null) {
+            return closeStream(publisher,
+                    CompletableFuture.completedFuture(rejected(request, invocationContext, rejectedBy)));
+        }
+
+        String tool = request.getTool();
+        long start = System.nanoTime();
+        if (invocationContext.isDeadlineExceeded()) {
+            return closeStream(publisher,
+                    CompletableFuture.completedFuture(
+                            complete(chain, request, invocationContext, deadlineExceeded(), start)));
+        }
+
+        CompletableFuture<StdResponse<O>> pending;
+        if (registration.isStreaming()) {
+            pending = toolExecutor.submit(tool, () -> registration.streamingHandler().handleWithStream(
+                    invocationContext, request.getPayload(),
+                    event -> publisher.submit(new Envelopes.StreamEventEnvelope<>(tool,
+                            eventName(event), Instant.now(), event))));
+        } else {
+            pending = toolExecutor.submit(tool,
+                    () -> registration.handler().handle(invocationContext, request.getPayload()));
+        }
+
+        Runnable untrack = track(request, invocationContext, pending);
+        return closeStream(publisher, pending.handle((response, throwable) -> {
+            untrack.run();
+            StdResponse<O> result = response;
+            if (throwable != null) {
+                result = handlerFailed(chain, request, invocationContext, unwrap(throwable));
+                StreamEvent failure = StreamEvent.error(result.getMessage());
+                publisher.submit(new Envelopes.StreamEventEnvelope<>(tool, eventName(failure), Instant.now(), failure));
             }
+            return complete(chain, request, invocationContext, result, start);
+        }));
+    }
+
+    /**
+     * 取消正在执行的调用（对应协议中的 cancel_call），执行线程会被中断并释放并发许可。
+     * 不同客户端可能使用相同的 requestId，因此按 clientId 与 requestId 共同查找
+     *
+     * @param call 客户端请求 Envelope 中的上下文
+     * @return 是否找到并取消了调用
+     */
+    @Override
+    public boolean cancelCall(Context call) {
+        if (call == null || call.getRequestId() == null) {
+            return false;
         }
+        Future<?> running = runningCalls.get(new CallKey(call.getClientId(), call.getRequestId()));
+        return running != null && running.cancel(true);
+    }
 
-        long start = System.currentTimeMillis();
-        StdResponse<O> response;
+    /**
+     * 登记可取消的调用并按截止时间安排自动取消，返回的清理动作需在调用结束后执行
+     */
+    private <I> Runnable track(Envelopes.RequestEnvelope<I> request, Context invocationContext, Future<?> call) {
+        String requestId = request.getContext().getRequestId() != null
+                ? request.getContext().getRequestId() : invocationContext.getRequestId();
+        CallKey key = new CallKey(request.getContext().getClientId(), requestId);
+        runningCalls.put(key, call);
+        ScheduledFuture<?> timer = invocationContext.getDeadline() == null
+                ? null : toolExecutor.cancelAt(invocationContext.getDeadline(), call);
+        return () -> {
+            runningCalls.remove(key, call);
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        };
+    }
 
+    /**
+     * 在执行器上启动工具；原生异步工具的结果转交给 {@code execution}，取消 {@code execution} 会取消工具返回的 future
+     */
+    @SuppressWarnings("unchecked")
+    private <I, O> void start(Envelopes.RequestEnvelope<I> request, ToolRegistration<I, O> registration,
+                              Context invocationContext, CompletableFuture<StdResponse<O>> execution) {
         try {
-            response = registration.handler().handle(invocationContext, request.getPayload());
-        } catch (Exception e) {
-            // 执行错误拦截器
-            for (McpServerInterceptor interceptor : interceptors) {
-                try {
-                    interceptor.onError(request.getTool(), invocationContext, request.getPayload(), e);
-                } catch (Exception ie) {
-                    System.err.println("[MCP-SERVER] 拦截器错误处理失败: " + ie.getMessage());
-                }
+            if (registration.isAsync()) {
+                CompletableFuture<StdResponse<O>> started = toolExecutor.submitAsync(request.getTool(),
+                        () -> registration.asyncHandler().handleAsync(invocationContext, request.getPayload()));
+                started.whenComplete((response, throwable) -> {
+                    if (throwable != null) {
+                        execution.completeExceptionally(throwable);
+                    } else {
+                        execution.complete(response);
+                    }
+                });
+                execution.whenComplete((response, throwable) -> {
+                    if (execution.isCancelled()) {
+                        started.cancel(true);
+                    }
+                });
+            } else {
+                toolExecutor.execute(request.getTool(), (CancellableCall<StdResponse<O>>) execution,
+                        () -> registration.handler().handle(invocationContext, request.getPayload()));
             }
-            response = StdResponse.error("handler_error", "处理失败: " + e.getMessage());
+        } catch (Exception e) {
+            execution.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 幂等工具调用的键，既不缓存也不合并时返回 null；流式调用需要推送事件，不经过缓存与合并。
+     * 对冲请求要绕开仍在进行的原请求，同样不经过缓存与合并
+     */
+    private <I> InvocationKey invocationKey(ToolRegistration<I, ?> registration, Context invocationContext,
+                                            Envelopes.RequestEnvelope<I> request) {
+        ToolDescriptor descriptor = registration.descriptor();
+        if (!descriptor.isIdempotent() || "true".equals(invocationContext.getMetadata().get(SingleFlight.HEDGE_KEY))
+                || (singleFlight == null
+                && (responseCache == null || !responseCache.isCacheable(descriptor)))) {
+            return null;
+        }
+        try {
+            return InvocationKey.of(request.getTool(), invocationContext, request.getPayload());
+        } catch (RuntimeException e) {
+            System.err.println("[MCP-SERVER] 无法计算调用键，跳过缓存与合并: " + request.getTool() + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    private <O> StdResponse<O> cached(InvocationKey key, ToolRegistration<?, O> registration, Context invocationContext) {
+        // 命中标记只能由服务器写入，客户端在请求元数据中携带的同名键不可信
+        invocationContext.getMetadata().remove(ResponseCache.CACHE_STATUS_KEY);
+        if (key == null || responseCache == null || !responseCache.isCacheable(registration.descriptor())) {
+            return null;
         }
+        return responseCache.get(key, invocationContext);
+    }
 
-        long latency = System.currentTimeMillis() - start;
-        invocationContext.getUsage().setLatencyMs(latency);
-        invocationContext.getUsage().setInputTokens(invocationContext.getUsage().getInputTokens() + request.getPayload().toString().length());
-        O data = response.getData();
-        if (data != null) {
-            invocationContext.getUsage().setOutputTokens(invocationContext.getUsage().getOutputTokens() + data.toString().length());
+    /**
+     * 幂等工具加入相同调用的共享执行；成功的结果写入结果缓存。
+     * 每个调用方得到独立的结果 future，{@link #track} 按各自的截止时间取消它，
+     * 因此截止时间较早的调用方超时不会影响其他等待者，也不会继承其他调用方的超时结果
+     */
+    private <O> SingleFlight.Joined<StdResponse<O>> share(InvocationKey key, ToolRegistration<?, O> registration,
+                                                          Context invocationContext,
+                                                          CompletableFuture<StdResponse<O>> execution) {
+        if (key == null) {
+            return new SingleFlight.Joined<>(execution, true);
+        }
+        ToolDescriptor descriptor = registration.descriptor();
+        boolean cacheable = responseCache != null && responseCache.isCacheable(descriptor);
+        Consumer<StdResponse<O>> store = response -> {
+            if (cacheable) {
+                responseCache.put(key, descriptor, response);
+            }
+        };
+        if (singleFlight == null) {
+            execution.thenAccept(store);
+            return new SingleFlight.Joined<>(execution, true);
+        }
+        SingleFlight.Joined<StdResponse<O>> joined = singleFlight.join(key, execution, store);
+        if (!joined.leader()) {
+            invocationContext.putMetadata(SingleFlight.COALESCED_KEY, "true");
         }
+        return joined;
+    }
+
+    private record CallKey(String clientId, String requestId) {
+    }
 
-        // 执行后置拦截器
-        for (McpServerInterceptor interceptor : interceptors) {
-            try {
-                interceptor.afterHandle(request.getTool(), invocationContext, request.getPayload(), response);
-            } catch (Exception e) {
-                System.err.println("[MCP-SERVER] 拦截器后置处理失败: " + e.getMessage());
+    private static <O> StdResponse<O> deadlineExceeded() {
+        return StdResponse.error("deadline_exceeded", "调用已超过截止时间");
+    }
+
+    private static <T> CompletableFuture<T> closeStream(SubmissionPublisher<?> publisher, CompletableFuture<T> pending) {
+        return pending.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                publisher.closeExceptionally(throwable);
+            } else {
+                publisher.close();
             }
+        }).copy();
+    }
+
+    private static String eventName(StreamEvent event) {
+        return event.getType().name().toLowerCase(Locale.ROOT);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <I, O> ToolRegistration<I, O> resolve(Envelopes.RequestEnvelope<I> request, Class<O> responseType) {
+        ToolRegistration<I, O> registration = (ToolRegistration<I, O>) registry.get(request.getTool());
+        if (registration == null || !registration.outputType().equals(responseType)) {
+            return null;
+        }
+        return registration;
+    }
+
+    private <I, O> Envelopes.ResponseEnvelope<O> unresolved(Envelopes.RequestEnvelope<I> request, Class<O> responseType) {
+        StdResponse<O> response;
+        if (registry.get(request.getTool()) == null) {
+            response = StdResponse.error("tool_not_found", "Unknown tool: " + request.getTool());
+        } else {
+            response = StdResponse.error("type_mismatch", "Unexpected response type for tool " + request.getTool());
+        }
+        return new Envelopes.ResponseEnvelope<>(request.getTool(), request.getContext(), response, null);
+    }
+
+    private <I, O> Envelopes.ResponseEnvelope<O> rejected(Envelopes.RequestEnvelope<I> request, Context invocationContext,
+                                                          McpServerInterceptor rejectedBy) {
+        StdResponse<O> response = null;
+        try {
+            response = rejectedBy.rejection(request.getTool(), invocationContext);
+        } catch (Exception e) {
+            System.err.println("[MCP-SERVER] 拦截器拒绝响应构造失败: " + e.getMessage());
+        }
+        if (response == null) {
+            response = StdResponse.error("interceptor_rejected", "请求被拦截器拒绝");
+        }
+        return new Envelopes.ResponseEnvelope<>(request.getTool(), invocationContext, response, null);
+    }
+
+    private static String interceptorName(McpServerInterceptor interceptor) {
+        String name = interceptor.getClass().getSimpleName();
+        return name.isEmpty() ? interceptor.getClass().getName() : name;
+    }
+
+    private <I, O> StdResponse<O> handlerFailed(InterceptorChain chain, Envelopes.RequestEnvelope<I> request,
+                                                Context invocationContext, Exception e) {
+        chain.onError(request.getTool(), invocationContext, request.getPayload(), e);
+        if (e instanceof CancellationException) {
+            return invocationContext.isDeadlineExceeded() ? deadlineExceeded() : StdResponse.error("call_cancelled", "调用已取消");
         }
+        return StdResponse.error("handler_error", "处理失败: " + e.getMessage());
+    }
+
+    private <I, O> Envelopes.ResponseEnvelope<O> complete(InterceptorChain chain, Envelopes.RequestEnvelope<I> request,
+                                                          Context invocationContext, StdResponse<O> response,
+                                                          long start) {
+        long latencyNanos = System.nanoTime() - start;
+        Context.Usage usage = invocationContext.getUsage();
+        usage.setLatencyNanos(latencyNanos);
+        countTokens(request, usage, response.getData());
+
+        chain.afterHandle(request.getTool(), invocationContext, request.getPayload(), response);
 
         if (config.isEnableAudit()) {
             governanceReport.addRecord(new InvocationAuditRecord(invocationContext.getRequestId(), request.getTool(),
-                    response.getStatus(), latency, Instant.now()));
+                    response.getStatus(), usage.getLatencyMs(), Instant.now()));
         }
         Envelopes.UiCard card = buildUiCard(request.getTool(), response);
         return new Envelopes.ResponseEnvelope<>(request.getTool(), invocationContext, response, card);
     }
 
+    /**
+     * 累加令牌用量；工具已自行上报用量（与请求上下文中的值不同）时以工具上报为准，不再估算。
+     * 计数器抛出异常时该项按 0 计，调用已成功，不能因估算失败而跳过后置拦截器与审计
+     */
+    private <I> void countTokens(Envelopes.RequestEnvelope<I> request, Context.Usage usage, Object data) {
+        Context.Usage reported = request.getContext().getUsage();
+        boolean inputReported = usage.getInputTokens() != reported.getInputTokens();
+        boolean outputReported = usage.getOutputTokens() != reported.getOutputTokens();
+        if (inputReported && outputReported) {
+            return;
+        }
+        TokenCounter counter = config.tokenCounterFor(request.getTool());
+        if (!inputReported) {
+            usage.setInputTokens(usage.getInputTokens() + countSafely(counter, request.getTool(), request.getPayload()));
+        }
+        if (!outputReported && data != null) {
+            usage.setOutputTokens(usage.getOutputTokens() + countSafely(counter, request.getTool(), data));
+        }
+    }
+
+    private static int countSafely(TokenCounter counter, String tool, Object value) {
+        try {
+            return counter.count(value);
+        } catch (RuntimeException e) {
+            System.err.println("[MCP-SERVER] 令牌计数失败，按 0 计: " + tool + " - " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private static Exception unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof Exception exception ? exception : new RuntimeException(cause);
+    }
+
     @Override
     public GovernanceReport governanceReport() {
         return governanceReport;
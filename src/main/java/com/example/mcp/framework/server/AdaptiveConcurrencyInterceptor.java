@@ -0,0 +1,148 @@
+package com.example.mcp.framework.server;
+
+import com.example.mcp.common.Context;
+import com.example.mcp.common.StdResponse;
+import com.example.mcp.framework.concurrency.ConcurrencyLimit;
+import com.example.mcp.framework.concurrency.GradientLimit;
+import com.example.mcp.framework.metrics.MetricsCollector;
+import com.example.mcp.framework.metrics.MetricsWriter;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 自适应并发限制拦截器：按工具根据观测到的执行延迟调整并发上限，超过上限的调用立即以
+ * {@code overloaded} 拒绝，而不是在执行器上排队直到所有调用方超时。
+ * <p>
+ * 准入只读取上限并对执行中计数做一次 CAS；延迟样本取自服务器写入上下文的
+ * {@link Context.Usage#getLatencyNanos()}（包含在执行器上排队的时间），截止时间超限视为过载信号。
+ * 应放在鉴权与限流拦截器之后，使被它们拒绝的调用不占用并发额度。
+ * 结果缓存命中（服务器在拦截器之前写入元数据 {@code cache=hit}）不执行工具，既不占用额度也不计入延迟样本
+ */
+public class AdaptiveConcurrencyInterceptor implements McpServerInterceptor, MetricsCollector {
+
+    private final Supplier<? extends ConcurrencyLimit> defaultLimit;
+    private final Map<String, Supplier<? extends ConcurrencyLimit>> toolLimits = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ToolState> states = new ConcurrentHashMap<>();
+
+    /**
+     * 每个工具使用默认参数的 {@link GradientLimit}
+     */
+    public AdaptiveConcurrencyInterceptor() {
+        this(GradientLimit::new);
+    }
+
+    /**
+     * @param defaultLimit 为每个工具创建独立的上限算法实例
+     */
+    public AdaptiveConcurrencyInterceptor(Supplier<? extends ConcurrencyLimit> defaultLimit) {
+        this.defaultLimit = Objects.requireNonNull(defaultLimit, "defaultLimit must not be null");
+    }
+
+    /**
+     * 为指定工具单独设置上限算法，需在该工具首次调用前设置
+     */
+    public void setToolLimit(String tool, Supplier<? extends ConcurrencyLimit> limit) {
+        Objects.requireNonNull(tool, "tool must not be null");
+        toolLimits.put(tool, Objects.requireNonNull(limit, "limit must not be null"));
+    }
+
+    /**
+     * 指定工具当前的并发上限，工具尚未被调用时返回 -1
+     */
+    public int getLimit(String tool) {
+        ToolState state = states.get(tool);
+        return state == null ? -1 : state.limit.getLimit();
+    }
+
+    /**
+     * 指定工具当前的执行中调用数
+     */
+    public int getInFlight(String tool) {
+        ToolState state = states.get(tool);
+        return state == null ? 0 : state.inFlight.get();
+    }
+
+    @Override
+    public <I> boolean beforeHandle(String toolName, Context context, I payload) {
+        if (isCacheHit(context)) {
+            return true;
+        }
+        ToolState state = state(toolName);
+        AtomicInteger inFlight = state.inFlight;
+        while (true) {
+            int current = inFlight.get();
+            if (current >= state.limit.getLimit()) {
+                state.shed.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public <I, O> void afterHandle(String toolName, Context context, I payload, StdResponse<O> response) {
+        ToolState state = states.get(toolName);
+        if (state == null || isCacheHit(context)) {
+            return;
+        }
+        int inFlight = state.inFlight.getAndDecrement();
+        boolean dropped = "deadline_exceeded".equals(response.getCode());
+        state.limit.onSample(context.getUsage().getLatencyNanos(), inFlight, dropped);
+    }
+
+    @Override
+    public <I> void onRejected(String toolName, Context context, I payload) {
+        ToolState state = states.get(toolName);
+        if (state != null && !isCacheHit(context)) {
+            state.inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public <O> StdResponse<O> rejection(String toolName, Context context) {
+        return StdResponse.error("overloaded", "服务繁忙，工具 " + toolName + " 已达到并发上限，请稍后重试");
+    }
+
+    @Override
+    public void collect(MetricsWriter writer) {
+        Map<String, ToolState> sorted = new TreeMap<>(states);
+        sorted.forEach((tool, state) -> writer.gauge("mcp_adaptive_concurrency_limit",
+                "Current adaptive concurrency limit.", state.limit.getLimit(), "tool", tool));
+        sorted.forEach((tool, state) -> writer.gauge("mcp_adaptive_in_flight_calls",
+                "Calls admitted by the adaptive limiter and still running.", state.inFlight.get(), "tool", tool));
+        sorted.forEach((tool, state) -> writer.counter("mcp_shed_calls_total",
+                "Calls rejected because the adaptive concurrency limit was reached.", state.shed.sum(),
+                "tool", tool));
+    }
+
+    private static boolean isCacheHit(Context context) {
+        return "hit".equals(context.getMetadata().get(ResponseCache.CACHE_STATUS_KEY));
+    }
+
+    private ToolState state(String tool) {
+        ToolState state = states.get(tool);
+        if (state == null) {
+            state = states.computeIfAbsent(tool, name ->
+                    new ToolState(toolLimits.getOrDefault(name, defaultLimit).get()));
+        }
+        return state;
+    }
+
+    private static final class ToolState {
+        private final ConcurrencyLimit limit;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder shed = new LongAdder();
+
+        private ToolState(ConcurrencyLimit limit) {
+            this.limit = Objects.requireNonNull(limit, "limit must not be null");
+        }
+    }
+}
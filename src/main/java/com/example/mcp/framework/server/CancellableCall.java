@@ -0,0 +1,63 @@
+package com.example.mcp.framework.server;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 取消时会中断执行线程的 future；执行线程在任务结束后清除残留的中断标记，
+ * 避免中断泄漏到线程池中的下一个任务或调用方线程
+ */
+final class CancellableCall<T> extends CompletableFuture<T> {
+
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int INTERRUPTING = 2;
+    private static final int FINISHED = 3;
+
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+    private volatile Thread runner;
+
+    void run(Supplier<T> task) {
+        if (isDone()) {
+            return;
+        }
+        runner = Thread.currentThread();
+        if (!state.compareAndSet(PENDING, RUNNING)) {
+            runner = null;
+            return;
+        }
+        try {
+            complete(task.get());
+        } catch (Throwable t) {
+            completeExceptionally(t);
+        } finally {
+            if (!state.compareAndSet(RUNNING, FINISHED)) {
+                while (state.get() == INTERRUPTING) {
+                    Thread.onSpinWait();
+                }
+                Thread.interrupted();
+            }
+            runner = null;
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (state.compareAndSet(PENDING, FINISHED)) {
+            return cancelled;
+        }
+        if (cancelled && mayInterruptIfRunning && state.compareAndSet(RUNNING, INTERRUPTING)) {
+            try {
+                Thread thread = runner;
+                if (thread != null) {
+                    thread.interrupt();
+                }
+            } finally {
+                state.set(FINISHED);
+            }
+        }
+        return cancelled;
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.mcp.framework.server;
+
+import com.example.mcp.common.Context;
+import com.example.mcp.common.StdResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 针对一个工具预编译的不可变拦截器链。
+ * <p>
+ * 每个阶段只包含覆盖了对应方法的拦截器，沿用接口默认空实现的阶段不会被调用，
+ * 拒绝计数器在编译时绑定，调用时不再查找。拦截器的顺序与添加顺序一致
+ */
+final class InterceptorChain {
+
+    private final McpServerInterceptor[] before;
+    private final LongAdder[] rejectionCounters;
+    private final boolean[] releasesOnRejection;
+    private final McpServerInterceptor[] after;
+    private final McpServerInterceptor[] error;
+
+    private InterceptorChain(List<McpServerInterceptor> interceptors,
+                             Function<McpServerInterceptor, LongAdder> rejectionCounter) {
+        List<McpServerInterceptor> before = new ArrayList<>();
+        List<McpServerInterceptor> after = new ArrayList<>();
+        List<McpServerInterceptor> error = new ArrayList<>();
+        for (McpServerInterceptor interceptor : interceptors) {
+            Class<?> type = interceptor.getClass();
+            if (overrides(type, "beforeHandle", String.class, Context.class, Object.class)) {
+                before.add(interceptor);
+            }
+            if (overrides(type, "afterHandle", String.class, Context.class, Object.class, StdResponse.class)) {
+                after.add(interceptor);
+            }
+            if (overrides(type, "onError", String.class, Context.class, Object.class, Exception.class)) {
+                error.add(interceptor);
+            }
+        }
+        this.before = before.toArray(new McpServerInterceptor[0]);
+        this.after = after.toArray(new McpServerInterceptor[0]);
+        this.error = error.toArray(new McpServerInterceptor[0]);
+        this.rejectionCounters = new LongAdder[this.before.length];
+        this.releasesOnRejection = new boolean[this.before.length];
+        for (int i = 0; i < this.before.length; i++) {
+            rejectionCounters[i] = rejectionCounter.apply(this.before[i]);
+            releasesOnRejection[i] = overrides(this.before[i].getClass(), "onRejected",
+                    String.class, Context.class, Object.class);
+        }
+    }
+
+    /**
+     * 拦截器是否覆盖了接口中的默认空实现；无法判断时按已覆盖处理
+     */
+    private static boolean overrides(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes).getDeclaringClass() != McpServerInterceptor.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    /**
+     * 执行前置拦截器，拒绝时通知之前已放行的拦截器
+     *
+     * @return 拒绝该调用的拦截器，全部通过时返回 null
+     */
+    <I> McpServerInterceptor beforeHandle(String tool, Context context, I payload) {
+        for (int i = 0; i < before.length; i++) {
+            try {
+                if (!before[i].beforeHandle(tool, context, payload)) {
+                    rejectionCounters[i].increment();
+                    notifyRejected(tool, context, payload, i);
+                    return before[i];
+                }
+            } catch (Exception e) {
+                System.err.println("[MCP-SERVER] 拦截器前置处理失败: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private <I> void notifyRejected(String tool, Context context, I payload, int rejectedAt) {
+        for (int i = 0; i < rejectedAt; i++) {
+            if (!releasesOnRejection[i]) {
+                continue;
+            }
+            try {
+                before[i].onRejected(tool, context, payload);
+            } catch (Exception e) {
+                System.err.println("[MCP-SERVER] 拦截器拒绝处理失败: " + e.getMessage());
+            }
+        }
+    }
+
+    <I, O> void afterHandle(String tool, Context context, I payload, StdResponse<O> response) {
+        for (McpServerInterceptor interceptor : after) {
+            try {
+                interceptor.afterHandle(tool, context, payload, response);
+            } catch (Exception e) {
+                System.err.println("[MCP-SERVER] 拦截器后置处理失败: " + e.getMessage());
+            }
+        }
+    }
+
+    <I> void onError(String tool, Context context, I payload, Exception exception) {
+        for (McpServerInterceptor interceptor : error) {
+            try {
+                interceptor.onError(tool, context, payload, exception);
+            } catch (Exception e) {
+                System.err.println("[MCP-SERVER] 拦截器错误处理失败: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 拦截器及其作用范围的不可变集合，添加拦截器时整体重建。
+     * 只有作用范围中出现的工具各自持有一条链，其余工具共用只含全局拦截器的默认链
+     */
+    static final class Bindings {
+
+        static final Bindings EMPTY = new Bindings(List.of(), List.of(), interceptor -> new LongAdder());
+
+        private final List<McpServerInterceptor> interceptors;
+        private final List<Set<String>> scopes;
+        private final InterceptorChain common;
+        private final Map<String, InterceptorChain> scoped;
+
+        private Bindings(List<McpServerInterceptor> interceptors, List<Set<String>> scopes,
+                         Function<McpServerInterceptor, LongAdder> rejectionCounter) {
+            this.interceptors = interceptors;
+            this.scopes = scopes;
+            Set<String> tools = new HashSet<>();
+            scopes.forEach(scope -> {
+                if (scope != null) {
+                    tools.addAll(scope);
+                }
+            });
+            this.common = new InterceptorChain(applying(null), rejectionCounter);
+            Map<String, InterceptorChain> scoped = new HashMap<>();
+            for (String tool : tools) {
+                scoped.put(tool, new InterceptorChain(applying(tool), rejectionCounter));
+            }
+            this.scoped = Map.copyOf(scoped);
+        }
+
+        /**
+         * @param tools 拦截器只对这些工具生效，为 null 时对所有工具生效
+         */
+        Bindings with(McpServerInterceptor interceptor, Set<String> tools,
+                      Function<McpServerInterceptor, LongAdder> rejectionCounter) {
+            List<McpServerInterceptor> interceptors = new ArrayList<>(this.interceptors);
+            List<Set<String>> scopes = new ArrayList<>(this.scopes);
+            interceptors.add(interceptor);
+            scopes.add(tools == null ? null : Set.copyOf(tools));
+            return new Bindings(List.copyOf(interceptors), scopes, rejectionCounter);
+        }
+
+        InterceptorChain chain(String tool) {
+            InterceptorChain chain = scoped.isEmpty() || tool == null ? null : scoped.get(tool);
+            return chain != null ? chain : common;
+        }
+
+        private List<McpServerInterceptor> applying(String tool) {
+            List<McpServerInterceptor> applying = new ArrayList<>();
+            for (int i = 0; i < interceptors.size(); i++) {
+                Set<String> scope = scopes.get(i);
+                if (scope == null || tool != null && scope.contains(tool)) {
+                    applying.add(interceptors.get(i));
+                }
+            }
+            return applying;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.mcp.framework.server;
+
+import com.example.mcp.common.Context;
+import com.example.mcp.framework.codec.Json;
+import com.example.mcp.framework.codec.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * 标识语义相同的工具调用：工具名、上下文语言区域与载荷规范化 JSON（对象键排序）的 SHA-256 摘要（Base64）。
+ * 结果缓存与相同调用合并都以它为键
+ */
+public record InvocationKey(String tool, String locale, String digest) {
+
+    public InvocationKey {
+        Objects.requireNonNull(tool, "tool must not be null");
+        Objects.requireNonNull(digest, "digest must not be null");
+    }
+
+    /**
+     * @throws IllegalArgumentException 载荷无法映射为 JSON 时
+     */
+    public static InvocationKey of(String tool, Context context, Object payload) {
+        return new InvocationKey(tool, context.getLocale(), digest(payload));
+    }
+
+    private static String digest(Object payload) {
+        StringBuilder canonical = new StringBuilder(128);
+        Json.write(canonicalize(JsonMapper.toTree(payload)), canonical);
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 对象键按字典序排列，使字段顺序不同的等价载荷得到相同摘要
+     */
+    private static Object canonicalize(Object tree) {
+        if (tree instanceof Map<?, ?> map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            map.forEach((key, value) -> sorted.put(String.valueOf(key), canonicalize(value)));
+            return sorted;
+        }
+        if (tree instanceof Collection<?> items) {
+            List<Object> list = new ArrayList<>(items.size());
+            items.forEach(item -> list.add(canonicalize(item)));
+            return list;
+        }
+        return tree;
+    }
+}
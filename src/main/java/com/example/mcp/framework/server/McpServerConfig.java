@@ -1,11 +1,33 @@
 package com.example.mcp.framework.server;
 
+import com.example.mcp.common.protocol.GovernanceReport;
+import com.example.mcp.framework.api.TokenCounter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
 /**
  * MCP服务器配置类
  */
 public class McpServerConfig {
 
     private boolean enableAudit = true;
+    private int auditRetention = GovernanceReport.DEFAULT_CAPACITY;
+    private int auditShards = Runtime.getRuntime().availableProcessors();
+    private Executor handlerExecutor;
+    private int streamBufferSize = Flow.defaultBufferSize();
+    private boolean virtualThreadExecution = false;
+    private int maxConcurrentCallsPerTool = 0;
+    private final Map<String, Integer> toolConcurrencyLimits = new ConcurrentHashMap<>();
+    private TokenCounter tokenCounter = TokenCounter.approximate();
+    private final Map<String, TokenCounter> toolTokenCounters = new ConcurrentHashMap<>();
+    private int responseCacheSize = 1024;
+    private Duration responseCacheTtl = Duration.ofMinutes(5);
+    private boolean requestCoalescing = true;
 
     public McpServerConfig() {
     }
@@ -18,10 +40,179 @@ public class McpServerConfig {
         this.enableAudit = enableAudit;
     }
 
+    /**
+     * 审计记录的保留条数上限，超出后覆盖最旧的记录
+     */
+    public int getAuditRetention() {
+        return auditRetention;
+    }
+
+    public void setAuditRetention(int auditRetention) {
+        if (auditRetention <= 0) {
+            throw new IllegalArgumentException("auditRetention must be positive");
+        }
+        this.auditRetention = auditRetention;
+    }
+
+    /**
+     * 审计环形缓冲区的分片数，按写入线程分片以避免竞争。
+     * 每个分片都能容纳全部保留条数，分片在首次写入时才分配，内存上限为分片数乘以保留条数
+     */
+    public int getAuditShards() {
+        return auditShards;
+    }
+
+    public void setAuditShards(int auditShards) {
+        if (auditShards <= 0) {
+            throw new IllegalArgumentException("auditShards must be positive");
+        }
+        this.auditShards = auditShards;
+    }
+
+    /**
+     * 异步调用路径上执行同步工具的执行器，未设置时使用服务器内置的守护线程池
+     */
+    public Executor getHandlerExecutor() {
+        return handlerExecutor;
+    }
+
+    public void setHandlerExecutor(Executor handlerExecutor) {
+        this.handlerExecutor = handlerExecutor;
+    }
+
+    /**
+     * 每个流式订阅者的事件缓冲上限，缓冲满时工具推送事件会阻塞，形成背压
+     */
+    public int getStreamBufferSize() {
+        return streamBufferSize;
+    }
+
+    public void setStreamBufferSize(int streamBufferSize) {
+        if (streamBufferSize <= 0) {
+            throw new IllegalArgumentException("streamBufferSize must be positive");
+        }
+        this.streamBufferSize = streamBufferSize;
+    }
+
+    /**
+     * 是否在虚拟线程（每任务一个线程）上执行工具，JDK 不支持虚拟线程时回退到平台线程池
+     */
+    public boolean isVirtualThreadExecution() {
+        return virtualThreadExecution;
+    }
+
+    public void setVirtualThreadExecution(boolean virtualThreadExecution) {
+        this.virtualThreadExecution = virtualThreadExecution;
+    }
+
+    /**
+     * 每个工具的默认并发上限，0 表示不限制
+     */
+    public int getMaxConcurrentCallsPerTool() {
+        return maxConcurrentCallsPerTool;
+    }
+
+    public void setMaxConcurrentCallsPerTool(int maxConcurrentCallsPerTool) {
+        if (maxConcurrentCallsPerTool < 0) {
+            throw new IllegalArgumentException("maxConcurrentCallsPerTool must be non-negative");
+        }
+        this.maxConcurrentCallsPerTool = maxConcurrentCallsPerTool;
+    }
+
+    /**
+     * 为指定工具单独设置并发上限，需在工具首次调用前设置
+     */
+    public void setToolConcurrencyLimit(String tool, int limit) {
+        Objects.requireNonNull(tool, "tool must not be null");
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must be non-negative");
+        }
+        toolConcurrencyLimits.put(tool, limit);
+    }
+
+    public int concurrencyLimitFor(String tool) {
+        return toolConcurrencyLimits.getOrDefault(tool, maxConcurrentCallsPerTool);
+    }
+
+    /**
+     * 估算请求载荷与响应数据令牌数的计数器，默认为近似分词器；设为 {@link TokenCounter#NONE} 可关闭计数
+     */
+    public TokenCounter getTokenCounter() {
+        return tokenCounter;
+    }
+
+    public void setTokenCounter(TokenCounter tokenCounter) {
+        this.tokenCounter = Objects.requireNonNull(tokenCounter, "tokenCounter must not be null");
+    }
+
+    /**
+     * 为指定工具单独设置令牌计数器，例如只统计转写结果中的文本字段
+     */
+    public void setToolTokenCounter(String tool, TokenCounter tokenCounter) {
+        Objects.requireNonNull(tool, "tool must not be null");
+        toolTokenCounters.put(tool, Objects.requireNonNull(tokenCounter, "tokenCounter must not be null"));
+    }
+
+    public TokenCounter tokenCounterFor(String tool) {
+        return toolTokenCounters.getOrDefault(tool, tokenCounter);
+    }
+
+    /**
+     * 幂等工具结果缓存的最大条目数，0 表示关闭缓存
+     */
+    public int getResponseCacheSize() {
+        return responseCacheSize;
+    }
+
+    public void setResponseCacheSize(int responseCacheSize) {
+        if (responseCacheSize < 0) {
+            throw new IllegalArgumentException("responseCacheSize must be non-negative");
+        }
+        this.responseCacheSize = responseCacheSize;
+    }
+
+    /**
+     * 工具未声明缓存有效期时使用的默认有效期
+     */
+    public Duration getResponseCacheTtl() {
+        return responseCacheTtl;
+    }
+
+    public void setResponseCacheTtl(Duration responseCacheTtl) {
+        Objects.requireNonNull(responseCacheTtl, "responseCacheTtl must not be null");
+        if (responseCacheTtl.isNegative() || responseCacheTtl.isZero()) {
+            throw new IllegalArgumentException("responseCacheTtl must be positive");
+        }
+        this.responseCacheTtl = responseCacheTtl;
+    }
+
+    /**
+     * 是否合并幂等工具的相同并发调用，使它们共享一次处理器执行
+     */
+    public boolean isRequestCoalescing() {
+        return requestCoalescing;
+    }
+
+    public void setRequestCoalescing(boolean requestCoalescing) {
+        this.requestCoalescing = requestCoalescing;
+    }
+
     @Override
     public String toString() {
         return "McpServerConfig{" +
                 "enableAudit=" + enableAudit +
+                ", auditRetention=" + auditRetention +
+                ", auditShards=" + auditShards +
+                ", handlerExecutor=" + handlerExecutor +
+                ", streamBufferSize=" + streamBufferSize +
+                ", virtualThreadExecution=" + virtualThreadExecution +
+                ", maxConcurrentCallsPerTool=" + maxConcurrentCallsPerTool +
+                ", toolConcurrencyLimits=" + toolConcurrencyLimits +
+                ", tokenCounter=" + tokenCounter +
+                ", toolTokenCounters=" + toolTokenCounters.keySet() +
+                ", responseCacheSize=" + responseCacheSize +
+                ", responseCacheTtl=" + responseCacheTtl +
+                ", requestCoalescing=" + requestCoalescing +
                 '}';
     }
 }
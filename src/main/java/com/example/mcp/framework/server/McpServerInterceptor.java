@@ -5,7 +5,10 @@ import com.example.mcp.common.Envelopes;
 import com.example.mcp.common.StdResponse;
 
 /**
- * MCP服务器拦截器接口，用于在工具处理前后执行自定义逻辑
+ * MCP服务器拦截器接口，用于在工具处理前后执行自定义逻辑。
+ * <p>
+ * 各阶段默认均为空实现，拦截器只需覆盖用到的阶段；服务器编译拦截器链时跳过未覆盖的阶段，
+ * 因此不用的钩子在调用时没有开销
  */
 public interface McpServerInterceptor {
 
@@ -18,7 +21,9 @@ public interface McpServerInterceptor {
      * @param <I> 请求载荷类型
      * @return 是否继续执行，返回false将中断执行
      */
-    <I> boolean beforeHandle(String toolName, Context context, I payload);
+    default <I> boolean beforeHandle(String toolName, Context context, I payload) {
+        return true;
+    }
 
     /**
      * 在工具处理之后执行
@@ -30,7 +35,8 @@ public interface McpServerInterceptor {
      * @param <I> 请求载荷类型
      * @param <O> 响应载荷类型
      */
-    <I, O> void afterHandle(String toolName, Context context, I payload, StdResponse<O> response);
+    default <I, O> void afterHandle(String toolName, Context context, I payload, StdResponse<O> response) {
+    }
 
     /**
      * 在工具处理出现异常时执行
@@ -41,5 +47,31 @@ public interface McpServerInterceptor {
      * @param exception 异常信息
      * @param <I> 请求载荷类型
      */
-    <I> void onError(String toolName, Context context, I payload, Exception exception);
+    default <I> void onError(String toolName, Context context, I payload, Exception exception) {
+    }
+
+    /**
+     * 本拦截器的 {@link #beforeHandle} 已放行、但之后的拦截器拒绝了调用时执行，
+     * 这类调用不会再触发 {@link #afterHandle}，在 beforeHandle 中占用的资源应在这里释放
+     *
+     * @param toolName 工具名称
+     * @param context 上下文
+     * @param payload 请求载荷
+     * @param <I> 请求载荷类型
+     */
+    default <I> void onRejected(String toolName, Context context, I payload) {
+    }
+
+    /**
+     * {@link #beforeHandle} 返回 false 后构造返回给调用方的拒绝响应。
+     * 拒绝原因等信息可在 beforeHandle 中写入上下文元数据，再在这里读取
+     *
+     * @param toolName 工具名称
+     * @param context 上下文，与 beforeHandle 收到的是同一个对象
+     * @param <O> 响应载荷类型
+     * @return 拒绝响应
+     */
+    default <O> StdResponse<O> rejection(String toolName, Context context) {
+        return StdResponse.error("interceptor_rejected", "请求被拦截器拒绝");
+    }
 }
@@ -0,0 +1,48 @@
+package com.example.mcp.framework.server;
+
+import com.example.mcp.common.Context;
+import com.example.mcp.common.StdResponse;
+import com.example.mcp.framework.metrics.MetricsCollector;
+import com.example.mcp.framework.metrics.MetricsWriter;
+import com.example.mcp.framework.metrics.ToolMetrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 服务端指标拦截器：按工具与响应状态记录工具执行的纳秒级延迟直方图。
+ * 延迟取自服务器写入上下文的 {@link Context.Usage#getLatencyNanos()}，被前置拦截器拒绝的请求不计入。
+ * 作为 {@link MetricsCollector} 登记后以 {@code mcp_server_} 前缀导出
+ */
+public class MetricsServerInterceptor implements McpServerInterceptor, MetricsCollector {
+
+    private final ConcurrentHashMap<String, ToolMetrics> metricsMap = new ConcurrentHashMap<>();
+    private final MetricsCollector collector = ToolMetrics.collector("mcp_server", metricsMap);
+
+    @Override
+    public <I, O> void afterHandle(String toolName, Context context, I payload, StdResponse<O> response) {
+        metricsMap.computeIfAbsent(toolName, k -> new ToolMetrics())
+                .record(response.getStatus(), response.getCode(), context.getUsage().getLatencyNanos());
+    }
+
+    /**
+     * 指定工具的指标
+     */
+    public Optional<ToolMetrics> getMetrics(String toolName) {
+        return Optional.ofNullable(metricsMap.get(toolName));
+    }
+
+    /**
+     * 所有工具的指标，只读视图
+     */
+    public Map<String, ToolMetrics> getAllMetrics() {
+        return Collections.unmodifiableMap(metricsMap);
+    }
+
+    @Override
+    public void collect(MetricsWriter writer) {
+        collector.collect(writer);
+    }
+}
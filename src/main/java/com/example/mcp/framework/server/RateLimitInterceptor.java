@@ -2,67 +2,188 @@ package com.example.mcp.framework.server;
 
 import com.example.mcp.common.Context;
 import com.example.mcp.common.StdResponse;
+import com.example.mcp.framework.metrics.MetricsCollector;
+import com.example.mcp.framework.metrics.MetricsWriter;
+import com.example.mcp.framework.ratelimit.RateLimitPolicy;
+import com.example.mcp.framework.ratelimit.RateLimiter;
+import com.example.mcp.framework.ratelimit.RateLimiterFactory;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * 限流拦截器，用于控制客户端调用频率
+ * 限流拦截器，按客户端与按工具分别限制调用频率。
+ * <p>
+ * 每个客户端、每个设置了限流策略的工具各持有一个无锁的 {@link RateLimiter}，先检查客户端限流，
+ * 再检查工具限流，因此超限的客户端不会消耗工具的共享配额。被拒绝的调用返回 {@code rate_limited}，
+ * 并在上下文元数据 {@code retry-after-ms} 中给出建议的重试等待时间。
+ * 空闲的限流器（状态与新建时等价）定期回收，客户端标识再多也不会无限占用内存。
+ * <p>
+ * 默认各节点独立限流；多实例部署时设置 {@link com.example.mcp.framework.ratelimit.DistributedRateLimiterFactory}，
+ * 由各节点从共享存储按批租用许可，使限流值在集群范围内生效
  */
-public class RateLimitInterceptor implements McpServerInterceptor {
+public class RateLimitInterceptor implements McpServerInterceptor, MetricsCollector {
 
-    private final ConcurrentHashMap<String, RateLimiter> limiters = new ConcurrentHashMap<>();
-    private final int maxRequestsPerMinute;
+    public static final String RETRY_AFTER_KEY = "retry-after-ms";
 
+    private final RateLimitPolicy clientPolicy;
+    private final Map<String, RateLimitPolicy> clientPolicies = new ConcurrentHashMap<>();
+    private final Map<String, RateLimitPolicy> toolPolicies = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RateLimiter> clientLimiters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RateLimiter> toolLimiters = new ConcurrentHashMap<>();
+    private final LongAdder clientRejections = new LongAdder();
+    private final LongAdder toolRejections = new LongAdder();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+    private volatile long sweepIntervalNanos = TimeUnit.MINUTES.toNanos(1);
+    private volatile RateLimiterFactory limiterFactory = RateLimiterFactory.LOCAL;
+
+    /**
+     * 每个客户端每分钟最多 {@code maxRequestsPerMinute} 次，使用令牌桶，突发上限与之相同
+     */
     public RateLimitInterceptor(int maxRequestsPerMinute) {
+        this(policyPerMinute(maxRequestsPerMinute));
+    }
+
+    /**
+     * @param clientPolicy 每个客户端默认的限流策略
+     */
+    public RateLimitInterceptor(RateLimitPolicy clientPolicy) {
+        this.clientPolicy = Objects.requireNonNull(clientPolicy, "clientPolicy must not be null");
+    }
+
+    private static RateLimitPolicy policyPerMinute(int maxRequestsPerMinute) {
         if (maxRequestsPerMinute <= 0) {
             throw new IllegalArgumentException("maxRequestsPerMinute must be positive");
         }
-        this.maxRequestsPerMinute = maxRequestsPerMinute;
+        return RateLimitPolicy.tokenBucket(maxRequestsPerMinute, Duration.ofMinutes(1));
+    }
+
+    /**
+     * 为指定客户端单独设置限流策略，需在该客户端首次调用前设置
+     */
+    public void setClientLimit(String clientId, RateLimitPolicy policy) {
+        Objects.requireNonNull(clientId, "clientId must not be null");
+        clientPolicies.put(clientId, Objects.requireNonNull(policy, "policy must not be null"));
+    }
+
+    /**
+     * 为指定工具设置所有客户端共享的限流策略，需在该工具首次调用前设置
+     */
+    public void setToolLimit(String tool, RateLimitPolicy policy) {
+        Objects.requireNonNull(tool, "tool must not be null");
+        toolPolicies.put(tool, Objects.requireNonNull(policy, "policy must not be null"));
+    }
+
+    /**
+     * 限流器的创建方式，默认 {@link RateLimiterFactory#LOCAL}，需在首次调用前设置
+     */
+    public void setLimiterFactory(RateLimiterFactory limiterFactory) {
+        this.limiterFactory = Objects.requireNonNull(limiterFactory, "limiterFactory must not be null");
+    }
+
+    /**
+     * 空闲限流器的回收间隔，默认 1 分钟
+     */
+    public void setSweepInterval(Duration sweepInterval) {
+        Objects.requireNonNull(sweepInterval, "sweepInterval must not be null");
+        if (sweepInterval.isNegative() || sweepInterval.isZero()) {
+            throw new IllegalArgumentException("sweepInterval must be positive");
+        }
+        this.sweepIntervalNanos = sweepInterval.toNanos();
+    }
+
+    /**
+     * 当前持有的客户端限流器数量
+     */
+    public int getClientLimiterCount() {
+        return clientLimiters.size();
     }
 
     @Override
     public <I> boolean beforeHandle(String toolName, Context context, I payload) {
-        String clientId = context.getClientId();
-        RateLimiter limiter = limiters.computeIfAbsent(clientId, k -> new RateLimiter(maxRequestsPerMinute));
+        long now = System.nanoTime();
+        sweepIfDue(now);
+        String clientId = context.getClientId() == null ? "anonymous" : context.getClientId();
 
-        if (!limiter.allowRequest()) {
-            System.err.println("[MCP-SERVER] 限流拒绝: 客户端 " + clientId + " 超过请求频率限制");
-            return false;
+        RateLimitPolicy policy = clientPolicies.getOrDefault(clientId, clientPolicy);
+        long wait = acquire(clientLimiters, "client:", clientId, policy, now);
+        if (wait > 0) {
+            clientRejections.increment();
+            return reject(context, wait, "客户端 " + clientId);
+        }
+        RateLimitPolicy toolPolicy = toolPolicies.get(toolName);
+        if (toolPolicy != null) {
+            wait = acquire(toolLimiters, "tool:", toolName, toolPolicy, now);
+            if (wait > 0) {
+                toolRejections.increment();
+                return reject(context, wait, "工具 " + toolName);
+            }
         }
-
         return true;
     }
 
     @Override
-    public <I, O> void afterHandle(String toolName, Context context, I payload, StdResponse<O> response) {
+    public <O> StdResponse<O> rejection(String toolName, Context context) {
+        String retryAfter = context.getMetadata().get(RETRY_AFTER_KEY);
+        return StdResponse.error("rate_limited", "请求频率超过限制，请在 " + retryAfter + "ms 后重试");
     }
 
     @Override
-    public <I> void onError(String toolName, Context context, I payload, Exception exception) {
+    public void collect(MetricsWriter writer) {
+        writer.gauge("mcp_rate_limiters", "Active rate limiters.", clientLimiters.size(), "scope", "client");
+        writer.gauge("mcp_rate_limiters", "Active rate limiters.", toolLimiters.size(), "scope", "tool");
+        writer.counter("mcp_rate_limited_total", "Calls rejected by the rate limiter.", clientRejections.sum(),
+                "scope", "client");
+        writer.counter("mcp_rate_limited_total", "Calls rejected by the rate limiter.", toolRejections.sum(),
+                "scope", "tool");
     }
 
-    private static class RateLimiter {
-        private final int maxRequests;
-        private final AtomicInteger counter = new AtomicInteger(0);
-        private volatile long windowStart = System.currentTimeMillis();
+    private static boolean reject(Context context, long waitNanos, String subject) {
+        long retryAfterMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos + TimeUnit.MILLISECONDS.toNanos(1) - 1));
+        context.putMetadata(RETRY_AFTER_KEY, Long.toString(retryAfterMs));
+        System.err.println("[MCP-SERVER] 限流拒绝: " + subject + " 超过请求频率限制，" + retryAfterMs + "ms 后可重试");
+        return false;
+    }
 
-        public RateLimiter(int maxRequests) {
-            this.maxRequests = maxRequests;
+    /**
+     * 在对应的限流器上获取许可。获取期间限流器可能恰好被回收，此时把它放回；
+     * 若已有新建的限流器，则以新限流器上的获取结果为准，宁可多算一次也不漏算
+     */
+    private long acquire(ConcurrentHashMap<String, RateLimiter> limiters, String scope, String key,
+                         RateLimitPolicy policy, long now) {
+        RateLimiter limiter = limiters.get(key);
+        if (limiter == null) {
+            limiter = limiters.computeIfAbsent(key, ignored -> limiterFactory.create(scope + key, policy, now));
         }
-
-        public synchronized boolean allowRequest() {
-            long now = System.currentTimeMillis();
-            long elapsed = now - windowStart;
-
-            // 如果超过1分钟，重置计数器
-            if (elapsed >= 60000) {
-                counter.set(0);
-                windowStart = now;
+        long wait = limiter.tryAcquire(now);
+        if (wait == 0 && limiters.get(key) != limiter) {
+            RateLimiter current = limiters.putIfAbsent(key, limiter);
+            if (current != null && current != limiter) {
+                wait = current.tryAcquire(now);
             }
+        }
+        return wait;
+    }
 
-            int current = counter.incrementAndGet();
-            return current <= maxRequests;
+    private void sweepIfDue(long now) {
+        long last = lastSweep.get();
+        if (now - last < sweepIntervalNanos || !lastSweep.compareAndSet(last, now)) {
+            return;
         }
+        sweep(clientLimiters, now);
+        sweep(toolLimiters, now);
+    }
+
+    private static void sweep(ConcurrentHashMap<String, RateLimiter> limiters, long now) {
+        limiters.forEach((key, limiter) -> {
+            if (limiter.isIdle(now) && limiters.remove(key, limiter)) {
+                limiter.release();
+            }
+        });
     }
 }
@@ -0,0 +1,123 @@
+package com.example.mcp.framework.server;
+
+import com.example.mcp.common.Context;
+import com.example.mcp.common.StdResponse;
+import com.example.mcp.common.protocol.ToolDescriptor;
+import com.example.mcp.framework.cache.WTinyLfuCache;
+import com.example.mcp.framework.metrics.MetricsCollector;
+import com.example.mcp.framework.metrics.MetricsWriter;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 幂等工具的结果缓存。只有在 {@link ToolDescriptor#isIdempotent()} 声明为幂等的工具参与缓存，
+ * 键为 {@link InvocationKey}（工具名、上下文语言区域与载荷规范化 JSON 的摘要），
+ * 只缓存成功响应，有效期取工具声明的 {@link ToolDescriptor#getCacheTtl()}，未声明时使用服务器默认值，
+ * 声明为 0 的工具不缓存。
+ * <p>
+ * 命中时服务器跳过工具处理器，但仍执行后置拦截器与审计，并在上下文元数据 {@code cache} 中标记
+ * {@code hit}/{@code miss}。缓存的响应对象在命中间共享，工具返回的数据对象不应在返回后被修改
+ */
+public final class ResponseCache implements MetricsCollector {
+
+    public static final String CACHE_STATUS_KEY = "cache";
+
+    private final WTinyLfuCache<InvocationKey, StdResponse<?>> cache;
+    private final Duration defaultTtl;
+    private final ConcurrentHashMap<String, LongAdder> hits = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> misses = new ConcurrentHashMap<>();
+
+    /**
+     * @param maximumSize 最多缓存的响应数
+     * @param defaultTtl  工具未声明有效期时使用的默认有效期
+     */
+    public ResponseCache(int maximumSize, Duration defaultTtl) {
+        Objects.requireNonNull(defaultTtl, "defaultTtl must not be null");
+        if (defaultTtl.isNegative() || defaultTtl.isZero()) {
+            throw new IllegalArgumentException("defaultTtl must be positive");
+        }
+        this.cache = new WTinyLfuCache<>(maximumSize);
+        this.defaultTtl = defaultTtl;
+    }
+
+    /**
+     * 工具是否参与缓存：声明为幂等且有效期不为 0
+     */
+    public boolean isCacheable(ToolDescriptor descriptor) {
+        return descriptor.isIdempotent() && !ttlFor(descriptor).isZero();
+    }
+
+    /**
+     * 读取缓存的响应，并在上下文元数据中标记命中与否
+     */
+    @SuppressWarnings("unchecked")
+    public <O> StdResponse<O> get(InvocationKey key, Context context) {
+        StdResponse<O> response = (StdResponse<O>) cache.get(key);
+        (response != null ? hits : misses).computeIfAbsent(key.tool(), tool -> new LongAdder()).increment();
+        context.putMetadata(CACHE_STATUS_KEY, response != null ? "hit" : "miss");
+        return response;
+    }
+
+    /**
+     * 缓存成功响应，其他状态的响应忽略
+     */
+    public void put(InvocationKey key, ToolDescriptor descriptor, StdResponse<?> response) {
+        if (response != null && response.getStatus() == StdResponse.Status.SUCCESS) {
+            cache.put(key, response, ttlFor(descriptor).toNanos());
+        }
+    }
+
+    /**
+     * 移除指定工具的全部缓存结果，工具重新注册或注销时调用
+     */
+    public void invalidate(String tool) {
+        cache.invalidateAll(key -> key.tool().equals(tool));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public Duration getDefaultTtl() {
+        return defaultTtl;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    @Override
+    public void collect(MetricsWriter writer) {
+        new TreeMap<>(hits).forEach((tool, count) -> writer.counter("mcp_response_cache_requests_total",
+                "Response cache lookups for idempotent tools.", count.sum(), "tool", tool, "result", "hit"));
+        new TreeMap<>(misses).forEach((tool, count) -> writer.counter("mcp_response_cache_requests_total",
+                "Response cache lookups for idempotent tools.", count.sum(), "tool", tool, "result", "miss"));
+        writer.gauge("mcp_response_cache_entries", "Cached tool responses.", cache.size());
+        writer.gauge("mcp_response_cache_capacity", "Maximum cached tool responses.", cache.getMaximumSize());
+        writer.counter("mcp_response_cache_evictions_total", "Cached responses removed from the cache.",
+                cache.getEvictionCount(), "cause", "size");
+        writer.counter("mcp_response_cache_evictions_total", "Cached responses removed from the cache.",
+                cache.getExpirationCount(), "cause", "expired");
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCache{" + cache + ", defaultTtl=" + defaultTtl + '}';
+    }
+
+    private Duration ttlFor(ToolDescriptor descriptor) {
+        return descriptor.getCacheTtl() != null ? descriptor.getCacheTtl() : defaultTtl;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.mcp.framework.server;
+
+import com.example.mcp.common.Context;
+import com.example.mcp.common.StdResponse;
+import com.example.mcp.framework.metrics.MetricsCollector;
+import com.example.mcp.framework.metrics.MetricsWriter;
+import com.example.mcp.framework.schema.SchemaValidator;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Schema 校验拦截器，在工具处理之前用预编译的 {@link SchemaValidator} 校验请求载荷。
+ * <p>
+ * 不符合 Schema 的调用返回 {@code invalid_payload}，违反的约束写入上下文元数据 {@code schema-violation}。
+ * 校验只读取载荷字段，不分配对象，应排在限流等拦截器之前，使无效请求既不占用配额也不会到达模型。
+ * 未注册 Schema 的工具直接放行
+ */
+public class SchemaValidationInterceptor implements McpServerInterceptor, MetricsCollector {
+
+    public static final String VIOLATION_KEY = "schema-violation";
+
+    private final Map<String, Binding> bindings = new ConcurrentHashMap<>();
+
+    /**
+     * 为工具设置请求载荷的校验器，覆盖已有的设置
+     */
+    public void register(String tool, SchemaValidator<?> validator) {
+        Objects.requireNonNull(tool, "tool must not be null");
+        bindings.put(tool, new Binding(Objects.requireNonNull(validator, "validator must not be null")));
+    }
+
+    /**
+     * 从类路径读取 Schema 并为工具设置校验器
+     *
+     * @see SchemaValidator#fromResource(String, Class)
+     */
+    public <T> void register(String tool, String schemaResource, Class<T> payloadType) {
+        register(tool, SchemaValidator.fromResource(schemaResource, payloadType));
+    }
+
+    /**
+     * 已设置校验器的工具，可作为 {@link AbstractMcpServer#addInterceptor(McpServerInterceptor, java.util.Collection)}
+     * 的作用范围，使其余工具的调用完全不经过本拦截器
+     */
+    public Set<String> getTools() {
+        return Set.copyOf(bindings.keySet());
+    }
+
+    @Override
+    public <I> boolean beforeHandle(String toolName, Context context, I payload) {
+        Binding binding = bindings.get(toolName);
+        if (binding == null) {
+            return true;
+        }
+        String violation = binding.validate(payload);
+        if (violation == null) {
+            return true;
+        }
+        binding.rejections.increment();
+        context.putMetadata(VIOLATION_KEY, violation);
+        System.err.println("[MCP-SERVER] Schema 校验失败: 工具 " + toolName + " " + violation);
+        return false;
+    }
+
+    @Override
+    public <O> StdResponse<O> rejection(String toolName, Context context) {
+        return StdResponse.error("invalid_payload", "请求载荷不符合 Schema: " + context.getMetadata().get(VIOLATION_KEY));
+    }
+
+    @Override
+    public void collect(MetricsWriter writer) {
+        bindings.forEach((tool, binding) -> writer.counter("mcp_schema_rejections_total",
+                "Calls rejected by request schema validation.", binding.rejections.sum(), "tool", tool));
+    }
+
+    private static final class Binding {
+        private final SchemaValidator<?> validator;
+        private final LongAdder rejections = new LongAdder();
+
+        private Binding(SchemaValidator<?> validator) {
+            this.validator = validator;
+        }
+
+        @SuppressWarnings("unchecked")
+        private String validate(Object payload) {
+            if (payload != null && !validator.getType().isInstance(payload)) {
+                return "payload: expected " + validator.getType().getSimpleName() + " but was "
+                        + payload.getClass().getSimpleName();
+            }
+            return ((SchemaValidator<Object>) validator).validate(payload);
+        }
+    }
+}
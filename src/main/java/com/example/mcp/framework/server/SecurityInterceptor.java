@@ -2,51 +2,109 @@ package com.example.mcp.framework.server;
 
 import com.example.mcp.common.Context;
 import com.example.mcp.common.StdResponse;
+import com.example.mcp.framework.metrics.MetricsCollector;
+import com.example.mcp.framework.metrics.MetricsWriter;
+import com.example.mcp.framework.security.AccessPolicy;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * 安全拦截器，用于访问控制和权限验证
+ * 安全拦截器，按 {@link AccessPolicy} 检查客户端能否在工具上执行本次调用所需的操作。
+ * <p>
+ * 策略是不可变的编译结果，检查不加锁；{@link #setPolicy} 整体替换策略，正在进行的检查继续使用旧策略，
+ * 不会暂停调用。被拒绝的调用返回 {@code access_denied}，缺少的操作写入上下文元数据 {@code access-denied}。
+ * 拒绝日志每秒最多输出一条并附带期间被省略的次数，拒绝次数按工具以指标导出
  */
-public class SecurityInterceptor implements McpServerInterceptor {
+public class SecurityInterceptor implements McpServerInterceptor, MetricsCollector {
 
-    private final Set<String> allowedClients = new HashSet<>();
-    private final Set<String> blockedClients = new HashSet<>();
-    private boolean enableWhitelist = false;
+    public static final String DENIED_ACTION_KEY = "access-denied";
 
+    private static final long LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private volatile AccessPolicy policy;
+    private final Map<String, LongAdder> denials = new ConcurrentHashMap<>();
+    private final AtomicLong lastLog = new AtomicLong(System.nanoTime() - LOG_INTERVAL_NANOS);
+    private final LongAdder suppressedLogs = new LongAdder();
+
+    /**
+     * 允许所有客户端调用所有工具，可通过 {@link #addAllowedClient} 切换为白名单
+     */
     public SecurityInterceptor() {
+        this(AccessPolicy.ALLOW_ALL);
     }
 
-    public void addAllowedClient(String clientId) {
-        allowedClients.add(clientId);
-        enableWhitelist = true;
+    public SecurityInterceptor(AccessPolicy policy) {
+        this.policy = Objects.requireNonNull(policy, "policy must not be null");
     }
 
-    @Override
-    public <I> boolean beforeHandle(String toolName, Context context, I payload) {
-        String clientId = context.getClientId();
+    public AccessPolicy getPolicy() {
+        return policy;
+    }
 
-        // 检查黑名单
-        if (blockedClients.contains(clientId)) {
-            System.err.println("[MCP-SERVER] 拒绝访问: 客户端 " + clientId + " 在黑名单中");
-            return false;
-        }
+    /**
+     * 原子地替换访问策略，之后开始的检查使用新策略
+     */
+    public void setPolicy(AccessPolicy policy) {
+        this.policy = Objects.requireNonNull(policy, "policy must not be null");
+    }
 
-        // 检查白名单
-        if (enableWhitelist && !allowedClients.contains(clientId)) {
-            System.err.println("[MCP-SERVER] 拒绝访问: 客户端 " + clientId + " 不在白名单中");
-            return false;
-        }
+    /**
+     * 允许客户端调用所有工具的所有操作。首次调用时从允许所有客户端切换为只允许名单中的客户端；
+     * 每次都会重新编译策略，大量客户端应通过 {@link AccessPolicy.Builder#role} 一次性构建
+     */
+    public synchronized void addAllowedClient(String clientId) {
+        Objects.requireNonNull(clientId, "clientId must not be null");
+        AccessPolicy current = policy;
+        AccessPolicy.Builder builder = current == AccessPolicy.ALLOW_ALL ? AccessPolicy.builder() : current.toBuilder();
+        policy = builder.allow(clientId, AccessPolicy.ANY).build();
+    }
 
-        return true;
+    @Override
+    public <I> boolean beforeHandle(String toolName, Context context, I payload) {
+        String denied = policy.check(context.getClientId(), toolName, context, payload);
+        if (denied == null) {
+            return true;
+        }
+        denials.computeIfAbsent(toolName, tool -> new LongAdder()).increment();
+        context.putMetadata(DENIED_ACTION_KEY, denied);
+        logDenied(context.getClientId(), toolName, denied);
+        return false;
     }
 
     @Override
-    public <I, O> void afterHandle(String toolName, Context context, I payload, StdResponse<O> response) {
+    public <O> StdResponse<O> rejection(String toolName, Context context) {
+        return StdResponse.error("access_denied",
+                "拒绝访问: 无权执行工具 " + toolName + " 的 " + context.getMetadata().get(DENIED_ACTION_KEY) + " 操作");
     }
 
     @Override
-    public <I> void onError(String toolName, Context context, I payload, Exception exception) {
+    public void collect(MetricsWriter writer) {
+        AccessPolicy current = policy;
+        writer.gauge("mcp_access_policy_clients", "Clients with compiled permissions in the access policy.",
+                current.getClientCount());
+        writer.gauge("mcp_access_policy_rows", "Distinct permission bitmaps in the access policy.",
+                current.getDistinctRowCount());
+        denials.forEach((tool, count) -> writer.counter("mcp_access_denied_total",
+                "Calls rejected by the access policy.", count.sum(), "tool", tool));
+    }
+
+    /**
+     * 拒绝风暴时不逐条输出，每个间隔只输出一条并汇总被省略的条数
+     */
+    private void logDenied(String clientId, String toolName, String action) {
+        long now = System.nanoTime();
+        long last = lastLog.get();
+        if (now - last < LOG_INTERVAL_NANOS || !lastLog.compareAndSet(last, now)) {
+            suppressedLogs.increment();
+            return;
+        }
+        long suppressed = suppressedLogs.sumThenReset();
+        System.err.println("[MCP-SERVER] 拒绝访问: 客户端 " + clientId + " 无权执行工具 " + toolName + " 的 " + action
+                + " 操作" + (suppressed > 0 ? "（此前 1 秒内另有 " + suppressed + " 次拒绝未记录）" : ""));
     }
 }
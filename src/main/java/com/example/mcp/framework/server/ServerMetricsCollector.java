@@ -0,0 +1,53 @@
+package com.example.mcp.framework.server;
+
+import com.example.mcp.common.protocol.GovernanceReport;
+import com.example.mcp.framework.metrics.MetricsCollector;
+import com.example.mcp.framework.metrics.MetricsWriter;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * 导出服务器自身的运行状态：已注册工具数、各工具执行中/排队中的调用数与并发上限、
+ * 各拦截器拒绝的调用数、审计环形缓冲区的占用情况、结果缓存的命中与淘汰次数以及合并的相同调用数。
+ * 调用次数、错误码与延迟分布由 {@link MetricsServerInterceptor} 导出
+ */
+public final class ServerMetricsCollector implements MetricsCollector {
+
+    private final AbstractMcpServer server;
+
+    public ServerMetricsCollector(AbstractMcpServer server) {
+        this.server = Objects.requireNonNull(server, "server must not be null");
+    }
+
+    @Override
+    public void collect(MetricsWriter writer) {
+        writer.gauge("mcp_server_tools", "Registered tools.", server.listTools().size());
+
+        Map<String, ToolExecutor.ToolGauge> gauges = new TreeMap<>(server.getToolExecutor().gauges());
+        gauges.forEach((tool, gauge) -> writer.gauge("mcp_server_in_flight_calls",
+                "Tool calls currently executing.", gauge.getInFlight(), "tool", tool));
+        gauges.forEach((tool, gauge) -> writer.gauge("mcp_server_queued_calls",
+                "Tool calls waiting for a concurrency permit.", gauge.getQueued(), "tool", tool));
+        gauges.forEach((tool, gauge) -> writer.gauge("mcp_server_concurrency_limit",
+                "Per-tool concurrency limit, 0 means unlimited.", gauge.getLimit(), "tool", tool));
+
+        server.getRejectedCalls().forEach((interceptor, count) -> writer.counter("mcp_server_rejected_calls_total",
+                "Calls rejected by a server interceptor.", count, "interceptor", interceptor));
+
+        GovernanceReport report = server.governanceReport();
+        writer.gauge("mcp_server_audit_records", "Audit records currently retained.", report.size());
+        writer.gauge("mcp_server_audit_capacity", "Maximum audit records retained.", report.capacity());
+        writer.counter("mcp_server_audit_recorded_total", "Audit records appended, including overwritten ones.",
+                report.totalRecorded());
+
+        server.getResponseCache().ifPresent(cache -> cache.collect(writer));
+        server.getSingleFlight().ifPresent(flights -> flights.collect(writer));
+    }
+
+    @Override
+    public String toString() {
+        return "ServerMetricsCollector{" + server.getClass().getSimpleName() + '}';
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.mcp.framework.server;
+
+import com.example.mcp.framework.metrics.MetricsCollector;
+import com.example.mcp.framework.metrics.MetricsWriter;
+
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 合并相同的并发调用：同一 {@link InvocationKey} 的调用在执行期间只执行一次工具处理器，
+ * 后到的调用等待同一个结果。每个调用方得到独立的结果 future，取消它只结束该调用方的等待；
+ * 所有等待者都取消后共享的执行才会被取消
+ */
+public final class SingleFlight implements MetricsCollector {
+
+    public static final String COALESCED_KEY = "coalesced";
+
+    /**
+     * 客户端对冲请求的元数据标记：对冲是为了绕开慢的执行，带有该标记的调用不参与合并，也不读写结果缓存
+     */
+    public static final String HEDGE_KEY = "hedge";
+
+    private final ConcurrentHashMap<InvocationKey, Flight<?>> flights = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> coalesced = new ConcurrentHashMap<>();
+
+    /**
+     * 加入指定键的执行。没有进行中的执行时调用方成为领导者，须在返回后自行启动 {@code execution}；
+     * 否则返回的结果来自已在进行中的执行，{@code execution} 被忽略
+     *
+     * @param execution 尚未启动的执行，结果完成时移除该执行
+     * @param onSuccess 执行成功后、移除之前调用，使后到的调用能从结果缓存中读到结果
+     */
+    public <T> Joined<T> join(InvocationKey key, CompletableFuture<T> execution, Consumer<? super T> onSuccess) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(execution, "execution must not be null");
+        Objects.requireNonNull(onSuccess, "onSuccess must not be null");
+        while (true) {
+            @SuppressWarnings("unchecked")
+            Flight<T> flight = (Flight<T>) flights.get(key);
+            if (flight == null) {
+                Flight<T> created = new Flight<>(execution);
+                if (flights.putIfAbsent(key, created) != null) {
+                    continue;
+                }
+                execution.whenComplete((result, throwable) -> {
+                    try {
+                        if (throwable == null) {
+                            onSuccess.accept(result);
+                        }
+                    } finally {
+                        flights.remove(key, created);
+                    }
+                });
+                return new Joined<>(created.attach(), true);
+            }
+            if (flight.enter()) {
+                coalesced.computeIfAbsent(key.tool(), tool -> new LongAdder()).increment();
+                return new Joined<>(flight.attach(), false);
+            }
+            // 所有等待者都已取消，该执行即将结束
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * 进行中的执行数
+     */
+    public int size() {
+        return flights.size();
+    }
+
+    @Override
+    public void collect(MetricsWriter writer) {
+        writer.gauge("mcp_server_coalescing_flights", "Shared executions of identical calls in progress.",
+                flights.size());
+        new TreeMap<>(coalesced).forEach((tool, count) -> writer.counter("mcp_server_coalesced_calls_total",
+                "Calls that shared an identical in-flight execution instead of running the handler.",
+                count.sum(), "tool", tool));
+    }
+
+    /**
+     * 加入结果
+     *
+     * @param result 该调用方独立的结果 future
+     * @param leader 是否须由调用方启动执行
+     */
+    public record Joined<T>(CompletableFuture<T> result, boolean leader) {
+    }
+
+    private static final class Flight<T> {
+        private final CompletableFuture<T> execution;
+        private final AtomicInteger waiters = new AtomicInteger(1);
+
+        private Flight(CompletableFuture<T> execution) {
+            this.execution = execution;
+        }
+
+        /**
+         * 登记一个新的等待者，所有等待者都已取消时失败
+         */
+        private boolean enter() {
+            while (true) {
+                int current = waiters.get();
+                if (current == 0) {
+                    return false;
+                }
+                if (waiters.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * 为一个等待者创建独立的结果 future，它被取消时若已没有其他等待者则取消执行
+         */
+        private CompletableFuture<T> attach() {
+            CompletableFuture<T> view = new CompletableFuture<>();
+            execution.whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    view.completeExceptionally(throwable);
+                } else {
+                    view.complete(result);
+                }
+            });
+            view.whenComplete((result, throwable) -> {
+                if (view.isCancelled() && waiters.decrementAndGet() == 0) {
+                    execution.cancel(true);
+                }
+            });
+            return view;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.mcp.framework.server;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 工具执行器：负责选择执行工具的线程（配置的执行器、虚拟线程或内置守护线程池），
+ * 并按工具限制并发、统计执行中与排队中的调用数
+ */
+public final class ToolExecutor {
+
+    private final McpServerConfig config;
+    private final ConcurrentHashMap<String, ToolGate> gates = new ConcurrentHashMap<>();
+    private volatile Executor executor;
+    private volatile ScheduledExecutorService deadlineScheduler;
+
+    public ToolExecutor(McpServerConfig config) {
+        this.config = Objects.requireNonNull(config, "config must not be null");
+    }
+
+    /**
+     * 是否将同步调用也切换到执行器线程上执行
+     */
+    public boolean isOffloading() {
+        return config.isVirtualThreadExecution();
+    }
+
+    /**
+     * 在当前线程上执行，超出并发上限时阻塞等待
+     */
+    public <T> T call(String tool, Supplier<T> task) {
+        ToolGate gate = gate(tool);
+        gate.enter();
+        try {
+            return task.get();
+        } finally {
+            gate.exit();
+        }
+    }
+
+    /**
+     * 在执行器线程上执行，超出并发上限时在执行器线程上排队。
+     * 取消返回的 future 会中断正在执行的线程并释放并发许可
+     */
+    public <T> CompletableFuture<T> submit(String tool, Supplier<T> task) {
+        CancellableCall<T> call = new CancellableCall<>();
+        execute(tool, call, task);
+        return call;
+    }
+
+    /**
+     * 在执行器线程上执行给定的调用
+     */
+    <T> void execute(String tool, CancellableCall<T> call, Supplier<T> task) {
+        executor().execute(() -> call.run(() -> call(tool, task)));
+    }
+
+    /**
+     * 在当前线程上执行给定的调用；取消会中断当前线程，调用返回前会清除残留的中断标记
+     */
+    <T> void executeInline(String tool, CancellableCall<T> call, Supplier<T> task) {
+        call.run(() -> call(tool, task));
+    }
+
+    /**
+     * 在截止时间到达时取消调用，返回的句柄应在调用结束后取消以释放定时任务
+     */
+    ScheduledFuture<?> cancelAt(Instant deadline, Future<?> call) {
+        long delay = Math.max(0, Duration.between(Instant.now(), deadline).toNanos());
+        return deadlineScheduler().schedule(() -> call.cancel(true), delay, TimeUnit.NANOSECONDS);
+    }
+
+    private ScheduledExecutorService deadlineScheduler() {
+        ScheduledExecutorService current = deadlineScheduler;
+        if (current == null) {
+            synchronized (this) {
+                current = deadlineScheduler;
+                if (current == null) {
+                    ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                        Thread thread = new Thread(runnable, "mcp-deadline");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    scheduler.setRemoveOnCancelPolicy(true);
+                    current = scheduler;
+                    deadlineScheduler = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 执行原生异步任务，许可在返回的 future 完成时释放
+     */
+    public <T> CompletableFuture<T> submitAsync(String tool, Supplier<CompletableFuture<T>> task) {
+        ToolGate gate = gate(tool);
+        if (gate.tryEnter()) {
+            return startAsync(gate, task);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            gate.enter();
+            return gate;
+        }, executor()).thenCompose(entered -> startAsync(entered, task));
+    }
+
+    private static <T> CompletableFuture<T> startAsync(ToolGate gate, Supplier<CompletableFuture<T>> task) {
+        CompletableFuture<T> pending;
+        try {
+            pending = task.get();
+        } catch (RuntimeException e) {
+            pending = CompletableFuture.failedFuture(e);
+        }
+        // 返回副本：调用方提前完成或取消返回的 future 时，许可仍会在任务真正结束后释放
+        return pending.whenComplete((result, throwable) -> gate.exit()).copy();
+    }
+
+    public Executor executor() {
+        Executor current = executor;
+        if (current == null) {
+            synchronized (this) {
+                current = executor;
+                if (current == null) {
+                    current = createExecutor();
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 获取指定工具的并发统计
+     */
+    public ToolGauge gauge(String tool) {
+        return gate(tool);
+    }
+
+    public Map<String, ToolGauge> gauges() {
+        return Collections.unmodifiableMap(gates);
+    }
+
+    private ToolGate gate(String tool) {
+        ToolGate gate = gates.get(tool);
+        if (gate == null) {
+            gate = gates.computeIfAbsent(tool, name -> new ToolGate(config.concurrencyLimitFor(name)));
+        }
+        return gate;
+    }
+
+    private Executor createExecutor() {
+        Executor configured = config.getHandlerExecutor();
+        if (configured != null) {
+            return configured;
+        }
+        if (config.isVirtualThreadExecution()) {
+            ExecutorService virtual = newVirtualThreadExecutor();
+            if (virtual != null) {
+                return virtual;
+            }
+            System.err.println("[MCP-SERVER] 当前 JDK 不支持虚拟线程，回退到平台线程池");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "mcp-handler-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 单个工具的并发统计
+     */
+    public interface ToolGauge {
+
+        /**
+         * 正在执行的调用数
+         */
+        int getInFlight();
+
+        /**
+         * 因达到并发上限而等待的调用数
+         */
+        int getQueued();
+
+        /**
+         * 并发上限，0 表示不限制
+         */
+        int getLimit();
+    }
+
+    private static final class ToolGate implements ToolGauge {
+        private final int limit;
+        private final Semaphore permits;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+
+        private ToolGate(int limit) {
+            this.limit = limit;
+            this.permits = limit > 0 ? new Semaphore(limit) : null;
+        }
+
+        private boolean tryEnter() {
+            if (permits != null && !permits.tryAcquire()) {
+                return false;
+            }
+            inFlight.incrementAndGet();
+            return true;
+        }
+
+        private void enter() {
+            if (tryEnter()) {
+                return;
+            }
+            queued.incrementAndGet();
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            } finally {
+                queued.decrementAndGet();
+            }
+            inFlight.incrementAndGet();
+        }
+
+        private void exit() {
+            inFlight.decrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+
+        @Override
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        @Override
+        public int getQueued() {
+            return queued.get();
+        }
+
+        @Override
+        public int getLimit() {
+            return limit;
+        }
+
+        @Override
+        public String toString() {
+            return "ToolGauge{" +
+                    "inFlight=" + inFlight.get() +
+                    ", queued=" + queued.get() +
+                    ", limit=" + limit +
+                    '}';
+        }
+    }
+}
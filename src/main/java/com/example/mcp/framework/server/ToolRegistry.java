@@ -0,0 +1,130 @@
+package com.example.mcp.framework.server;
+
+import com.example.mcp.common.protocol.ToolDescriptor;
+import com.example.mcp.framework.api.ToolRegistration;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * 写时复制的工具注册表：读路径只读取一个不可变快照，写路径通过CAS整体替换快照，
+ * 因此可以在流量进行中热注册/注销工具而不影响调用线程
+ */
+public final class ToolRegistry {
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    /**
+     * 获取当前快照，调用方在一次调用内应始终使用同一个快照
+     */
+    public Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    public ToolRegistration<?, ?> get(String name) {
+        return snapshot.get().get(name);
+    }
+
+    public List<ToolDescriptor> descriptors() {
+        return snapshot.get().descriptors();
+    }
+
+    public void register(ToolRegistration<?, ?> registration) {
+        Objects.requireNonNull(registration, "registration must not be null");
+        update(current -> current.with(List.of(registration)));
+    }
+
+    /**
+     * 原子地批量注册，读者要么看到全部新工具，要么一个都看不到
+     */
+    public void registerAll(Collection<? extends ToolRegistration<?, ?>> registrations) {
+        Objects.requireNonNull(registrations, "registrations must not be null");
+        registrations.forEach(registration -> Objects.requireNonNull(registration, "registration must not be null"));
+        List<ToolRegistration<?, ?>> copy = List.copyOf(registrations);
+        update(current -> current.with(copy));
+    }
+
+    public boolean unregister(String name) {
+        Objects.requireNonNull(name, "name must not be null");
+        return unregisterAll(List.of(name)) > 0;
+    }
+
+    /**
+     * 原子地批量注销
+     *
+     * @return 实际移除的工具数量
+     */
+    public int unregisterAll(Collection<String> names) {
+        Objects.requireNonNull(names, "names must not be null");
+        List<String> copy = List.copyOf(names);
+        Snapshot previous = update(current -> current.without(copy));
+        int removed = 0;
+        for (String name : copy) {
+            if (previous.get(name) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private Snapshot update(UnaryOperator<Snapshot> operator) {
+        while (true) {
+            Snapshot current = snapshot.get();
+            Snapshot next = operator.apply(current);
+            if (next == current || snapshot.compareAndSet(current, next)) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * 注册表的不可变快照，工具清单在构建时一次性计算并缓存
+     */
+    public static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyMap());
+
+        private final Map<String, ToolRegistration<?, ?>> registrations;
+        private final List<ToolDescriptor> descriptors;
+
+        private Snapshot(Map<String, ToolRegistration<?, ?>> registrations) {
+            this.registrations = registrations;
+            this.descriptors = registrations.values().stream().map(ToolRegistration::descriptor).toList();
+        }
+
+        public ToolRegistration<?, ?> get(String name) {
+            return registrations.get(name);
+        }
+
+        public List<ToolDescriptor> descriptors() {
+            return descriptors;
+        }
+
+        public int size() {
+            return registrations.size();
+        }
+
+        Snapshot with(Collection<ToolRegistration<?, ?>> additions) {
+            Map<String, ToolRegistration<?, ?>> next = new LinkedHashMap<>(registrations);
+            for (ToolRegistration<?, ?> registration : additions) {
+                next.put(registration.descriptor().getName(), registration);
+            }
+            return new Snapshot(Collections.unmodifiableMap(next));
+        }
+
+        Snapshot without(Collection<String> names) {
+            Map<String, ToolRegistration<?, ?>> next = new LinkedHashMap<>(registrations);
+            boolean changed = false;
+            for (String name : names) {
+                changed |= next.remove(name) != null;
+            }
+            return changed ? new Snapshot(Collections.unmodifiableMap(next)) : this;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 public class SimpleSpringAiService implements SpringAiService {
 
@@ -35,10 +36,32 @@ public class SimpleSpringAiService implements SpringAiService {
         return userPrompt;
     }
 
+    @Override
+    public String chatStream(String systemPrompt, String userPrompt, Consumer<String> chunkConsumer) {
+        Objects.requireNonNull(chunkConsumer, "chunkConsumer must not be null");
+        String lowerPrompt = Objects.requireNonNull(systemPrompt, "systemPrompt must not be null").toLowerCase(Locale.ROOT);
+        Objects.requireNonNull(userPrompt, "userPrompt must not be null");
+        if (lowerPrompt.contains("zh-cn")) {
+            return translate(userPrompt, enToZh, chunkConsumer);
+        }
+        if (lowerPrompt.contains("en-us")) {
+            return translate(userPrompt, zhToEn, chunkConsumer);
+        }
+        chunkConsumer.accept(userPrompt);
+        return userPrompt;
+    }
+
     private String translate(String input, Map<String, String> dictionary) {
+        return translate(input, dictionary, chunk -> {
+        });
+    }
+
+    private String translate(String input, Map<String, String> dictionary, Consumer<String> chunkConsumer) {
         StringBuilder builder = new StringBuilder();
         for (String token : input.split("\\s+")) {
-            builder.append(dictionary.getOrDefault(token.toLowerCase(Locale.ROOT), token)).append(' ');
+            String translated = dictionary.getOrDefault(token.toLowerCase(Locale.ROOT), token);
+            chunkConsumer.accept(translated);
+            builder.append(translated).append(' ');
         }
         return builder.toString().trim();
     }
@@ -3,6 +3,11 @@ package com.example.mcp.framework.springai;
 import com.example.mcp.common.Context;
 import com.example.mcp.common.protocol.SessionOpenRequest;
 import com.example.mcp.framework.server.AbstractMcpServer;
+import com.example.mcp.framework.api.ToolRegistration;
+import com.example.mcp.framework.server.McpServerConfig;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class SpringAiMcpServer extends AbstractMcpServer {
 
@@ -12,6 +17,27 @@ public class SpringAiMcpServer extends AbstractMcpServer {
         this.modelName = modelName;
     }
 
+    public SpringAiMcpServer(String modelName, McpServerConfig config) {
+        super(config);
+        this.modelName = modelName;
+    }
+
+    /**
+     * 原子地注册对象上所有标注了 {@link org.springframework.ai.tool.annotation.Tool} 的方法，
+     * 方法在注册时绑定一次，调用时不经过反射
+     *
+     * @return 注册的工具数
+     * @see ToolMethodBinder
+     */
+    public int registerToolBeans(Object... beans) {
+        List<ToolRegistration<?, ?>> registrations = new ArrayList<>();
+        for (Object bean : beans) {
+            registrations.addAll(ToolMethodBinder.registrations(bean));
+        }
+        registerTools(registrations);
+        return registrations.size();
+    }
+
     @Override
     protected Context buildSessionContext(SessionOpenRequest request) {
         Context context = super.buildSessionContext(request);
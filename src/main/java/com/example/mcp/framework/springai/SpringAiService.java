@@ -1,6 +1,18 @@
 package com.example.mcp.framework.springai;
 
+import java.util.function.Consumer;
+
 public interface SpringAiService {
 
     String chat(String systemPrompt, String userPrompt);
+
+    /**
+     * 流式对话：模型输出的每个片段都会交给 {@code chunkConsumer}，返回完整结果。
+     * 默认实现把完整结果作为唯一片段推送
+     */
+    default String chatStream(String systemPrompt, String userPrompt, Consumer<String> chunkConsumer) {
+        String result = chat(systemPrompt, userPrompt);
+        chunkConsumer.accept(result);
+        return result;
+    }
 }
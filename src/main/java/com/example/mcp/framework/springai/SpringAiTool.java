@@ -3,8 +3,12 @@ package com.example.mcp.framework.springai;
 import com.example.mcp.common.Context;
 import com.example.mcp.common.StdResponse;
 import com.example.mcp.framework.api.ToolHandler;
+import com.example.mcp.framework.async.StreamEvent;
+import com.example.mcp.framework.async.StreamingToolHandler;
 
-public abstract class SpringAiTool<I, O> implements ToolHandler<I, O> {
+import java.util.function.Consumer;
+
+public abstract class SpringAiTool<I, O> implements ToolHandler<I, O>, StreamingToolHandler<I, O> {
 
     private final SpringAiService springAiService;
 
@@ -27,8 +31,31 @@ public abstract class SpringAiTool<I, O> implements ToolHandler<I, O> {
         return mapToResponse(result, context, input);
     }
 
+    /**
+     * 以流式方式调用模型，每个输出片段作为 {@link StreamEvent.Type#PARTIAL_RESULT} 推送
+     */
+    protected StdResponse<O> executeStreaming(Context context, I input, Consumer<StreamEvent> eventConsumer) {
+        eventConsumer.accept(StreamEvent.progress("调用模型", 0.0));
+        StringBuilder partial = new StringBuilder();
+        String result = springAiService.chatStream(systemPrompt(context, input), userPrompt(context, input), chunk -> {
+            if (partial.length() > 0) {
+                partial.append(' ');
+            }
+            partial.append(chunk);
+            eventConsumer.accept(StreamEvent.partialResult("模型输出片段", partial.toString()));
+        });
+        StdResponse<O> response = mapToResponse(result, context, input);
+        eventConsumer.accept(StreamEvent.complete());
+        return response;
+    }
+
     @Override
     public StdResponse<O> handle(Context context, I input) {
         return execute(context, input);
     }
+
+    @Override
+    public StdResponse<O> handleWithStream(Context context, I input, Consumer<StreamEvent> eventConsumer) {
+        return executeStreaming(context, input, eventConsumer);
+    }
 }
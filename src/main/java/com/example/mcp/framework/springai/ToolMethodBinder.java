@@ -0,0 +1,232 @@
+package com.example.mcp.framework.springai;
+
+import com.example.mcp.common.Context;
+import com.example.mcp.common.StdResponse;
+import com.example.mcp.common.protocol.ToolDescriptor;
+import com.example.mcp.framework.annotation.InputField;
+import com.example.mcp.framework.annotation.OutputField;
+import com.example.mcp.framework.api.ToolHandler;
+import com.example.mcp.framework.api.ToolRegistration;
+import com.example.mcp.framework.async.AsyncToolHandler;
+import com.example.mcp.framework.async.StreamingToolHandler;
+import org.springframework.ai.tool.annotation.Tool;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 把对象上标注了 Spring AI {@link Tool} 的方法注册为 MCP 工具，一个类可以声明多个工具方法。
+ * <p>
+ * 注册时通过 {@link LambdaMetafactory} 把方法绑定为处理器接口的实现，调用时与直接调用方法相同，
+ * 不经过反射。支持的方法签名（{@code I} 为输入类型，{@code O} 为输出类型）：
+ * <ul>
+ *     <li>{@code StdResponse<O> m(Context, I)} 或 {@code StdResponse<O> m(I)}：同步工具</li>
+ *     <li>{@code CompletableFuture<StdResponse<O>> m(Context, I)} 或 {@code m(I)}：异步工具</li>
+ *     <li>{@code StdResponse<O> m(Context, I, Consumer<StreamEvent>)}：流式工具</li>
+ * </ul>
+ * 描述取自注解的 name、title 与 description，字段描述取自输入输出类型上的
+ * {@link InputField}/{@link OutputField}。子类覆盖工具方法时须重新标注
+ */
+public final class ToolMethodBinder {
+
+    private ToolMethodBinder() {
+    }
+
+    /**
+     * 为对象的全部工具方法创建注册信息
+     *
+     * @throws IllegalArgumentException 没有工具方法，或工具方法的签名不受支持
+     */
+    public static List<ToolRegistration<?, ?>> registrations(Object bean) {
+        Objects.requireNonNull(bean, "bean must not be null");
+        List<ToolRegistration<?, ?>> registrations = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (Method method : toolMethods(bean.getClass())) {
+            String name = method.getAnnotation(Tool.class).name();
+            if (!names.add(name)) {
+                throw new IllegalArgumentException("Duplicate @Tool name '" + name + "' on " + bean.getClass().getName());
+            }
+            registrations.add(bind(bean, method));
+        }
+        if (registrations.isEmpty()) {
+            throw new IllegalArgumentException("No @Tool methods found on " + bean.getClass().getName());
+        }
+        return registrations;
+    }
+
+    /**
+     * 按类层次自下而上收集工具方法，被覆盖的方法以子类的声明为准，结果按工具名排序
+     */
+    private static List<Method> toolMethods(Class<?> type) {
+        List<Method> methods = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                if (method.isBridge() || method.isSynthetic() || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                if (seen.add(method.getName() + Arrays.toString(method.getParameterTypes()))
+                        && method.isAnnotationPresent(Tool.class)) {
+                    methods.add(method);
+                }
+            }
+        }
+        methods.sort(Comparator.comparing(method -> method.getAnnotation(Tool.class).name()));
+        return methods;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ToolRegistration<?, ?> bind(Object bean, Method method) {
+        Class<?>[] parameters = method.getParameterTypes();
+        boolean withContext = parameters.length >= 2 && parameters[0] == Context.class;
+        boolean streaming = parameters.length == 3 && withContext && parameters[2] == Consumer.class;
+        if (!(parameters.length == 1 || parameters.length == 2 && withContext || streaming)) {
+            throw unsupported(method, "expected (I), (Context, I) or (Context, I, Consumer<StreamEvent>) parameters");
+        }
+        Class<?> inputType = parameters[withContext ? 1 : 0];
+        if (inputType.isPrimitive() || inputType == Context.class) {
+            throw unsupported(method, "input must be a payload class");
+        }
+        boolean async = method.getReturnType() == CompletableFuture.class;
+        if (!async && method.getReturnType() != StdResponse.class || async && streaming) {
+            throw unsupported(method, "expected StdResponse<O> or CompletableFuture<StdResponse<O>> return type");
+        }
+        Type response = method.getGenericReturnType();
+        if (async) {
+            response = typeArgument(method, response);
+            if (!(response instanceof ParameterizedType parameterized) || parameterized.getRawType() != StdResponse.class) {
+                throw unsupported(method, "expected CompletableFuture<StdResponse<O>> return type");
+            }
+        }
+        Class<?> outputType = rawClass(method, typeArgument(method, response));
+
+        Tool tool = method.getAnnotation(Tool.class);
+        ToolDescriptor descriptor = new ToolDescriptor(tool.name(), tool.title().isEmpty() ? tool.name() : tool.title(),
+                tool.description(), fields(inputType, true), fields(outputType, false));
+
+        MethodHandles.Lookup lookup;
+        MethodHandle target;
+        try {
+            lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            target = lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access @Tool method " + method, e);
+        }
+        Class<?> result = method.getReturnType();
+        if (streaming) {
+            StreamingToolHandler handler = bindTo(bean, lookup, target, StreamingToolHandler.class, "handleWithStream",
+                    MethodType.methodType(StdResponse.class, Context.class, Object.class, Consumer.class),
+                    MethodType.methodType(result, Context.class, inputType, Consumer.class));
+            return ToolRegistration.streaming(descriptor, (Class) inputType, handler, (Class) outputType);
+        }
+        if (!withContext) {
+            Function function = bindTo(bean, lookup, target, Function.class, "apply",
+                    MethodType.methodType(Object.class, Object.class), MethodType.methodType(result, inputType));
+            if (async) {
+                AsyncToolHandler handler = (context, input) -> (CompletableFuture) function.apply(input);
+                return ToolRegistration.async(descriptor, (Class) inputType, handler, (Class) outputType);
+            }
+            ToolHandler handler = (context, input) -> (StdResponse) function.apply(input);
+            return new ToolRegistration(descriptor, inputType, handler, outputType);
+        }
+        if (async) {
+            AsyncToolHandler handler = bindTo(bean, lookup, target, AsyncToolHandler.class, "handleAsync",
+                    MethodType.methodType(CompletableFuture.class, Context.class, Object.class),
+                    MethodType.methodType(result, Context.class, inputType));
+            return ToolRegistration.async(descriptor, (Class) inputType, handler, (Class) outputType);
+        }
+        ToolHandler handler = bindTo(bean, lookup, target, ToolHandler.class, "handle",
+                MethodType.methodType(StdResponse.class, Context.class, Object.class),
+                MethodType.methodType(result, Context.class, inputType));
+        return new ToolRegistration(descriptor, inputType, handler, outputType);
+    }
+
+    /**
+     * 生成以 {@code bean} 为接收者调用 {@code target} 的函数式接口实现
+     */
+    private static <T> T bindTo(Object bean, MethodHandles.Lookup lookup, MethodHandle target,
+                                Class<T> functionalInterface, String methodName,
+                                MethodType erasedType, MethodType instantiatedType) {
+        Class<?> receiver = target.type().parameterType(0);
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, methodName,
+                    MethodType.methodType(functionalInterface, receiver), erasedType, target, instantiatedType);
+            return functionalInterface.cast(site.getTarget().invoke(bean));
+        } catch (LambdaConversionException e) {
+            throw new IllegalArgumentException("Cannot bind @Tool method " + target, e);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to bind @Tool method " + target, e);
+        }
+    }
+
+    private static Type typeArgument(Method method, Type type) {
+        if (!(type instanceof ParameterizedType parameterized)) {
+            throw unsupported(method, "return type must declare its payload type");
+        }
+        return parameterized.getActualTypeArguments()[0];
+    }
+
+    private static Class<?> rawClass(Method method, Type type) {
+        if (type instanceof Class<?> cls) {
+            return cls;
+        }
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() instanceof Class<?> cls) {
+            return cls;
+        }
+        throw unsupported(method, "cannot determine output type from " + type);
+    }
+
+    /**
+     * 按声明顺序读取带注解的字段描述，父类字段在前
+     */
+    private static Map<String, String> fields(Class<?> type, boolean input) {
+        Deque<Class<?>> hierarchy = new ArrayDeque<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.push(current);
+        }
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (Class<?> current : hierarchy) {
+            for (Field field : current.getDeclaredFields()) {
+                if (input) {
+                    InputField annotation = field.getAnnotation(InputField.class);
+                    if (annotation != null) {
+                        fields.put(field.getName(), annotation.required() ? annotation.value() : annotation.value() + "（可选）");
+                    }
+                } else {
+                    OutputField annotation = field.getAnnotation(OutputField.class);
+                    if (annotation != null) {
+                        fields.put(field.getName(), annotation.value());
+                    }
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static IllegalArgumentException unsupported(Method method, String reason) {
+        return new IllegalArgumentException("Unsupported @Tool method " + method + ": " + reason);
+    }
+}
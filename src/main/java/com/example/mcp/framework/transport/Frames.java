@@ -0,0 +1,121 @@
+package com.example.mcp.framework.transport;
+
+import com.example.mcp.common.Envelopes;
+import com.example.mcp.framework.codec.JsonMapper;
+import com.example.mcp.framework.codec.McpCodec;
+import com.example.mcp.framework.codec.McpCodecs;
+
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 帧格式：4 字节大端长度 + 由 {@link McpCodec} 编码的帧体，默认为 UTF-8 JSON，可切换为紧凑二进制格式。
+ * 请求帧为 {@code {"id", "op", ...}}，响应帧为 {@code {"id", "result"}} 或 {@code {"id", "error"}}，
+ * 流式事件帧为 {@code {"id", "event"}}。同一连接上可以有多个未完成的请求，响应按完成顺序返回并以 id 关联。
+ * <p>
+ * 请求 Envelope 不携带绝对截止时间，而是以 {@code budgetMs} 给出发送时刻的剩余预算，由服务端按本地时钟换算，
+ * 两端时钟偏差不影响超时。流式调用采用额度流控：{@code stream_events} 以 {@code window} 给出初始额度，
+ * 客户端每消费一批事件后以 {@code stream_credit} 补充，服务端只在有额度时发送事件帧
+ */
+final class Frames {
+
+    static final int HEADER_SIZE = 4;
+
+    static final String OP_SESSION_OPEN = "session_open";
+    static final String OP_LIST_TOOLS = "list_tools";
+    static final String OP_DESCRIBE_TOOL = "describe_tool";
+    static final String OP_CALL_TOOL = "call_tool";
+    static final String OP_CALL_BATCH = "call_batch";
+    static final String OP_STREAM_EVENTS = "stream_events";
+    static final String OP_CANCEL_CALL = "cancel_call";
+    static final String OP_GOVERNANCE_REPORT = "governance_report";
+    static final String OP_PING = "ping";
+    static final String OP_STREAM_CREDIT = "stream_credit";
+
+    private Frames() {
+    }
+
+    /**
+     * 编码整帧：帧体直接写在预留的帧头之后，帧头随后回填，整个过程只分配一次缓冲区
+     */
+    static ByteBuffer encode(McpCodec codec, Map<String, Object> message) {
+        ByteBuffer frame = codec.encode(message, HEADER_SIZE);
+        frame.putInt(0, frame.limit() - HEADER_SIZE);
+        return frame;
+    }
+
+    /**
+     * 解码帧体，编解码器由帧体首字节识别；不复制 {@code body}
+     */
+    static Map<String, Object> decode(ByteBuffer body) {
+        return JsonMapper.object(McpCodecs.detect(body).decode(body));
+    }
+
+    /**
+     * 请求 Envelope 的线上形式：上下文中的截止时间替换为 Envelope 上的剩余预算 {@code budgetMs}
+     */
+    static Map<String, Object> requestTree(Envelopes.RequestEnvelope<?> request) {
+        Map<String, Object> tree = JsonMapper.requestToTree(request);
+        JsonMapper.object(tree.get("context")).remove("deadline");
+        Duration remaining = request.getContext().remainingBudget();
+        if (remaining != null) {
+            tree.put("budgetMs", remaining.toMillis());
+        }
+        return tree;
+    }
+
+    /**
+     * 按本地时钟把 {@code budgetMs} 换算为截止时间；客户端发来的绝对截止时间一律忽略
+     */
+    static Envelopes.RequestEnvelope<Object> requestFromTree(Map<String, Object> tree, Type payloadType) {
+        Envelopes.RequestEnvelope<Object> request = JsonMapper.requestFromTree(tree, payloadType);
+        Object budget = tree.get("budgetMs");
+        request.getContext().setDeadline(budget instanceof Number millis
+                ? Instant.now().plusMillis(Math.max(0, millis.longValue())) : null);
+        return request;
+    }
+
+    /**
+     * 响应 Envelope 的线上形式：截止时间只对服务端时钟有意义，不随响应返回
+     */
+    static Map<String, Object> responseTree(Envelopes.ResponseEnvelope<?> response) {
+        Map<String, Object> tree = JsonMapper.responseEnvelopeToTree(response);
+        JsonMapper.object(tree.get("context")).remove("deadline");
+        return tree;
+    }
+
+    static Map<String, Object> request(long id, String op) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("id", id);
+        message.put("op", op);
+        return message;
+    }
+
+    static Map<String, Object> result(Object id, Object result) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("id", id);
+        message.put("result", result);
+        return message;
+    }
+
+    static Map<String, Object> event(Object id, Object event) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("id", id);
+        message.put("event", event);
+        return message;
+    }
+
+    static Map<String, Object> error(Object id, String code, String text) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("code", code);
+        error.put("message", text);
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("id", id);
+        message.put("error", error);
+        return message;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.mcp.framework.transport;
+
+import com.example.mcp.framework.codec.McpCodec;
+import com.example.mcp.framework.codec.McpCodecs;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * 传输层配置，服务端适配器与客户端连接池共用
+ */
+public class McpTransportConfig {
+
+    private String host = "127.0.0.1";
+    private int port = 7070;
+    private int maxFrameSize = 16 * 1024 * 1024;
+    private Duration idleTimeout = Duration.ofSeconds(90);
+    private int maxConnections = 4;
+    private int maxPipelinedRequests = 128;
+    private Duration connectTimeout = Duration.ofSeconds(3);
+    private Duration requestTimeout = Duration.ofSeconds(30);
+    private Duration keepAliveInterval = Duration.ofSeconds(30);
+    private McpCodec codec = McpCodecs.json();
+    private int maxQueuedWriteBytes = 4 * 1024 * 1024;
+    private int streamWindow = 16;
+    private byte[] sessionSecret;
+
+    public McpTransportConfig() {
+    }
+
+    public McpTransportConfig(String host, int port) {
+        setHost(host);
+        setPort(port);
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = Objects.requireNonNull(host, "host must not be null");
+    }
+
+    /**
+     * 服务端监听端口，0 表示由系统分配
+     */
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("port must be between 0 and 65535");
+        }
+        this.port = port;
+    }
+
+    /**
+     * 单个帧的最大字节数，超出时关闭连接
+     */
+    public int getMaxFrameSize() {
+        return maxFrameSize;
+    }
+
+    public void setMaxFrameSize(int maxFrameSize) {
+        if (maxFrameSize <= 0) {
+            throw new IllegalArgumentException("maxFrameSize must be positive");
+        }
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    /**
+     * 服务端关闭空闲连接的时间，应大于客户端的保活间隔
+     */
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = Objects.requireNonNull(idleTimeout, "idleTimeout must not be null");
+    }
+
+    /**
+     * 客户端连接池的最大连接数
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("maxConnections must be positive");
+        }
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * 单个连接上未完成请求数达到该值时，连接池优先新建连接
+     */
+    public int getMaxPipelinedRequests() {
+        return maxPipelinedRequests;
+    }
+
+    public void setMaxPipelinedRequests(int maxPipelinedRequests) {
+        if (maxPipelinedRequests <= 0) {
+            throw new IllegalArgumentException("maxPipelinedRequests must be positive");
+        }
+        this.maxPipelinedRequests = maxPipelinedRequests;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = Objects.requireNonNull(connectTimeout, "connectTimeout must not be null");
+    }
+
+    /**
+     * 不携带截止时间的请求（会话、工具清单、取消等）的等待上限
+     */
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public void setRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = Objects.requireNonNull(requestTimeout, "requestTimeout must not be null");
+    }
+
+    /**
+     * 客户端空闲连接发送 ping 的间隔
+     */
+    public Duration getKeepAliveInterval() {
+        return keepAliveInterval;
+    }
+
+    public void setKeepAliveInterval(Duration keepAliveInterval) {
+        this.keepAliveInterval = Objects.requireNonNull(keepAliveInterval, "keepAliveInterval must not be null");
+    }
+
+    /**
+     * 客户端发送请求使用的编解码器；服务端按帧识别编解码器，并以同样的编码回复
+     */
+    public McpCodec getCodec() {
+        return codec;
+    }
+
+    public void setCodec(McpCodec codec) {
+        this.codec = Objects.requireNonNull(codec, "codec must not be null");
+    }
+
+    /**
+     * 服务端单个连接写队列的字节上限。超过上限时暂停读取该连接上的新请求，写队列回落到一半以下时恢复
+     */
+    public int getMaxQueuedWriteBytes() {
+        return maxQueuedWriteBytes;
+    }
+
+    public void setMaxQueuedWriteBytes(int maxQueuedWriteBytes) {
+        if (maxQueuedWriteBytes <= 0) {
+            throw new IllegalArgumentException("maxQueuedWriteBytes must be positive");
+        }
+        this.maxQueuedWriteBytes = maxQueuedWriteBytes;
+    }
+
+    /**
+     * 流式调用的事件额度：服务端最多领先客户端消费这么多个事件，也是客户端事件缓冲区的大小
+     */
+    public int getStreamWindow() {
+        return streamWindow;
+    }
+
+    public void setStreamWindow(int streamWindow) {
+        if (streamWindow <= 0) {
+            throw new IllegalArgumentException("streamWindow must be positive");
+        }
+        this.streamWindow = streamWindow;
+    }
+
+    /**
+     * 服务端签发会话凭证的密钥。多个服务端实例共用同一密钥时，会话可以在实例间迁移；
+     * 未设置时每个传输服务端随机生成，重启后客户端需要重新建立会话
+     */
+    public byte[] getSessionSecret() {
+        return sessionSecret == null ? null : sessionSecret.clone();
+    }
+
+    public void setSessionSecret(byte[] sessionSecret) {
+        Objects.requireNonNull(sessionSecret, "sessionSecret must not be null");
+        if (sessionSecret.length < 16) {
+            throw new IllegalArgumentException("sessionSecret must be at least 16 bytes");
+        }
+        this.sessionSecret = sessionSecret.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "McpTransportConfig{" +
+                "host='" + host + '\'' +
+                ", port=" + port +
+                ", maxFrameSize=" + maxFrameSize +
+                ", idleTimeout=" + idleTimeout +
+                ", maxConnections=" + maxConnections +
+                ", maxPipelinedRequests=" + maxPipelinedRequests +
+                ", connectTimeout=" + connectTimeout +
+                ", requestTimeout=" + requestTimeout +
+                ", keepAliveInterval=" + keepAliveInterval +
+                ", codec=" + codec.name() +
+                ", maxQueuedWriteBytes=" + maxQueuedWriteBytes +
+                ", streamWindow=" + streamWindow +
+                '}';
+    }
+}
@@ -0,0 +1,644 @@
+package com.example.mcp.framework.transport;
+
+import com.example.mcp.common.Context;
+import com.example.mcp.common.Envelopes;
+import com.example.mcp.common.protocol.GovernanceReport;
+import com.example.mcp.common.protocol.SessionOpenRequest;
+import com.example.mcp.common.protocol.SessionOpenResponse;
+import com.example.mcp.framework.api.ToolRegistration;
+import com.example.mcp.framework.async.StreamEvent;
+import com.example.mcp.framework.codec.JsonMapper;
+import com.example.mcp.framework.codec.McpCodec;
+import com.example.mcp.framework.codec.McpCodecs;
+import com.example.mcp.framework.exception.McpException;
+import com.example.mcp.framework.exception.TransportException;
+import com.example.mcp.framework.server.AbstractMcpServer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于 NIO 的服务端传输适配器：单个选择器线程负责接收连接与非阻塞读写，
+ * 帧体在选择器线程上直接从读缓冲区解码，调用分发在服务器的工具执行器上进行。
+ * 编解码器按帧识别，响应使用该连接最近一次请求的编码。
+ * <p>
+ * 同一连接上的请求可以流水线提交，响应按完成顺序写回。连接断开时，
+ * 该连接上仍在执行的调用会被取消；超过空闲时间没有任何读写的连接会被关闭。
+ * 写队列超过 {@link McpTransportConfig#getMaxQueuedWriteBytes()} 时暂停读取该连接，慢客户端不会让响应无限堆积；
+ * 流式事件按客户端授予的额度发送，每个流同一时刻只有一帧在写队列中。
+ * <p>
+ * 会话建立时服务端在上下文元数据 {@link #SESSION_TOKEN_KEY} 中签发与 sessionId、clientId 绑定的凭证，
+ * 之后的调用与取消必须携带有效凭证，客户端无法冒用其他 clientId。截止时间按请求中的剩余预算在本地换算
+ */
+public final class McpTransportServer implements AutoCloseable {
+
+    /**
+     * 会话凭证所在的上下文元数据键
+     */
+    public static final String SESSION_TOKEN_KEY = "session-token";
+
+    private final AbstractMcpServer server;
+    private final McpTransportConfig config;
+    private final Executor workers;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final Queue<Connection> pendingFlushes = new ConcurrentLinkedQueue<>();
+    private final Mac sessionMac;
+    private volatile Selector selector;
+    private volatile ServerSocketChannel acceptor;
+    private volatile Thread selectorThread;
+    private volatile boolean running;
+
+    public McpTransportServer(AbstractMcpServer server, McpTransportConfig config) {
+        this.server = Objects.requireNonNull(server, "server must not be null");
+        this.config = Objects.requireNonNull(config, "config must not be null");
+        this.workers = server.getToolExecutor().executor();
+        byte[] secret = config.getSessionSecret();
+        if (secret == null) {
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        }
+        try {
+            this.sessionMac = Mac.getInstance("HmacSHA256");
+            sessionMac.init(new SecretKeySpec(secret, "HmacSHA256"));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    /**
+     * 绑定端口并启动选择器线程
+     *
+     * @return 实际监听的地址，端口配置为 0 时可据此获得系统分配的端口
+     */
+    public synchronized InetSocketAddress start() throws IOException {
+        if (running) {
+            throw new IllegalStateException("transport server already started");
+        }
+        selector = Selector.open();
+        acceptor = ServerSocketChannel.open();
+        acceptor.configureBlocking(false);
+        acceptor.bind(new InetSocketAddress(config.getHost(), config.getPort()));
+        acceptor.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        selectorThread = new Thread(this::loop, "mcp-transport-selector");
+        selectorThread.start();
+        InetSocketAddress address = getAddress();
+        System.out.println("[MCP-SERVER] 传输层已启动: " + address);
+        return address;
+    }
+
+    public InetSocketAddress getAddress() {
+        try {
+            return acceptor == null ? null : (InetSocketAddress) acceptor.getLocalAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 当前打开的连接数
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            thread = selectorThread;
+        }
+        selector.wakeup();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void loop() {
+        long idleNanos = config.getIdleTimeout().toNanos();
+        long selectTimeout = Math.max(1, Math.min(1000, config.getIdleTimeout().toMillis()));
+        try {
+            while (running) {
+                selector.select(selectTimeout);
+                Connection pending;
+                while ((pending = pendingFlushes.poll()) != null) {
+                    pending.flushScheduled();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        connection.close();
+                    }
+                }
+                long now = System.nanoTime();
+                for (Connection connection : connections) {
+                    // 有未完成的调用或流时连接可能长时间没有读写，不按空闲关闭，否则会中途取消这些调用
+                    if (connection.pendingReplies.get() == 0 && now - connection.lastActivity > idleNanos) {
+                        connection.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("[MCP-SERVER] 传输层选择器异常: " + e.getMessage());
+        } finally {
+            connections.forEach(Connection::close);
+            closeQuietly(acceptor);
+            closeQuietly(selector);
+            running = false;
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = acceptor.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        connections.add(connection);
+    }
+
+    private void handle(Connection connection, Map<String, Object> message) {
+        Object id = message.get("id");
+        try {
+            dispatch(connection, id, String.valueOf(message.get("op")), message);
+        } catch (RuntimeException e) {
+            String code = e instanceof McpException mcp ? mcp.getErrorCode() : "bad_request";
+            connection.send(Frames.error(id, code, e.getMessage()));
+        }
+    }
+
+    private void dispatch(Connection connection, Object id, String op, Map<String, Object> message) {
+        switch (op) {
+            case Frames.OP_PING -> connection.send(Frames.result(id, "pong"));
+            case Frames.OP_SESSION_OPEN -> {
+                SessionOpenRequest request = JsonMapper.fromTree(message.get("request"), SessionOpenRequest.class);
+                SessionOpenResponse response = server.openSession(request);
+                Context session = response.getContext();
+                session.putMetadata(SESSION_TOKEN_KEY, sign(session.getSessionId(), session.getClientId()));
+                connection.send(Frames.result(id, JsonMapper.toTree(response)));
+            }
+            case Frames.OP_LIST_TOOLS -> {
+                authenticate(message.get("context"));
+                connection.send(Frames.result(id, JsonMapper.toTree(server.listTools())));
+            }
+            case Frames.OP_DESCRIBE_TOOL -> {
+                authenticate(message.get("context"));
+                connection.send(Frames.result(id,
+                        JsonMapper.toTree(server.describeTool(String.valueOf(message.get("name"))).orElse(null))));
+            }
+            case Frames.OP_CALL_TOOL -> {
+                Envelopes.RequestEnvelope<Object> request = decodeRequest(message.get("request"));
+                Context call = connection.track(request);
+                reply(connection, id, call, server.invokeAsync(request, outputType(request.getTool()))
+                        .thenApply(Frames::responseTree));
+            }
+            case Frames.OP_CALL_BATCH -> {
+                List<Envelopes.RequestEnvelope<Object>> requests = new ArrayList<>();
+                for (Object item : JsonMapper.array(message.get("requests"))) {
+                    requests.add(decodeRequest(item));
+                }
+                reply(connection, id, null, server.invokeBatchAsync(requests).thenApply(responses -> {
+                    List<Object> trees = new ArrayList<>(responses.size());
+                    responses.forEach(response -> trees.add(Frames.responseTree(response)));
+                    return trees;
+                }));
+            }
+            case Frames.OP_STREAM_EVENTS -> stream(connection, id, decodeRequest(message.get("request")),
+                    message.get("window") instanceof Number window ? window.longValue() : 1);
+            case Frames.OP_STREAM_CREDIT -> {
+                // 单向帧，不回复
+                StreamForwarder stream = message.get("stream") instanceof Number streamId
+                        ? connection.streams.get(streamId.longValue()) : null;
+                if (stream != null && message.get("credits") instanceof Number credits) {
+                    stream.grant(credits.longValue());
+                }
+            }
+            case Frames.OP_CANCEL_CALL -> {
+                Context call = authenticate(message.get("context"));
+                server.cancelCallAsync(call).whenComplete((cancelled, throwable) ->
+                        connection.send(Frames.result(id, Boolean.TRUE.equals(cancelled))));
+            }
+            case Frames.OP_GOVERNANCE_REPORT -> {
+                authenticate(message.get("context"));
+                GovernanceReport report = server.governanceReport();
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("records", JsonMapper.toTree(report.getRecords()));
+                result.put("batches", JsonMapper.toTree(report.getBatchSummaries()));
+                connection.send(Frames.result(id, result));
+            }
+            default -> connection.send(Frames.error(id, "unknown_op", "Unknown operation: " + op));
+        }
+    }
+
+    /**
+     * 流式调用：事件帧与最终响应帧共用请求 id，最终响应在所有事件帧之后写出
+     */
+    private void stream(Connection connection, Object id, Envelopes.RequestEnvelope<Object> request, long window) {
+        Context call = connection.track(request);
+        StreamForwarder forwarder = new StreamForwarder(connection, id, window);
+        if (id instanceof Number streamId) {
+            connection.streams.put(streamId.longValue(), forwarder);
+        }
+        CompletableFuture<Object> response = server.invokeStream(request, outputType(request.getTool()), forwarder)
+                .thenApply(Frames::responseTree);
+        reply(connection, id, call, response.thenCombine(forwarder.drained, (result, ignored) -> result)
+                .whenComplete((result, throwable) -> {
+                    if (id instanceof Number streamId) {
+                        connection.streams.remove(streamId.longValue(), forwarder);
+                    }
+                }));
+    }
+
+    private static void reply(Connection connection, Object id, Context call, CompletableFuture<?> pending) {
+        connection.pendingReplies.incrementAndGet();
+        pending.whenComplete((result, throwable) -> {
+            connection.pendingReplies.decrementAndGet();
+            connection.untrack(call);
+            if (throwable != null) {
+                connection.send(Frames.error(id, "server_error", String.valueOf(throwable.getMessage())));
+            } else {
+                connection.send(Frames.result(id, result));
+            }
+        });
+    }
+
+    private Envelopes.RequestEnvelope<Object> decodeRequest(Object tree) {
+        Map<String, Object> request = JsonMapper.object(tree);
+        Optional<ToolRegistration<?, ?>> registration = server.findRegistration(String.valueOf(request.get("tool")));
+        Class<?> inputType = registration.<Class<?>>map(ToolRegistration::inputType).orElse(Object.class);
+        Envelopes.RequestEnvelope<Object> envelope = Frames.requestFromTree(request, inputType);
+        authenticate(envelope.getContext());
+        return envelope;
+    }
+
+    /**
+     * 会话凭证：以 sessionId 与 clientId 计算的 HMAC，篡改其中任一字段都会使凭证失效
+     */
+    private String sign(String sessionId, String clientId) {
+        Mac mac;
+        try {
+            mac = (Mac) sessionMac.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HmacSHA256 does not support cloning", e);
+        }
+        mac.update(String.valueOf(sessionId).getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(String.valueOf(clientId).getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal());
+    }
+
+    /**
+     * 校验不携带请求 Envelope 的操作（list_tools、describe_tool、cancel_call、governance_report）中的会话上下文
+     */
+    private Context authenticate(Object contextTree) {
+        if (!(contextTree instanceof Map<?, ?>)) {
+            throw new TransportException("invalid_session", "会话凭证无效，请先通过 session_open 建立会话", null);
+        }
+        Context context = JsonMapper.contextFromTree(JsonMapper.object(contextTree));
+        authenticate(context);
+        return context;
+    }
+
+    private void authenticate(Context context) {
+        String token = context.getMetadata().get(SESSION_TOKEN_KEY);
+        if (token == null || context.getSessionId() == null || !MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8),
+                sign(context.getSessionId(), context.getClientId()).getBytes(StandardCharsets.UTF_8))) {
+            throw new TransportException("invalid_session", "会话凭证无效，请先通过 session_open 建立会话", null);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<Object> outputType(String tool) {
+        return (Class<Object>) server.findRegistration(tool).<Class<?>>map(ToolRegistration::outputType)
+                .orElse(Object.class);
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // 关闭阶段的异常无需处理
+        }
+    }
+
+    /**
+     * 把一次流式调用的事件转发到连接上。只有在上一帧已经写出、且客户端授予的额度未用完时才向发布者请求下一个事件，
+     * 客户端消费变慢时反压经由发布者的缓冲区传递到工具
+     */
+    private static final class StreamForwarder implements Flow.Subscriber<Envelopes.StreamEventEnvelope<StreamEvent>> {
+        private final Connection connection;
+        private final Object id;
+        private final CompletableFuture<Void> drained = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+        private long credits;
+        private boolean writing;
+        private boolean cancelled;
+
+        private StreamForwarder(Connection connection, Object id, long window) {
+            this.connection = connection;
+            this.id = id;
+            this.credits = Math.max(1, window);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            boolean cancel;
+            synchronized (this) {
+                this.subscription = subscription;
+                cancel = cancelled;
+            }
+            if (cancel) {
+                subscription.cancel();
+            } else {
+                pull();
+            }
+        }
+
+        @Override
+        public void onNext(Envelopes.StreamEventEnvelope<StreamEvent> item) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("tool", item.getTool());
+            event.put("event", item.getEvent());
+            event.put("emittedAt", item.getEmittedAt());
+            event.put("data", JsonMapper.toTree(item.getData()));
+            if (!connection.send(Frames.event(id, event), this::written)) {
+                cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            drained.complete(null);
+        }
+
+        @Override
+        public void onComplete() {
+            drained.complete(null);
+        }
+
+        private void grant(long granted) {
+            synchronized (this) {
+                credits += Math.max(0, granted);
+            }
+            pull();
+        }
+
+        private void written() {
+            synchronized (this) {
+                writing = false;
+            }
+            pull();
+        }
+
+        /**
+         * 连接关闭时取消订阅，使工具阻塞中的推送立即返回
+         */
+        private void cancel() {
+            Flow.Subscription current;
+            synchronized (this) {
+                cancelled = true;
+                current = subscription;
+            }
+            if (current != null) {
+                current.cancel();
+            }
+            drained.complete(null);
+        }
+
+        private void pull() {
+            Flow.Subscription current;
+            synchronized (this) {
+                if (subscription == null || cancelled || writing || credits == 0) {
+                    return;
+                }
+                credits--;
+                writing = true;
+                current = subscription;
+            }
+            current.request(1);
+        }
+    }
+
+    /**
+     * 单个客户端连接；读写只在选择器线程上进行，其他线程通过写队列提交响应帧
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final Queue<PendingWrite> writes = new ConcurrentLinkedQueue<>();
+        private final AtomicLong queuedBytes = new AtomicLong();
+        private final AtomicBoolean flushScheduled = new AtomicBoolean();
+        private final Set<Context> inFlight = ConcurrentHashMap.newKeySet();
+        private final Map<Long, StreamForwarder> streams = new ConcurrentHashMap<>();
+        private final AtomicInteger pendingReplies = new AtomicInteger();
+        private boolean readPaused;
+        private ByteBuffer readBuffer = ByteBuffer.allocate(8192);
+        private SelectionKey key;
+        private volatile long lastActivity = System.nanoTime();
+        private volatile McpCodec codec = McpCodecs.json();
+        private volatile boolean closed;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        private void read() throws IOException {
+            if (channel.read(readBuffer) < 0) {
+                close();
+                return;
+            }
+            lastActivity = System.nanoTime();
+            readBuffer.flip();
+            int required = 0;
+            while (readBuffer.remaining() >= Frames.HEADER_SIZE) {
+                int length = readBuffer.getInt(readBuffer.position());
+                if (length < 0 || length > config.getMaxFrameSize()) {
+                    System.err.println("[MCP-SERVER] 帧长度超出限制，关闭连接: " + length);
+                    close();
+                    return;
+                }
+                if (readBuffer.remaining() < Frames.HEADER_SIZE + length) {
+                    required = Frames.HEADER_SIZE + length;
+                    break;
+                }
+                // 帧体直接在读缓冲区的视图上解码，不另行复制；解码得到的树交给工作线程分发
+                ByteBuffer body = readBuffer.slice(readBuffer.position() + Frames.HEADER_SIZE, length);
+                readBuffer.position(readBuffer.position() + Frames.HEADER_SIZE + length);
+                Map<String, Object> message;
+                try {
+                    codec = McpCodecs.detect(body);
+                    message = JsonMapper.object(codec.decode(body));
+                } catch (RuntimeException e) {
+                    send(Frames.error(null, "bad_request", e.getMessage()));
+                    continue;
+                } catch (StackOverflowError e) {
+                    // 解码在选择器线程上进行，自定义编解码器未限制嵌套时只关闭该连接，不能让选择器线程退出
+                    System.err.println("[MCP-SERVER] 帧嵌套过深，关闭连接: " + channel);
+                    close();
+                    return;
+                }
+                workers.execute(() -> handle(this, message));
+            }
+            if (required > readBuffer.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocate(required);
+                larger.put(readBuffer);
+                readBuffer = larger;
+            } else {
+                readBuffer.compact();
+            }
+        }
+
+        private void send(Map<String, Object> message) {
+            send(message, null);
+        }
+
+        /**
+         * 把帧加入写队列
+         *
+         * @param onWritten 帧完整写出后在选择器线程上执行，应当足够轻量
+         * @return 连接已关闭时返回 false，{@code onWritten} 不会执行
+         */
+        private boolean send(Map<String, Object> message, Runnable onWritten) {
+            if (closed) {
+                return false;
+            }
+            ByteBuffer frame = Frames.encode(codec, message);
+            queuedBytes.addAndGet(frame.remaining());
+            writes.add(new PendingWrite(frame, onWritten));
+            if (flushScheduled.compareAndSet(false, true)) {
+                pendingFlushes.add(this);
+                selector.wakeup();
+            }
+            return true;
+        }
+
+        private void flushScheduled() {
+            flushScheduled.set(false);
+            try {
+                flush();
+            } catch (IOException | RuntimeException e) {
+                close();
+            }
+        }
+
+        private void flush() throws IOException {
+            if (closed) {
+                return;
+            }
+            PendingWrite head;
+            while ((head = writes.peek()) != null) {
+                channel.write(head.frame);
+                if (head.frame.hasRemaining()) {
+                    break;
+                }
+                writes.poll();
+                queuedBytes.addAndGet(-head.frame.limit());
+                lastActivity = System.nanoTime();
+                if (head.onWritten != null) {
+                    head.onWritten.run();
+                }
+            }
+            // 写队列超过上限时停止读取新请求，回落到一半以下再恢复
+            long queued = queuedBytes.get();
+            if (queued > config.getMaxQueuedWriteBytes()) {
+                readPaused = true;
+            } else if (queued <= config.getMaxQueuedWriteBytes() / 2) {
+                readPaused = false;
+            }
+            key.interestOps((readPaused ? 0 : SelectionKey.OP_READ) | (head != null ? SelectionKey.OP_WRITE : 0));
+        }
+
+        private Context track(Envelopes.RequestEnvelope<?> request) {
+            Context call = request.getContext();
+            if (call.getRequestId() == null) {
+                return null;
+            }
+            inFlight.add(call);
+            return call;
+        }
+
+        private void untrack(Context call) {
+            if (call != null) {
+                inFlight.remove(call);
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            connections.remove(this);
+            if (key != null) {
+                key.cancel();
+            }
+            closeQuietly(channel);
+            writes.clear();
+            // 客户端已经断开，继续执行的调用结果无人接收
+            streams.values().forEach(StreamForwarder::cancel);
+            inFlight.forEach(server::cancelCallAsync);
+        }
+    }
+
+    private record PendingWrite(ByteBuffer frame, Runnable onWritten) {
+    }
+}
@@ -0,0 +1,527 @@
+package com.example.mcp.framework.transport;
+
+import com.example.mcp.common.Context;
+import com.example.mcp.common.Envelopes;
+import com.example.mcp.common.protocol.BatchAuditSummary;
+import com.example.mcp.common.protocol.GovernanceReport;
+import com.example.mcp.common.protocol.InvocationAuditRecord;
+import com.example.mcp.common.protocol.SessionOpenRequest;
+import com.example.mcp.common.protocol.SessionOpenResponse;
+import com.example.mcp.common.protocol.ToolDescriptor;
+import com.example.mcp.framework.api.McpServer;
+import com.example.mcp.framework.async.StreamEvent;
+import com.example.mcp.framework.codec.JsonMapper;
+import com.example.mcp.framework.exception.TransportException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * 客户端侧的 {@link McpServer} 代理，通过 {@link McpTransportServer} 的帧协议访问远端服务器，
+ * 可直接交给 {@code EnhancedMcpClient} 使用。
+ * <p>
+ * 连接按需建立并长期复用：每个连接上可以流水线提交多个请求，未完成请求数达到
+ * {@link McpTransportConfig#getMaxPipelinedRequests()} 时才新建连接，总数不超过
+ * {@link McpTransportConfig#getMaxConnections()}。空闲连接定期发送 ping 保活，
+ * 连接中断时其上未完成的请求以 {@link TransportException} 失败，连接从池中移除。
+ * <p>
+ * 批量调用的响应载荷在客户端没有类型信息，以 JSON 树（Map/List/基本类型）的形式返回。
+ * 不携带请求 Envelope 的操作（列出与描述工具、治理报告）附带最近一次 {@link #openSession} 建立的会话上下文，
+ * 未建立会话时服务端以 {@code invalid_session} 拒绝。
+ * <p>
+ * 读取线程从不阻塞：流式事件按 {@link McpTransportConfig#getStreamWindow()} 的额度接收，
+ * 缓冲区不会溢出，订阅者在发布者的执行器上消费，每消费半个额度就向服务端补充额度
+ */
+public final class RemoteMcpServer implements McpServer, AutoCloseable {
+
+    private final McpTransportConfig config;
+    private final InetSocketAddress address;
+    private final CopyOnWriteArrayList<Connection> pool = new CopyOnWriteArrayList<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final AtomicInteger connectionCounter = new AtomicInteger();
+    private final ScheduledExecutorService keepAlive;
+    private volatile Context session;
+    private volatile boolean closed;
+
+    public RemoteMcpServer(McpTransportConfig config) {
+        this.config = Objects.requireNonNull(config, "config must not be null");
+        this.address = new InetSocketAddress(config.getHost(), config.getPort());
+        this.keepAlive = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mcp-transport-keepalive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = config.getKeepAliveInterval().toMillis();
+        keepAlive.scheduleWithFixedDelay(this::pingIdleConnections, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SessionOpenResponse openSession(SessionOpenRequest request) {
+        Map<String, Object> message = message(Frames.OP_SESSION_OPEN);
+        message.put("request", JsonMapper.toTree(request));
+        SessionOpenResponse response = JsonMapper.fromTree(await(send(message, null), config.getRequestTimeout()),
+                SessionOpenResponse.class);
+        if (response != null && response.getContext() != null) {
+            session = response.getContext();
+        }
+        return response;
+    }
+
+    @Override
+    public List<ToolDescriptor> listTools() {
+        List<ToolDescriptor> tools = new ArrayList<>();
+        for (Object item : JsonMapper.array(await(send(sessionMessage(Frames.OP_LIST_TOOLS), null), config.getRequestTimeout()))) {
+            tools.add(JsonMapper.fromTree(item, ToolDescriptor.class));
+        }
+        return List.copyOf(tools);
+    }
+
+    @Override
+    public Optional<ToolDescriptor> describeTool(String name) {
+        Map<String, Object> message = sessionMessage(Frames.OP_DESCRIBE_TOOL);
+        message.put("name", name);
+        return Optional.ofNullable(JsonMapper.fromTree(await(send(message, null), config.getRequestTimeout()),
+                ToolDescriptor.class));
+    }
+
+    @Override
+    public <I, O> Envelopes.ResponseEnvelope<O> invoke(Envelopes.RequestEnvelope<I> request, Class<O> responseType) {
+        try {
+            return invokeAsync(request, responseType).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <I, O> CompletableFuture<Envelopes.ResponseEnvelope<O>> invokeAsync(Envelopes.RequestEnvelope<I> request,
+                                                                               Class<O> responseType) {
+        Map<String, Object> message = message(Frames.OP_CALL_TOOL);
+        message.put("request", Frames.requestTree(request));
+        return send(message, null).thenApply(tree -> (Envelopes.ResponseEnvelope<O>) (Envelopes.ResponseEnvelope<?>)
+                JsonMapper.responseEnvelopeFromTree(JsonMapper.object(tree), responseType));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <I, O> CompletableFuture<Envelopes.ResponseEnvelope<O>> invokeStream(
+            Envelopes.RequestEnvelope<I> request, Class<O> responseType,
+            Flow.Subscriber<? super Envelopes.StreamEventEnvelope<StreamEvent>> subscriber) {
+        int window = config.getStreamWindow();
+        SubmissionPublisher<Envelopes.StreamEventEnvelope<StreamEvent>> publisher =
+                new SubmissionPublisher<>(ForkJoinPool.commonPool(), window);
+        Map<String, Object> message = message(Frames.OP_STREAM_EVENTS);
+        message.put("request", Frames.requestTree(request));
+        message.put("window", window);
+        CompletableFuture<Object> pending;
+        try {
+            Connection connection = acquire();
+            long streamId = ((Number) message.get("id")).longValue();
+            publisher.subscribe(new CreditingSubscriber<>(subscriber, window,
+                    credits -> connection.grant(streamId, credits)));
+            // 服务端不会超出额度发送，offer 在读取线程上不会阻塞也不会丢弃事件
+            pending = connection.send(message, event -> publisher.offer(new Envelopes.StreamEventEnvelope<>(
+                    String.valueOf(event.get("tool")), String.valueOf(event.get("event")),
+                    JsonMapper.fromTree(event.get("emittedAt"), Instant.class),
+                    JsonMapper.fromTree(event.get("data"), StreamEvent.class)), null));
+        } catch (TransportException e) {
+            publisher.subscribe(subscriber);
+            pending = CompletableFuture.failedFuture(e);
+        }
+        return pending
+                .thenApply(tree -> (Envelopes.ResponseEnvelope<O>) (Envelopes.ResponseEnvelope<?>)
+                        JsonMapper.responseEnvelopeFromTree(JsonMapper.object(tree), responseType))
+                .whenComplete((response, throwable) -> {
+                    if (throwable != null) {
+                        publisher.closeExceptionally(throwable);
+                    } else {
+                        publisher.close();
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<List<Envelopes.ResponseEnvelope<?>>> invokeBatchAsync(
+            List<? extends Envelopes.RequestEnvelope<?>> requests) {
+        Objects.requireNonNull(requests, "requests must not be null");
+        List<Object> trees = new ArrayList<>(requests.size());
+        requests.forEach(request -> trees.add(Frames.requestTree(request)));
+        Map<String, Object> message = message(Frames.OP_CALL_BATCH);
+        message.put("requests", trees);
+        return send(message, null).thenApply(tree -> {
+            List<Envelopes.ResponseEnvelope<?>> responses = new ArrayList<>();
+            for (Object item : JsonMapper.array(tree)) {
+                responses.add(JsonMapper.responseEnvelopeFromTree(JsonMapper.object(item), Object.class));
+            }
+            return List.copyOf(responses);
+        });
+    }
+
+    @Override
+    public boolean cancelCall(Context call) {
+        try {
+            return cancelCallAsync(call).get(config.getRequestTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 发送 cancel_call 后立即返回，不等待远端确认；发送失败或连接断开时结果为 false
+     */
+    @Override
+    public CompletableFuture<Boolean> cancelCallAsync(Context call) {
+        if (call == null || call.getRequestId() == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        Map<String, Object> message = message(Frames.OP_CANCEL_CALL);
+        message.put("context", JsonMapper.contextToTree(call));
+        return send(message, null).handle((result, throwable) -> throwable == null && Boolean.TRUE.equals(result));
+    }
+
+    /**
+     * 拉取远端服务器的治理报告快照
+     */
+    @Override
+    public GovernanceReport governanceReport() {
+        Map<String, Object> result = JsonMapper.object(
+                await(send(sessionMessage(Frames.OP_GOVERNANCE_REPORT), null), config.getRequestTimeout()));
+        List<?> records = JsonMapper.array(result.get("records"));
+        List<?> batches = JsonMapper.array(result.get("batches"));
+        GovernanceReport report = new GovernanceReport(Math.max(1, Math.max(records.size(), batches.size())), 1);
+        records.forEach(record -> report.addRecord(JsonMapper.fromTree(record, InvocationAuditRecord.class)));
+        batches.forEach(batch -> report.addBatchSummary(JsonMapper.fromTree(batch, BatchAuditSummary.class)));
+        return report;
+    }
+
+    /**
+     * 当前连接池中的连接数
+     */
+    public int getConnectionCount() {
+        return pool.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        keepAlive.shutdownNow();
+        pool.forEach(connection -> connection.fail(new TransportException("transport closed")));
+        pool.clear();
+    }
+
+    private Map<String, Object> message(String op) {
+        return Frames.request(nextId.incrementAndGet(), op);
+    }
+
+    private Map<String, Object> sessionMessage(String op) {
+        Map<String, Object> message = message(op);
+        Context current = session;
+        if (current != null) {
+            message.put("context", JsonMapper.contextToTree(current));
+        }
+        return message;
+    }
+
+    private CompletableFuture<Object> send(Map<String, Object> message, Consumer<Map<String, Object>> events) {
+        try {
+            return acquire().send(message, events);
+        } catch (TransportException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> pending, Duration timeout) {
+        try {
+            return pending.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransportException("interrupted while waiting for response", e);
+        } catch (TimeoutException e) {
+            throw new TransportException("timeout", "等待远端响应超时: " + timeout, e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause
+                    : new TransportException(String.valueOf(e.getCause().getMessage()), e.getCause());
+        }
+    }
+
+    /**
+     * 选择未完成请求最少的连接；所有连接都已达到流水线上限且连接数未满时新建连接
+     */
+    private Connection acquire() {
+        if (closed) {
+            throw new TransportException("transport closed");
+        }
+        Connection best = leastLoaded();
+        if (best != null && (best.inFlight() < config.getMaxPipelinedRequests() || pool.size() >= config.getMaxConnections())) {
+            return best;
+        }
+        synchronized (pool) {
+            best = leastLoaded();
+            if (best != null && (best.inFlight() < config.getMaxPipelinedRequests() || pool.size() >= config.getMaxConnections())) {
+                return best;
+            }
+            Connection connection = connect();
+            pool.add(connection);
+            return connection;
+        }
+    }
+
+    private Connection leastLoaded() {
+        Connection best = null;
+        for (Connection connection : pool) {
+            if (connection.isOpen() && (best == null || connection.inFlight() < best.inFlight())) {
+                best = connection;
+            }
+        }
+        return best;
+    }
+
+    private Connection connect() {
+        try {
+            SocketChannel channel = SocketChannel.open();
+            channel.socket().setTcpNoDelay(true);
+            channel.socket().setKeepAlive(true);
+            channel.socket().connect(address, (int) config.getConnectTimeout().toMillis());
+            Connection connection = new Connection(channel);
+            connection.start();
+            return connection;
+        } catch (IOException e) {
+            throw new TransportException("无法连接到 " + address + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void pingIdleConnections() {
+        long idleNanos = config.getKeepAliveInterval().toNanos();
+        long now = System.nanoTime();
+        for (Connection connection : pool) {
+            if (connection.inFlight() == 0 && now - connection.lastWrite >= idleNanos) {
+                connection.send(message(Frames.OP_PING), null)
+                        .orTimeout(config.getRequestTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        .whenComplete((pong, throwable) -> {
+                            if (throwable != null) {
+                                connection.fail(new TransportException("keep-alive failed", throwable));
+                            }
+                        });
+            }
+        }
+    }
+
+    /**
+     * 单个连接：写入在调用线程上加锁完成，读取由专用线程负责并按 id 完成对应的请求
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+        private final Object writeLock = new Object();
+        private volatile long lastWrite = System.nanoTime();
+        private volatile boolean open = true;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        private void start() {
+            Thread reader = new Thread(this::readLoop, "mcp-transport-reader-" + connectionCounter.incrementAndGet());
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        private boolean isOpen() {
+            return open;
+        }
+
+        private int inFlight() {
+            return pending.size();
+        }
+
+        private CompletableFuture<Object> send(Map<String, Object> message, Consumer<Map<String, Object>> events) {
+            long id = ((Number) message.get("id")).longValue();
+            Pending call = new Pending(events);
+            pending.put(id, call);
+            ByteBuffer frame = Frames.encode(config.getCodec(), message);
+            try {
+                synchronized (writeLock) {
+                    while (frame.hasRemaining()) {
+                        channel.write(frame);
+                    }
+                }
+                lastWrite = System.nanoTime();
+            } catch (IOException e) {
+                fail(new TransportException("发送请求失败: " + e.getMessage(), e));
+            }
+            if (!open) {
+                // 连接在登记之后、写入之前关闭时，fail 可能已经错过这个请求
+                pending.remove(id);
+                call.result.completeExceptionally(new TransportException("connection closed"));
+            }
+            return call.result;
+        }
+
+        /**
+         * 为流式调用补充额度；单向帧，服务端不回复
+         */
+        private void grant(long streamId, long credits) {
+            Map<String, Object> message = message(Frames.OP_STREAM_CREDIT);
+            message.put("stream", streamId);
+            message.put("credits", credits);
+            ByteBuffer frame = Frames.encode(config.getCodec(), message);
+            try {
+                synchronized (writeLock) {
+                    while (frame.hasRemaining()) {
+                        channel.write(frame);
+                    }
+                }
+                lastWrite = System.nanoTime();
+            } catch (IOException e) {
+                fail(new TransportException("发送请求失败: " + e.getMessage(), e));
+            }
+        }
+
+        private void readLoop() {
+            ByteBuffer header = ByteBuffer.allocate(Frames.HEADER_SIZE);
+            try {
+                while (open) {
+                    header.clear();
+                    readFully(header);
+                    int length = header.flip().getInt();
+                    if (length < 0 || length > config.getMaxFrameSize()) {
+                        throw new IOException("invalid frame length " + length);
+                    }
+                    ByteBuffer body = ByteBuffer.allocate(length);
+                    readFully(body);
+                    dispatch(Frames.decode(body.flip()));
+                }
+            } catch (IOException | RuntimeException e) {
+                fail(new TransportException("连接已断开: " + e.getMessage(), e));
+            }
+        }
+
+        private void readFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("connection closed by server");
+                }
+            }
+        }
+
+        private void dispatch(Map<String, Object> message) {
+            Object rawId = message.get("id");
+            if (!(rawId instanceof Number id)) {
+                return;
+            }
+            if (message.containsKey("event")) {
+                Pending call = pending.get(id.longValue());
+                if (call != null && call.events != null) {
+                    call.events.accept(JsonMapper.object(message.get("event")));
+                }
+                return;
+            }
+            Pending call = pending.remove(id.longValue());
+            if (call == null) {
+                return;
+            }
+            if (message.containsKey("error")) {
+                Map<String, Object> error = JsonMapper.object(message.get("error"));
+                call.result.completeExceptionally(new TransportException(String.valueOf(error.get("code")),
+                        String.valueOf(error.get("message")), null));
+            } else {
+                call.result.complete(message.get("result"));
+            }
+        }
+
+        private void fail(TransportException cause) {
+            if (!open) {
+                return;
+            }
+            open = false;
+            pool.remove(this);
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // 连接已经不可用
+            }
+            pending.values().forEach(call -> call.result.completeExceptionally(cause));
+            pending.clear();
+        }
+    }
+
+    /**
+     * 包装流式订阅者：订阅者每处理完一个事件计一次消费，累计到半个额度时向服务端补充等量额度
+     */
+    private static final class CreditingSubscriber<T> implements Flow.Subscriber<T> {
+        private final Flow.Subscriber<? super T> delegate;
+        private final LongConsumer grant;
+        private final int batch;
+        private int consumed;
+
+        private CreditingSubscriber(Flow.Subscriber<? super T> delegate, int window, LongConsumer grant) {
+            this.delegate = delegate;
+            this.grant = grant;
+            this.batch = Math.max(1, window / 2);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(T item) {
+            delegate.onNext(item);
+            // 发布者对同一订阅者的回调是串行的
+            if (++consumed == batch) {
+                consumed = 0;
+                grant.accept(batch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            delegate.onComplete();
+        }
+    }
+
+    private static final class Pending {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final Consumer<Map<String, Object>> events;
+
+        private Pending(Consumer<Map<String, Object>> events) {
+            this.events = events;
+        }
+    }
+}
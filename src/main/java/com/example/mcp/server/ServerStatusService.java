@@ -5,6 +5,7 @@ import com.example.mcp.common.protocol.GovernanceReport;
 import com.example.mcp.common.protocol.InvocationAuditRecord;
 import com.example.mcp.framework.api.McpServer;
 import java.time.Instant;
+import java.util.List;
 import java.util.Objects;
 
 public final class ServerStatusService {
@@ -25,12 +26,13 @@ public final class ServerStatusService {
 
     public Message governanceSnapshot() {
         GovernanceReport report = server.governanceReport();
+        List<InvocationAuditRecord> records = report.getRecords();
         StringBuilder builder = new StringBuilder();
         builder.append("最近调用记录：\n");
-        if (report.getRecords().isEmpty()) {
+        if (records.isEmpty()) {
             builder.append("尚无调用，等待客户端触发。");
         } else {
-            for (InvocationAuditRecord record : report.getRecords()) {
+            for (InvocationAuditRecord record : records) {
                 builder.append("- ")
                         .append(record.getTool())
                         .append(" -> ")
@@ -4,9 +4,15 @@ import com.example.mcp.common.Context;
 import com.example.mcp.common.StdResponse;
 import com.example.mcp.common.audio.AudioTranscriptionRequest;
 import com.example.mcp.common.audio.AudioTranscriptionResponse;
+import com.example.mcp.framework.annotation.McpTool;
 import com.example.mcp.framework.api.ToolHandler;
+import com.example.mcp.framework.async.StreamEvent;
+import com.example.mcp.framework.async.StreamingToolHandler;
+import java.util.function.Consumer;
 
-public final class AudioTranscriptionTool implements ToolHandler<AudioTranscriptionRequest, AudioTranscriptionResponse> {
+@McpTool(name = "audio_transcription", displayName = "语音转写", description = "将离线音频样本转写为文本")
+public final class AudioTranscriptionTool implements ToolHandler<AudioTranscriptionRequest, AudioTranscriptionResponse>,
+        StreamingToolHandler<AudioTranscriptionRequest, AudioTranscriptionResponse> {
 
     @Override
     public StdResponse<AudioTranscriptionResponse> handle(Context context, AudioTranscriptionRequest input) {
@@ -14,4 +20,22 @@ public final class AudioTranscriptionTool implements ToolHandler<AudioTranscript
         double confidence = Math.max(0.1, Math.min(0.99, transcript.length() / 20.0));
         return StdResponse.success("audio_transcription", "完成离线转写", new AudioTranscriptionResponse(transcript, confidence));
     }
+
+    @Override
+    public StdResponse<AudioTranscriptionResponse> handleWithStream(Context context, AudioTranscriptionRequest input,
+                                                                   Consumer<StreamEvent> eventConsumer) {
+        String[] segments = input.getAudioSample().split("-");
+        StringBuilder partial = new StringBuilder();
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                partial.append(' ');
+            }
+            partial.append(segments[i]);
+            eventConsumer.accept(new StreamEvent(StreamEvent.Type.PARTIAL_RESULT, "转写片段", partial.toString(),
+                    (i + 1) / (double) segments.length));
+        }
+        StdResponse<AudioTranscriptionResponse> response = handle(context, input);
+        eventConsumer.accept(StreamEvent.complete());
+        return response;
+    }
 }
@@ -4,11 +4,13 @@ import com.example.mcp.common.Context;
 import com.example.mcp.common.StdResponse;
 import com.example.mcp.common.qa.QaRequest;
 import com.example.mcp.common.qa.QaResponse;
+import com.example.mcp.framework.annotation.McpTool;
 import com.example.mcp.framework.api.ToolHandler;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 
+@McpTool(name = "qa", displayName = "知识问答", description = "基于内置知识库返回标准答案", idempotent = true)
 public final class QaTool implements ToolHandler<QaRequest, QaResponse> {
 
     private final Map<String, String> knowledgeBase = new LinkedHashMap<>();
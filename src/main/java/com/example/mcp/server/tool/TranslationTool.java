@@ -4,10 +4,13 @@ import com.example.mcp.common.Context;
 import com.example.mcp.common.StdResponse;
 import com.example.mcp.common.translation.TranslationRequest;
 import com.example.mcp.common.translation.TranslationResponse;
+import com.example.mcp.framework.annotation.McpTool;
 import com.example.mcp.framework.springai.SpringAiTool;
 import com.example.mcp.framework.springai.SpringAiService;
 import org.springframework.ai.tool.annotation.Tool;
 
+@McpTool(name = "translation", displayName = "文本翻译", description = "将文本在中英文之间互译",
+        idempotent = true, cacheTtlSeconds = 600)
 public final class TranslationTool extends SpringAiTool<TranslationRequest, TranslationResponse> {
 
     public TranslationTool(SpringAiService springAiService) {
@@ -4,13 +4,15 @@ import com.example.mcp.common.Context;
 import com.example.mcp.common.StdResponse;
 import com.example.mcp.common.vehicle.VehicleStateRequest;
 import com.example.mcp.common.vehicle.VehicleStateResponse;
+import com.example.mcp.framework.annotation.McpTool;
 import com.example.mcp.framework.api.ToolHandler;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+@McpTool(name = "vehicle_state", displayName = "车控编排", description = "调整车内温度并启动发动机")
 public final class VehicleStateTool implements ToolHandler<VehicleStateRequest, VehicleStateResponse> {
 
-    private final Map<String, VehicleStateResponse> stateStore = new HashMap<>();
+    private final Map<String, VehicleStateResponse> stateStore = new ConcurrentHashMap<>();
 
     @Override
     public StdResponse<VehicleStateResponse> handle(Context context, VehicleStateRequest input) {